@@ -0,0 +1,114 @@
+package com.oneops.infoblox.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.oneops.infoblox.model.ptr.PTR;
+import com.oneops.infoblox.util.IPAddrs;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * IP address validation and PTR reverse map name generation.
+ *
+ * @author Suresh G
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddressBenchmark {
+
+  private static final String IPV4 = "10.247.168.125";
+
+  private static final String IPV6 = "2001:db8:85a3:0:0:8a2e:370:7334";
+
+  private static final String IPV6_COMPRESSED = "2001:db8:85a3::8a2e:370:7334";
+
+  private final long[] ipv6 = new long[2];
+
+  private final char[] name = new char[PTR.IPV6_NAME_LENGTH];
+
+  private InetAddress ipv4Addr;
+  private InetAddress ipv6Addr;
+
+  @Setup
+  public void setUp() throws UnknownHostException {
+    ipv4Addr = InetAddress.getByName(IPV4);
+    ipv6Addr = InetAddress.getByName(IPV6);
+  }
+
+  @Benchmark
+  public boolean isIPv4() {
+    return IPAddrs.isIPv4(IPV4);
+  }
+
+  @Benchmark
+  public boolean isIPv4Invalid() {
+    return IPAddrs.isIPv4("10.247.168.256");
+  }
+
+  @Benchmark
+  public void requireIPv6() {
+    IPAddrs.requireIPv6(IPV6);
+  }
+
+  @Benchmark
+  public boolean isIPv6Compressed() {
+    return IPAddrs.isIPv6(IPV6_COMPRESSED);
+  }
+
+  @Benchmark
+  public int parseIPv4() {
+    return IPAddrs.parseIPv4(IPV4);
+  }
+
+  @Benchmark
+  public long[] parseIPv6() {
+    IPAddrs.parseIPv6(IPV6_COMPRESSED, ipv6);
+    return ipv6;
+  }
+
+  @Benchmark
+  public String formatIPv6() {
+    return IPAddrs.formatIPv6(0x20010db885a30000L, 0x00008a2e03707334L);
+  }
+
+  @Benchmark
+  public String reverseMapNameIPv4() {
+    return PTR.reverseMapName(ipv4Addr);
+  }
+
+  @Benchmark
+  public String reverseMapNameIPv6() {
+    return PTR.reverseMapName(ipv6Addr);
+  }
+
+  @Benchmark
+  public char[] reverseMapNameIPv4Buffer() {
+    PTR.reverseMapName(0x0AF7A87D, name);
+    return name;
+  }
+
+  @Benchmark
+  public char[] reverseMapNameIPv6Buffer() {
+    PTR.reverseMapName(0x20010db885a30000L, 0x00008a2e03707334L, name);
+    return name;
+  }
+
+  @Benchmark
+  public long reverseMapNamesSlash24() {
+    return PTR.reverseMapNames("10.247.168.0/24").count();
+  }
+}
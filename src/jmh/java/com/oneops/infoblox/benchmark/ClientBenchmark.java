@@ -0,0 +1,116 @@
+package com.oneops.infoblox.benchmark;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.model.a.ARec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.List;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end {@link InfobloxClient} calls against an in-process TLS {@link MockWebServer}, covering
+ * the request building, auth, https round trip and response decoding.
+ *
+ * @author Suresh G
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientBenchmark {
+
+  @Param({"1", "100"})
+  public int records;
+
+  private MockWebServer server;
+  private InfobloxClient client;
+
+  @Setup
+  public void setUp() throws IOException {
+    String queryRes = Payloads.aRecs(records);
+    String createRes = Payloads.aRec(1);
+
+    server = new MockWebServer();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest req) {
+            String body = "POST".equals(req.getMethod()) ? createRes : queryRes;
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+          }
+        });
+    server.useHttps(sslContext().getSocketFactory(), false);
+    server.start();
+
+    client =
+        InfobloxClient.builder()
+            .endPoint(server.getHostName() + ":" + server.getPort())
+            .userName("bench")
+            .password("bench")
+            .tlsVerify(false)
+            .build();
+  }
+
+  /** TLS context of the self-signed <b>localhost</b> test certificate. */
+  private static SSLContext sslContext() throws IOException {
+    char[] pass = "changeit".toCharArray();
+    try (InputStream ins = ClientBenchmark.class.getResourceAsStream("/tls/localhost.jks")) {
+      KeyStore keyStore = KeyStore.getInstance("JKS");
+      keyStore.load(ins, pass);
+      KeyManagerFactory kmf =
+          KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+      kmf.init(keyStore, pass);
+      SSLContext sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(kmf.getKeyManagers(), null, null);
+      return sslContext;
+    } catch (GeneralSecurityException ex) {
+      throw new IOException("Can't load the test certificate", ex);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    server.shutdown();
+  }
+
+  @Benchmark
+  public List<ARec> getARec() throws IOException {
+    return client.getARec(Payloads.fqdn(1));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public List<ARec> getARecConcurrent() throws IOException {
+    return client.getARec(Payloads.fqdn(1));
+  }
+
+  @Benchmark
+  public ARec createARec() throws IOException {
+    return client.createARec(Payloads.fqdn(1), Payloads.ipv4(1));
+  }
+}
@@ -0,0 +1,82 @@
+package com.oneops.infoblox.benchmark;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import com.oneops.infoblox.model.Result;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.host.Host;
+import com.oneops.infoblox.model.zone.ZoneDelegate;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Types;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import okio.Buffer;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Moshi decoding of the WAPI query results, from the UTF-8 response bytes.
+ *
+ * @author Suresh G
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+  @Param({"1", "1000", "100000"})
+  public int records;
+
+  private JsonAdapter<Result<List<ARec>>> aRecAdapter;
+  private JsonAdapter<Result<List<Host>>> hostAdapter;
+  private JsonAdapter<Result<List<ZoneDelegate>>> zoneAdapter;
+
+  private ByteString aRecJson;
+  private ByteString hostJson;
+  private ByteString zoneJson;
+
+  @Setup
+  public void setUp() {
+    aRecAdapter = Payloads.MOSHI.adapter(resultOf(ARec.class));
+    hostAdapter = Payloads.MOSHI.adapter(resultOf(Host.class));
+    zoneAdapter = Payloads.MOSHI.adapter(resultOf(ZoneDelegate.class));
+
+    aRecJson = ByteString.encodeUtf8(Payloads.aRecs(records));
+    hostJson = ByteString.encodeUtf8(Payloads.hosts(records));
+    zoneJson = ByteString.encodeUtf8(Payloads.delegatedZones(records));
+  }
+
+  private static Type resultOf(Class<?> recType) {
+    return Types.newParameterizedType(
+        Result.class, Types.newParameterizedType(List.class, recType));
+  }
+
+  @Benchmark
+  public Result<List<ARec>> aRec() throws IOException {
+    return aRecAdapter.fromJson(new Buffer().write(aRecJson));
+  }
+
+  @Benchmark
+  public Result<List<Host>> host() throws IOException {
+    return hostAdapter.fromJson(new Buffer().write(hostJson));
+  }
+
+  @Benchmark
+  public Result<List<ZoneDelegate>> zoneDelegate() throws IOException {
+    return zoneAdapter.fromJson(new Buffer().write(zoneJson));
+  }
+}
@@ -0,0 +1,105 @@
+package com.oneops.infoblox.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.oneops.infoblox.model.a.ARecCreate;
+import com.oneops.infoblox.model.host.HostCreate;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Types;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Moshi encoding of the create request bodies, the typed requests vs the former request maps.
+ *
+ * @author Suresh G
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonEncodeBenchmark {
+
+  private static final List<String> IPV4_ADDRS = Arrays.asList("10.1.1.1", "10.1.1.2", "10.1.1.3");
+
+  private JsonAdapter<Map<String, Object>> mapAdapter;
+  private JsonAdapter<ARecCreate> aRecAdapter;
+  private JsonAdapter<HostCreate> hostAdapter;
+
+  @Setup
+  public void setUp() {
+    mapAdapter =
+        Payloads.MOSHI.adapter(Types.newParameterizedType(Map.class, String.class, Object.class));
+    aRecAdapter = Payloads.MOSHI.adapter(ARecCreate.class);
+    hostAdapter = Payloads.MOSHI.adapter(HostCreate.class);
+  }
+
+  @Benchmark
+  public Buffer aRecMap() throws IOException {
+    Map<String, Object> req = new HashMap<>();
+    req.put("ttl", 300);
+    req.put("use_ttl", true);
+    req.put("name", "a1.oneops.com");
+    req.put("ipv4addr", "10.1.1.1");
+    Buffer buf = new Buffer();
+    mapAdapter.toJson(buf, req);
+    return buf;
+  }
+
+  @Benchmark
+  public Buffer aRecTyped() throws IOException {
+    ARecCreate req =
+        ARecCreate.builder().ttl(300).name("a1.oneops.com").ipv4Addr("10.1.1.1").build();
+    Buffer buf = new Buffer();
+    aRecAdapter.toJson(buf, req);
+    return buf;
+  }
+
+  @Benchmark
+  public Buffer hostMap() throws IOException {
+    Map<String, Object> req = new HashMap<>();
+    req.put("ttl", 300);
+    req.put("use_ttl", true);
+    req.put("name", "host1.oneops.com");
+    req.put(
+        "ipv4addrs",
+        IPV4_ADDRS
+            .stream()
+            .map(
+                s -> {
+                  Map<String, String> map = new HashMap<>(1);
+                  map.put("ipv4addr", s);
+                  return map;
+                })
+            .collect(Collectors.toList()));
+    Buffer buf = new Buffer();
+    mapAdapter.toJson(buf, req);
+    return buf;
+  }
+
+  @Benchmark
+  public Buffer hostTyped() throws IOException {
+    HostCreate req =
+        HostCreate.builder().ttl(300).name("host1.oneops.com").ipv4AddrList(IPV4_ADDRS).build();
+    Buffer buf = new Buffer();
+    hostAdapter.toJson(buf, req);
+    return buf;
+  }
+}
@@ -0,0 +1,118 @@
+package com.oneops.infoblox.benchmark;
+
+import com.oneops.infoblox.model.JsonAdapterFactory;
+import com.oneops.infoblox.model.ref.RefObject;
+import com.squareup.moshi.Moshi;
+
+/**
+ * Synthetic WAPI response payloads used by the benchmarks.
+ *
+ * @author Suresh G
+ */
+final class Payloads {
+
+  /** Same adapters as the one used by the client. */
+  static final Moshi MOSHI =
+      new Moshi.Builder().add(JsonAdapterFactory.create()).add(new RefObject.JsonAdapter()).build();
+
+  static final String DOMAIN = "bench.oneops.com";
+
+  private Payloads() {}
+
+  static String fqdn(int i) {
+    return "host-" + i + "." + DOMAIN;
+  }
+
+  static String ipv4(int i) {
+    return "10." + ((i >> 16) & 0xFF) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+  }
+
+  /** Returns a record:a query result with the given number of records. */
+  static String aRecs(int count) {
+    StringBuilder buf = new StringBuilder(count * 160).append("{\"result\": [");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        buf.append(',');
+      }
+      aRec(buf, i);
+    }
+    return buf.append("]}").toString();
+  }
+
+  /** Returns a record:a create result. */
+  static String aRec(int i) {
+    return aRec(new StringBuilder("{\"result\": "), i).append('}').toString();
+  }
+
+  private static StringBuilder aRec(StringBuilder buf, int i) {
+    return buf.append("{\"_ref\": \"record:a/ZG5zLmJpbmRfYSQuX2RlZmF1bHQuY29tLm9uZW9wcyxob3N0LT")
+        .append(i)
+        .append(':')
+        .append(fqdn(i))
+        .append("/default\", \"ipv4addr\": \"")
+        .append(ipv4(i))
+        .append("\", \"name\": \"")
+        .append(fqdn(i))
+        .append("\", \"view\": \"default\", \"ttl\": 300}");
+  }
+
+  /** Returns a record:host query result with the given number of records. */
+  static String hosts(int count) {
+    StringBuilder buf = new StringBuilder(count * 400).append("{\"result\": [");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        buf.append(',');
+      }
+      buf.append("{\"_ref\": \"record:host/ZG5zLmhvc3QkLl9kZWZhdWx0LmNvbS5vbmVvcHMsaG9zdC0")
+          .append(i)
+          .append(':')
+          .append(fqdn(i))
+          .append("/default\", \"ipv4addrs\": [{\"_ref\": \"record:host_ipv4addr/ZG5zLmhvc3RfYWRk")
+          .append(i)
+          .append(':')
+          .append(ipv4(i))
+          .append('/')
+          .append(fqdn(i))
+          .append("/default\", \"configure_for_dhcp\": false, \"host\": \"")
+          .append(fqdn(i))
+          .append("\", \"ipv4addr\": \"")
+          .append(ipv4(i))
+          .append("\"}], \"aliases\": [\"alias-")
+          .append(i)
+          .append('.')
+          .append(DOMAIN)
+          .append("\"], \"name\": \"")
+          .append(fqdn(i))
+          .append("\", \"view\": \"default\", \"ttl\": 300}");
+    }
+    return buf.append("]}").toString();
+  }
+
+  /** Returns a zone_delegated query result with the given number of records. */
+  static String delegatedZones(int count) {
+    StringBuilder buf = new StringBuilder(count * 300).append("{\"result\": [");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        buf.append(',');
+      }
+      buf.append("{\"_ref\": \"zone_delegated/ZG5zLnpvbmUkLl9kZWZhdWx0LmNvbS5vbmVvcHMuem9uZS0")
+          .append(i)
+          .append(":zone-")
+          .append(i)
+          .append('.')
+          .append(DOMAIN)
+          .append("/default\", \"delegate_to\": [{\"address\": \"")
+          .append(ipv4(i))
+          .append("\", \"name\": \"ns1.zone-")
+          .append(i)
+          .append('.')
+          .append(DOMAIN)
+          .append("\"}], \"delegated_ttl\": 3600, \"fqdn\": \"zone-")
+          .append(i)
+          .append('.')
+          .append(DOMAIN)
+          .append("\", \"locked\": false, \"view\": \"default\"}");
+    }
+    return buf.append("]}").toString();
+  }
+}
@@ -0,0 +1,80 @@
+package com.oneops.infoblox.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.oneops.infoblox.model.ref.Ref;
+import java.util.Collection;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * WAPI object reference parsing. The <b>parse*</b> benchmarks include the {@link Ref} creation, as
+ * done for every decoded record.
+ *
+ * @author Suresh G
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefBenchmark {
+
+  private static final String REF_VALUE =
+      "record:host/ZG5zLmhvc3QkLl9kZWZhdWx0LmNvbS5vbmVvcHM:*.host-1.bench.oneops.com/default";
+
+  private Ref ref;
+
+  private Predicate<Ref> fqdnMatcher;
+
+  @Setup
+  public void setUp() {
+    ref = Ref.of(REF_VALUE);
+    fqdnMatcher = Ref.fqdnMatcher("*.host-1.bench.oneops.com");
+  }
+
+  @Benchmark
+  public String wapiType() {
+    return ref.wapiType();
+  }
+
+  @Benchmark
+  public String refData() {
+    return ref.refData();
+  }
+
+  @Benchmark
+  public Collection<String> names() {
+    return ref.names();
+  }
+
+  @Benchmark
+  public boolean hasFqdn() {
+    return ref.hasFqdn("*.host-1.bench.oneops.com");
+  }
+
+  @Benchmark
+  public boolean fqdnMatcher() {
+    return fqdnMatcher.test(ref);
+  }
+
+  @Benchmark
+  public String parseWapiType() {
+    return Ref.of(REF_VALUE).wapiType();
+  }
+
+  @Benchmark
+  public Collection<String> parseNames() {
+    return Ref.of(REF_VALUE).names();
+  }
+}
@@ -0,0 +1,915 @@
+package com.oneops.infoblox;
+
+import static com.oneops.infoblox.model.SearchModifier.CASE_INSENSITIVE;
+import static com.oneops.infoblox.util.IPAddrs.requireIPv4;
+import static com.oneops.infoblox.util.IPAddrs.requireIPv6;
+import static java.util.Objects.requireNonNull;
+
+import com.oneops.infoblox.cache.RecordCache;
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.Result;
+import com.oneops.infoblox.model.SearchModifier;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.a.ARecCreate;
+import com.oneops.infoblox.model.aaaa.AAAA;
+import com.oneops.infoblox.model.aaaa.AAAACreate;
+import com.oneops.infoblox.model.cname.CNAME;
+import com.oneops.infoblox.model.cname.CNAMECreate;
+import com.oneops.infoblox.model.host.Host;
+import com.oneops.infoblox.model.host.HostCreate;
+import com.oneops.infoblox.model.mx.MX;
+import com.oneops.infoblox.model.mx.MXCreate;
+import com.oneops.infoblox.model.ptr.PTR;
+import com.oneops.infoblox.model.ref.Ref;
+import com.oneops.infoblox.model.ttl.TTLModify;
+import com.oneops.infoblox.model.ttl.TTLRec;
+import com.oneops.infoblox.model.txt.TXT;
+import com.oneops.infoblox.model.txt.TXTCreate;
+import com.oneops.infoblox.model.zone.ZoneAuth;
+import com.oneops.infoblox.model.zone.ZoneDelegate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Call;
+
+/**
+ * Non-blocking view of {@link InfobloxClient}, obtained using {@link InfobloxClient#async()}. All
+ * the methods mirror the blocking client API, but return a {@link CompletableFuture} which is
+ * completed from the OkHttp dispatcher once the WAPI response is received. A failed WAPI call
+ * completes the future exceptionally with {@link InfobloxException}.
+ *
+ * <p>The record queries go through the client {@link InfobloxClient#cache()} if it's configured,
+ * same as the blocking client, and the multi-record writes evict the cached queries of the name
+ * before looking up the records.
+ *
+ * <p>Note: The number of in-flight requests is bounded by the OkHttp dispatcher limits. The writes
+ * of the multi-record operations (eg: deleting all the records of a name) are also bounded by the
+ * client {@link InfobloxClient#parallelism()}.
+ *
+ * @author Suresh G
+ */
+public final class AsyncInfobloxClient {
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final InfobloxClient client;
+
+  AsyncInfobloxClient(InfobloxClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Queries the records of given type, through the record cache if it's configured. Same as the
+   * blocking client, the result is not cached if a write invalidates the cache while it's queried.
+   */
+  private <T extends Record> CompletableFuture<List<T>> query(
+      WapiType<T> type,
+      Map<String, String> options,
+      Function<Map<String, String>, Call<Result<List<T>>>> query) {
+    RecordCache cache = client.cache().orElse(null);
+    if (cache == null) {
+      return exec(query.apply(options));
+    }
+    String scope = client.cacheScope();
+    List<T> recs = cache.get(scope, type, options);
+    if (recs != null) {
+      return CompletableFuture.completedFuture(recs);
+    }
+    long generation = cache.generation();
+    CompletableFuture<List<T>> future = exec(query.apply(options));
+    future.thenAccept(res -> cache.put(scope, type, options, res, generation));
+    return future;
+  }
+
+  /**
+   * Executes the call asynchronously and unwraps the WAPI result. Cancelling the returned future
+   * cancels the http call as well.
+   */
+  private <T> CompletableFuture<T> exec(Call<Result<T>> call) {
+    CompletableFuture<Result<T>> res = client.execAsync(call);
+    CompletableFuture<T> future = res.thenApply(Result::result);
+    future.whenComplete(
+        (r, err) -> {
+          if (err instanceof CancellationException) {
+            res.cancel(true);
+          }
+        });
+    return future;
+  }
+
+  private Infoblox infoblox() {
+    return client.infoblox();
+  }
+
+  private String wapiVersion() {
+    return client.wapiVersion();
+  }
+
+  /** References of the records. */
+  private static List<Ref> refs(List<? extends Record> recs) {
+    return recs.stream().map(Record::ref).collect(Collectors.toList());
+  }
+
+  /**
+   * Applies the modify call to all the records returned by the given query future, with at most
+   * {@link InfobloxClient#parallelism()} writes in flight.
+   */
+  private <T extends Record> CompletableFuture<List<T>> modifyAll(
+      CompletableFuture<List<T>> query, Function<Ref, Call<Result<T>>> modifyCall) {
+    return query
+        .thenCompose(recs -> client.execAllAsync(refs(recs), modifyCall))
+        .thenApply(res -> res.stream().map(Result::result).collect(Collectors.toList()));
+  }
+
+  /**
+   * Deletes all the records returned by the given query future, with at most {@link
+   * InfobloxClient#parallelism()} deletes in flight.
+   */
+  private <T extends Record> CompletableFuture<List<String>> deleteAll(
+      CompletableFuture<List<T>> query) {
+    return query
+        .thenCompose(
+            recs ->
+                client.execAllAsync(
+                    refs(recs),
+                    ref -> {
+                      log.warn("Deleting a dns record: " + ref.value());
+                      return infoblox().deleteRef(wapiVersion(), ref.value());
+                    }))
+        .thenApply(res -> res.stream().map(Result::result).collect(Collectors.toList()));
+  }
+
+  /** Creates a single entry modify request map. */
+  private static Map<String, String> modifyReq(String field, String value) {
+    Map<String, String> req = new HashMap<>(1);
+    req.put(field, value);
+    return req;
+  }
+
+  // --------<Auth Zone Record>--------
+
+  /**
+   * Fetch all Authoritative Zones.
+   *
+   * @return future of {@link ZoneAuth} list.
+   */
+  public CompletableFuture<List<ZoneAuth>> getAuthZones() {
+    return exec(infoblox().queryAuthZones(wapiVersion()));
+  }
+
+  /**
+   * Search all authoritative zones for the given domain name.
+   *
+   * @param domainName fqdn.
+   * @return future of {@link ZoneAuth} list.
+   */
+  public CompletableFuture<List<ZoneAuth>> getAuthZones(String domainName) {
+    requireNonNull(domainName, "Domain name is null");
+    Map<String, String> options = new HashMap<>(1);
+    options.put("fqdn", domainName);
+    return exec(infoblox().queryAuthZone(wapiVersion(), options));
+  }
+
+  // --------<Delegated Zone Record>--------
+
+  /**
+   * Search all delegated zones for the given domain name.
+   *
+   * @param domainName fqdn.
+   * @return future of {@link ZoneDelegate} list.
+   */
+  public CompletableFuture<List<ZoneDelegate>> getDelegatedZones(String domainName) {
+    requireNonNull(domainName, "Domain name is null");
+    Map<String, Object> options = new HashMap<>(1);
+    options.put("fqdn", domainName);
+    return exec(infoblox().queryDelegatedZone(wapiVersion(), options));
+  }
+
+  // --------<Host Record>--------
+
+  /**
+   * Get host information for the given domain name and search option.
+   *
+   * @param domainName fqdn
+   * @param modifier search modifier
+   * @return future of matching {@link Host} list.
+   */
+  public CompletableFuture<List<Host>> getHostRec(String domainName, SearchModifier modifier) {
+    requireNonNull(domainName, "Domain name is null");
+    Map<String, String> options = new HashMap<>(1);
+    options.put("name" + modifier.getValue(), domainName);
+    return query(WapiType.HOST, options, opts -> infoblox().queryHostRec(wapiVersion(), opts));
+  }
+
+  /**
+   * Get host information for the given domain name.
+   *
+   * @param domainName fqdn
+   * @return future of matching {@link Host} list.
+   */
+  public CompletableFuture<List<Host>> getHostRec(String domainName) {
+    return getHostRec(domainName, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Creates IBA host record.
+   *
+   * @param domainName hostname in fqdn.
+   * @param ipv4Addrs IPv4 address(s)
+   * @return future of {@link Host} containing IPv4 addresses for the hostname.
+   */
+  public CompletableFuture<Host> createHostRec(String domainName, List<String> ipv4Addrs) {
+    requireNonNull(domainName, "Domain name is null");
+    requireNonNull(ipv4Addrs, "IPv4Address list is null");
+    HostCreate req =
+        HostCreate.builder().ttl(client.ttl()).name(domainName).ipv4AddrList(ipv4Addrs).build();
+    return exec(infoblox().createHostRec(wapiVersion(), req));
+  }
+
+  /**
+   * Deletes IBA host record with given domain name.
+   *
+   * @param domainName fqdn for the host record.
+   * @return future of deleted host references.
+   */
+  public CompletableFuture<List<String>> deleteHostRec(String domainName) {
+    client.evict(WapiType.HOST, domainName);
+    return deleteAll(getHostRec(domainName));
+  }
+
+  // --------<A Record>--------
+
+  /**
+   * Get address records (A Record) for the given domain name and search option.
+   *
+   * @param domainName fqdn
+   * @param modifier search modifier
+   * @return future of matching {@link ARec} list.
+   */
+  public CompletableFuture<List<ARec>> getARec(String domainName, SearchModifier modifier) {
+    requireNonNull(domainName, "Domain name is null");
+    return getARec(domainName, null, modifier);
+  }
+
+  /**
+   * Get address records (A Record) for the given domain name.
+   *
+   * @param domainName fqdn
+   * @return future of matching {@link ARec} list.
+   */
+  public CompletableFuture<List<ARec>> getARec(String domainName) {
+    return getARec(domainName, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Get address records (A Record) with given IPV4 address.
+   *
+   * @param ipv4Address IPv4 address
+   * @return future of matching {@link ARec} list.
+   */
+  public CompletableFuture<List<ARec>> getARecByIP(String ipv4Address) {
+    requireIPv4(ipv4Address);
+    return getARec(null, ipv4Address, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Get address record (A Record) for the given domain name and IPv4 address.
+   *
+   * @param domainName fqdn
+   * @param ipv4Address IPv4 address
+   * @return future of matching {@link ARec} list.
+   */
+  public CompletableFuture<List<ARec>> getARec(String domainName, String ipv4Address) {
+    requireNonNull(domainName, "Domain name is null");
+    requireIPv4(ipv4Address);
+    return getARec(domainName, ipv4Address, CASE_INSENSITIVE);
+  }
+
+  private CompletableFuture<List<ARec>> getARec(
+      @Nullable String domainName, @Nullable String ipv4Address, SearchModifier modifier) {
+    Map<String, String> options = new HashMap<>(2);
+    if (domainName != null) {
+      options.put("name" + modifier.getValue(), domainName);
+    }
+    if (ipv4Address != null) {
+      options.put("ipv4addr", ipv4Address);
+    }
+    return query(WapiType.A, options, opts -> infoblox().queryARec(wapiVersion(), opts));
+  }
+
+  /**
+   * Creates an address record (A Record)
+   *
+   * @param domainName FQDN
+   * @param ipv4Address IPv4 address
+   * @return future of {@link ARec} address record.
+   */
+  public CompletableFuture<ARec> createARec(String domainName, String ipv4Address) {
+    requireNonNull(domainName, "Domain name is null");
+    requireIPv4(ipv4Address);
+    ARecCreate req =
+        ARecCreate.builder().ttl(client.ttl()).name(domainName).ipv4Addr(ipv4Address).build();
+    return exec(infoblox().createARec(wapiVersion(), req));
+  }
+
+  /**
+   * Deletes address record with given domain name.
+   *
+   * @param domainName fqdn for the A record.
+   * @return future of A record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteARec(String domainName) {
+    client.evict(WapiType.A, domainName);
+    return deleteAll(getARec(domainName));
+  }
+
+  /**
+   * Deletes an address record (A Record) with given domain name and IPv4 address.
+   *
+   * @param domainName fqdn for the A record.
+   * @param ipv4Address IPv4 address
+   * @return future of A record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteARec(String domainName, String ipv4Address) {
+    client.evict(WapiType.A, domainName);
+    return deleteAll(getARec(domainName, ipv4Address));
+  }
+
+  /**
+   * Modify the domain name of A record with given name.
+   *
+   * @param domainName fqdn for the A record.
+   * @param newDomainName new fqdn.
+   * @return future of modified {@link ARec} list.
+   */
+  public CompletableFuture<List<ARec>> modifyARec(String domainName, String newDomainName) {
+    client.evict(WapiType.A, domainName);
+    Map<String, String> req = modifyReq("name", newDomainName);
+    return modifyAll(
+        getARec(domainName), ref -> infoblox().modifyARec(wapiVersion(), ref.value(), req));
+  }
+
+  /**
+   * Modify the IPv4 address of A record with given domain name.
+   *
+   * @param domainName fqdn for the A record.
+   * @param ipv4Address existing IPv4 address.
+   * @param newIPv4Address new IPv4 address.
+   * @return future of modified {@link ARec} list.
+   */
+  public CompletableFuture<List<ARec>> modifyARec(
+      String domainName, String ipv4Address, String newIPv4Address) {
+    client.evict(WapiType.A, domainName);
+    Map<String, String> req = modifyReq("ipv4addr", newIPv4Address);
+    return modifyAll(
+        getARec(domainName, ipv4Address),
+        ref -> infoblox().modifyARec(wapiVersion(), ref.value(), req));
+  }
+
+  // --------<AAAA Record>--------
+
+  /**
+   * Get IPv6 address records (AAAA) for the given domain name and search option.
+   *
+   * @param domainName fqdn
+   * @param modifier search modifier
+   * @return future of matching {@link AAAA} list.
+   */
+  public CompletableFuture<List<AAAA>> getAAAARec(String domainName, SearchModifier modifier) {
+    requireNonNull(domainName, "Domain name is null");
+    return getAAAARec(domainName, null, modifier);
+  }
+
+  /**
+   * Get IPv6 address records (AAAA) for the given domain name.
+   *
+   * @param domainName fqdn
+   * @return future of matching {@link AAAA} list.
+   */
+  public CompletableFuture<List<AAAA>> getAAAARec(String domainName) {
+    return getAAAARec(domainName, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Get AAAA records for the given domain name and ipv6Address.
+   *
+   * @param domainName fqdn
+   * @param ipv6Address IPv6 address
+   * @return future of matching {@link AAAA} list.
+   */
+  public CompletableFuture<List<AAAA>> getAAAARec(String domainName, String ipv6Address) {
+    requireNonNull(domainName, "Domain name is null");
+    requireIPv6(ipv6Address);
+    return getAAAARec(domainName, ipv6Address, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Get quadA records with given IPv6 address.
+   *
+   * @param ipv6Address IPv6 address
+   * @return future of matching {@link AAAA} list.
+   */
+  public CompletableFuture<List<AAAA>> getAAAARecByIP(String ipv6Address) {
+    requireIPv6(ipv6Address);
+    return getAAAARec(null, ipv6Address, CASE_INSENSITIVE);
+  }
+
+  private CompletableFuture<List<AAAA>> getAAAARec(
+      @Nullable String domainName, @Nullable String ipv6Address, SearchModifier modifier) {
+    Map<String, String> options = new HashMap<>(2);
+    if (domainName != null) {
+      options.put("name" + modifier.getValue(), domainName);
+    }
+    if (ipv6Address != null) {
+      options.put("ipv6addr", ipv6Address);
+    }
+    return query(WapiType.AAAA, options, opts -> infoblox().queryAAAARec(wapiVersion(), opts));
+  }
+
+  /**
+   * Creates an IPv6 address record (AAAA Record)
+   *
+   * @param domainName fqdn
+   * @param ipv6Address IPv6 address
+   * @return future of {@link AAAA} address record.
+   */
+  public CompletableFuture<AAAA> createAAAARec(String domainName, String ipv6Address) {
+    requireNonNull(domainName, "Domain name is null");
+    requireIPv6(ipv6Address);
+    AAAACreate req =
+        AAAACreate.builder().ttl(client.ttl()).name(domainName).ipv6Addr(ipv6Address).build();
+    return exec(infoblox().createAAAARec(wapiVersion(), req));
+  }
+
+  /**
+   * Deletes IPv6 address record with given domain name.
+   *
+   * @param domainName fqdn for the AAAA record.
+   * @return future of AAAA record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteAAAARec(String domainName) {
+    client.evict(WapiType.AAAA, domainName);
+    return deleteAll(getAAAARec(domainName));
+  }
+
+  /**
+   * Deletes AAAA record with given domain name and ipv6Address.
+   *
+   * @param domainName fqdn for the AAAA record.
+   * @param ipv6Address IPv6Address
+   * @return future of AAAA record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteAAAARec(String domainName, String ipv6Address) {
+    client.evict(WapiType.AAAA, domainName);
+    return deleteAll(getAAAARec(domainName, ipv6Address));
+  }
+
+  /**
+   * Modify the domain name of AAAA record with given name.
+   *
+   * @param domainName fqdn for the AAAA record.
+   * @param newDomainName new fqdn.
+   * @return future of modified {@link AAAA} list.
+   */
+  public CompletableFuture<List<AAAA>> modifyAAAARec(String domainName, String newDomainName) {
+    client.evict(WapiType.AAAA, domainName);
+    Map<String, String> req = modifyReq("name", newDomainName);
+    return modifyAll(
+        getAAAARec(domainName), ref -> infoblox().modifyAAAARec(wapiVersion(), ref.value(), req));
+  }
+
+  /**
+   * Modify the IPv6 address of AAAA record with given domain name.
+   *
+   * @param domainName fqdn for the AAAA record.
+   * @param ipv6Address existing IPv6 address.
+   * @param newIPv6Address new IPv6 address.
+   * @return future of modified {@link AAAA} list.
+   */
+  public CompletableFuture<List<AAAA>> modifyAAAARec(
+      String domainName, String ipv6Address, String newIPv6Address) {
+    client.evict(WapiType.AAAA, domainName);
+    Map<String, String> req = modifyReq("ipv6addr", newIPv6Address);
+    return modifyAll(
+        getAAAARec(domainName, ipv6Address),
+        ref -> infoblox().modifyAAAARec(wapiVersion(), ref.value(), req));
+  }
+
+  // --------<CNAME Record>--------
+
+  /**
+   * Get canonical records (CNAME) for the given alias name and search option.
+   *
+   * @param aliasName fqdn
+   * @param modifier search modifier
+   * @return future of matching {@link CNAME} list.
+   */
+  public CompletableFuture<List<CNAME>> getCNameRec(String aliasName, SearchModifier modifier) {
+    requireNonNull(aliasName, "Alias name is null");
+    return getCNameRec(aliasName, null, modifier);
+  }
+
+  /**
+   * Get canonical records (CNAME) for the given alias name. The search is done in case insensitive
+   * way.
+   *
+   * @param aliasName fqdn
+   * @return future of matching {@link CNAME} list.
+   */
+  public CompletableFuture<List<CNAME>> getCNameRec(String aliasName) {
+    return getCNameRec(aliasName, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Get canonical records (CNAME) for the given alias name and canonical name.
+   *
+   * @param aliasName fqdn
+   * @param canonicalName Canonical (true/actual) domain name.
+   * @return future of matching {@link CNAME} list.
+   */
+  public CompletableFuture<List<CNAME>> getCNameRec(String aliasName, String canonicalName) {
+    requireNonNull(aliasName, "Alias name is null");
+    requireNonNull(canonicalName, "Canonical name is null");
+    return getCNameRec(aliasName, canonicalName, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Query all CNAME records with given canonical names. The search is done in case insensitive way.
+   *
+   * @param canonicalName canonical name.
+   * @return future of matching {@link CNAME} list.
+   */
+  public CompletableFuture<List<CNAME>> getCNameCanonicalRec(String canonicalName) {
+    requireNonNull(canonicalName, "Canonical name is null");
+    return getCNameRec(null, canonicalName, CASE_INSENSITIVE);
+  }
+
+  private CompletableFuture<List<CNAME>> getCNameRec(
+      @Nullable String aliasName, @Nullable String canonicalName, SearchModifier modifier) {
+    Map<String, String> options = new HashMap<>(2);
+    if (aliasName != null) {
+      options.put("name" + modifier.getValue(), aliasName);
+    }
+    if (canonicalName != null) {
+      options.put("canonical" + modifier.getValue(), canonicalName);
+    }
+    return query(WapiType.CNAME, options, opts -> infoblox().queryCNAMERec(wapiVersion(), opts));
+  }
+
+  /**
+   * Creates a canonical record (CNAME Record).
+   *
+   * @param aliasName alias domain name
+   * @param canonicalName Canonical (true/actual) domain name.
+   * @return future of {@link CNAME} record.
+   */
+  public CompletableFuture<CNAME> createCNameRec(String aliasName, String canonicalName) {
+    requireNonNull(aliasName, "Alias name is null");
+    requireNonNull(canonicalName, "Canonical name is null");
+    CNAMECreate req =
+        CNAMECreate.builder().ttl(client.ttl()).name(aliasName).canonical(canonicalName).build();
+    return exec(infoblox().createCNAMERec(wapiVersion(), req));
+  }
+
+  /**
+   * Deletes canonical record with given alias name and it's associated canonicalName.
+   *
+   * @param aliasName alias name to be deleted.
+   * @param canonicalName Canonical (true/actual) domain name.
+   * @return future of CNAME record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteCNameRec(String aliasName, String canonicalName) {
+    client.evict(WapiType.CNAME, aliasName);
+    return deleteAll(getCNameRec(aliasName, canonicalName));
+  }
+
+  /**
+   * Deletes canonical record with given alias name.
+   *
+   * @param aliasName alias name to be deleted.
+   * @return future of CNAME record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteCNameRec(String aliasName) {
+    client.evict(WapiType.CNAME, aliasName);
+    return deleteAll(getCNameRec(aliasName));
+  }
+
+  /**
+   * Modify alias name of the CNAME record with new name.
+   *
+   * @param aliasName alias name.
+   * @param newAliasName new fqdn.
+   * @return future of modified {@link CNAME} list.
+   */
+  public CompletableFuture<List<CNAME>> modifyCNameRec(String aliasName, String newAliasName) {
+    client.evict(WapiType.CNAME, aliasName);
+    Map<String, String> req = modifyReq("name", newAliasName);
+    return modifyAll(
+        getCNameRec(aliasName), ref -> infoblox().modifyCNAMERec(wapiVersion(), ref.value(), req));
+  }
+
+  /**
+   * Modify canonical name of the CNAME record with new name.
+   *
+   * @param aliasName alias name.
+   * @param newCanonicalName new canonical name.
+   * @return future of modified {@link CNAME} list.
+   */
+  public CompletableFuture<List<CNAME>> modifyCNameCanonicalRec(
+      String aliasName, String newCanonicalName) {
+    client.evict(WapiType.CNAME, aliasName);
+    Map<String, String> req = modifyReq("canonical", newCanonicalName);
+    return modifyAll(
+        getCNameRec(aliasName), ref -> infoblox().modifyCNAMERec(wapiVersion(), ref.value(), req));
+  }
+
+  // --------<MX Record>--------
+
+  /**
+   * Get mail exchange (MX) record for the given domain name and search option.
+   *
+   * @param domainName fqdn
+   * @param modifier search modifier
+   * @return future of matching {@link MX} list.
+   */
+  public CompletableFuture<List<MX>> getMXRec(String domainName, SearchModifier modifier) {
+    requireNonNull(domainName, "Domain name is null");
+    Map<String, String> options = new HashMap<>(1);
+    options.put("name" + modifier.getValue(), domainName);
+    return query(WapiType.MX, options, opts -> infoblox().queryMXRec(wapiVersion(), opts));
+  }
+
+  /**
+   * Get mail exchange (MX) record for the given domain name.
+   *
+   * @param domainName fqdn
+   * @return future of matching {@link MX} list.
+   */
+  public CompletableFuture<List<MX>> getMXRec(String domainName) {
+    return getMXRec(domainName, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Get mail exchange (MX) records for the given domain name and mail exchanger.
+   *
+   * @param domainName fqdn
+   * @param mailExchanger mail server host.
+   * @return future of matching {@link MX} list.
+   */
+  public CompletableFuture<List<MX>> getMXRec(String domainName, String mailExchanger) {
+    requireNonNull(domainName, "Domain name is null");
+    requireNonNull(mailExchanger, "MailExchanger is null");
+    Map<String, String> options = new HashMap<>(2);
+    options.put("name" + CASE_INSENSITIVE.getValue(), domainName);
+    options.put("mail_exchanger", mailExchanger);
+    return query(WapiType.MX, options, opts -> infoblox().queryMXRec(wapiVersion(), opts));
+  }
+
+  /**
+   * Creates mail exchange (MX) record for a domain name.
+   *
+   * @param domainName domain name.
+   * @param mailExchanger mail server host.
+   * @param preference mail delivery priority, smaller distances are more preferable.
+   * @return future of {@link MX} record.
+   */
+  public CompletableFuture<MX> createMXRec(
+      String domainName, String mailExchanger, int preference) {
+    requireNonNull(domainName, "Domain name is null");
+    requireNonNull(mailExchanger, "MailExchanger is null");
+    MXCreate req =
+        MXCreate.builder()
+            .ttl(client.ttl())
+            .name(domainName)
+            .mailExchanger(mailExchanger)
+            .preference(preference)
+            .build();
+    return exec(infoblox().createMXRec(wapiVersion(), req));
+  }
+
+  /**
+   * Deletes MX record for a domain name.
+   *
+   * @param domainName fqdn.
+   * @return future of MX record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteMXRec(String domainName) {
+    client.evict(WapiType.MX, domainName);
+    return deleteAll(getMXRec(domainName));
+  }
+
+  /**
+   * Deletes MX record for a domain name and mail exchanger.
+   *
+   * @param domainName fqdn.
+   * @param mailExchanger mail server host.
+   * @return future of MX record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteMXRec(String domainName, String mailExchanger) {
+    client.evict(WapiType.MX, domainName);
+    return deleteAll(getMXRec(domainName, mailExchanger));
+  }
+
+  /**
+   * Modify the MX record domain name.
+   *
+   * @param domainName mx domain name.
+   * @param newDomainName new domain name.
+   * @return future of modified {@link MX} list.
+   */
+  public CompletableFuture<List<MX>> modifyMXRec(String domainName, String newDomainName) {
+    client.evict(WapiType.MX, domainName);
+    Map<String, String> req = modifyReq("name", newDomainName);
+    return modifyAll(
+        getMXRec(domainName), ref -> infoblox().modifyMXRec(wapiVersion(), ref.value(), req));
+  }
+
+  // --------<PTR Record>--------
+
+  /**
+   * Get pointer records (PTR) for the given IP Address.
+   *
+   * @param ipAddress IPv4/v6 address
+   * @return future of matching {@link PTR} list.
+   */
+  public CompletableFuture<List<PTR>> getPTRRec(String ipAddress) {
+    requireNonNull(ipAddress, "IPAddress is null");
+    String addrType = InfobloxClient.ptrAddrType(ipAddress);
+    Map<String, String> options = new HashMap<>(1);
+    options.put(addrType, ipAddress);
+    return query(WapiType.PTR, options, opts -> infoblox().queryPTRRec(wapiVersion(), opts));
+  }
+
+  /**
+   * Get pointer (PTR) records for the given domain name.
+   *
+   * @param ptrdname pointer domain name.
+   * @return future of matching {@link PTR} list.
+   */
+  public CompletableFuture<List<PTR>> getPTRDRec(String ptrdname) {
+    requireNonNull(ptrdname, "Pointer domain name is null");
+    Map<String, String> options = new HashMap<>(1);
+    options.put("ptrdname" + CASE_INSENSITIVE.getValue(), ptrdname);
+    return query(WapiType.PTR, options, opts -> infoblox().queryPTRRec(wapiVersion(), opts));
+  }
+
+  /**
+   * Creates pointer (PTR) record for the IP address and domain name.
+   *
+   * @param ipAddress IPv4/v6 address
+   * @param ptrdname pointer domain name
+   * @return future of {@link PTR} record.
+   */
+  public CompletableFuture<PTR> createPTRRec(String ipAddress, String ptrdname) {
+    requireNonNull(ptrdname, "Pointer domain name is null");
+    requireNonNull(ipAddress, "IPAddress is null");
+    return exec(infoblox().createPTRRec(wapiVersion(), client.newPTRReq(ipAddress, ptrdname)));
+  }
+
+  /**
+   * Modify the PTR domain name of the given IPv4/v6 address.
+   *
+   * @param ipAddress IPv4/v6 address
+   * @param newPtrdname new pointer domain name
+   * @return future of modified {@link PTR} list.
+   */
+  public CompletableFuture<List<PTR>> modifyPTRRec(String ipAddress, String newPtrdname) {
+    client.evict(WapiType.PTR, ipAddress);
+    Map<String, String> req = modifyReq("ptrdname", newPtrdname);
+    return modifyAll(
+        getPTRRec(ipAddress), ref -> infoblox().modifyPTRRec(wapiVersion(), ref.value(), req));
+  }
+
+  /**
+   * Deletes PTR records for the given IP address.
+   *
+   * @param ipAddress IPv4/v6 address
+   * @return future of PTR record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deletePTRRec(String ipAddress) {
+    client.evict(WapiType.PTR, ipAddress);
+    return deleteAll(getPTRRec(ipAddress));
+  }
+
+  /**
+   * Deletes PTR records for the given domain name.
+   *
+   * @param ptrdname pointer domain name
+   * @return future of PTR record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deletePTRDRec(String ptrdname) {
+    client.evict(WapiType.PTR, ptrdname);
+    return deleteAll(getPTRDRec(ptrdname));
+  }
+
+  // --------<TXT Record>--------
+
+  /**
+   * Get text (TXT) record for the given domain name and search option.
+   *
+   * @param domainName fqdn
+   * @param modifier search modifier
+   * @return future of matching {@link TXT} list.
+   */
+  public CompletableFuture<List<TXT>> getTXTRec(String domainName, SearchModifier modifier) {
+    requireNonNull(domainName, "Domain name is null");
+    Map<String, String> options = new HashMap<>(1);
+    options.put("name" + modifier.getValue(), domainName);
+    return query(WapiType.TXT, options, opts -> infoblox().queryTXTRec(wapiVersion(), opts));
+  }
+
+  /**
+   * Get text (TXT) record for the given domain name.
+   *
+   * @param domainName fqdn
+   * @return future of matching {@link TXT} list.
+   */
+  public CompletableFuture<List<TXT>> getTXTRec(String domainName) {
+    return getTXTRec(domainName, CASE_INSENSITIVE);
+  }
+
+  /**
+   * Creates text (TXT) record for a domain name.
+   *
+   * @param domainName domain name.
+   * @param text text data.
+   * @return future of {@link TXT} record.
+   */
+  public CompletableFuture<TXT> createTXTRec(String domainName, String text) {
+    requireNonNull(domainName, "Domain name is null");
+    requireNonNull(text, "Text is null");
+    TXTCreate req = TXTCreate.builder().ttl(client.ttl()).name(domainName).text(text).build();
+    return exec(infoblox().createTXTRec(wapiVersion(), req));
+  }
+
+  /**
+   * Deletes TXT record for a domain name.
+   *
+   * @param domainName fqdn.
+   * @return future of TXT record obj references deleted.
+   */
+  public CompletableFuture<List<String>> deleteTXTRec(String domainName) {
+    client.evict(WapiType.TXT, domainName);
+    return deleteAll(getTXTRec(domainName));
+  }
+
+  /**
+   * Modify the TXT record of a domain name.
+   *
+   * @param domainName domain name.
+   * @param newText new text data.
+   * @return future of modified {@link TXT} list.
+   */
+  public CompletableFuture<List<TXT>> modifyTXTRec(String domainName, String newText) {
+    client.evict(WapiType.TXT, domainName);
+    Map<String, String> req = modifyReq("text", newText);
+    return modifyAll(
+        getTXTRec(domainName), ref -> infoblox().modifyTXTRec(wapiVersion(), ref.value(), req));
+  }
+
+  // --------<TTL>--------
+
+  /**
+   * Modify TTL for a record.
+   *
+   * @param record {@link Record}
+   * @param newTTL new TTL value in seconds.
+   * @return future of TTL response.
+   */
+  public CompletableFuture<TTLRec> modifyTTL(Record record, int newTTL) {
+    requireNonNull(record, "Record is null.");
+    log.warn("Changing TTL of record " + record + " to '" + newTTL + "' seconds.");
+    return exec(infoblox().modifyTTL(wapiVersion(), record.ref().value(), TTLModify.of(newTTL)));
+  }
+
+  /**
+   * Deletes a DNS record.
+   *
+   * @param rec {@link Record}
+   * @return future of the deleted record ref id.
+   */
+  public <T extends Record> CompletableFuture<String> deleteRecord(T rec) {
+    requireNonNull(rec, "Record is null.");
+    log.warn("Deleting a dns record: " + rec);
+    return exec(infoblox().deleteRef(wapiVersion(), rec.ref().value()));
+  }
+
+  /**
+   * Deletes a DNS record with the given WAPI reference id.
+   *
+   * @param ref {@link Ref}
+   * @return future of the deleted ref id.
+   */
+  public CompletableFuture<String> deleteRef(Ref ref) {
+    requireNonNull(ref, "Reference is null.");
+    log.warn("Deleting a dns record with ref: " + ref);
+    return exec(infoblox().deleteRef(wapiVersion(), ref.value()));
+  }
+}
@@ -0,0 +1,405 @@
+package com.oneops.infoblox;
+
+import static com.oneops.infoblox.util.IPAddrs.requireIPv4;
+import static com.oneops.infoblox.util.IPAddrs.requireIPv6;
+import static java.util.Objects.requireNonNull;
+
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.a.ARecCreate;
+import com.oneops.infoblox.model.aaaa.AAAACreate;
+import com.oneops.infoblox.model.cname.CNAMECreate;
+import com.oneops.infoblox.model.host.HostCreate;
+import com.oneops.infoblox.model.mx.MXCreate;
+import com.oneops.infoblox.model.ptr.PTRCreate;
+import com.oneops.infoblox.model.ref.Ref;
+import com.oneops.infoblox.model.srv.SRVCreate;
+import com.oneops.infoblox.model.ttl.TTLModify;
+import com.oneops.infoblox.model.txt.TXTCreate;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A multi-object WAPI request, used to read, create, modify and delete records in bulk. The
+ * operations are queued locally and sent to the WAPI <b>request</b> object in chunks, so thousands
+ * of record operations cost only a few round trips.
+ *
+ * <pre>{@code
+ * List<Object> res = client.batch()
+ *     .createARec("a.xyz.com", "10.11.12.13")
+ *     .createCNameRec("app.xyz.com", "a.xyz.com")
+ *     .delete(oldRec.ref())
+ *     .execute();
+ * }</pre>
+ *
+ * <p>Note: Each chunk is executed atomically by the WAPI. If a chunk fails, the chunks sent before
+ * it are <b>not</b> rolled back.
+ *
+ * @author Suresh G
+ */
+public final class BatchOperation {
+
+  /** Default number of operations sent per WAPI request. */
+  public static final int DEFAULT_CHUNK_SIZE = 100;
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final InfobloxClient client;
+
+  private final int chunkSize;
+
+  private final List<Op> ops = new ArrayList<>();
+
+  BatchOperation(InfobloxClient client, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+    }
+    this.client = client;
+    this.chunkSize = chunkSize;
+  }
+
+  /** A queued WAPI operation along with the expected result type. */
+  private static final class Op {
+
+    private final Map<String, Object> req;
+
+    @Nullable private final WapiType<?> type;
+
+    Op(Map<String, Object> req, @Nullable WapiType<?> type) {
+      this.req = req;
+      this.type = type;
+    }
+  }
+
+  /**
+   * Queues a create (POST) operation of the given type. The typed request data is converted to its
+   * JSON value right away, using the adapter of the request class.
+   */
+  private <T> BatchOperation create(WapiType<?> type, Class<T> dataClass, T data) {
+    Map<String, Object> req = new HashMap<>(4);
+    req.put("method", "POST");
+    req.put("object", type.object());
+    req.put("data", toJsonValue(dataClass, data));
+    req.put("args", returnFields(type));
+    ops.add(new Op(req, type));
+    return this;
+  }
+
+  /** Converts the typed request to a JSON value, which is serialized with the other operations. */
+  @Nullable
+  private <T> Object toJsonValue(Class<T> dataClass, T data) {
+    return client.moshi().adapter(dataClass).toJsonValue(data);
+  }
+
+  private static Map<String, Object> returnFields(WapiType<?> type) {
+    Map<String, Object> args = new HashMap<>(1);
+    args.put("_return_fields", type.returnFields());
+    return args;
+  }
+
+  /**
+   * Queues an address record (A Record) creation.
+   *
+   * @param domainName FQDN
+   * @param ipv4Address IPv4 address
+   * @return this batch.
+   */
+  public BatchOperation createARec(String domainName, String ipv4Address) {
+    requireNonNull(domainName, "Domain name is null");
+    requireIPv4(ipv4Address);
+    return create(
+        WapiType.A,
+        ARecCreate.class,
+        ARecCreate.builder().ttl(client.ttl()).name(domainName).ipv4Addr(ipv4Address).build());
+  }
+
+  /**
+   * Queues an IPv6 address record (AAAA Record) creation.
+   *
+   * @param domainName FQDN
+   * @param ipv6Address IPv6 address
+   * @return this batch.
+   */
+  public BatchOperation createAAAARec(String domainName, String ipv6Address) {
+    requireNonNull(domainName, "Domain name is null");
+    requireIPv6(ipv6Address);
+    return create(
+        WapiType.AAAA,
+        AAAACreate.class,
+        AAAACreate.builder().ttl(client.ttl()).name(domainName).ipv6Addr(ipv6Address).build());
+  }
+
+  /**
+   * Queues a canonical record (CNAME Record) creation.
+   *
+   * @param aliasName alias domain name
+   * @param canonicalName Canonical (true/actual) domain name.
+   * @return this batch.
+   */
+  public BatchOperation createCNameRec(String aliasName, String canonicalName) {
+    requireNonNull(aliasName, "Alias name is null");
+    requireNonNull(canonicalName, "Canonical name is null");
+    return create(
+        WapiType.CNAME,
+        CNAMECreate.class,
+        CNAMECreate.builder().ttl(client.ttl()).name(aliasName).canonical(canonicalName).build());
+  }
+
+  /**
+   * Queues a pointer (PTR) record creation for the IP address and domain name.
+   *
+   * @param ipAddress IPv4/v6 address
+   * @param ptrdname pointer domain name
+   * @return this batch.
+   */
+  public BatchOperation createPTRRec(String ipAddress, String ptrdname) {
+    requireNonNull(ptrdname, "Pointer domain name is null");
+    requireNonNull(ipAddress, "IPAddress is null");
+    return create(WapiType.PTR, PTRCreate.class, client.newPTRReq(ipAddress, ptrdname));
+  }
+
+  /**
+   * Queues a text (TXT) record creation.
+   *
+   * @param domainName domain name.
+   * @param text text data.
+   * @return this batch.
+   */
+  public BatchOperation createTXTRec(String domainName, String text) {
+    requireNonNull(domainName, "Domain name is null");
+    requireNonNull(text, "Text is null");
+    return create(
+        WapiType.TXT,
+        TXTCreate.class,
+        TXTCreate.builder().ttl(client.ttl()).name(domainName).text(text).build());
+  }
+
+  /**
+   * Queues a mail exchange (MX) record creation.
+   *
+   * @param domainName domain name.
+   * @param mailExchanger mail server host.
+   * @param preference mail delivery priority, smaller distances are more preferable.
+   * @return this batch.
+   */
+  public BatchOperation createMXRec(String domainName, String mailExchanger, int preference) {
+    requireNonNull(domainName, "Domain name is null");
+    requireNonNull(mailExchanger, "MailExchanger is null");
+    MXCreate data =
+        MXCreate.builder()
+            .ttl(client.ttl())
+            .name(domainName)
+            .mailExchanger(mailExchanger)
+            .preference(preference)
+            .build();
+    return create(WapiType.MX, MXCreate.class, data);
+  }
+
+  /**
+   * Queues a service location (SRV) record creation.
+   *
+   * @param name service name, eg: <b>_http._tcp.xyz.com</b>
+   * @param port service port.
+   * @param priority target host priority, lower value is more preferred.
+   * @param target canonical hostname of the machine providing the service.
+   * @param weight relative weight for records with the same priority.
+   * @return this batch.
+   */
+  public BatchOperation createSRVRec(
+      String name, int port, int priority, String target, int weight) {
+    requireNonNull(name, "Service name is null");
+    requireNonNull(target, "Target is null");
+    SRVCreate data =
+        SRVCreate.builder()
+            .ttl(client.ttl())
+            .name(name)
+            .port(port)
+            .priority(priority)
+            .target(target)
+            .weight(weight)
+            .build();
+    return create(WapiType.SRV, SRVCreate.class, data);
+  }
+
+  /**
+   * Queues a host record creation.
+   *
+   * @param domainName hostname in fqdn.
+   * @param ipv4Addrs IPv4 address(s)
+   * @return this batch.
+   */
+  public BatchOperation createHostRec(String domainName, List<String> ipv4Addrs) {
+    requireNonNull(domainName, "Domain name is null");
+    requireNonNull(ipv4Addrs, "IPv4Address list is null");
+    return create(
+        WapiType.HOST,
+        HostCreate.class,
+        HostCreate.builder().ttl(client.ttl()).name(domainName).ipv4AddrList(ipv4Addrs).build());
+  }
+
+  /**
+   * Queues a modification of the given WAPI object. The result is mapped to the model class of the
+   * object if it's one of the {@link WapiType}, else the raw JSON value is returned.
+   *
+   * @param ref object reference.
+   * @param fields fields to be updated.
+   * @return this batch.
+   */
+  public BatchOperation modify(Ref ref, Map<String, ?> fields) {
+    requireNonNull(ref, "Reference is null.");
+    requireNonNull(fields, "Fields are null.");
+    return update(ref, fields);
+  }
+
+  /** Queues a modify (PUT) operation of the given object. */
+  private BatchOperation update(Ref ref, Object fields) {
+    WapiType<?> type = WapiType.of(ref.wapiType());
+    Map<String, Object> req = new HashMap<>(4);
+    req.put("method", "PUT");
+    req.put("object", ref.value());
+    req.put("data", fields);
+    if (type != null) {
+      req.put("args", returnFields(type));
+    }
+    ops.add(new Op(req, type));
+    return this;
+  }
+
+  /**
+   * Queues a modification of the given record.
+   *
+   * @param record {@link Record}
+   * @param fields fields to be updated.
+   * @return this batch.
+   */
+  public BatchOperation modify(Record record, Map<String, ?> fields) {
+    requireNonNull(record, "Record is null.");
+    return modify(record.ref(), fields);
+  }
+
+  /**
+   * Queues a TTL modification of the given record.
+   *
+   * @param record {@link Record}
+   * @param newTTL new TTL value in seconds.
+   * @return this batch.
+   */
+  public BatchOperation modifyTTL(Record record, int newTTL) {
+    requireNonNull(record, "Record is null.");
+    return update(record.ref(), toJsonValue(TTLModify.class, TTLModify.of(newTTL)));
+  }
+
+  /**
+   * Queues a read (GET) of the WAPI object, with the return fields of its type. The result of this
+   * operation is the record model, or the object JSON if the type is not known.
+   *
+   * @param ref {@link Ref}
+   * @return this batch.
+   */
+  public BatchOperation get(Ref ref) {
+    requireNonNull(ref, "Reference is null.");
+    WapiType<?> type = WapiType.of(ref.wapiType());
+    Map<String, Object> req = new HashMap<>(3);
+    req.put("method", "GET");
+    req.put("object", ref.value());
+    if (type != null) {
+      req.put("args", returnFields(type));
+    }
+    ops.add(new Op(req, type));
+    return this;
+  }
+
+  /**
+   * Queues a deletion of the WAPI object. The result of this operation is the deleted ref id.
+   *
+   * @param ref {@link Ref}
+   * @return this batch.
+   */
+  public BatchOperation delete(Ref ref) {
+    requireNonNull(ref, "Reference is null.");
+    Map<String, Object> req = new HashMap<>(2);
+    req.put("method", "DELETE");
+    req.put("object", ref.value());
+    ops.add(new Op(req, null));
+    return this;
+  }
+
+  /**
+   * Queues a deletion of the record.
+   *
+   * @param rec {@link Record}
+   * @return this batch.
+   */
+  public BatchOperation delete(Record rec) {
+    requireNonNull(rec, "Record is null.");
+    return delete(rec.ref());
+  }
+
+  /** Number of operations queued in this batch. */
+  public int size() {
+    return ops.size();
+  }
+
+  /**
+   * Sends all the queued operations to the infoblox and clears the queue. Results are returned in
+   * the same order the operations are queued. Read, create and modify operations return the record
+   * model (eg: {@link com.oneops.infoblox.model.a.ARec}) and deletes return the deleted ref id.
+   *
+   * @return list of operation results.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public List<Object> execute() throws IOException {
+    List<Object> results = new ArrayList<>(ops.size());
+    try {
+      for (int from = 0; from < ops.size(); from += chunkSize) {
+        List<Op> chunk = ops.subList(from, Math.min(from + chunkSize, ops.size()));
+        List<Map<String, Object>> req =
+            chunk.stream().map(op -> op.req).collect(Collectors.toList());
+        log.info("Sending multi-object request of " + req.size() + " operations.");
+        List<?> res = unwrapList(client.exec(client.infoblox().request(client.wapiVersion(), req)));
+        if (res.size() != chunk.size()) {
+          throw new IllegalStateException(
+              "Expected " + chunk.size() + " results, but got " + res.size());
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+          results.add(toModel(chunk.get(i).type, unwrap(res.get(i))));
+        }
+      }
+    } finally {
+      ops.clear();
+    }
+    return results;
+  }
+
+  /** Maps the JSON value to the model class of given type. */
+  @Nullable
+  private Object toModel(@Nullable WapiType<?> type, @Nullable Object value) {
+    if (type == null || !(value instanceof Map)) {
+      return value;
+    }
+    return client.moshi().adapter(type.modelClass()).fromJsonValue(value);
+  }
+
+  /** Returns the value of <b>result</b> key, if it's a result object. */
+  @Nullable
+  private static Object unwrap(@Nullable Object value) {
+    if (value instanceof Map && ((Map<?, ?>) value).containsKey("result")) {
+      return ((Map<?, ?>) value).get("result");
+    }
+    return value;
+  }
+
+  private static List<?> unwrapList(@Nullable Object value) {
+    Object res = unwrap(value);
+    if (!(res instanceof List)) {
+      throw new IllegalStateException("Invalid multi-object response: " + value);
+    }
+    return (List<?>) res;
+  }
+}
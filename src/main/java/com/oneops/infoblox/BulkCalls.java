@@ -0,0 +1,205 @@
+package com.oneops.infoblox;
+
+import static java.util.Collections.emptyList;
+
+import com.oneops.infoblox.BulkOperationException.Failure;
+import com.oneops.infoblox.model.ref.Ref;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Call;
+
+/**
+ * Executes a WAPI call for each object reference with at most <b>parallelism</b> calls in flight,
+ * without blocking the caller. The next call is started as soon as one in flight completes. All
+ * the calls are attempted even if some of them fail, and the failures are reported together using
+ * {@link BulkOperationException}.
+ *
+ * <p>The calls are run on the given executor, else dispatched asynchronously using OkHttp, in
+ * which case the dispatcher limits also apply. Cancelling the returned future cancels the calls in
+ * flight and the ones not started yet.
+ *
+ * @author Suresh G
+ */
+final class BulkCalls<R> {
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final InfobloxClient client;
+
+  private final List<Ref> refs;
+
+  private final Function<Ref, Call<R>> call;
+
+  @Nullable private final Executor executor;
+
+  private final List<CompletableFuture<R>> futures;
+
+  private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+  /** Number of calls which can be started now. */
+  private final AtomicInteger permits;
+
+  /** Number of calls completed. */
+  private final AtomicInteger completed = new AtomicInteger();
+
+  /** Drain requests, so that the calls completed synchronously don't recurse into the drain. */
+  private final AtomicInteger wip = new AtomicInteger();
+
+  /** Index of the next call to start, accessed only by the drain loop. */
+  private int next;
+
+  private BulkCalls(
+      InfobloxClient client,
+      Collection<Ref> refs,
+      Function<Ref, Call<R>> call,
+      int parallelism,
+      @Nullable Executor executor) {
+    this.client = client;
+    this.refs = new ArrayList<>(refs);
+    this.call = call;
+    this.executor = executor;
+    this.permits = new AtomicInteger(parallelism);
+    this.futures = new ArrayList<>(refs.size());
+    for (int i = 0; i < refs.size(); i++) {
+      futures.add(new CompletableFuture<>());
+    }
+    result.whenComplete(
+        (res, err) -> {
+          if (err instanceof CancellationException) {
+            futures.forEach(f -> f.cancel(true));
+          }
+        });
+  }
+
+  /**
+   * Starts the WAPI calls for the references.
+   *
+   * @param client infoblox client.
+   * @param refs object references.
+   * @param call WAPI call for a reference.
+   * @param parallelism max calls in flight.
+   * @param executor executor to run the blocking calls, the calls are dispatched asynchronously
+   *     using OkHttp if it's <code>null</code>.
+   * @return future of the results, in the same order of references. It's completed exceptionally
+   *     with {@link BulkOperationException} if some of the calls failed, or with the original
+   *     exception if there is only one reference.
+   */
+  static <R> CompletableFuture<List<R>> start(
+      InfobloxClient client,
+      Collection<Ref> refs,
+      Function<Ref, Call<R>> call,
+      int parallelism,
+      @Nullable Executor executor) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+    }
+    if (refs.isEmpty()) {
+      return CompletableFuture.completedFuture(emptyList());
+    }
+    BulkCalls<R> calls = new BulkCalls<>(client, refs, call, parallelism, executor);
+    calls.drain();
+    return calls.result;
+  }
+
+  /** Starts the calls while there are free permits. */
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      while (next < refs.size() && permits.get() > 0 && !result.isDone()) {
+        permits.decrementAndGet();
+        startCall(next++);
+      }
+    } while (wip.decrementAndGet() != 0);
+  }
+
+  private void startCall(int idx) {
+    Ref ref = refs.get(idx);
+    CompletableFuture<R> future = futures.get(idx);
+    CompletableFuture<R> running;
+    try {
+      Call<R> c = call.apply(ref);
+      running =
+          executor == null
+              ? client.execAsync(c)
+              : CompletableFuture.supplyAsync(() -> exec(c, ref), executor);
+    } catch (RuntimeException ex) {
+      running = new CompletableFuture<>();
+      running.completeExceptionally(ex);
+    }
+
+    CompletableFuture<R> inFlight = running;
+    future.whenComplete(
+        (res, err) -> {
+          if (err instanceof CancellationException) {
+            inFlight.cancel(true);
+          }
+        });
+    running.whenComplete(
+        (res, err) -> {
+          if (err == null) {
+            future.complete(res);
+          } else {
+            future.completeExceptionally(err instanceof CompletionException ? err.getCause() : err);
+          }
+          permits.incrementAndGet();
+          if (completed.incrementAndGet() == refs.size()) {
+            finish();
+          } else {
+            drain();
+          }
+        });
+  }
+
+  /**
+   * Blocking {@link InfobloxClient#exec(Call)}, with the errors wrapped for the completion stages.
+   */
+  private R exec(Call<R> c, Ref ref) {
+    try {
+      return client.exec(c);
+    } catch (IOException ioe) {
+      log.debug("WAPI call failed for " + ref.value(), ioe);
+      throw new CompletionException(ioe);
+    }
+  }
+
+  /** Completes the result once all the calls are completed. */
+  private void finish() {
+    List<R> results = new ArrayList<>(refs.size());
+    List<Ref> succeeded = new ArrayList<>(refs.size());
+    List<Failure> failed = new ArrayList<>();
+    for (int i = 0; i < refs.size(); i++) {
+      Ref ref = refs.get(i);
+      try {
+        results.add(futures.get(i).join());
+        succeeded.add(ref);
+      } catch (CompletionException | CancellationException ex) {
+        Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+        failed.add(
+            new Failure(
+                ref, cause instanceof IOException ? (IOException) cause : new IOException(cause)));
+      }
+    }
+
+    if (failed.isEmpty()) {
+      result.complete(results);
+    } else if (refs.size() == 1) {
+      result.completeExceptionally(failed.get(0).getError());
+    } else {
+      log.error(failed.size() + " of " + refs.size() + " WAPI calls failed: " + failed);
+      result.completeExceptionally(new BulkOperationException(succeeded, failed));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.oneops.infoblox;
+
+import static java.util.Collections.unmodifiableList;
+
+import com.oneops.infoblox.model.ref.Ref;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Thrown when some of the writes of a multi-record operation (eg: {@link
+ * InfobloxClient#deleteRecords(List)}) failed. All the writes are attempted, so this lists both
+ * the succeeded and the failed object references. The first failure is set as the cause.
+ *
+ * @author Suresh G
+ */
+public class BulkOperationException extends IOException {
+
+  private final List<Ref> succeeded;
+
+  private final List<Failure> failed;
+
+  /**
+   * Creates new bulk operation exception.
+   *
+   * @param succeeded references of the succeeded writes.
+   * @param failed failed writes, along with the error.
+   */
+  public BulkOperationException(List<Ref> succeeded, List<Failure> failed) {
+    super(
+        failed.size() + " of " + (succeeded.size() + failed.size()) + " operations failed.",
+        failed.get(0).getError());
+    this.succeeded = unmodifiableList(succeeded);
+    this.failed = unmodifiableList(failed);
+  }
+
+  /**
+   * References of the objects successfully written.
+   *
+   * @return list of refs.
+   */
+  public List<Ref> getSucceeded() {
+    return succeeded;
+  }
+
+  /**
+   * Failed writes in the operation order, along with the error. A reference is listed as many
+   * times as it's failed.
+   *
+   * @return list of failures.
+   */
+  public List<Failure> getFailed() {
+    return failed;
+  }
+
+  /** A failed write of an object reference. */
+  public static final class Failure {
+
+    private final Ref ref;
+
+    private final IOException error;
+
+    public Failure(Ref ref, IOException error) {
+      this.ref = ref;
+      this.error = error;
+    }
+
+    /** Reference of the object failed to write. */
+    public Ref getRef() {
+      return ref;
+    }
+
+    /** Write error. */
+    public IOException getError() {
+      return error;
+    }
+
+    @Override
+    public String toString() {
+      return ref.value() + ": " + error.getMessage();
+    }
+  }
+}
@@ -2,19 +2,30 @@ package com.oneops.infoblox;
 
 import com.oneops.infoblox.model.Result;
 import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.a.ARecCreate;
 import com.oneops.infoblox.model.aaaa.AAAA;
+import com.oneops.infoblox.model.aaaa.AAAACreate;
 import com.oneops.infoblox.model.cname.CNAME;
+import com.oneops.infoblox.model.cname.CNAMECreate;
 import com.oneops.infoblox.model.host.Host;
+import com.oneops.infoblox.model.host.HostCreate;
 import com.oneops.infoblox.model.mx.MX;
+import com.oneops.infoblox.model.mx.MXCreate;
 import com.oneops.infoblox.model.ns.NS;
 import com.oneops.infoblox.model.ptr.PTR;
+import com.oneops.infoblox.model.ptr.PTRCreate;
 import com.oneops.infoblox.model.srv.SRV;
+import com.oneops.infoblox.model.srv.SRVCreate;
+import com.oneops.infoblox.model.ttl.TTLModify;
 import com.oneops.infoblox.model.ttl.TTLRec;
 import com.oneops.infoblox.model.txt.TXT;
+import com.oneops.infoblox.model.txt.TXTCreate;
 import com.oneops.infoblox.model.zone.ZoneAuth;
 import com.oneops.infoblox.model.zone.ZoneDelegate;
+import com.oneops.infoblox.model.zone.ZoneDelegateCreate;
 import java.util.List;
 import java.util.Map;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
@@ -22,7 +33,9 @@ import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 import retrofit2.http.QueryMap;
+import retrofit2.http.Streaming;
 
 /**
  * Infoblox DNS appliance (IBA) REST interface.
@@ -64,6 +77,38 @@ public interface Infoblox {
 
   String TTL_FIELDS = "_return_fields=view,ttl";
 
+  /**
+   * Generic query for any WAPI object. The <b>_return_fields</b> should be passed in the options
+   * and the response body is decoded by the caller.
+   */
+  @GET("{version}/{object}")
+  Call<ResponseBody> query(
+      @Path(value = "version") String version,
+      @Path(value = "object", encoded = true) String object,
+      @QueryMap(encoded = true) Map<String, String> options);
+
+  /**
+   * Same as {@link #query(String, String, Map)}, but the response body is not buffered in memory,
+   * so that it can be decoded incrementally from the socket. The caller must close the body.
+   */
+  @Streaming
+  @GET("{version}/{object}")
+  Call<ResponseBody> queryStreaming(
+      @Path(value = "version") String version,
+      @Path(value = "object", encoded = true) String object,
+      @QueryMap(encoded = true) Map<String, String> options);
+
+  /**
+   * Generic modification of any WAPI object. The response body is decoded by the caller, using
+   * the model class of the object type.
+   */
+  @PUT("{version}/{ref}")
+  Call<ResponseBody> modifyRef(
+      @Path(value = "version") String version,
+      @Path(value = "ref", encoded = true) String ref,
+      @Query(value = "_return_fields", encoded = true) String returnFields,
+      @Body Map<String, Object> req);
+
   /** Auth zone Record */
   @GET("{version}/zone_auth?" + ZONE_AUTH_FIELDS)
   Call<Result<List<ZoneAuth>>> queryAuthZones(@Path(value = "version") String version);
@@ -81,7 +126,7 @@ public interface Infoblox {
 
   @POST("{version}/zone_delegated?" + ZONE_DELEGATE_FIELDS)
   Call<Result<ZoneDelegate>> createDelegatedZone(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body ZoneDelegateCreate req);
 
   @PUT("{version}/{ref}?" + ZONE_DELEGATE_FIELDS)
   Call<Result<ZoneDelegate>> modifyDelegatedZone(
@@ -97,7 +142,7 @@ public interface Infoblox {
 
   @POST("{version}/record:host?" + HOST_FIELDS)
   Call<Result<Host>> createHostRec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body HostCreate req);
 
   /** A Record */
   @GET("{version}/record:a?" + A_FIELDS)
@@ -107,7 +152,7 @@ public interface Infoblox {
 
   @POST("{version}/record:a?" + A_FIELDS)
   Call<Result<ARec>> createARec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body ARecCreate req);
 
   @PUT("{version}/{ref}?" + A_FIELDS)
   Call<Result<ARec>> modifyARec(
@@ -123,7 +168,7 @@ public interface Infoblox {
 
   @POST("{version}/record:aaaa?" + AAAA_FIELDS)
   Call<Result<AAAA>> createAAAARec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body AAAACreate req);
 
   @PUT("{version}/{ref}?" + AAAA_FIELDS)
   Call<Result<AAAA>> modifyAAAARec(
@@ -139,7 +184,7 @@ public interface Infoblox {
 
   @POST("{version}/record:cname?" + CNAME_FIELDS)
   Call<Result<CNAME>> createCNAMERec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body CNAMECreate req);
 
   @PUT("{version}/{ref}?" + CNAME_FIELDS)
   Call<Result<CNAME>> modifyCNAMERec(
@@ -155,7 +200,7 @@ public interface Infoblox {
 
   @POST("{version}/record:mx?" + MX_FIELDS)
   Call<Result<MX>> createMXRec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body MXCreate req);
 
   @PUT("{version}/{ref}?" + MX_FIELDS)
   Call<Result<MX>> modifyMXRec(
@@ -187,7 +232,7 @@ public interface Infoblox {
 
   @POST("{version}/record:ptr?" + PTR_FIELDS)
   Call<Result<PTR>> createPTRRec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body PTRCreate req);
 
   @PUT("{version}/{ref}?" + PTR_FIELDS)
   Call<Result<PTR>> modifyPTRRec(
@@ -203,7 +248,7 @@ public interface Infoblox {
 
   @POST("{version}/record:srv?" + SRV_FIELDS)
   Call<Result<SRV>> createSRVRec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body SRVCreate req);
 
   @PUT("{version}/{ref}?" + SRV_FIELDS)
   Call<Result<SRV>> modifySRVRec(
@@ -219,7 +264,7 @@ public interface Infoblox {
 
   @POST("{version}/record:txt?" + TXT_FIELDS)
   Call<Result<TXT>> createTXTRec(
-      @Path(value = "version") String version, @Body Map<String, Object> req);
+      @Path(value = "version") String version, @Body TXTCreate req);
 
   @PUT("{version}/{ref}?" + TXT_FIELDS)
   Call<Result<TXT>> modifyTXTRec(
@@ -237,7 +282,16 @@ public interface Infoblox {
   Call<Result<TTLRec>> modifyTTL(
       @Path(value = "version") String version,
       @Path(value = "ref", encoded = true) String ref,
-      @Body Map<String, Object> req);
+      @Body TTLModify req);
+
+  /**
+   * Multi-object request. Executes the given list of operations (<b>method</b>, <b>object</b>,
+   * <b>data</b> and <b>args</b>) in a single round trip and returns the result of each operation in
+   * the same order.
+   */
+  @POST("{version}/request")
+  Call<Object> request(
+      @Path(value = "version") String version, @Body List<Map<String, Object>> req);
 
   /** Logout session */
   @POST("{version}/logout")
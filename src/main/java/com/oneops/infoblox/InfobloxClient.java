@@ -8,64 +8,86 @@ import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.auth.SessionAuthInterceptor;
+import com.oneops.infoblox.auth.SessionCookieJar;
+import com.oneops.infoblox.cache.CacheInvalidationInterceptor;
+import com.oneops.infoblox.cache.RecordCache;
 import com.oneops.infoblox.curl.CurlLoggingInterceptor;
+import com.oneops.infoblox.jfr.JfrEvents;
+import com.oneops.infoblox.jfr.RequestEvent;
+import com.oneops.infoblox.limit.RequestLimiter;
+import com.oneops.infoblox.log.SampledLoggingInterceptor;
+import com.oneops.infoblox.metrics.MetricsInterceptor;
+import com.oneops.infoblox.metrics.WapiMetrics;
 import com.oneops.infoblox.model.Error;
-import com.oneops.infoblox.model.JsonAdapterFactory;
 import com.oneops.infoblox.model.Record;
 import com.oneops.infoblox.model.Redacted;
 import com.oneops.infoblox.model.Result;
 import com.oneops.infoblox.model.SearchModifier;
 import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.a.ARecCreate;
 import com.oneops.infoblox.model.aaaa.AAAA;
+import com.oneops.infoblox.model.aaaa.AAAACreate;
 import com.oneops.infoblox.model.cname.CNAME;
+import com.oneops.infoblox.model.cname.CNAMECreate;
 import com.oneops.infoblox.model.host.Host;
+import com.oneops.infoblox.model.host.HostCreate;
 import com.oneops.infoblox.model.mx.MX;
+import com.oneops.infoblox.model.mx.MXCreate;
 import com.oneops.infoblox.model.ptr.PTR;
+import com.oneops.infoblox.model.ptr.PTRCreate;
 import com.oneops.infoblox.model.ref.Ref;
-import com.oneops.infoblox.model.ref.RefObject;
+import com.oneops.infoblox.model.ttl.TTLModify;
 import com.oneops.infoblox.model.ttl.TTLRec;
 import com.oneops.infoblox.model.txt.TXT;
+import com.oneops.infoblox.model.txt.TXTCreate;
 import com.oneops.infoblox.model.zone.Delegate;
 import com.oneops.infoblox.model.zone.ZoneAuth;
 import com.oneops.infoblox.model.zone.ZoneDelegate;
-import com.oneops.infoblox.tls.SNIDisabledSocketFactory;
-import com.oneops.infoblox.tls.TrustAllCertsManager;
+import com.oneops.infoblox.model.zone.ZoneDelegateCreate;
+import com.oneops.infoblox.resilience.ResiliencePolicy;
 import com.oneops.infoblox.util.IPAddrs;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
 import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
-import java.net.InetAddress;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.security.GeneralSecurityException;
-import java.security.KeyStore;
-import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSocketFactory;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.TrustManagerFactory;
-import javax.net.ssl.X509TrustManager;
-import okhttp3.ConnectionSpec;
+import okhttp3.ConnectionPool;
 import okhttp3.Credentials;
-import okhttp3.HttpUrl;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Converter;
 import retrofit2.Response;
 import retrofit2.Retrofit;
-import retrofit2.converter.moshi.MoshiConverterFactory;
 
 /**
  * A Client for interacting with Infoblox Appliance (IBA) NIOS over WAPI. This client implements the
@@ -74,11 +96,17 @@ import retrofit2.converter.moshi.MoshiConverterFactory;
  * @author Suresh G
  */
 @AutoValue
-public abstract class InfobloxClient {
+public abstract class InfobloxClient implements Closeable {
+
+  /** Default max results queried at a time for the record visitors. */
+  public static final int DEFAULT_PAGE_SIZE = 1000;
 
   private final Logger log = LoggerFactory.getLogger(getClass());
   private Infoblox infoblox;
+  private Moshi moshi;
   private Converter<ResponseBody, Error> errResConverter;
+  private AsyncInfobloxClient async;
+  @Nullable private SessionCookieJar cookieJar;
 
   /**
    * Returns the builder for {@link InfobloxClient} with default values for un-initialized optional
@@ -93,6 +121,9 @@ public abstract class InfobloxClient {
         .ttl(60)
         .tlsVerify(true)
         .timeout(30)
+        .sessionAuth(true)
+        .parallelism(1)
+        .metrics(WapiMetrics.NOOP)
         .debug(false);
   }
 
@@ -131,86 +162,198 @@ public abstract class InfobloxClient {
    */
   public abstract int ttl();
 
-  /** Checks if TLS certificate validation is enabled for communicating with Infoblox. */
+  /**
+   * Checks if TLS certificate validation is enabled for communicating with Infoblox. Not
+   * applicable if a shared {@link #transport()} is configured.
+   */
   public abstract boolean tlsVerify();
 
   /**
    * PKCS#12 (.p12) file path contains trusted CA certs. If the path starts with <b>classpath:</b>,
    * it will be loaded from classpath. This is optional and required only if {@link #tlsVerify()} is
-   * enabled.
+   * enabled and no shared {@link #transport()} is configured.
    */
   public abstract Optional<String> trustStore();
 
   /**
    * TrustStore password. Default password is 'changeit'. This is optional and required only if
-   * {@link #tlsVerify()} is enabled.
+   * {@link #tlsVerify()} is enabled and no shared {@link #transport()} is configured.
    */
   @Redacted
   public abstract Optional<String> trustStorePassword();
 
+  /**
+   * Transport shared with other clients. This is optional and a new transport is created for the
+   * client, using its TLS settings, if it's not set.
+   */
+  public abstract Optional<InfobloxTransport> transport();
+
   /** IBA WAPI connection/read/write timeout. Default is 10 sec */
   public abstract int timeout();
 
-  /** Enable http curl logging for debugging. */
-  public abstract boolean debug();
+  /** Connect timeout in seconds. Defaults to {@link #timeout()}. */
+  public abstract OptionalInt connectTimeout();
+
+  /** Read timeout in seconds. Defaults to {@link #timeout()}. */
+  public abstract OptionalInt readTimeout();
+
+  /** Write timeout in seconds. Defaults to {@link #timeout()}. */
+  public abstract OptionalInt writeTimeout();
 
   /**
-   * Initializes the TLS retrofit client. Server Name Indication (SNI) TLS extension is disabled by
-   * default as it never worked with Infoblox.
+   * Timeout in seconds for the complete call, including DNS resolution, connect, write, server
+   * processing and read. No call timeout is applied by default.
+   */
+  public abstract OptionalInt callTimeout();
+
+  /**
+   * Max number of idle connections kept in the connection pool. Defaults to the OkHttp default
+   * (<b>5</b>). Not applicable if a shared {@link #connectionPool()} is configured.
+   */
+  public abstract OptionalInt maxIdleConnections();
+
+  /**
+   * Time in seconds to keep an idle connection alive in the pool. Defaults to the OkHttp default
+   * (<b>5 min</b>). Not applicable if a shared {@link #connectionPool()} is configured.
+   */
+  public abstract OptionalInt keepAliveDuration();
+
+  /**
+   * Max number of concurrent requests executed by the dispatcher. Defaults to the OkHttp default
+   * (<b>64</b>). Not applicable if a shared {@link #dispatcher()} is configured.
+   */
+  public abstract OptionalInt maxRequests();
+
+  /**
+   * Max number of concurrent requests executed per host by the dispatcher. Defaults to the OkHttp
+   * default (<b>5</b>). Not applicable if a shared {@link #dispatcher()} is configured.
+   */
+  public abstract OptionalInt maxRequestsPerHost();
+
+  /**
+   * Connection pool shared with other clients. This is optional and a new pool is created for the
+   * client if it's not set.
+   */
+  public abstract Optional<ConnectionPool> connectionPool();
+
+  /**
+   * Dispatcher shared with other clients, which caps the total number of concurrent async calls
+   * across them. This is optional and a new dispatcher is created for the client if it's not set.
+   */
+  public abstract Optional<Dispatcher> dispatcher();
+
+  /**
+   * Read-through cache for the record queries, of both the blocking and the {@link #async()} API.
+   * This is optional and all the queries go to the infoblox if it's not set.
+   */
+  public abstract Optional<RecordCache> cache();
+
+  /**
+   * Max number of concurrent writes for the multi-record operations, like deleting or modifying all
+   * the records of a name. Defaults to <b>1</b>, ie. the writes are sequential.
+   */
+  public abstract int parallelism();
+
+  /**
+   * Executor used to run the concurrent writes of the multi-record operations. This is optional
+   * and the writes are dispatched asynchronously using the OkHttp dispatcher if it's not set.
+   */
+  public abstract Optional<Executor> executor();
+
+  /**
+   * Fault tolerance policy (retries, circuit breaker) applied to all the WAPI requests. This is
+   * optional and the requests fail on the first error if it's not set.
    *
-   * @throws GeneralSecurityException if any error initializing the TLS context.
+   * @see com.oneops.infoblox.resilience.FailsafePolicy
    */
-  private void init() throws GeneralSecurityException {
-    log.info("Initializing " + toString());
-    Moshi moshi =
-        new Moshi.Builder()
-            .add(JsonAdapterFactory.create())
-            .add(new RefObject.JsonAdapter())
-            .build();
+  public abstract Optional<ResiliencePolicy> resiliencePolicy();
+
+  /**
+   * Client side rate and concurrency limiter protecting the Grid Master. This is optional and the
+   * requests are not limited if it's not set. A limiter can be shared by many clients.
+   */
+  public abstract Optional<RequestLimiter> limiter();
+
+  /**
+   * Metrics collector for the WAPI requests, tagged by the http method and object type. Defaults to
+   * {@link WapiMetrics#NOOP}, which adds no overhead to the requests.
+   *
+   * @see com.oneops.infoblox.metrics.HdrHistogramMetrics
+   */
+  public abstract WapiMetrics metrics();
+
+  /**
+   * Sampled request logger, which always logs the slow and failed requests. This is optional and
+   * can be left on in production, unlike the {@link #debug()} curl logging.
+   */
+  public abstract Optional<SampledLoggingInterceptor> requestLogger();
+
+  /** Enable http curl logging for debugging. */
+  public abstract boolean debug();
 
-    TrustManager[] trustManagers = getTrustManagers();
-    SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
-    sslContext.init(null, trustManagers, new SecureRandom());
+  /**
+   * Reuse the WAPI session cookie (<b>ibapauth</b>) for authentication, instead of sending the
+   * Basic auth credentials on every request. The client re-authenticates transparently when the
+   * session expires. Defaults to <b>true</b>.
+   */
+  public abstract boolean sessionAuth();
 
-    // Disable SNIExtension.
-    SSLSocketFactory socketFactory = new SNIDisabledSocketFactory(sslContext.getSocketFactory());
+  /**
+   * Initializes the retrofit client on top of the given transport. Only the per-client auth,
+   * timeouts and logging are configured here, the TLS context, connection pool and JSON adapters
+   * are shared from the transport.
+   */
+  private void init(InfobloxTransport transport) {
+    log.info("Initializing " + toString());
+    moshi = transport.moshi();
 
-    String basicCreds = Credentials.basic(userName(), password());
     OkHttpClient.Builder okBuilder =
-        new OkHttpClient()
+        transport
+            .okHttp()
             .newBuilder()
-            .sslSocketFactory(socketFactory, (X509TrustManager) trustManagers[0])
-            .connectionSpecs(singletonList(ConnectionSpec.MODERN_TLS))
-            .followSslRedirects(false)
-            .retryOnConnectionFailure(true)
-            .connectTimeout(timeout(), SECONDS)
-            .readTimeout(timeout(), SECONDS)
-            .writeTimeout(timeout(), SECONDS)
-            .addInterceptor(
-                chain -> {
-                  HttpUrl origUrl = chain.request().url();
-                  HttpUrl url =
-                      origUrl
-                          .newBuilder()
-                          .addQueryParameter("_return_as_object", "1")
-                          // .addQueryParameter("_paging", "1")
-                          // .addQueryParameter("_max_results","1")
-                          .build();
-                  Request req =
-                      chain
-                          .request()
-                          .newBuilder()
-                          .addHeader("Content-Type", "application/json")
-                          .addHeader("Authorization", basicCreds)
-                          .url(url)
-                          .build();
-                  return chain.proceed(req);
-                });
-
-    if (!tlsVerify()) {
-      okBuilder.hostnameVerifier((host, session) -> true);
+            .connectTimeout(connectTimeout().orElse(timeout()), SECONDS)
+            .readTimeout(readTimeout().orElse(timeout()), SECONDS)
+            .writeTimeout(writeTimeout().orElse(timeout()), SECONDS)
+            .callTimeout(callTimeout().orElse(0), SECONDS);
+
+    if (connectionPool().isPresent()) {
+      okBuilder.connectionPool(connectionPool().get());
+    } else if (maxIdleConnections().isPresent() || keepAliveDuration().isPresent()) {
+      okBuilder.connectionPool(newConnectionPool());
     }
 
+    if (dispatcher().isPresent()) {
+      okBuilder.dispatcher(dispatcher().get());
+    } else if (maxRequests().isPresent() || maxRequestsPerHost().isPresent()) {
+      okBuilder.dispatcher(newDispatcher());
+    }
+
+    // Metrics cover the whole request, including the retries and the limiter queue wait.
+    if (metrics() != WapiMetrics.NOOP) {
+      okBuilder.addInterceptor(new MetricsInterceptor(metrics()));
+    }
+    // Resilience policy wraps the auth, so that each attempt is authenticated.
+    resiliencePolicy().ifPresent(policy -> okBuilder.addInterceptor(policy::execute));
+    // Limiter is applied to every attempt, so the retries are throttled as well.
+    limiter().ifPresent(okBuilder::addInterceptor);
+    // Every attempt is logged, excluding the limiter queue wait.
+    requestLogger().ifPresent(okBuilder::addInterceptor);
+
+    if (sessionAuth()) {
+      cookieJar = new SessionCookieJar();
+      okBuilder
+          .cookieJar(cookieJar)
+          .addInterceptor(new SessionAuthInterceptor(userName(), password(), cookieJar));
+    } else {
+      String basicCreds = Credentials.basic(userName(), password());
+      okBuilder.addInterceptor(
+          chain ->
+              chain.proceed(
+                  chain.request().newBuilder().header("Authorization", basicCreds).build()));
+    }
+
+    cache().ifPresent(c -> okBuilder.addInterceptor(new CacheInvalidationInterceptor(c)));
+
     if (debug()) {
       CurlLoggingInterceptor logIntcp = new CurlLoggingInterceptor(log::info);
       logIntcp.curlOptions("-k");
@@ -222,69 +365,88 @@ public abstract class InfobloxClient {
         new Retrofit.Builder()
             .baseUrl(getBaseUrl())
             .client(okHttp)
-            .addConverterFactory(MoshiConverterFactory.create(moshi))
+            .addConverterFactory(JfrEvents.converterFactory(transport.converterFactory()))
             .build();
 
     infoblox = retrofit.create(Infoblox.class);
     errResConverter = retrofit.responseBodyConverter(Error.class, new Annotation[0]);
+    async = new AsyncInfobloxClient(this);
   }
 
   /**
-   * Returns the trust-store manager.If the {@link #tlsVerify()} is disabled, it trusts all certs
-   * using a custom trust manager.
+   * Queries the records of given type, through the record cache if it's configured.
    *
-   * @return trust managers.
-   * @throws GeneralSecurityException if any error initializing trust store.
+   * @param type record type.
+   * @param options query options.
+   * @param query WAPI query call for the options.
+   * @return list of matching records.
+   * @throws IOException if a problem occurred talking to the infoblox.
    */
-  private TrustManager[] getTrustManagers() throws GeneralSecurityException {
-    final TrustManager[] trustMgrs;
-    if (tlsVerify()) {
-      KeyStore trustStore = loadTrustStore();
-      final TrustManagerFactory trustManagerFactory =
-          TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
-      trustManagerFactory.init(trustStore);
-      trustMgrs = trustManagerFactory.getTrustManagers();
-    } else {
-      log.info("Skipping TLS certs verification.");
-      trustMgrs = new X509TrustManager[] {new TrustAllCertsManager()};
+  private <T extends Record> List<T> query(
+      WapiType<T> type,
+      Map<String, String> options,
+      Function<Map<String, String>, Call<Result<List<T>>>> query)
+      throws IOException {
+    RecordCache cache = cache().orElse(null);
+    if (cache == null) {
+      return exec(query.apply(options)).result();
+    }
+    String scope = cacheScope();
+    List<T> recs = cache.get(scope, type, options);
+    if (recs == null) {
+      // Taken before the query, so that the result is not cached if a write invalidates it.
+      long generation = cache.generation();
+      recs = exec(query.apply(options)).result();
+      cache.put(scope, type, options, recs, generation);
     }
-    return trustMgrs;
+    return recs;
+  }
+
+  /** Scope of the cached queries, ie. the endpoint, user and dns view of this client. */
+  String cacheScope() {
+    return endPoint() + '/' + userName() + '/' + dnsView();
   }
 
   /**
-   * Load trust store (PKCS12) from the given file/classpath resource.
-   *
-   * @throws IllegalStateException if the file/classpath resource doesn't exist.
+   * Evicts the cached queries for the record name, so that the records are looked up from the
+   * infoblox before modifying or deleting them.
    */
-  @SuppressWarnings("OptionalGetWithoutIsPresent")
-  private KeyStore loadTrustStore() {
+  void evict(WapiType<?> type, @Nullable String name) {
+    cache().ifPresent(c -> c.invalidate(type.object(), name));
+  }
 
-    String tsPath = trustStore().get().toLowerCase();
-    char[] tsPasswd = trustStorePassword().get().toCharArray();
-    boolean fileResource = true;
+  /** Creates a new connection pool for this client, using the configured pool limits. */
+  private ConnectionPool newConnectionPool() {
+    return new ConnectionPool(
+        maxIdleConnections().orElse(5), keepAliveDuration().orElse(5 * 60), SECONDS);
+  }
 
-    if (tsPath.startsWith("classpath:")) {
-      tsPath = tsPath.replace("classpath:", "");
-      fileResource = false;
-    }
+  /** Creates a new dispatcher for this client, using the configured request limits. */
+  private Dispatcher newDispatcher() {
+    Dispatcher dispatcher = new Dispatcher();
+    maxRequests().ifPresent(dispatcher::setMaxRequests);
+    maxRequestsPerHost().ifPresent(dispatcher::setMaxRequestsPerHost);
+    return dispatcher;
+  }
 
-    try {
-      try (InputStream ins =
-          fileResource
-              ? Files.newInputStream(Paths.get(tsPath))
-              : getClass().getResourceAsStream(tsPath)) {
-
-        log.info("Loading the trustStore: {}", tsPath);
-        if (ins == null) {
-          throw new IllegalStateException("Can't find the trustStore: " + tsPath);
-        }
-        KeyStore ks = KeyStore.getInstance("PKCS12");
-        ks.load(ins, tsPasswd);
-        return ks;
-      }
-    } catch (IOException | GeneralSecurityException ex) {
-      throw new IllegalStateException("Can't load the trustStore: " + tsPath, ex);
-    }
+  /**
+   * Returns the non-blocking view of this client. All the calls are dispatched using the underlying
+   * OkHttp dispatcher, so no caller thread is blocked for the WAPI round trip.
+   *
+   * @return {@link AsyncInfobloxClient}
+   */
+  public AsyncInfobloxClient async() {
+    return async;
+  }
+
+  /** Returns the WAPI retrofit interface of this client. */
+  Infoblox infoblox() {
+    return infoblox;
+  }
+
+  /** Returns the Moshi instance used for JSON [de]serialization. */
+  Moshi moshi() {
+    return moshi;
   }
 
   /**
@@ -293,20 +455,272 @@ public abstract class InfobloxClient {
    *
    * @see <a href="https://ipam.illinois.edu/wapidoc/#error-handling">WAPI error-handling</a>
    */
-  private <T> T exec(Call<T> call) throws IOException {
-    Response<T> res = call.execute();
-    if (res.isSuccessful()) {
-      return res.body();
+  <T> T exec(Call<T> call) throws IOException {
+    RequestEvent event = JfrEvents.beginRequest();
+    int status = 0;
+    long bytes = -1;
+    T body = null;
+    try {
+      Response<T> res = call.execute();
+      status = res.code();
+      ResponseBody raw = res.raw().body();
+      bytes = raw != null ? raw.contentLength() : -1;
+      if (res.isSuccessful()) {
+        body = res.body();
+        return body;
+      } else {
+        throw toException(res);
+      }
+    } finally {
+      event.complete(call.request(), status, bytes, body);
+    }
+  }
+
+  /**
+   * Asynchronous version of {@link #exec(Call)}. The call is enqueued on the OkHttp dispatcher and
+   * the returned future completes with the response body, or exceptionally with the same {@link
+   * InfobloxException} {@link #exec(Call)} would have thrown. Cancelling the future cancels the
+   * underlying call.
+   */
+  <T> CompletableFuture<T> execAsync(Call<T> call) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    RequestEvent event = JfrEvents.beginRequest();
+    call.enqueue(
+        new Callback<T>() {
+          @Override
+          public void onResponse(Call<T> c, Response<T> res) {
+            ResponseBody raw = res.raw().body();
+            long bytes = raw != null ? raw.contentLength() : -1;
+            if (res.isSuccessful()) {
+              event.complete(c.request(), res.code(), bytes, res.body());
+              future.complete(res.body());
+            } else {
+              event.complete(c.request(), res.code(), bytes, null);
+              try {
+                future.completeExceptionally(toException(res));
+              } catch (IOException | RuntimeException ex) {
+                future.completeExceptionally(ex);
+              }
+            }
+          }
+
+          @Override
+          public void onFailure(Call<T> c, Throwable t) {
+            event.complete(c.request(), 0, -1, null);
+            future.completeExceptionally(t);
+          }
+        });
+    future.whenComplete(
+        (res, err) -> {
+          if (err instanceof CancellationException) {
+            call.cancel();
+          }
+        });
+    return future;
+  }
+
+  /**
+   * Converts an unsuccessful response to {@link InfobloxException}. The error handling is done as
+   * per the response content-type.
+   */
+  private InfobloxException toException(Response<?> res) throws IOException {
+    Error err;
+    String contentType = res.headers().get("Content-Type");
+    if ("application/json".equalsIgnoreCase(contentType)) {
+      err = errResConverter.convert(requireNonNull(res.errorBody()));
     } else {
-      Error err;
-      String contentType = res.headers().get("Content-Type");
-      if ("application/json".equalsIgnoreCase(contentType)) {
-        err = errResConverter.convert(requireNonNull(res.errorBody()));
+      err = Error.create("Request failed, " + res.message(), res.code());
+    }
+    InfobloxException ex = requireNonNull(err).cause();
+    if (metrics() != WapiMetrics.NOOP && ex.getCode() != null) {
+      Request req = res.raw().request();
+      metrics().onError(req.method(), MetricsInterceptor.object(req.url()), ex.getCode());
+    }
+    return ex;
+  }
+
+  /**
+   * Lazily stream all the WAPI objects of given type matching the search options, by querying
+   * pageSize max results at a time. Only the current page is kept in memory and the next page is
+   * prefetched in the background while the current one is being consumed.
+   *
+   * <p>The returned stream should be closed (eg: using try-with-resources) if it's not fully
+   * consumed, so that the prefetch request is cancelled. Errors talking to the infoblox are thrown
+   * as {@link UncheckedIOException}.
+   *
+   * @param type {@link WapiType}
+   * @param options search options, eg: <b>name~</b> -&gt; <b>.*\.xyz\.com</b>
+   * @param pageSize max results to query at a time.
+   * @return stream of matching objects.
+   */
+  public <T extends Record> Stream<T> stream(
+      WapiType<T> type, Map<String, String> options, int pageSize) {
+    requireNonNull(type, "WAPI type is null");
+    requireNonNull(options, "Search options are null");
+    PageIterator<T> it = new PageIterator<>(this, type, options, pageSize);
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(it::close);
+  }
+
+  /**
+   * Visits all the WAPI objects of given type matching the search options, by querying pageSize max
+   * results at a time. Unlike {@link #stream(WapiType, Map, int)}, the <b>result</b> array is read
+   * incrementally from the response body and each record is handed off to the action as soon as
+   * it's parsed, so neither the page nor the list of records is held in memory. Useful for zone
+   * wide exports.
+   *
+   * @param type {@link WapiType}
+   * @param options search options.
+   * @param pageSize max results to query at a time.
+   * @param action action to be performed for each record, called on the caller thread.
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public <T extends Record> long forEach(
+      WapiType<T> type, Map<String, String> options, int pageSize, Consumer<? super T> action)
+      throws IOException {
+    requireNonNull(type, "WAPI type is null");
+    requireNonNull(action, "Action is null");
+    JsonAdapter<T> adapter = moshi.adapter(type.modelClass());
+    return visit(
+        type, options, type.returnFields(), pageSize, r -> action.accept(adapter.fromJson(r)));
+  }
+
+  /**
+   * Visits the references of all the WAPI objects of given type matching the search options, by
+   * querying pageSize max results at a time. Only the <b>_ref</b> of the objects is returned by the
+   * WAPI, so this is a cheap way to check which objects exist, eg: to diff a local copy.
+   *
+   * @param type {@link WapiType}
+   * @param options search options.
+   * @param pageSize max results to query at a time.
+   * @param action action to be performed for each reference, called on the caller thread.
+   * @return number of references visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public long forEachRef(
+      WapiType<?> type, Map<String, String> options, int pageSize, Consumer<Ref> action)
+      throws IOException {
+    requireNonNull(type, "WAPI type is null");
+    requireNonNull(action, "Action is null");
+    return visit(type, options, "", pageSize, r -> action.accept(readRef(r)));
+  }
+
+  /** Reads a WAPI object returned with no return fields, ie: <b>{"_ref": "..."}</b> */
+  private static Ref readRef(JsonReader reader) throws IOException {
+    String ref = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      if ("_ref".equals(reader.nextName())) {
+        ref = reader.nextString();
       } else {
-        err = Error.create("Request failed, " + res.message(), res.code());
+        reader.skipValue();
       }
-      throw requireNonNull(err).cause();
     }
+    reader.endObject();
+    if (ref == null) {
+      throw new IOException("WAPI object has no _ref at " + reader.getPath());
+    }
+    return Ref.of(ref);
+  }
+
+  /** Reads a WAPI object from the <b>result</b> array. */
+  private interface ObjectVisitor {
+    void visit(JsonReader reader) throws IOException;
+  }
+
+  /**
+   * Queries all the pages of the matching objects and reads the <b>result</b> array incrementally
+   * from the response body.
+   */
+  private long visit(
+      WapiType<?> type,
+      Map<String, String> options,
+      String returnFields,
+      int pageSize,
+      ObjectVisitor visitor)
+      throws IOException {
+    requireNonNull(options, "Search options are null");
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Invalid page size: " + pageSize);
+    }
+
+    Map<String, String> opts = new HashMap<>(options);
+    opts.put("_return_fields", returnFields);
+    opts.put("_paging", "1");
+    opts.put("_max_results", String.valueOf(pageSize));
+
+    long count = 0;
+    String nextPageId;
+    do {
+      Call<ResponseBody> call = infoblox.queryStreaming(wapiVersion(), type.object(), opts);
+      nextPageId = null;
+      try (ResponseBody body = requireNonNull(exec(call));
+          JsonReader reader = JsonReader.of(body.source())) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+          switch (reader.nextName()) {
+            case "result":
+              reader.beginArray();
+              while (reader.hasNext()) {
+                visitor.visit(reader);
+                count++;
+              }
+              reader.endArray();
+              break;
+            case "next_page_id":
+              if (reader.peek() == JsonReader.Token.NULL) {
+                reader.skipValue();
+              } else {
+                nextPageId = reader.nextString();
+              }
+              break;
+            default:
+              reader.skipValue();
+          }
+        }
+        reader.endObject();
+      }
+      if (nextPageId != null) {
+        log.info("Querying next " + type + " page id: " + nextPageId);
+        opts.put("_page_id", nextPageId);
+      }
+    } while (nextPageId != null);
+    return count;
+  }
+
+  /**
+   * Creates the search options for the given field, if the value is not null.
+   *
+   * @param field search field.
+   * @param value search value, will be excluded from search if it's <code>null</code>.
+   * @param modifier {@link SearchModifier}
+   * @return search options.
+   */
+  private static Map<String, String> searchOpts(
+      String field, @Nullable String value, SearchModifier modifier) {
+    Map<String, String> options = new HashMap<>(1);
+    if (value != null) {
+      options.put(field + modifier.getValue(), value);
+    }
+    return options;
+  }
+
+  /**
+   * Returns the PTR address field for the IP address.
+   *
+   * @param ipAddress IPv4/v6 address.
+   * @return <b>ipv4addr</b> or <b>ipv6addr</b>
+   * @throws IllegalArgumentException if it's not a valid IP address.
+   */
+  static String ptrAddrType(String ipAddress) {
+    if (IPAddrs.isIPv4(ipAddress)) {
+      return "ipv4addr";
+    }
+    requireIPv6(ipAddress);
+    return "ipv6addr";
   }
 
   /**
@@ -324,19 +738,6 @@ public abstract class InfobloxClient {
 
   // --------<Auth Zone Record>--------
 
-  /**
-   * Create a new request map with ttl set. TTL is associated with the flag <b>use_ttl</b>. In an
-   * object, the value of this field will only take effect when its use flag is true.
-   *
-   * @return request map
-   */
-  private Map<String, Object> newTTLReq() {
-    Map<String, Object> req = new HashMap<>();
-    req.put("ttl", ttl());
-    req.put("use_ttl", true);
-    return req;
-  }
-
   /**
    * Fetch all Authoritative Zones.
    *
@@ -347,6 +748,17 @@ public abstract class InfobloxClient {
     return exec(infoblox.queryAuthZones(wapiVersion())).result();
   }
 
+  /**
+   * Lazily stream all Authoritative Zones by querying pageSize max results at a time.
+   *
+   * @param pageSize max results to query at a time.
+   * @return stream of {@link ZoneAuth}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<ZoneAuth> streamAuthZones(int pageSize) {
+    return stream(WapiType.ZONE_AUTH, new HashMap<>(0), pageSize);
+  }
+
   // --------<Delegated Zone Record>--------
 
   /**
@@ -372,22 +784,22 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<ZoneDelegate> getDelegatedZones(int pageSize) throws IOException {
-    Map<String, Object> req = new HashMap<>(2);
-    req.put("_paging", 1);
-    req.put("_max_results", pageSize);
-
-    Result<List<ZoneDelegate>> res = exec(infoblox.queryDelegatedZone(wapiVersion(), req));
-    String nextPageId = res.nextPageId();
-    List<ZoneDelegate> delegZones = new ArrayList<>(res.result());
-
-    while (nextPageId != null) {
-      log.info("Querying next page id: " + nextPageId);
-      req.put("_page_id", nextPageId);
-      res = exec(infoblox.queryDelegatedZone(wapiVersion(), req));
-      nextPageId = res.nextPageId();
-      delegZones.addAll(res.result());
+    try (Stream<ZoneDelegate> zones = streamDelegatedZones(pageSize)) {
+      return zones.collect(Collectors.toList());
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
     }
-    return delegZones;
+  }
+
+  /**
+   * Lazily stream all delegated zones by querying pageSize max results at a time.
+   *
+   * @param pageSize max results to query at a time.
+   * @return stream of {@link ZoneDelegate}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<ZoneDelegate> streamDelegatedZones(int pageSize) {
+    return stream(WapiType.ZONE_DELEGATED, new HashMap<>(0), pageSize);
   }
 
   /**
@@ -417,10 +829,12 @@ public abstract class InfobloxClient {
       throws IOException {
     requireNonNull(domainName, "Domain name is null");
     requireNonNull(delegateTo, "DelegateTo is null");
-    Map<String, Object> req = new HashMap<>(3);
-    req.put("fqdn", domainName);
-    req.put("delegate_to", delegateTo);
-    req.put("delegated_ttl", ttl);
+    ZoneDelegateCreate req =
+        ZoneDelegateCreate.builder()
+            .fqdn(domainName)
+            .delegateTo(delegateTo)
+            .delegatedTtl(ttl)
+            .build();
     return exec(infoblox.createDelegatedZone(wapiVersion(), req)).result();
   }
 
@@ -434,20 +848,8 @@ public abstract class InfobloxClient {
    */
   public List<ZoneDelegate> modifyDelegatedZone(String domainName, Map<String, Object> params)
       throws IOException {
-    return getDelegatedZones(domainName)
-        .stream()
-        .map(
-            rec -> {
-              try {
-                log.warn("Modifying delegated zone config for " + rec + " to" + params);
-                return exec(infoblox.modifyDelegatedZone(wapiVersion(), rec.ref().value(), params))
-                    .result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException(
-                    "Error modifying delegated zone record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    log.warn("Modifying delegated zone config for " + domainName + " to" + params);
+    return modifyRecords(getDelegatedZones(domainName), params);
   }
 
   // --------<Host Record>--------
@@ -474,7 +876,7 @@ public abstract class InfobloxClient {
     requireNonNull(domainName, "Domain name is null");
     Map<String, String> options = new HashMap<>(1);
     options.put("name" + modifier.getValue(), domainName);
-    return exec(infoblox.queryHostRec(wapiVersion(), options)).result();
+    return query(WapiType.HOST, options, opts -> infoblox.queryHostRec(wapiVersion(), opts));
   }
 
   /**
@@ -488,6 +890,39 @@ public abstract class InfobloxClient {
     return getHostRec(domainName, CASE_INSENSITIVE);
   }
 
+  /**
+   * Lazily stream host records for the given domain name and search option, by querying pageSize
+   * max results at a time.
+   *
+   * @param domainName fqdn, all the records are returned if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param pageSize max results to query at a time.
+   * @return stream of matching {@link Host}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<Host> streamHostRec(
+      @Nullable String domainName, SearchModifier modifier, int pageSize) {
+    return stream(WapiType.HOST, searchOpts("name", domainName, modifier), pageSize);
+  }
+
+  /**
+   * Visits host records for the given domain name and search option, decoding each record
+   * incrementally from the response. Results are queried {@link #DEFAULT_PAGE_SIZE} at a time.
+   *
+   * @param domainName fqdn, all the records are visited if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param action action to be performed for each {@link Host}
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   * @see #forEach(WapiType, Map, int, Consumer)
+   */
+  public long forEachHostRec(
+      @Nullable String domainName, SearchModifier modifier, Consumer<? super Host> action)
+      throws IOException {
+    return forEach(
+        WapiType.HOST, searchOpts("name", domainName, modifier), DEFAULT_PAGE_SIZE, action);
+  }
+
   /**
    * Creates IBA host record.
    *
@@ -499,21 +934,8 @@ public abstract class InfobloxClient {
   public Host createHostRec(String domainName, List<String> ipv4Addrs) throws IOException {
     requireNonNull(domainName, "Domain name is null");
     requireNonNull(ipv4Addrs, "IPv4Address list is null");
-    // Transform the address.
-    List<Map<String, String>> addrs =
-        ipv4Addrs
-            .stream()
-            .map(
-                s -> {
-                  Map<String, String> map = new HashMap<>(1);
-                  map.put("ipv4addr", s);
-                  return map;
-                })
-            .collect(Collectors.toList());
-
-    Map<String, Object> req = newTTLReq();
-    req.put("name", domainName);
-    req.put("ipv4addrs", addrs);
+    HostCreate req =
+        HostCreate.builder().ttl(ttl()).name(domainName).ipv4AddrList(ipv4Addrs).build();
     return exec(infoblox.createHostRec(wapiVersion(), req)).result();
   }
 
@@ -527,6 +949,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteHostRec(String domainName) throws IOException {
+    evict(WapiType.HOST, domainName);
     return deleteRecords(getHostRec(domainName));
   }
 
@@ -553,6 +976,40 @@ public abstract class InfobloxClient {
     return getARec(domainName, CASE_INSENSITIVE);
   }
 
+  /**
+   * Lazily stream address records (A Record) for the given domain name and search option, by
+   * querying pageSize max results at a time.
+   *
+   * @param domainName fqdn, all the records are returned if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param pageSize max results to query at a time.
+   * @return stream of matching {@link ARec}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<ARec> streamARec(
+      @Nullable String domainName, SearchModifier modifier, int pageSize) {
+    return stream(WapiType.A, searchOpts("name", domainName, modifier), pageSize);
+  }
+
+  /**
+   * Visits address records (A Record) for the given domain name and search option, decoding each
+   * record incrementally from the response. Results are queried {@link #DEFAULT_PAGE_SIZE} at a
+   * time.
+   *
+   * @param domainName fqdn, all the records are visited if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param action action to be performed for each {@link ARec}
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   * @see #forEach(WapiType, Map, int, Consumer)
+   */
+  public long forEachARec(
+      @Nullable String domainName, SearchModifier modifier, Consumer<? super ARec> action)
+      throws IOException {
+    return forEach(
+        WapiType.A, searchOpts("name", domainName, modifier), DEFAULT_PAGE_SIZE, action);
+  }
+
   /**
    * Get address records (A Record) with given IPV4 address.
    *
@@ -598,7 +1055,7 @@ public abstract class InfobloxClient {
     if (ipv4Address != null) {
       options.put("ipv4addr", ipv4Address);
     }
-    return exec(infoblox.queryARec(wapiVersion(), options)).result();
+    return query(WapiType.A, options, opts -> infoblox.queryARec(wapiVersion(), opts));
   }
 
   /**
@@ -612,9 +1069,7 @@ public abstract class InfobloxClient {
   public ARec createARec(String domainName, String ipv4Address) throws IOException {
     requireNonNull(domainName, "Domain name is null");
     requireIPv4(ipv4Address);
-    Map<String, Object> req = newTTLReq();
-    req.put("name", domainName);
-    req.put("ipv4addr", ipv4Address);
+    ARecCreate req = ARecCreate.builder().ttl(ttl()).name(domainName).ipv4Addr(ipv4Address).build();
     return exec(infoblox.createARec(wapiVersion(), req)).result();
   }
 
@@ -626,6 +1081,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteARec(String domainName) throws IOException {
+    evict(WapiType.A, domainName);
     return deleteRecords(getARec(domainName));
   }
 
@@ -638,6 +1094,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteARec(String domainName, String ipv4Address) throws IOException {
+    evict(WapiType.A, domainName);
     return deleteRecords(getARec(domainName, ipv4Address));
   }
 
@@ -649,19 +1106,10 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<ARec> modifyARec(String domainName, String newDomainName) throws IOException {
-    return getARec(domainName)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("name", newDomainName);
-              try {
-                return exec(infoblox.modifyARec(wapiVersion(), rec.ref().value(), req)).result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying A record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.A, domainName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("name", newDomainName);
+    return modifyRecords(getARec(domainName), req);
   }
 
   // --------<AAAA Record>--------
@@ -676,19 +1124,10 @@ public abstract class InfobloxClient {
    */
   public List<ARec> modifyARec(String domainName, String ipv4Address, String newIPv4Address)
       throws IOException {
-    return getARec(domainName, ipv4Address)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("ipv4addr", newIPv4Address);
-              try {
-                return exec(infoblox.modifyARec(wapiVersion(), rec.ref().value(), req)).result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying A record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.A, domainName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("ipv4addr", newIPv4Address);
+    return modifyRecords(getARec(domainName, ipv4Address), req);
   }
 
   /**
@@ -714,6 +1153,40 @@ public abstract class InfobloxClient {
     return getAAAARec(domainName, CASE_INSENSITIVE);
   }
 
+  /**
+   * Lazily stream IPv6 address records (AAAA) for the given domain name and search option, by
+   * querying pageSize max results at a time.
+   *
+   * @param domainName fqdn, all the records are returned if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param pageSize max results to query at a time.
+   * @return stream of matching {@link AAAA}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<AAAA> streamAAAARec(
+      @Nullable String domainName, SearchModifier modifier, int pageSize) {
+    return stream(WapiType.AAAA, searchOpts("name", domainName, modifier), pageSize);
+  }
+
+  /**
+   * Visits IPv6 address records (AAAA) for the given domain name and search option, decoding each
+   * record incrementally from the response. Results are queried {@link #DEFAULT_PAGE_SIZE} at a
+   * time.
+   *
+   * @param domainName fqdn, all the records are visited if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param action action to be performed for each {@link AAAA}
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   * @see #forEach(WapiType, Map, int, Consumer)
+   */
+  public long forEachAAAARec(
+      @Nullable String domainName, SearchModifier modifier, Consumer<? super AAAA> action)
+      throws IOException {
+    return forEach(
+        WapiType.AAAA, searchOpts("name", domainName, modifier), DEFAULT_PAGE_SIZE, action);
+  }
+
   /**
    * Get AAAA records for the given domain name and ipv6Address.
    *
@@ -759,7 +1232,7 @@ public abstract class InfobloxClient {
     if (ipv6Address != null) {
       options.put("ipv6addr", ipv6Address);
     }
-    return exec(infoblox.queryAAAARec(wapiVersion(), options)).result();
+    return query(WapiType.AAAA, options, opts -> infoblox.queryAAAARec(wapiVersion(), opts));
   }
 
   /**
@@ -773,9 +1246,7 @@ public abstract class InfobloxClient {
   public AAAA createAAAARec(String domainName, String ipv6Address) throws IOException {
     requireNonNull(domainName, "Domain name is null");
     requireIPv6(ipv6Address);
-    Map<String, Object> req = newTTLReq();
-    req.put("name", domainName);
-    req.put("ipv6addr", ipv6Address);
+    AAAACreate req = AAAACreate.builder().ttl(ttl()).name(domainName).ipv6Addr(ipv6Address).build();
     return exec(infoblox.createAAAARec(wapiVersion(), req)).result();
   }
 
@@ -787,6 +1258,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteAAAARec(String domainName) throws IOException {
+    evict(WapiType.AAAA, domainName);
     return deleteRecords(getAAAARec(domainName));
   }
 
@@ -799,6 +1271,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteAAAARec(String domainName, String ipv6Address) throws IOException {
+    evict(WapiType.AAAA, domainName);
     return deleteRecords(getAAAARec(domainName, ipv6Address));
   }
 
@@ -810,19 +1283,10 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<AAAA> modifyAAAARec(String domainName, String newDomainName) throws IOException {
-    return getAAAARec(domainName)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("name", newDomainName);
-              try {
-                return exec(infoblox.modifyAAAARec(wapiVersion(), rec.ref().value(), req)).result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying AAAA record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.AAAA, domainName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("name", newDomainName);
+    return modifyRecords(getAAAARec(domainName), req);
   }
 
   // --------<CNAME Record>--------
@@ -837,19 +1301,10 @@ public abstract class InfobloxClient {
    */
   public List<AAAA> modifyAAAARec(String domainName, String ipv6Address, String newIPv6Address)
       throws IOException {
-    return getAAAARec(domainName, ipv6Address)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("ipv6addr", newIPv6Address);
-              try {
-                return exec(infoblox.modifyAAAARec(wapiVersion(), rec.ref().value(), req)).result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying AAAA record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.AAAA, domainName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("ipv6addr", newIPv6Address);
+    return modifyRecords(getAAAARec(domainName, ipv6Address), req);
   }
 
   /**
@@ -876,6 +1331,40 @@ public abstract class InfobloxClient {
     return getCNameRec(aliasName, CASE_INSENSITIVE);
   }
 
+  /**
+   * Lazily stream canonical records (CNAME) for the given alias name and search option, by
+   * querying pageSize max results at a time.
+   *
+   * @param aliasName fqdn, all the records are returned if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param pageSize max results to query at a time.
+   * @return stream of matching {@link CNAME}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<CNAME> streamCNameRec(
+      @Nullable String aliasName, SearchModifier modifier, int pageSize) {
+    return stream(WapiType.CNAME, searchOpts("name", aliasName, modifier), pageSize);
+  }
+
+  /**
+   * Visits canonical records (CNAME) for the given alias name and search option, decoding each
+   * record incrementally from the response. Results are queried {@link #DEFAULT_PAGE_SIZE} at a
+   * time.
+   *
+   * @param aliasName fqdn, all the records are visited if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param action action to be performed for each {@link CNAME}
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   * @see #forEach(WapiType, Map, int, Consumer)
+   */
+  public long forEachCNameRec(
+      @Nullable String aliasName, SearchModifier modifier, Consumer<? super CNAME> action)
+      throws IOException {
+    return forEach(
+        WapiType.CNAME, searchOpts("name", aliasName, modifier), DEFAULT_PAGE_SIZE, action);
+  }
+
   /**
    * Get canonical records (CNAME) for the given alias name and canonical name.
    *
@@ -921,7 +1410,7 @@ public abstract class InfobloxClient {
     if (canonicalName != null) {
       options.put("canonical" + modifier.getValue(), canonicalName);
     }
-    return exec(infoblox.queryCNAMERec(wapiVersion(), options)).result();
+    return query(WapiType.CNAME, options, opts -> infoblox.queryCNAMERec(wapiVersion(), opts));
   }
 
   /**
@@ -937,9 +1426,8 @@ public abstract class InfobloxClient {
     requireNonNull(aliasName, "Alias name is null");
     requireNonNull(canonicalName, "Canonical name is null");
 
-    Map<String, Object> req = newTTLReq();
-    req.put("name", aliasName);
-    req.put("canonical", canonicalName);
+    CNAMECreate req =
+        CNAMECreate.builder().ttl(ttl()).name(aliasName).canonical(canonicalName).build();
     return exec(infoblox.createCNAMERec(wapiVersion(), req)).result();
   }
 
@@ -952,6 +1440,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteCNameRec(String aliasName, String canonicalName) throws IOException {
+    evict(WapiType.CNAME, aliasName);
     return deleteRecords(getCNameRec(aliasName, canonicalName));
   }
 
@@ -963,6 +1452,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteCNameRec(String aliasName) throws IOException {
+    evict(WapiType.CNAME, aliasName);
     return deleteRecords(getCNameRec(aliasName));
   }
 
@@ -974,20 +1464,10 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<CNAME> modifyCNameRec(String aliasName, String newAliasName) throws IOException {
-    return getCNameRec(aliasName)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("name", newAliasName);
-              try {
-                return exec(infoblox.modifyCNAMERec(wapiVersion(), rec.ref().value(), req))
-                    .result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying CNAME record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.CNAME, aliasName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("name", newAliasName);
+    return modifyRecords(getCNameRec(aliasName), req);
   }
 
   // --------<MX Record>--------
@@ -1001,20 +1481,10 @@ public abstract class InfobloxClient {
    */
   public List<CNAME> modifyCNameCanonicalRec(String aliasName, String newCanonicalName)
       throws IOException {
-    return getCNameRec(aliasName)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("canonical", newCanonicalName);
-              try {
-                return exec(infoblox.modifyCNAMERec(wapiVersion(), rec.ref().value(), req))
-                    .result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying CNAME record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.CNAME, aliasName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("canonical", newCanonicalName);
+    return modifyRecords(getCNameRec(aliasName), req);
   }
 
   /**
@@ -1029,7 +1499,7 @@ public abstract class InfobloxClient {
 
     Map<String, String> options = new HashMap<>(1);
     options.put("name" + modifier.getValue(), domainName);
-    return exec(infoblox.queryMXRec(wapiVersion(), options)).result();
+    return query(WapiType.MX, options, opts -> infoblox.queryMXRec(wapiVersion(), opts));
   }
 
   /**
@@ -1043,6 +1513,40 @@ public abstract class InfobloxClient {
     return getMXRec(domainName, CASE_INSENSITIVE);
   }
 
+  /**
+   * Lazily stream mail exchange (MX) records for the given domain name and search option, by
+   * querying pageSize max results at a time.
+   *
+   * @param domainName fqdn, all the records are returned if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param pageSize max results to query at a time.
+   * @return stream of matching {@link MX}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<MX> streamMXRec(
+      @Nullable String domainName, SearchModifier modifier, int pageSize) {
+    return stream(WapiType.MX, searchOpts("name", domainName, modifier), pageSize);
+  }
+
+  /**
+   * Visits mail exchange (MX) records for the given domain name and search option, decoding each
+   * record incrementally from the response. Results are queried {@link #DEFAULT_PAGE_SIZE} at a
+   * time.
+   *
+   * @param domainName fqdn, all the records are visited if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param action action to be performed for each {@link MX}
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   * @see #forEach(WapiType, Map, int, Consumer)
+   */
+  public long forEachMXRec(
+      @Nullable String domainName, SearchModifier modifier, Consumer<? super MX> action)
+      throws IOException {
+    return forEach(
+        WapiType.MX, searchOpts("name", domainName, modifier), DEFAULT_PAGE_SIZE, action);
+  }
+
   /**
    * Get mail exchange (MX) records for the given domain name and mail exchanger.
    *
@@ -1061,7 +1565,7 @@ public abstract class InfobloxClient {
     String searchModifier = CASE_INSENSITIVE.getValue();
     options.put("name" + searchModifier, domainName);
     options.put("mail_exchanger", mailExchanger);
-    return exec(infoblox.queryMXRec(wapiVersion(), options)).result();
+    return query(WapiType.MX, options, opts -> infoblox.queryMXRec(wapiVersion(), opts));
   }
 
   /**
@@ -1081,10 +1585,13 @@ public abstract class InfobloxClient {
     requireNonNull(domainName, "Domain name is null");
     requireNonNull(mailExchanger, "MailExchanger is null");
 
-    Map<String, Object> req = newTTLReq();
-    req.put("name", domainName);
-    req.put("mail_exchanger", mailExchanger);
-    req.put("preference", preference);
+    MXCreate req =
+        MXCreate.builder()
+            .ttl(ttl())
+            .name(domainName)
+            .mailExchanger(mailExchanger)
+            .preference(preference)
+            .build();
     return exec(infoblox.createMXRec(wapiVersion(), req)).result();
   }
 
@@ -1096,6 +1603,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteMXRec(String domainName) throws IOException {
+    evict(WapiType.MX, domainName);
     return deleteRecords(getMXRec(domainName));
   }
 
@@ -1109,6 +1617,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteMXRec(String domainName, String mailExchanger) throws IOException {
+    evict(WapiType.MX, domainName);
     return deleteRecords(getMXRec(domainName, mailExchanger));
   }
 
@@ -1122,19 +1631,10 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<MX> modifyMXRec(String domainName, String newDomainName) throws IOException {
-    return getMXRec(domainName)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("name", newDomainName);
-              try {
-                return exec(infoblox.modifyMXRec(wapiVersion(), rec.ref().value(), req)).result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying MX record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.MX, domainName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("name", newDomainName);
+    return modifyRecords(getMXRec(domainName), req);
   }
 
   /**
@@ -1145,11 +1645,11 @@ public abstract class InfobloxClient {
    */
   public List<PTR> getPTRRec(String ipAddress) throws IOException {
     requireNonNull(ipAddress, "IPAddress is null");
-    String addrType = IPAddrs.isIPv4(ipAddress) ? "ipv4addr" : "ipv6addr";
+    String addrType = ptrAddrType(ipAddress);
 
     Map<String, String> options = new HashMap<>(1);
     options.put(addrType, ipAddress);
-    return exec(infoblox.queryPTRRec(wapiVersion(), options)).result();
+    return query(WapiType.PTR, options, opts -> infoblox.queryPTRRec(wapiVersion(), opts));
   }
 
   /**
@@ -1164,7 +1664,60 @@ public abstract class InfobloxClient {
     Map<String, String> options = new HashMap<>(1);
     String searchModifier = CASE_INSENSITIVE.getValue();
     options.put("ptrdname" + searchModifier, ptrdname);
-    return exec(infoblox.queryPTRRec(wapiVersion(), options)).result();
+    return query(WapiType.PTR, options, opts -> infoblox.queryPTRRec(wapiVersion(), opts));
+  }
+
+  /**
+   * Lazily stream pointer (PTR) records for the given pointer domain name and search option, by
+   * querying pageSize max results at a time.
+   *
+   * @param ptrdname pointer domain name, all the records are returned if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param pageSize max results to query at a time.
+   * @return stream of matching {@link PTR}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<PTR> streamPTRDRec(
+      @Nullable String ptrdname, SearchModifier modifier, int pageSize) {
+    return stream(WapiType.PTR, searchOpts("ptrdname", ptrdname, modifier), pageSize);
+  }
+
+  /**
+   * Visits pointer (PTR) records for the given pointer domain name and search option, decoding each
+   * record incrementally from the response. Results are queried {@link #DEFAULT_PAGE_SIZE} at a
+   * time.
+   *
+   * @param ptrdname pointer domain name, all the records are visited if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param action action to be performed for each {@link PTR}
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   * @see #forEach(WapiType, Map, int, Consumer)
+   */
+  public long forEachPTRDRec(
+      @Nullable String ptrdname, SearchModifier modifier, Consumer<? super PTR> action)
+      throws IOException {
+    return forEach(
+        WapiType.PTR, searchOpts("ptrdname", ptrdname, modifier), DEFAULT_PAGE_SIZE, action);
+  }
+
+  /**
+   * Creates a new PTR create request with the client ttl set.
+   *
+   * @param ipAddress IPv4/v6 address.
+   * @param ptrdname pointer domain name.
+   * @return {@link PTRCreate} request.
+   * @throws IllegalArgumentException if it's not a valid IP address.
+   */
+  PTRCreate newPTRReq(String ipAddress, String ptrdname) {
+    PTRCreate.Builder req =
+        PTRCreate.builder().ttl(ttl()).name(PTR.reverseMapName(ipAddress)).ptrdname(ptrdname);
+    if ("ipv4addr".equals(ptrAddrType(ipAddress))) {
+      req.ipv4addr(ipAddress);
+    } else {
+      req.ipv6addr(ipAddress);
+    }
+    return req.build();
   }
 
   /**
@@ -1178,13 +1731,7 @@ public abstract class InfobloxClient {
   public PTR createPTRRec(String ipAddress, String ptrdname) throws IOException {
     requireNonNull(ptrdname, "Pointer domain name is null");
     requireNonNull(ipAddress, "IPAddress is null");
-    String addrType = IPAddrs.isIPv4(ipAddress) ? "ipv4addr" : "ipv6addr";
-
-    Map<String, Object> req = newTTLReq();
-    req.put("name", PTR.reverseMapName(InetAddress.getByName(ipAddress)));
-    req.put("ptrdname", ptrdname);
-    req.put(addrType, ipAddress);
-    return exec(infoblox.createPTRRec(wapiVersion(), req)).result();
+    return exec(infoblox.createPTRRec(wapiVersion(), newPTRReq(ipAddress, ptrdname))).result();
   }
 
   /**
@@ -1195,19 +1742,10 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<PTR> modifyPTRRec(String ipAddress, String newPtrdname) throws IOException {
-    return getPTRRec(ipAddress)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("ptrdname", newPtrdname);
-              try {
-                return exec(infoblox.modifyPTRRec(wapiVersion(), rec.ref().value(), req)).result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying PTR record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.PTR, ipAddress);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("ptrdname", newPtrdname);
+    return modifyRecords(getPTRRec(ipAddress), req);
   }
 
   /**
@@ -1218,6 +1756,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deletePTRRec(String ipAddress) throws IOException {
+    evict(WapiType.PTR, ipAddress);
     return deleteRecords(getPTRRec(ipAddress));
   }
 
@@ -1231,6 +1770,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deletePTRDRec(String ptrdname) throws IOException {
+    evict(WapiType.PTR, ptrdname);
     return deleteRecords(getPTRDRec(ptrdname));
   }
 
@@ -1246,7 +1786,7 @@ public abstract class InfobloxClient {
 
     Map<String, String> options = new HashMap<>(1);
     options.put("name" + modifier.getValue(), domainName);
-    return exec(infoblox.queryTXTRec(wapiVersion(), options)).result();
+    return query(WapiType.TXT, options, opts -> infoblox.queryTXTRec(wapiVersion(), opts));
   }
 
   /**
@@ -1260,6 +1800,39 @@ public abstract class InfobloxClient {
     return getTXTRec(domainName, CASE_INSENSITIVE);
   }
 
+  /**
+   * Lazily stream text (TXT) records for the given domain name and search option, by querying
+   * pageSize max results at a time.
+   *
+   * @param domainName fqdn, all the records are returned if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param pageSize max results to query at a time.
+   * @return stream of matching {@link TXT}
+   * @see #stream(WapiType, Map, int)
+   */
+  public Stream<TXT> streamTXTRec(
+      @Nullable String domainName, SearchModifier modifier, int pageSize) {
+    return stream(WapiType.TXT, searchOpts("name", domainName, modifier), pageSize);
+  }
+
+  /**
+   * Visits text (TXT) records for the given domain name and search option, decoding each record
+   * incrementally from the response. Results are queried {@link #DEFAULT_PAGE_SIZE} at a time.
+   *
+   * @param domainName fqdn, all the records are visited if it's <code>null</code>.
+   * @param modifier search modifier
+   * @param action action to be performed for each {@link TXT}
+   * @return number of records visited.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   * @see #forEach(WapiType, Map, int, Consumer)
+   */
+  public long forEachTXTRec(
+      @Nullable String domainName, SearchModifier modifier, Consumer<? super TXT> action)
+      throws IOException {
+    return forEach(
+        WapiType.TXT, searchOpts("name", domainName, modifier), DEFAULT_PAGE_SIZE, action);
+  }
+
   /**
    * Creates text (TXT) record for a domain name.
    *
@@ -1272,9 +1845,7 @@ public abstract class InfobloxClient {
     requireNonNull(domainName, "Domain name is null");
     requireNonNull(text, "Text is null");
 
-    Map<String, Object> req = newTTLReq();
-    req.put("name", domainName);
-    req.put("text", text);
+    TXTCreate req = TXTCreate.builder().ttl(ttl()).name(domainName).text(text).build();
     return exec(infoblox.createTXTRec(wapiVersion(), req)).result();
   }
 
@@ -1286,6 +1857,7 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<String> deleteTXTRec(String domainName) throws IOException {
+    evict(WapiType.TXT, domainName);
     return deleteRecords(getTXTRec(domainName));
   }
 
@@ -1303,19 +1875,10 @@ public abstract class InfobloxClient {
    * @throws IOException if a problem occurred talking to the infoblox.
    */
   public List<TXT> modifyTXTRec(String domainName, String newText) throws IOException {
-    return getTXTRec(domainName)
-        .stream()
-        .map(
-            rec -> {
-              Map<String, String> req = new HashMap<>(1);
-              req.put("text", newText);
-              try {
-                return exec(infoblox.modifyTXTRec(wapiVersion(), rec.ref().value(), req)).result();
-              } catch (IOException ioe) {
-                throw new IllegalStateException("Error modifying TXT record: " + rec, ioe);
-              }
-            })
-        .collect(Collectors.toList());
+    evict(WapiType.TXT, domainName);
+    Map<String, Object> req = new HashMap<>(1);
+    req.put("text", newText);
+    return modifyRecords(getTXTRec(domainName), req);
   }
 
   /**
@@ -1330,25 +1893,213 @@ public abstract class InfobloxClient {
     requireNonNull(record, "Record is null.");
     log.warn("Changing TTL of record " + record + " to '" + newTTL + "' seconds.");
 
-    Map<String, Object> req = newTTLReq();
-    req.put("ttl", newTTL);
+    TTLModify req = TTLModify.of(newTTL);
     return exec(infoblox.modifyTTL(wapiVersion(), record.ref().value(), req)).result();
   }
 
   /**
-   * A helper method to delete list of DNS records.
+   * Modifies the given records, without looking them up again. Use this if the records are already
+   * fetched, to save the query round trip.
+   *
+   * @param recs records to be modified, all of the same type.
+   * @param fields fields to be updated.
+   * @return list of modified records.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public <T extends Record> List<T> modifyRecords(List<T> recs, Map<String, ?> fields)
+      throws IOException {
+    return modifyRecords(recs, fields, parallelism());
+  }
+
+  /**
+   * Modifies the given records, without looking them up again. At most <b>parallelism</b> writes
+   * are in flight at a time.
+   *
+   * @param recs records to be modified, all of the same type.
+   * @param fields fields to be updated.
+   * @param parallelism max concurrent writes.
+   * @return list of modified records, in the same order.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Record> List<T> modifyRecords(
+      List<T> recs, Map<String, ?> fields, int parallelism) throws IOException {
+    requireNonNull(recs, "Records are null.");
+    if (recs.isEmpty()) {
+      return new ArrayList<>();
+    }
+    WapiType<T> type = (WapiType<T>) typeOf(recs.get(0).ref());
+    List<Ref> refs = recs.stream().map(Record::ref).collect(Collectors.toList());
+    return modifyRefs(type, refs, fields, parallelism);
+  }
+
+  /**
+   * Modifies the WAPI objects with given references, without looking them up.
+   *
+   * @param type WAPI object type of the references.
+   * @param refs object references.
+   * @param fields fields to be updated.
+   * @return list of modified records.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public <T extends Record> List<T> modifyRefs(
+      WapiType<T> type, Collection<Ref> refs, Map<String, ?> fields) throws IOException {
+    return modifyRefs(type, refs, fields, parallelism());
+  }
+
+  /**
+   * Modifies the WAPI objects with given references, without looking them up. At most
+   * <b>parallelism</b> writes are in flight at a time.
+   *
+   * @param type WAPI object type of the references.
+   * @param refs object references.
+   * @param fields fields to be updated.
+   * @param parallelism max concurrent writes.
+   * @return list of modified records, in the same order.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public <T extends Record> List<T> modifyRefs(
+      WapiType<T> type, Collection<Ref> refs, Map<String, ?> fields, int parallelism)
+      throws IOException {
+    requireNonNull(type, "Type is null.");
+    requireNonNull(refs, "References are null.");
+    requireNonNull(fields, "Fields are null.");
+    Map<String, Object> req = new HashMap<>(fields);
+    JsonAdapter<Result<T>> adapter =
+        moshi.adapter(Types.newParameterizedType(Result.class, type.modelClass()));
+
+    List<ResponseBody> bodies =
+        execAll(
+            refs,
+            ref -> {
+              log.warn("Modifying " + ref.value() + " to " + req);
+              return infoblox.modifyRef(wapiVersion(), ref.value(), type.returnFields(), req);
+            },
+            parallelism);
+
+    List<T> recs = new ArrayList<>(bodies.size());
+    for (ResponseBody body : bodies) {
+      try (ResponseBody res = body) {
+        recs.add(requireNonNull(adapter.fromJson(res.source()), "Empty result").result());
+      }
+    }
+    return recs;
+  }
+
+  /**
+   * Deletes list of DNS records, without looking them up again.
    *
    * @param recs list of DNS records to be deleted.
    * @return list of deleted record ref ids.
    * @throws IOException if a problem occurred talking to the infoblox.
    */
-  private <T extends Record> List<String> deleteRecords(List<T> recs) throws IOException {
-    List<String> list = new ArrayList<>();
-    for (T rec : recs) {
-      String s = deleteRecord(rec);
-      list.add(s);
+  public <T extends Record> List<String> deleteRecords(List<T> recs) throws IOException {
+    return deleteRecords(recs, parallelism());
+  }
+
+  /**
+   * Deletes list of DNS records, without looking them up again. At most <b>parallelism</b>
+   * deletes are in flight at a time.
+   *
+   * @param recs list of DNS records to be deleted.
+   * @param parallelism max concurrent deletes.
+   * @return list of deleted record ref ids, in the same order.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public <T extends Record> List<String> deleteRecords(List<T> recs, int parallelism)
+      throws IOException {
+    requireNonNull(recs, "Records are null.");
+    List<Ref> refs = recs.stream().map(Record::ref).collect(Collectors.toList());
+    return deleteRefs(refs, parallelism);
+  }
+
+  /**
+   * Deletes the WAPI objects with given references.
+   *
+   * @param refs object references.
+   * @return list of deleted ref ids, in the same order.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public List<String> deleteRefs(Collection<Ref> refs) throws IOException {
+    return deleteRefs(refs, parallelism());
+  }
+
+  /**
+   * Deletes the WAPI objects with given references. At most <b>parallelism</b> deletes are in
+   * flight at a time.
+   *
+   * @param refs object references.
+   * @param parallelism max concurrent deletes.
+   * @return list of deleted ref ids, in the same order.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public List<String> deleteRefs(Collection<Ref> refs, int parallelism) throws IOException {
+    requireNonNull(refs, "References are null.");
+    List<Result<String>> res =
+        execAll(
+            refs,
+            ref -> {
+              log.warn("Deleting a dns record: " + ref.value());
+              return infoblox.deleteRef(wapiVersion(), ref.value());
+            },
+            parallelism);
+    return res.stream().map(Result::result).collect(Collectors.toList());
+  }
+
+  /** Returns the WAPI type of the reference, if it's supported. */
+  private static WapiType<?> typeOf(Ref ref) {
+    WapiType<?> type = WapiType.of(ref.wapiType());
+    if (type == null) {
+      throw new IllegalArgumentException("Unsupported WAPI object: " + ref.value());
+    }
+    return type;
+  }
+
+  /**
+   * Executes the WAPI call for each reference, with at most <b>parallelism</b> calls in flight.
+   * Sequential calls are run on the caller thread. Concurrent calls are run on the configured
+   * {@link #executor()}, else dispatched asynchronously using OkHttp, in which case the dispatcher
+   * limits also apply. All the calls are attempted even if some of them fail.
+   *
+   * @return list of results, in the same order of references.
+   * @throws BulkOperationException if some of the calls failed. The original exception is thrown
+   *     if there is only one reference.
+   * @see BulkCalls
+   */
+  private <R> List<R> execAll(Collection<Ref> refs, Function<Ref, Call<R>> call, int parallelism)
+      throws IOException {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
     }
-    return list;
+    if (refs.size() == 1) {
+      return singletonList(exec(call.apply(refs.iterator().next())));
+    }
+
+    Executor executor = parallelism == 1 ? Runnable::run : executor().orElse(null);
+    CompletableFuture<List<R>> future = BulkCalls.start(this, refs, call, parallelism, executor);
+    try {
+      return future.get();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new InterruptedIOException("Interrupted executing the WAPI calls.");
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  /**
+   * Asynchronous version of {@link #execAll(Collection, Function, int)}, using the client {@link
+   * #parallelism()}, which doesn't block the caller.
+   */
+  <R> CompletableFuture<List<R>> execAllAsync(Collection<Ref> refs, Function<Ref, Call<R>> call) {
+    return BulkCalls.start(this, refs, call, parallelism(), executor().orElse(null));
   }
 
   /**
@@ -1364,6 +2115,26 @@ public abstract class InfobloxClient {
     return exec(infoblox.deleteRef(wapiVersion(), rec.ref().value())).result();
   }
 
+  /**
+   * Returns a new multi-object request, which sends the queued operations in chunks of {@link
+   * BatchOperation#DEFAULT_CHUNK_SIZE} operations per request.
+   *
+   * @return {@link BatchOperation}
+   */
+  public BatchOperation batch() {
+    return batch(BatchOperation.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Returns a new multi-object request, which sends the queued operations in chunks of given size.
+   *
+   * @param chunkSize max operations per WAPI request.
+   * @return {@link BatchOperation}
+   */
+  public BatchOperation batch(int chunkSize) {
+    return new BatchOperation(this, chunkSize);
+  }
+
   /**
    * Deletes a DNS record with the given WAPI reference id.
    *
@@ -1377,6 +2148,24 @@ public abstract class InfobloxClient {
     return exec(infoblox.deleteRef(wapiVersion(), ref.value())).result();
   }
 
+  /**
+   * Logs out the current WAPI session, if any. The client can still be used after closing, which
+   * will start a new session.
+   *
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  @Override
+  public void close() throws IOException {
+    if (cookieJar != null && cookieJar.hasSession()) {
+      log.info("Logging out the WAPI session.");
+      try {
+        exec(infoblox.logout(wapiVersion()));
+      } finally {
+        cookieJar.clear();
+      }
+    }
+  }
+
   @AutoValue.Builder
   public abstract static class Builder {
 
@@ -1400,14 +2189,68 @@ public abstract class InfobloxClient {
 
     public abstract Builder timeout(int timeout);
 
+    public abstract Builder connectTimeout(int connectTimeout);
+
+    public abstract Builder readTimeout(int readTimeout);
+
+    public abstract Builder writeTimeout(int writeTimeout);
+
+    public abstract Builder callTimeout(int callTimeout);
+
+    public abstract Builder maxIdleConnections(int maxIdleConnections);
+
+    public abstract Builder keepAliveDuration(int keepAliveDuration);
+
+    public abstract Builder maxRequests(int maxRequests);
+
+    public abstract Builder maxRequestsPerHost(int maxRequestsPerHost);
+
+    public abstract Builder connectionPool(ConnectionPool connectionPool);
+
+    public abstract Builder dispatcher(Dispatcher dispatcher);
+
+    public abstract Builder transport(InfobloxTransport transport);
+
+    public abstract Builder cache(RecordCache cache);
+
+    public abstract Builder parallelism(int parallelism);
+
+    public abstract Builder executor(Executor executor);
+
+    public abstract Builder resiliencePolicy(ResiliencePolicy resiliencePolicy);
+
+    public abstract Builder limiter(RequestLimiter limiter);
+
+    public abstract Builder metrics(WapiMetrics metrics);
+
+    public abstract Builder requestLogger(SampledLoggingInterceptor requestLogger);
+
     public abstract Builder debug(boolean debug);
 
+    public abstract Builder sessionAuth(boolean sessionAuth);
+
     abstract boolean tlsVerify();
 
     abstract Optional<String> trustStore();
 
     abstract Optional<String> trustStorePassword();
 
+    abstract Optional<InfobloxTransport> transport();
+
+    abstract int parallelism();
+
+    abstract OptionalInt maxIdleConnections();
+
+    abstract OptionalInt keepAliveDuration();
+
+    abstract OptionalInt maxRequests();
+
+    abstract OptionalInt maxRequestsPerHost();
+
+    abstract Optional<ConnectionPool> connectionPool();
+
+    abstract Optional<Dispatcher> dispatcher();
+
     abstract InfobloxClient autoBuild();
 
     /**
@@ -1416,19 +2259,32 @@ public abstract class InfobloxClient {
      * @return client.
      */
     public InfobloxClient build() {
-      // Trust-store properties validation if TLS is enabled.
-      if (tlsVerify()) {
-        trustStore().orElseThrow(() -> new IllegalStateException("Truststore path is empty."));
-        trustStorePassword()
-            .orElseThrow(() -> new IllegalStateException("Truststore password is empty."));
+      if (parallelism() <= 0) {
+        throw new IllegalStateException("Invalid parallelism: " + parallelism());
       }
 
-      InfobloxClient client = autoBuild();
-      try {
-        client.init();
-      } catch (GeneralSecurityException ex) {
-        throw new IllegalArgumentException("Infoblox client init failed.", ex);
+      // Pool and dispatcher limits can't be applied to the shared instances.
+      if (connectionPool().isPresent()
+          && (maxIdleConnections().isPresent() || keepAliveDuration().isPresent())) {
+        throw new IllegalStateException("Connection pool limits are set for a shared pool.");
+      }
+      if (dispatcher().isPresent()
+          && (maxRequests().isPresent() || maxRequestsPerHost().isPresent())) {
+        throw new IllegalStateException("Request limits are set for a shared dispatcher.");
       }
+
+      InfobloxTransport transport =
+          transport().orElseGet(
+              () -> {
+                InfobloxTransport.Builder builder =
+                    InfobloxTransport.builder().tlsVerify(tlsVerify());
+                trustStore().ifPresent(builder::trustStore);
+                trustStorePassword().ifPresent(builder::trustStorePassword);
+                return builder.build();
+              });
+
+      InfobloxClient client = autoBuild();
+      client.init(transport);
       return client;
     }
   }
@@ -0,0 +1,254 @@
+package com.oneops.infoblox;
+
+import static java.util.Collections.singletonList;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.JsonAdapterFactory;
+import com.oneops.infoblox.model.Redacted;
+import com.oneops.infoblox.model.ref.RefObject;
+import com.oneops.infoblox.tls.SNIDisabledSocketFactory;
+import com.oneops.infoblox.tls.TrustAllCertsManager;
+import com.squareup.moshi.Moshi;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.Optional;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import okhttp3.ConnectionSpec;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Converter;
+import retrofit2.converter.moshi.MoshiConverterFactory;
+
+/**
+ * Heavyweight parts of the WAPI http stack (TLS context, trust store, connection pool, dispatcher
+ * and JSON converters), which can be shared by many {@link InfobloxClient}s. Building a client on
+ * top of an existing transport only creates the per-client auth and Retrofit service.
+ *
+ * <pre>{@code
+ * InfobloxTransport transport = InfobloxTransport.builder()
+ *     .trustStore("classpath:/ca.p12")
+ *     .trustStorePassword("changeit")
+ *     .build();
+ *
+ * InfobloxClient client = InfobloxClient.builder()
+ *     .endPoint("grid1.xyz.com")
+ *     .userName("user")
+ *     .password("pass")
+ *     .transport(transport)
+ *     .build();
+ * }</pre>
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class InfobloxTransport {
+
+  /** Moshi instance shared by all the transports, as it's immutable and caches the adapters. */
+  private static final Moshi MOSHI =
+      new Moshi.Builder().add(JsonAdapterFactory.create()).add(new RefObject.JsonAdapter()).build();
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+  private OkHttpClient okHttp;
+  private Converter.Factory converterFactory;
+
+  /**
+   * Returns the builder for {@link InfobloxTransport} with default values for un-initialized
+   * optional fields.
+   *
+   * @return Builder
+   */
+  public static Builder builder() {
+    return new AutoValue_InfobloxTransport.Builder().tlsVerify(true);
+  }
+
+  /** Checks if TLS certificate validation is enabled for communicating with Infoblox. */
+  public abstract boolean tlsVerify();
+
+  /**
+   * PKCS#12 (.p12) file path contains trusted CA certs. If the path starts with <b>classpath:</b>,
+   * it will be loaded from classpath. This is optional and required only if {@link #tlsVerify()} is
+   * enabled.
+   */
+  public abstract Optional<String> trustStore();
+
+  /**
+   * TrustStore password. Default password is 'changeit'. This is optional and required only if
+   * {@link #tlsVerify()} is enabled.
+   */
+  @Redacted
+  public abstract Optional<String> trustStorePassword();
+
+  /**
+   * Initializes the TLS http client. Server Name Indication (SNI) TLS extension is disabled by
+   * default as it never worked with Infoblox.
+   *
+   * @throws GeneralSecurityException if any error initializing the TLS context.
+   */
+  private void init() throws GeneralSecurityException {
+    log.info("Initializing " + toString());
+    TrustManager[] trustManagers = getTrustManagers();
+    SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
+    sslContext.init(null, trustManagers, new SecureRandom());
+
+    // Disable SNIExtension.
+    SSLSocketFactory socketFactory = new SNIDisabledSocketFactory(sslContext.getSocketFactory());
+
+    OkHttpClient.Builder okBuilder =
+        new OkHttpClient()
+            .newBuilder()
+            .sslSocketFactory(socketFactory, (X509TrustManager) trustManagers[0])
+            .connectionSpecs(singletonList(ConnectionSpec.MODERN_TLS))
+            .followSslRedirects(false)
+            .retryOnConnectionFailure(true)
+            .addInterceptor(
+                chain -> {
+                  HttpUrl origUrl = chain.request().url();
+                  HttpUrl url =
+                      origUrl
+                          .newBuilder()
+                          .addQueryParameter("_return_as_object", "1")
+                          // .addQueryParameter("_paging", "1")
+                          // .addQueryParameter("_max_results","1")
+                          .build();
+                  Request req =
+                      chain
+                          .request()
+                          .newBuilder()
+                          .addHeader("Content-Type", "application/json")
+                          .url(url)
+                          .build();
+                  return chain.proceed(req);
+                });
+
+    if (!tlsVerify()) {
+      okBuilder.hostnameVerifier((host, session) -> true);
+    }
+    okHttp = okBuilder.build();
+    converterFactory = MoshiConverterFactory.create(MOSHI);
+  }
+
+  /** Returns the shared base http client. Clients derive from it using {@code newBuilder()}. */
+  OkHttpClient okHttp() {
+    return okHttp;
+  }
+
+  /** Returns the Moshi instance used for JSON [de]serialization. */
+  Moshi moshi() {
+    return MOSHI;
+  }
+
+  /** Returns the Retrofit JSON converter factory. */
+  Converter.Factory converterFactory() {
+    return converterFactory;
+  }
+
+  /**
+   * Returns the trust-store manager.If the {@link #tlsVerify()} is disabled, it trusts all certs
+   * using a custom trust manager.
+   *
+   * @return trust managers.
+   * @throws GeneralSecurityException if any error initializing trust store.
+   */
+  private TrustManager[] getTrustManagers() throws GeneralSecurityException {
+    final TrustManager[] trustMgrs;
+    if (tlsVerify()) {
+      KeyStore trustStore = loadTrustStore();
+      final TrustManagerFactory trustManagerFactory =
+          TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+      trustManagerFactory.init(trustStore);
+      trustMgrs = trustManagerFactory.getTrustManagers();
+    } else {
+      log.info("Skipping TLS certs verification.");
+      trustMgrs = new X509TrustManager[] {new TrustAllCertsManager()};
+    }
+    return trustMgrs;
+  }
+
+  /**
+   * Load trust store (PKCS12) from the given file/classpath resource.
+   *
+   * @throws IllegalStateException if the file/classpath resource doesn't exist.
+   */
+  @SuppressWarnings("OptionalGetWithoutIsPresent")
+  private KeyStore loadTrustStore() {
+
+    String tsPath = trustStore().get().toLowerCase();
+    char[] tsPasswd = trustStorePassword().get().toCharArray();
+    boolean fileResource = true;
+
+    if (tsPath.startsWith("classpath:")) {
+      tsPath = tsPath.replace("classpath:", "");
+      fileResource = false;
+    }
+
+    try {
+      try (InputStream ins =
+          fileResource
+              ? Files.newInputStream(Paths.get(tsPath))
+              : getClass().getResourceAsStream(tsPath)) {
+
+        log.info("Loading the trustStore: {}", tsPath);
+        if (ins == null) {
+          throw new IllegalStateException("Can't find the trustStore: " + tsPath);
+        }
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        ks.load(ins, tsPasswd);
+        return ks;
+      }
+    } catch (IOException | GeneralSecurityException ex) {
+      throw new IllegalStateException("Can't load the trustStore: " + tsPath, ex);
+    }
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder tlsVerify(boolean tlsVerify);
+
+    public abstract Builder trustStore(String trustStore);
+
+    public abstract Builder trustStorePassword(String trustStorePassword);
+
+    abstract boolean tlsVerify();
+
+    abstract Optional<String> trustStore();
+
+    abstract Optional<String> trustStorePassword();
+
+    abstract InfobloxTransport autoBuild();
+
+    /**
+     * Build and initialize the transport.
+     *
+     * @return transport.
+     */
+    public InfobloxTransport build() {
+      // Trust-store properties validation if TLS is enabled.
+      if (tlsVerify()) {
+        trustStore().orElseThrow(() -> new IllegalStateException("Truststore path is empty."));
+        trustStorePassword()
+            .orElseThrow(() -> new IllegalStateException("Truststore password is empty."));
+      }
+
+      InfobloxTransport transport = autoBuild();
+      try {
+        transport.init();
+      } catch (GeneralSecurityException ex) {
+        throw new IllegalArgumentException("Infoblox transport init failed.", ex);
+      }
+      return transport;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.oneops.infoblox;
+
+import static java.util.Objects.requireNonNull;
+
+import com.oneops.infoblox.jfr.JfrEvents;
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.Result;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Types;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A lazy iterator over the WAPI paged results (<b>_paging</b>, <b>_max_results</b> and
+ * <b>_page_id</b>). Only the current page is held in memory, while the next page is fetched in the
+ * background as soon as the current one is received, so the caller rarely waits for a round trip.
+ *
+ * <p>This iterator is not thread safe. Errors talking to the infoblox are thrown as {@link
+ * UncheckedIOException}.
+ *
+ * @author Suresh G
+ */
+final class PageIterator<T extends Record> implements Iterator<T>, AutoCloseable {
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final InfobloxClient client;
+
+  private final WapiType<T> type;
+
+  private final Map<String, String> options;
+
+  private final Type resultType;
+
+  private final JsonAdapter<Result<List<T>>> adapter;
+
+  private Iterator<T> page = Collections.emptyIterator();
+
+  /** Next page in flight, <code>null</code> if there are no more pages. */
+  @Nullable private CompletableFuture<Result<List<T>>> nextPage;
+
+  /** WAPI call of the next page, used for cancelling the request. */
+  @Nullable private CompletableFuture<ResponseBody> nextCall;
+
+  PageIterator(InfobloxClient client, WapiType<T> type, Map<String, String> options, int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Invalid page size: " + pageSize);
+    }
+    this.client = client;
+    this.type = type;
+    this.options = new HashMap<>(options);
+    this.options.put("_return_fields", type.returnFields());
+    this.options.put("_paging", "1");
+    this.options.put("_max_results", String.valueOf(pageSize));
+    this.resultType =
+        Types.newParameterizedType(
+            Result.class, Types.newParameterizedType(List.class, type.modelClass()));
+    this.adapter = client.moshi().adapter(resultType);
+    this.nextPage = fetch(null);
+  }
+
+  /** Fetch the page with given id asynchronously. */
+  private CompletableFuture<Result<List<T>>> fetch(@Nullable String pageId) {
+    Map<String, String> opts = options;
+    if (pageId != null) {
+      log.info("Querying next " + type + " page id: " + pageId);
+      opts = new HashMap<>(options);
+      opts.put("_page_id", pageId);
+    }
+    nextCall = client.execAsync(client.infoblox().query(client.wapiVersion(), type.object(), opts));
+    return nextCall.thenApply(this::decode);
+  }
+
+  private Result<List<T>> decode(ResponseBody body) {
+    try (ResponseBody res = body) {
+      Result<List<T>> page = JfrEvents.decode(resultType, res, b -> adapter.fromJson(b.source()));
+      return requireNonNull(page, "Empty result");
+    } catch (IOException ioe) {
+      throw new UncheckedIOException(ioe);
+    }
+  }
+
+  /** Waits for the page to arrive, unwrapping the cause of failure. */
+  private static <R> R await(CompletableFuture<R> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedIOException(new InterruptedIOException("Interrupted fetching the page"));
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      if (cause instanceof IOException) {
+        throw new UncheckedIOException((IOException) cause);
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!page.hasNext()) {
+      CompletableFuture<Result<List<T>>> current = nextPage;
+      if (current == null) {
+        return false;
+      }
+      Result<List<T>> res = await(current);
+      String nextPageId = res.nextPageId();
+      // Prefetch the next page while the current one is being consumed.
+      nextPage = nextPageId != null ? fetch(nextPageId) : null;
+      page = res.result().iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return page.next();
+  }
+
+  /** Cancels the page in flight, if any. */
+  @Override
+  public void close() {
+    CompletableFuture<ResponseBody> call = nextCall;
+    if (nextPage != null && call != null) {
+      call.cancel(true);
+    }
+    nextPage = null;
+    nextCall = null;
+    page = Collections.emptyIterator();
+  }
+}
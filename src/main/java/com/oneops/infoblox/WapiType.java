@@ -0,0 +1,124 @@
+package com.oneops.infoblox;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.aaaa.AAAA;
+import com.oneops.infoblox.model.cname.CNAME;
+import com.oneops.infoblox.model.host.Host;
+import com.oneops.infoblox.model.mx.MX;
+import com.oneops.infoblox.model.ns.NS;
+import com.oneops.infoblox.model.ptr.PTR;
+import com.oneops.infoblox.model.srv.SRV;
+import com.oneops.infoblox.model.txt.TXT;
+import com.oneops.infoblox.model.zone.ZoneAuth;
+import com.oneops.infoblox.model.zone.ZoneDelegate;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * WAPI object types supported by the client, along with their model class and the fields returned
+ * for them. This is used for the operations that are not bound to a single record type, like
+ * multi-object requests.
+ *
+ * @param <T> model type of the WAPI object.
+ * @author Suresh G
+ */
+public final class WapiType<T extends Record> {
+
+  public static final WapiType<ARec> A = new WapiType<>("record:a", ARec.class, Infoblox.A_FIELDS);
+
+  public static final WapiType<AAAA> AAAA =
+      new WapiType<>("record:aaaa", AAAA.class, Infoblox.AAAA_FIELDS);
+
+  public static final WapiType<CNAME> CNAME =
+      new WapiType<>("record:cname", CNAME.class, Infoblox.CNAME_FIELDS);
+
+  public static final WapiType<Host> HOST =
+      new WapiType<>("record:host", Host.class, Infoblox.HOST_FIELDS);
+
+  public static final WapiType<MX> MX = new WapiType<>("record:mx", MX.class, Infoblox.MX_FIELDS);
+
+  public static final WapiType<NS> NS = new WapiType<>("record:ns", NS.class, Infoblox.NS_FIELDS);
+
+  public static final WapiType<PTR> PTR =
+      new WapiType<>("record:ptr", PTR.class, Infoblox.PTR_FIELDS);
+
+  public static final WapiType<SRV> SRV =
+      new WapiType<>("record:srv", SRV.class, Infoblox.SRV_FIELDS);
+
+  public static final WapiType<TXT> TXT =
+      new WapiType<>("record:txt", TXT.class, Infoblox.TXT_FIELDS);
+
+  public static final WapiType<ZoneAuth> ZONE_AUTH =
+      new WapiType<>("zone_auth", ZoneAuth.class, Infoblox.ZONE_AUTH_FIELDS);
+
+  public static final WapiType<ZoneDelegate> ZONE_DELEGATED =
+      new WapiType<>("zone_delegated", ZoneDelegate.class, Infoblox.ZONE_DELEGATE_FIELDS);
+
+  private static final List<WapiType<?>> VALUES =
+      unmodifiableList(
+          asList(A, AAAA, CNAME, HOST, MX, NS, PTR, SRV, TXT, ZONE_AUTH, ZONE_DELEGATED));
+
+  private static final String RETURN_FIELDS = "_return_fields=";
+
+  private final String object;
+
+  private final Class<T> modelClass;
+
+  private final String returnFields;
+
+  private WapiType(String object, Class<T> modelClass, String returnFields) {
+    this.object = object;
+    this.modelClass = modelClass;
+    this.returnFields = returnFields.substring(RETURN_FIELDS.length());
+  }
+
+  /**
+   * Returns all the supported WAPI types.
+   *
+   * @return unmodifiable list of types.
+   */
+  public static List<WapiType<?>> values() {
+    return VALUES;
+  }
+
+  /**
+   * Returns the WAPI type for the given object name, usually from {@link
+   * com.oneops.infoblox.model.ref.Ref#wapiType()}.
+   *
+   * @param object WAPI object name, eg: <b>record:a</b>
+   * @return {@link WapiType} or <code>null</code> if it's not supported.
+   */
+  @Nullable
+  public static WapiType<?> of(@Nullable String object) {
+    for (WapiType<?> type : VALUES) {
+      if (type.object.equals(object)) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  /** WAPI object name, eg: <b>record:a</b> */
+  public String object() {
+    return object;
+  }
+
+  /** Model class used for JSON [de]serialization of this object. */
+  public Class<T> modelClass() {
+    return modelClass;
+  }
+
+  /** Comma separated list of fields returned for this object. */
+  public String returnFields() {
+    return returnFields;
+  }
+
+  @Override
+  public String toString() {
+    return object;
+  }
+}
@@ -0,0 +1,48 @@
+package com.oneops.infoblox.auth;
+
+import java.io.IOException;
+import okhttp3.Credentials;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * An OkHttp interceptor for WAPI authentication. The Basic auth credentials are sent only when
+ * there is no active session cookie in the {@link SessionCookieJar}, so NIOS does a full
+ * authentication once per session rather than once per request. If the session is rejected
+ * (<b>401</b>), the cookies are cleared and the request is retried once with the credentials.
+ *
+ * @author Suresh G
+ */
+public class SessionAuthInterceptor implements Interceptor {
+
+  private final String basicCreds;
+
+  private final SessionCookieJar cookieJar;
+
+  public SessionAuthInterceptor(String userName, String password, SessionCookieJar cookieJar) {
+    this.basicCreds = Credentials.basic(userName, password);
+    this.cookieJar = cookieJar;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request req = chain.request();
+    if (!cookieJar.hasSession()) {
+      return chain.proceed(withCreds(req));
+    }
+
+    Response res = chain.proceed(req);
+    if (res.code() == 401) {
+      // Session expired or invalidated on the grid, re-authenticate.
+      res.close();
+      cookieJar.clear();
+      res = chain.proceed(withCreds(req));
+    }
+    return res;
+  }
+
+  private Request withCreds(Request req) {
+    return req.newBuilder().header("Authorization", basicCreds).build();
+  }
+}
@@ -0,0 +1,65 @@
+package com.oneops.infoblox.auth;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+/**
+ * An in-memory {@link CookieJar} holding the WAPI session cookies of a single client. NIOS returns
+ * the <b>ibapauth</b> cookie on successful authentication, which can then be used for the
+ * subsequent requests instead of doing a full authentication for each call.
+ *
+ * @author Suresh G
+ */
+public class SessionCookieJar implements CookieJar {
+
+  /** WAPI session cookie name. */
+  public static final String SESSION_COOKIE = "ibapauth";
+
+  private final Map<String, Cookie> cookies = new ConcurrentHashMap<>();
+
+  @Override
+  public void saveFromResponse(HttpUrl url, List<Cookie> cookies) {
+    long now = System.currentTimeMillis();
+    for (Cookie cookie : cookies) {
+      if (cookie.expiresAt() <= now) {
+        this.cookies.remove(cookie.name());
+      } else {
+        this.cookies.put(cookie.name(), cookie);
+      }
+    }
+  }
+
+  @Override
+  public List<Cookie> loadForRequest(HttpUrl url) {
+    long now = System.currentTimeMillis();
+    List<Cookie> matches = new ArrayList<>(cookies.size());
+    for (Cookie cookie : cookies.values()) {
+      if (cookie.expiresAt() <= now) {
+        cookies.remove(cookie.name(), cookie);
+      } else if (cookie.matches(url)) {
+        matches.add(cookie);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Checks if a valid WAPI session cookie is available.
+   *
+   * @return <code>true</code> if the session cookie exists and not expired.
+   */
+  public boolean hasSession() {
+    Cookie cookie = cookies.get(SESSION_COOKIE);
+    return cookie != null && cookie.expiresAt() > System.currentTimeMillis();
+  }
+
+  /** Clears all the session cookies. */
+  public void clear() {
+    cookies.clear();
+  }
+}
@@ -0,0 +1,107 @@
+package com.oneops.infoblox.cache;
+
+import com.squareup.moshi.JsonReader;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+
+/**
+ * An OkHttp interceptor invalidating the {@link RecordCache} entries for every WAPI write (POST,
+ * PUT and DELETE) done by the client. The record type and name are taken from the object
+ * reference in the request path and from the <b>name</b> field of the request body. Multi-object
+ * requests invalidate the whole cache.
+ *
+ * <p>Entries are invalidated both before and after the write. Each invalidation bumps the {@link
+ * RecordCache#generation()}, so a query started before the write completes doesn't cache its
+ * result, even if the result is received after the invalidation.
+ *
+ * @author Suresh G
+ */
+public class CacheInvalidationInterceptor implements Interceptor {
+
+  private final RecordCache cache;
+
+  public CacheInvalidationInterceptor(RecordCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request req = chain.request();
+    if ("GET".equals(req.method())) {
+      return chain.proceed(req);
+    }
+
+    // Path is /wapi/{version}/{object}[/{refdata}:{name}/...]
+    List<String> segments = req.url().pathSegments();
+    if (segments.size() < 3) {
+      return chain.proceed(req);
+    }
+    String object = segments.get(2);
+    if ("request".equals(object)) {
+      cache.invalidateAll();
+      Response res = chain.proceed(req);
+      cache.invalidateAll();
+      return res;
+    }
+
+    Set<String> names = new HashSet<>(2);
+    if (segments.size() > 3) {
+      int idx = segments.get(3).indexOf(':');
+      if (idx >= 0) {
+        names.add(segments.get(3).substring(idx + 1));
+      }
+    }
+    String newName = bodyName(req.body());
+    if (newName != null) {
+      names.add(newName);
+    }
+
+    invalidate(object, names);
+    Response res = chain.proceed(req);
+    invalidate(object, names);
+    return res;
+  }
+
+  private void invalidate(String object, Set<String> names) {
+    if (names.isEmpty()) {
+      cache.invalidate(object, null);
+    } else {
+      for (String name : names) {
+        cache.invalidate(object, name);
+      }
+    }
+  }
+
+  /** Returns the top level <b>name</b> field of the JSON request body, if any. */
+  @Nullable
+  private static String bodyName(@Nullable RequestBody body) throws IOException {
+    if (body == null || body.contentLength() == 0) {
+      return null;
+    }
+    Buffer buf = new Buffer();
+    body.writeTo(buf);
+    try (JsonReader reader = JsonReader.of(buf)) {
+      if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+        return null;
+      }
+      reader.beginObject();
+      while (reader.hasNext()) {
+        if ("name".equals(reader.nextName()) && reader.peek() == JsonReader.Token.STRING) {
+          return reader.nextString();
+        }
+        reader.skipValue();
+      }
+    } catch (IOException ex) {
+      // Not a JSON body.
+    }
+    return null;
+  }
+}
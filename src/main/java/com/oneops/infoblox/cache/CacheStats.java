@@ -0,0 +1,39 @@
+package com.oneops.infoblox.cache;
+
+import com.google.auto.value.AutoValue;
+
+/**
+ * A point in time snapshot of the {@link RecordCache} statistics.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class CacheStats {
+
+  public static CacheStats create(
+      long hitCount, long missCount, long evictionCount, long invalidationCount) {
+    return new AutoValue_CacheStats(hitCount, missCount, evictionCount, invalidationCount);
+  }
+
+  /** Number of queries served from the cache. */
+  public abstract long hitCount();
+
+  /** Number of queries sent to the infoblox, as they were not cached or expired. */
+  public abstract long missCount();
+
+  /** Number of entries evicted due to the cache size limit. */
+  public abstract long evictionCount();
+
+  /** Number of entries removed due to the record writes. */
+  public abstract long invalidationCount();
+
+  /**
+   * Ratio of the queries served from the cache.
+   *
+   * @return hit rate, <b>1.0</b> if there are no queries yet.
+   */
+  public double hitRate() {
+    long total = hitCount() + missCount();
+    return total == 0 ? 1.0 : (double) hitCount() / total;
+  }
+}
@@ -0,0 +1,242 @@
+package com.oneops.infoblox.cache;
+
+import static java.util.Collections.unmodifiableList;
+
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.model.Record;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * A size bounded, read-through record query cache with TTL expiry. Entries are keyed by the
+ * client scope (endpoint and dns view), record type and query options, and are evicted in LRU
+ * order once the max size is reached.
+ *
+ * <p>Entries are invalidated whenever the client writes (create, modify or delete) a record of the
+ * same type. If the written record name is known, only the entries queried by that name (and the
+ * ones not queried by an exact name, like IP address or regex queries) are invalidated, else all
+ * the entries of that type are invalidated. Writes done outside of the client are visible only
+ * after the TTL expiry.
+ *
+ * <p>Every invalidation bumps the cache {@link #generation()}. A query result is cached only if no
+ * invalidation happened since the query was started, so a query racing with a write can't cache
+ * the records read before the write.
+ *
+ * <p>The cache is thread safe and can be shared by many clients.
+ *
+ * @author Suresh G
+ */
+public final class RecordCache {
+
+  private final int maxEntries;
+
+  private final long ttlNanos;
+
+  private final Map<String, Entry> entries;
+
+  private long hitCount;
+
+  private long missCount;
+
+  private long evictionCount;
+
+  private long invalidationCount;
+
+  private long generation;
+
+  private RecordCache(int maxEntries, Duration ttl) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Invalid max entries: " + maxEntries);
+    }
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("Invalid ttl: " + ttl);
+    }
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > RecordCache.this.maxEntries) {
+              evictionCount++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Creates a new record cache.
+   *
+   * @param maxEntries max number of queries cached.
+   * @param ttl time to live of each entry.
+   * @return {@link RecordCache}
+   */
+  public static RecordCache create(int maxEntries, Duration ttl) {
+    return new RecordCache(maxEntries, ttl);
+  }
+
+  /** A cached query result. */
+  private static final class Entry {
+
+    private final String object;
+
+    /** Exact name used for the query, <code>null</code> if it's not a name query. */
+    @Nullable private final String name;
+
+    private final List<? extends Record> recs;
+
+    private final long expiresAt;
+
+    Entry(String object, @Nullable String name, List<? extends Record> recs, long expiresAt) {
+      this.object = object;
+      this.name = name;
+      this.recs = recs;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean matches(String object, @Nullable String name) {
+      return this.object.equals(object)
+          && (name == null || this.name == null || this.name.equalsIgnoreCase(name));
+    }
+  }
+
+  private static String key(String scope, WapiType<?> type, Map<String, String> options) {
+    return scope + '|' + type.object() + '|' + new TreeMap<>(options);
+  }
+
+  /** Returns the exact (case sensitive or not) name used in the query options, if any. */
+  @Nullable
+  private static String queryName(Map<String, String> options) {
+    String name = options.get("name");
+    return name != null ? name : options.get("name:");
+  }
+
+  /**
+   * Returns the cached records for the query.
+   *
+   * @param scope client scope, usually the endpoint and dns view.
+   * @param type record type.
+   * @param options query options.
+   * @return a copy of the cached records or <code>null</code> if it's not cached or expired.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public synchronized <T extends Record> List<T> get(
+      String scope, WapiType<T> type, Map<String, String> options) {
+    String key = key(scope, type, options);
+    Entry entry = entries.get(key);
+    if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+      entries.remove(key);
+      entry = null;
+    }
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return new ArrayList<>((List<T>) entry.recs);
+  }
+
+  /**
+   * Returns the current cache generation, which is incremented on every invalidation. This should
+   * be taken before starting a query and passed to {@link #put(String, WapiType, Map, List, long)}.
+   */
+  public synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Caches the query result.
+   *
+   * @param scope client scope, usually the endpoint and dns view.
+   * @param type record type.
+   * @param options query options.
+   * @param recs query result.
+   */
+  public synchronized <T extends Record> void put(
+      String scope, WapiType<T> type, Map<String, String> options, List<T> recs) {
+    put(scope, type, options, recs, generation);
+  }
+
+  /**
+   * Caches the query result, if the cache is not invalidated since the query was started.
+   *
+   * @param scope client scope, usually the endpoint and dns view.
+   * @param type record type.
+   * @param options query options.
+   * @param recs query result.
+   * @param generation cache {@link #generation()} taken before starting the query.
+   * @return <code>true</code> if the result is cached.
+   */
+  public synchronized <T extends Record> boolean put(
+      String scope, WapiType<T> type, Map<String, String> options, List<T> recs, long generation) {
+    if (generation != this.generation) {
+      return false;
+    }
+    Entry entry =
+        new Entry(
+            type.object(),
+            queryName(options),
+            unmodifiableList(new ArrayList<>(recs)),
+            System.nanoTime() + ttlNanos);
+    entries.put(key(scope, type, options), entry);
+    return true;
+  }
+
+  /**
+   * Invalidates the entries of the given WAPI object type, matching the record name.
+   *
+   * @param object WAPI object name, eg: <b>record:a</b>
+   * @param name record name, all the entries of the type are invalidated if it's <code>null</code>.
+   */
+  public synchronized void invalidate(String object, @Nullable String name) {
+    generation++;
+    Iterator<Entry> it = entries.values().iterator();
+    while (it.hasNext()) {
+      if (it.next().matches(object, name)) {
+        it.remove();
+        invalidationCount++;
+      }
+    }
+  }
+
+  /** Invalidates all the entries. */
+  public synchronized void invalidateAll() {
+    generation++;
+    invalidationCount += entries.size();
+    entries.clear();
+  }
+
+  /** Number of entries in the cache, including the expired ones not removed yet. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the current cache statistics.
+   *
+   * @return {@link CacheStats}
+   */
+  public synchronized CacheStats stats() {
+    return CacheStats.create(hitCount, missCount, evictionCount, invalidationCount);
+  }
+
+  @Override
+  public String toString() {
+    return "RecordCache{maxEntries="
+        + maxEntries
+        + ", ttl="
+        + Duration.ofNanos(ttlNanos)
+        + ", size="
+        + size()
+        + "}";
+  }
+}
@@ -0,0 +1,53 @@
+package com.oneops.infoblox.jfr;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.annotation.Nullable;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * A retrofit converter factory recording a {@link DecodeEvent} for each response converted by the
+ * delegate (Moshi) factory.
+ *
+ * @author Suresh G
+ */
+class DecodeConverterFactory extends Converter.Factory {
+
+  private final Converter.Factory delegate;
+
+  DecodeConverterFactory(Converter.Factory delegate) {
+    this.delegate = delegate;
+  }
+
+  @Nullable
+  @Override
+  public Converter<ResponseBody, ?> responseBodyConverter(
+      Type type, Annotation[] annotations, Retrofit retrofit) {
+    Converter<ResponseBody, ?> converter =
+        delegate.responseBodyConverter(type, annotations, retrofit);
+    if (converter == null) {
+      return null;
+    }
+    return value -> JfrEvents.decode(type, value, converter);
+  }
+
+  @Nullable
+  @Override
+  public Converter<?, RequestBody> requestBodyConverter(
+      Type type,
+      Annotation[] parameterAnnotations,
+      Annotation[] methodAnnotations,
+      Retrofit retrofit) {
+    return delegate.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+  }
+
+  @Nullable
+  @Override
+  public Converter<?, String> stringConverter(
+      Type type, Annotation[] annotations, Retrofit retrofit) {
+    return delegate.stringConverter(type, annotations, retrofit);
+  }
+}
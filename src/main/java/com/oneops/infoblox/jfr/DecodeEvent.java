@@ -0,0 +1,24 @@
+package com.oneops.infoblox.jfr;
+
+import javax.annotation.Nullable;
+
+/**
+ * A JSON response decoding in progress, recorded as a <b>com.oneops.infoblox.Decode</b> JFR event.
+ *
+ * @author Suresh G
+ * @see JfrEvents#beginDecode()
+ */
+public interface DecodeEvent {
+
+  /** Checks if the event is being recorded. */
+  boolean isEnabled();
+
+  /**
+   * Ends the decoding and commits the event, if it's recorded and above the duration threshold.
+   *
+   * @param type decoded java type, eg: <b>Result&lt;List&lt;ARec&gt;&gt;</b>
+   * @param bytes JSON bytes read.
+   * @param result decoded value.
+   */
+  void complete(String type, long bytes, @Nullable Object result);
+}
@@ -0,0 +1,13 @@
+package com.oneops.infoblox.jfr;
+
+/**
+ * Creates and begins the JFR events.
+ *
+ * @author Suresh G
+ */
+interface EventFactory {
+
+  RequestEvent beginRequest();
+
+  DecodeEvent beginDecode();
+}
@@ -0,0 +1,187 @@
+package com.oneops.infoblox.jfr;
+
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.Result;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Converter;
+
+/**
+ * Java Flight Recorder (JFR) events of the client, for correlating slow WAPI calls with the GC,
+ * network and other JVM events of a recording. The following events are emitted under the
+ * <b>Infoblox</b> category,
+ *
+ * <ul>
+ *   <li><b>com.oneops.infoblox.Request</b> - a WAPI request, with the method, object type, page
+ *       id, http status, record count and response size.
+ *   <li><b>com.oneops.infoblox.Decode</b> - the JSON decoding of a response, with the java type,
+ *       object type, next page id, record count and bytes read.
+ * </ul>
+ *
+ * <p>The events are available when the library is built with JDK 11+ (the <b>jfr</b> maven
+ * profile) and run on a JVM having the <b>jdk.jfr</b> module (JDK 11+ or 8u262+). Otherwise, all
+ * the events are no-op singletons and nothing is recorded.
+ *
+ * @author Suresh G
+ */
+public final class JfrEvents {
+
+  private static final Logger log = LoggerFactory.getLogger(JfrEvents.class);
+
+  private static final RequestEvent NOOP_REQUEST =
+      new RequestEvent() {
+        @Override
+        public boolean isEnabled() {
+          return false;
+        }
+
+        @Override
+        public void complete(Request request, int status, long bytes, @Nullable Object result) {}
+      };
+
+  private static final DecodeEvent NOOP_DECODE =
+      new DecodeEvent() {
+        @Override
+        public boolean isEnabled() {
+          return false;
+        }
+
+        @Override
+        public void complete(String type, long bytes, @Nullable Object result) {}
+      };
+
+  private static final EventFactory FACTORY = load();
+
+  private JfrEvents() {}
+
+  /** Loads the JFR event factory, if both the events and the JFR are available. */
+  @Nullable
+  private static EventFactory load() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      Class<?> clazz = Class.forName(JfrEvents.class.getPackage().getName() + ".JdkEventFactory");
+      return (EventFactory) clazz.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError ex) {
+      log.debug("JFR events are not available: " + ex);
+      return null;
+    }
+  }
+
+  /** Checks if the JFR events are available on this JVM. */
+  public static boolean isAvailable() {
+    return FACTORY != null;
+  }
+
+  /**
+   * Begins a WAPI request event.
+   *
+   * @return {@link RequestEvent}, a no-op singleton if JFR is not available.
+   */
+  public static RequestEvent beginRequest() {
+    return FACTORY != null ? FACTORY.beginRequest() : NOOP_REQUEST;
+  }
+
+  /**
+   * Begins a JSON decode event.
+   *
+   * @return {@link DecodeEvent}, a no-op singleton if JFR is not available.
+   */
+  public static DecodeEvent beginDecode() {
+    return FACTORY != null ? FACTORY.beginDecode() : NOOP_DECODE;
+  }
+
+  /**
+   * Wraps the retrofit converter factory to record the JSON decoding of the responses.
+   *
+   * @param factory JSON converter factory.
+   * @return recording converter factory, or the same one if JFR is not available.
+   */
+  public static Converter.Factory converterFactory(Converter.Factory factory) {
+    return FACTORY != null ? new DecodeConverterFactory(factory) : factory;
+  }
+
+  /**
+   * Decodes the JSON response body using the converter, recording a decode event. The body is
+   * wrapped to count the bytes read only if the event is being recorded.
+   *
+   * @param type decoded java type.
+   * @param body JSON response body.
+   * @param converter JSON converter.
+   * @return decoded value.
+   * @throws IOException if the body can't be read or decoded.
+   */
+  public static <R> R decode(Type type, ResponseBody body, Converter<ResponseBody, R> converter)
+      throws IOException {
+    DecodeEvent event = beginDecode();
+    if (!event.isEnabled()) {
+      return converter.convert(body);
+    }
+    CountingSource source = new CountingSource(body);
+    R result =
+        converter.convert(
+            ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(source)));
+    event.complete(type.getTypeName().replaceAll("[\\w$]+\\.", ""), source.bytes, result);
+    return result;
+  }
+
+  /** Returns the number of records in the WAPI result, <b>1</b> for a single object. */
+  static int records(@Nullable Object result) {
+    Object value = result instanceof Result ? ((Result<?>) result).result() : result;
+    if (value == null) {
+      return 0;
+    }
+    return value instanceof Collection ? ((Collection<?>) value).size() : 1;
+  }
+
+  /** Returns the next page id of the WAPI result, if any. */
+  @Nullable
+  static String nextPageId(@Nullable Object result) {
+    return result instanceof Result ? ((Result<?>) result).nextPageId() : null;
+  }
+
+  /** Returns the WAPI object type of the first record in the result, if any. */
+  @Nullable
+  static String object(@Nullable Object result) {
+    Object value = result instanceof Result ? ((Result<?>) result).result() : result;
+    if (value instanceof List && !((List<?>) value).isEmpty()) {
+      value = ((List<?>) value).get(0);
+    }
+    return value instanceof Record ? ((Record) value).ref().wapiType() : null;
+  }
+
+  /** Counts the bytes read from the response body. Closing it closes the response body. */
+  private static class CountingSource extends ForwardingSource {
+
+    private final ResponseBody body;
+    private long bytes;
+
+    CountingSource(ResponseBody body) {
+      super(body.source());
+      this.body = body;
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      long read = super.read(sink, byteCount);
+      if (read > 0) {
+        bytes += read;
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      body.close();
+    }
+  }
+}
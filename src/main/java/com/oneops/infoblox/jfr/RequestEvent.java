@@ -0,0 +1,26 @@
+package com.oneops.infoblox.jfr;
+
+import javax.annotation.Nullable;
+import okhttp3.Request;
+
+/**
+ * A WAPI request in progress, recorded as a <b>com.oneops.infoblox.Request</b> JFR event.
+ *
+ * @author Suresh G
+ * @see JfrEvents#beginRequest()
+ */
+public interface RequestEvent {
+
+  /** Checks if the event is being recorded. */
+  boolean isEnabled();
+
+  /**
+   * Ends the request and commits the event, if it's recorded and above the duration threshold.
+   *
+   * @param request WAPI http request.
+   * @param status http status code, <b>0</b> if there is no response.
+   * @param bytes response body size, <b>-1</b> if it's not known.
+   * @param result decoded response body, if any.
+   */
+  void complete(Request request, int status, long bytes, @Nullable Object result);
+}
@@ -0,0 +1,84 @@
+package com.oneops.infoblox.limit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * An adaptive concurrency limit using additive increase / multiplicative decrease (AIMD). The limit
+ * grows by one for every <b>limit</b> successful requests, while the limit is fully utilized, and
+ * shrinks by the backoff ratio for each request which failed due to the load (i/o error, 429 or
+ * 5xx) or took longer than the latency threshold.
+ *
+ * @author Suresh G
+ */
+final class AimdLimit {
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final double backoffRatio;
+
+  private final long latencyThresholdNanos;
+
+  private double limit;
+
+  private int inFlight;
+
+  AimdLimit(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      double backoffRatio,
+      long latencyThresholdNanos) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.latencyThresholdNanos = latencyThresholdNanos;
+    this.limit = initialLimit;
+  }
+
+  /**
+   * Waits for a slot to execute the request.
+   *
+   * @param maxWaitNanos max time to wait.
+   * @return <code>true</code> if the slot is acquired, <code>false</code> if timed out.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  synchronized boolean acquire(long maxWaitNanos) throws InterruptedException {
+    long deadline = System.nanoTime() + maxWaitNanos;
+    while (inFlight >= (int) limit) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      NANOSECONDS.timedWait(this, remaining);
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * Releases the slot, adjusting the limit based on the request outcome.
+   *
+   * @param rttNanos request round trip time.
+   * @param dropped <code>true</code> if the request failed due to the load.
+   */
+  synchronized void release(long rttNanos, boolean dropped) {
+    boolean saturated = inFlight >= (int) limit;
+    inFlight--;
+    if (dropped || rttNanos > latencyThresholdNanos) {
+      limit = Math.max(minLimit, limit * backoffRatio);
+    } else if (saturated) {
+      limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+    notifyAll();
+  }
+
+  synchronized int limit() {
+    return (int) limit;
+  }
+
+  synchronized int inFlight() {
+    return inFlight;
+  }
+}
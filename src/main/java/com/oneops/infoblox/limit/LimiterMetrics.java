@@ -0,0 +1,71 @@
+package com.oneops.infoblox.limit;
+
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+
+/**
+ * A point in time snapshot of the {@link RequestLimiter} metrics.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class LimiterMetrics {
+
+  public static Builder builder() {
+    return new AutoValue_LimiterMetrics.Builder()
+        .requests(0)
+        .rejected(0)
+        .queued(0)
+        .totalQueueWait(Duration.ZERO)
+        .maxQueueWait(Duration.ZERO)
+        .concurrencyLimit(0)
+        .inFlight(0);
+  }
+
+  /** Number of http requests passed through the limiter. */
+  public abstract long requests();
+
+  /** Number of requests rejected, as the permit was not available within the max queue wait. */
+  public abstract long rejected();
+
+  /** Number of requests which had to wait for a permit. */
+  public abstract long queued();
+
+  /** Total time spent by the requests waiting for a permit. */
+  public abstract Duration totalQueueWait();
+
+  /** Max time spent by a request waiting for a permit. */
+  public abstract Duration maxQueueWait();
+
+  /** Current concurrency limit, <b>0</b> if the concurrency is not limited. */
+  public abstract int concurrencyLimit();
+
+  /** Number of requests in flight. */
+  public abstract int inFlight();
+
+  /** Average time spent by a request waiting for a permit. */
+  public Duration avgQueueWait() {
+    long requests = requests() - rejected();
+    return requests > 0 ? totalQueueWait().dividedBy(requests) : Duration.ZERO;
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder requests(long requests);
+
+    public abstract Builder rejected(long rejected);
+
+    public abstract Builder queued(long queued);
+
+    public abstract Builder totalQueueWait(Duration totalQueueWait);
+
+    public abstract Builder maxQueueWait(Duration maxQueueWait);
+
+    public abstract Builder concurrencyLimit(int concurrencyLimit);
+
+    public abstract Builder inFlight(int inFlight);
+
+    public abstract LimiterMetrics build();
+  }
+}
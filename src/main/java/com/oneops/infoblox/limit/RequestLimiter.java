@@ -0,0 +1,228 @@
+package com.oneops.infoblox.limit;
+
+import com.google.auto.value.AutoValue;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * An OkHttp interceptor limiting the requests sent to the Grid Master, so that bulk jobs can't
+ * overload it.
+ *
+ * <ul>
+ *   <li>A token bucket caps the <b>requests per second</b>, allowing short bursts.
+ *   <li>An adaptive (AIMD) <b>concurrency limit</b> grows slowly while the requests succeed and
+ *       backs off on i/o errors, <b>429</b>, <b>5xx</b> or slow responses.
+ * </ul>
+ *
+ * <p>Requests wait in the calling thread for a permit, up to the max queue wait, and fail with an
+ * {@link IOException} if it's not available in time. A limiter can be shared by many clients
+ * talking to the same Grid Master.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class RequestLimiter implements Interceptor {
+
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder queued = new LongAdder();
+  private final LongAdder totalQueueWait = new LongAdder();
+  private final LongAccumulator maxQueueWait = new LongAccumulator(Math::max, 0);
+
+  private @Nullable TokenBucket tokenBucket;
+  private @Nullable AimdLimit concurrencyLimit;
+
+  /**
+   * Returns the builder for {@link RequestLimiter} with default values for un-initialized optional
+   * fields.
+   *
+   * @return Builder
+   */
+  public static Builder builder() {
+    return new AutoValue_RequestLimiter.Builder()
+        .minConcurrency(1)
+        .latencyThreshold(Duration.ofSeconds(5))
+        .backoffRatio(0.9)
+        .maxQueueWait(Duration.ofSeconds(30));
+  }
+
+  /** Max requests per second. Not limited by default. */
+  public abstract OptionalDouble requestsPerSecond();
+
+  /** Max requests allowed in a burst. Defaults to the {@link #requestsPerSecond()}. */
+  public abstract OptionalInt burst();
+
+  /** Max concurrent requests. Not limited by default. */
+  public abstract OptionalInt maxConcurrency();
+
+  /**
+   * Initial concurrency limit, between the {@link #minConcurrency()} and {@link #maxConcurrency()}.
+   * Defaults to the {@link #maxConcurrency()}.
+   */
+  public abstract OptionalInt initialConcurrency();
+
+  /** Min concurrency limit, the limit never backs off below this. Defaults to <b>1</b>. */
+  public abstract int minConcurrency();
+
+  /** Response time above which the concurrency limit backs off. Defaults to <b>5 sec</b>. */
+  public abstract Duration latencyThreshold();
+
+  /** Factor (0.0 - 1.0) applied to the concurrency limit on back off. Defaults to <b>0.9</b>. */
+  public abstract double backoffRatio();
+
+  /** Max time a request waits for a permit. Defaults to <b>30 sec</b>. */
+  public abstract Duration maxQueueWait();
+
+  private void init() {
+    if (requestsPerSecond().isPresent()) {
+      double rps = requestsPerSecond().getAsDouble();
+      tokenBucket = new TokenBucket(rps, burst().orElse((int) Math.max(1, Math.ceil(rps))));
+    }
+    if (maxConcurrency().isPresent()) {
+      int max = maxConcurrency().getAsInt();
+      concurrencyLimit =
+          new AimdLimit(
+              initialConcurrency().orElse(max),
+              minConcurrency(),
+              max,
+              backoffRatio(),
+              latencyThreshold().toNanos());
+    }
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    requests.increment();
+    long maxWaitNanos = maxQueueWait().toNanos();
+    long start = System.nanoTime();
+
+    try {
+      if (tokenBucket != null) {
+        long waitNanos = tokenBucket.reserve(maxWaitNanos);
+        if (waitNanos < 0) {
+          throw reject(chain, "rate limit");
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      }
+      if (concurrencyLimit != null) {
+        long remaining = maxWaitNanos - (System.nanoTime() - start);
+        if (!concurrencyLimit.acquire(remaining)) {
+          throw reject(chain, "concurrency limit");
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the request permit.");
+    }
+    recordWait(System.nanoTime() - start);
+
+    if (concurrencyLimit == null) {
+      return chain.proceed(chain.request());
+    }
+
+    long sent = System.nanoTime();
+    boolean dropped = true;
+    try {
+      Response res = chain.proceed(chain.request());
+      dropped = res.code() == 429 || res.code() >= 500;
+      return res;
+    } finally {
+      concurrencyLimit.release(System.nanoTime() - sent, dropped);
+    }
+  }
+
+  private IOException reject(Chain chain, String limit) {
+    rejected.increment();
+    return new IOException(
+        "Request "
+            + chain.request().url().encodedPath()
+            + " exceeded the "
+            + limit
+            + ", no permit available in "
+            + maxQueueWait());
+  }
+
+  private void recordWait(long waitNanos) {
+    if (waitNanos > 0) {
+      queued.increment();
+      totalQueueWait.add(waitNanos);
+      maxQueueWait.accumulate(waitNanos);
+    }
+  }
+
+  /** Returns a snapshot of the limiter metrics. */
+  public LimiterMetrics metrics() {
+    return LimiterMetrics.builder()
+        .requests(requests.sum())
+        .rejected(rejected.sum())
+        .queued(queued.sum())
+        .totalQueueWait(Duration.ofNanos(totalQueueWait.sum()))
+        .maxQueueWait(Duration.ofNanos(maxQueueWait.get()))
+        .concurrencyLimit(concurrencyLimit != null ? concurrencyLimit.limit() : 0)
+        .inFlight(concurrencyLimit != null ? concurrencyLimit.inFlight() : 0)
+        .build();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder requestsPerSecond(double requestsPerSecond);
+
+    public abstract Builder burst(int burst);
+
+    public abstract Builder maxConcurrency(int maxConcurrency);
+
+    public abstract Builder initialConcurrency(int initialConcurrency);
+
+    public abstract Builder minConcurrency(int minConcurrency);
+
+    public abstract Builder latencyThreshold(Duration latencyThreshold);
+
+    public abstract Builder backoffRatio(double backoffRatio);
+
+    public abstract Builder maxQueueWait(Duration maxQueueWait);
+
+    abstract RequestLimiter autoBuild();
+
+    /**
+     * Build and initialize the limiter.
+     *
+     * @return limiter.
+     * @throws IllegalStateException if none of the limits are configured or invalid.
+     */
+    public RequestLimiter build() {
+      RequestLimiter limiter = autoBuild();
+      if (!limiter.requestsPerSecond().isPresent() && !limiter.maxConcurrency().isPresent()) {
+        throw new IllegalStateException("Either requestsPerSecond or maxConcurrency is required.");
+      }
+      if (limiter.requestsPerSecond().orElse(1) <= 0 || limiter.maxConcurrency().orElse(1) <= 0) {
+        throw new IllegalStateException("Request limits should be greater than zero.");
+      }
+      if (limiter.minConcurrency() <= 0
+          || limiter.minConcurrency() > limiter.maxConcurrency().orElse(Integer.MAX_VALUE)) {
+        throw new IllegalStateException("Invalid minConcurrency: " + limiter.minConcurrency());
+      }
+      if (limiter.initialConcurrency().isPresent()) {
+        int initial = limiter.initialConcurrency().getAsInt();
+        if (initial < limiter.minConcurrency()
+            || initial > limiter.maxConcurrency().orElse(Integer.MAX_VALUE)) {
+          throw new IllegalStateException("Invalid initialConcurrency: " + initial);
+        }
+      }
+      if (limiter.backoffRatio() <= 0 || limiter.backoffRatio() >= 1) {
+        throw new IllegalStateException("backoffRatio should be between 0.0 and 1.0");
+      }
+      limiter.init();
+      return limiter;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.oneops.infoblox.limit;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A token bucket rate limiter. Permits are reserved ahead of time, so the caller just sleeps for
+ * the returned wait time instead of polling the bucket.
+ *
+ * @author Suresh G
+ */
+final class TokenBucket {
+
+  private final double permitsPerNano;
+
+  private final double burst;
+
+  private double tokens;
+
+  private long lastRefill;
+
+  TokenBucket(double permitsPerSecond, int burst) {
+    this.permitsPerNano = permitsPerSecond / SECONDS.toNanos(1);
+    this.burst = burst;
+    this.tokens = burst;
+    this.lastRefill = System.nanoTime();
+  }
+
+  /**
+   * Reserves a permit, if it's available within the max wait time.
+   *
+   * @param maxWaitNanos max time to wait for the permit.
+   * @return nanos to wait before using the permit, or <b>-1</b> if it's not available in time.
+   */
+  synchronized long reserve(long maxWaitNanos) {
+    long now = System.nanoTime();
+    tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+    lastRefill = now;
+
+    long waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+    if (waitNanos > maxWaitNanos) {
+      return -1;
+    }
+    // Tokens can go negative, which is the debt paid by the next callers.
+    tokens -= 1;
+    return waitNanos;
+  }
+}
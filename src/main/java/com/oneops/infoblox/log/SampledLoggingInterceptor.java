@@ -0,0 +1,260 @@
+package com.oneops.infoblox.log;
+
+import com.google.auto.value.AutoValue;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nullable;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An OkHttp interceptor logging a sample of the WAPI requests, suitable to be left on in
+ * production, unlike the {@link com.oneops.infoblox.curl.CurlLoggingInterceptor}.
+ *
+ * <ul>
+ *   <li>1 in {@link #sampleRate()} requests is logged at <b>INFO</b>.
+ *   <li>Slow (above the {@link #slowThreshold()}) and failed (i/o error or 4xx/5xx) requests are
+ *       always logged at <b>WARN</b>.
+ * </ul>
+ *
+ * <p>Each request is logged as a single line of <b>key=value</b> pairs, with the request and
+ * response bodies capped to {@link #maxBodySize()} bytes. Auth and cookie headers are redacted. A
+ * request which is not logged costs a random number and a clock read, nothing is copied or
+ * formatted for it.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class SampledLoggingInterceptor implements Interceptor {
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final String REDACTED = "██";
+
+  /**
+   * Returns the builder for {@link SampledLoggingInterceptor} with default values for
+   * un-initialized optional fields.
+   *
+   * @return Builder
+   */
+  public static Builder builder() {
+    return new AutoValue_SampledLoggingInterceptor.Builder()
+        .sampleRate(100)
+        .slowThreshold(Duration.ofSeconds(5))
+        .maxBodySize(1024)
+        .logHeaders(false)
+        .logger(LoggerFactory.getLogger(SampledLoggingInterceptor.class));
+  }
+
+  /** Logs 1 in N requests. <b>1</b> logs all the requests. Defaults to <b>100</b>. */
+  public abstract int sampleRate();
+
+  /** Requests slower than this are always logged. Defaults to <b>5 sec</b>. */
+  public abstract Duration slowThreshold();
+
+  /** Max request/response body bytes logged. <b>0</b> skips the bodies. Defaults to <b>1024</b>. */
+  public abstract long maxBodySize();
+
+  /** Log the request and response headers. Defaults to <b>false</b>. */
+  public abstract boolean logHeaders();
+
+  /** SLF4J logger. Defaults to the logger of this class. */
+  public abstract Logger logger();
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request req = chain.request();
+    int rate = sampleRate();
+    boolean sampled =
+        (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0) && logger().isInfoEnabled();
+
+    long start = System.nanoTime();
+    Response res;
+    try {
+      res = chain.proceed(req);
+    } catch (IOException ex) {
+      if (logger().isWarnEnabled()) {
+        logger().warn(message(req, null, System.nanoTime() - start, ex));
+      }
+      throw ex;
+    }
+
+    long tookNanos = System.nanoTime() - start;
+    boolean failed = res.code() >= 400;
+    if (failed || tookNanos > slowThreshold().toNanos()) {
+      if (logger().isWarnEnabled()) {
+        logger().warn(message(req, res, tookNanos, null));
+      }
+    } else if (sampled) {
+      logger().info(message(req, res, tookNanos, null));
+    }
+    return res;
+  }
+
+  /** Formats the request log line. Called only if the request is logged. */
+  private String message(
+      Request req, @Nullable Response res, long tookNanos, @Nullable IOException ex)
+      throws IOException {
+    StringBuilder buf = new StringBuilder(256);
+    buf.append("wapi method=")
+        .append(req.method())
+        .append(" url=")
+        .append(req.url())
+        .append(" status=")
+        .append(res != null ? res.code() : 0)
+        .append(" took=")
+        .append(tookNanos / 1_000_000)
+        .append("ms");
+    if (ex != null) {
+      buf.append(" error=\"").append(ex).append('"');
+    }
+
+    if (logHeaders()) {
+      appendHeaders(buf, " reqHeaders=", req.headers());
+      if (res != null) {
+        appendHeaders(buf, " resHeaders=", res.headers());
+      }
+    }
+
+    if (maxBodySize() > 0) {
+      RequestBody reqBody = req.body();
+      if (reqBody != null) {
+        CappedSink body = new CappedSink(maxBodySize());
+        try (BufferedSink sink = Okio.buffer(body)) {
+          reqBody.writeTo(sink);
+        }
+        appendBody(buf, " reqBody=", body.buffer, body.size, reqBody.contentType());
+      }
+      ResponseBody resBody = res != null ? res.body() : null;
+      if (resBody != null) {
+        Buffer body = new Buffer();
+        body.writeAll(res.peekBody(maxBodySize()).source());
+        appendBody(buf, " resBody=", body, resBody.contentLength(), resBody.contentType());
+      }
+    }
+    return buf.toString();
+  }
+
+  private static void appendHeaders(StringBuilder buf, String key, Headers headers) {
+    buf.append(key).append('{');
+    for (int i = 0; i < headers.size(); i++) {
+      String name = headers.name(i);
+      if (i > 0) {
+        buf.append(", ");
+      }
+      buf.append(name).append(": ").append(isSensitive(name) ? REDACTED : headers.value(i));
+    }
+    buf.append('}');
+  }
+
+  /** Checks if the header carries credentials, which are never logged. */
+  private static boolean isSensitive(String header) {
+    return header.toLowerCase().contains("authorization")
+        || "Cookie".equalsIgnoreCase(header)
+        || "Set-Cookie".equalsIgnoreCase(header);
+  }
+
+  /**
+   * Appends the body, up to the max body size, keeping the log in a single line. Truncated bodies
+   * end with their size, if it's known.
+   */
+  private void appendBody(
+      StringBuilder buf, String key, Buffer body, long size, @Nullable MediaType contentType)
+      throws IOException {
+    Charset charset = contentType != null ? contentType.charset(UTF8) : UTF8;
+    long read = Math.min(body.size(), maxBodySize());
+    String text = body.readString(read, charset);
+    buf.append(key).append(text.replace("\n", "\\n"));
+    if (size > maxBodySize()) {
+      buf.append("...(").append(size).append(" bytes)");
+    } else if (size < 0 && read == maxBodySize()) {
+      buf.append("...");
+    }
+  }
+
+  /**
+   * A sink keeping only the first max bytes written to it, so that a large request body is never
+   * copied fully in memory.
+   */
+  private static final class CappedSink implements Sink {
+
+    private final Buffer buffer = new Buffer();
+
+    private final long maxSize;
+
+    /** Total number of bytes written. */
+    private long size;
+
+    CappedSink(long maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    public void write(Buffer source, long byteCount) throws IOException {
+      long keep = Math.min(byteCount, maxSize - buffer.size());
+      if (keep > 0) {
+        buffer.write(source, keep);
+      }
+      source.skip(byteCount - Math.max(keep, 0));
+      size += byteCount;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public Timeout timeout() {
+      return Timeout.NONE;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder sampleRate(int sampleRate);
+
+    public abstract Builder slowThreshold(Duration slowThreshold);
+
+    public abstract Builder maxBodySize(long maxBodySize);
+
+    public abstract Builder logHeaders(boolean logHeaders);
+
+    public abstract Builder logger(Logger logger);
+
+    abstract SampledLoggingInterceptor autoBuild();
+
+    /**
+     * Build the logging interceptor.
+     *
+     * @return logging interceptor.
+     * @throws IllegalStateException if the sample rate or max body size is invalid.
+     */
+    public SampledLoggingInterceptor build() {
+      SampledLoggingInterceptor intcp = autoBuild();
+      if (intcp.sampleRate() <= 0) {
+        throw new IllegalStateException("Invalid sampleRate: " + intcp.sampleRate());
+      }
+      if (intcp.maxBodySize() < 0) {
+        throw new IllegalStateException("Invalid maxBodySize: " + intcp.maxBodySize());
+      }
+      return intcp;
+    }
+  }
+}
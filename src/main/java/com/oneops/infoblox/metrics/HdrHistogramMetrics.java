@@ -0,0 +1,177 @@
+package com.oneops.infoblox.metrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * {@link WapiMetrics} keeping the request latency percentiles of each WAPI object type and http
+ * method in a <a href="http://hdrhistogram.org/">HdrHistogram</a>, along with the error, payload
+ * size and in-flight counters. Latencies are recorded with 3 significant digits, values above the
+ * highest trackable latency are recorded as the highest one.
+ *
+ * <p>The metrics are cumulative since the creation or the last {@link #reset()}. An instance can
+ * be shared by many clients.
+ *
+ * @author Suresh G
+ */
+public class HdrHistogramMetrics implements WapiMetrics {
+
+  private final long highestTrackableNanos;
+  private final ConcurrentMap<String, ConcurrentMap<String, Stats>> stats =
+      new ConcurrentHashMap<>();
+
+  /** Creates the metrics tracking latencies up to <b>5 min</b>. */
+  public HdrHistogramMetrics() {
+    this(Duration.ofMinutes(5));
+  }
+
+  /**
+   * Creates the metrics with the given latency range.
+   *
+   * @param highestTrackable highest trackable latency.
+   */
+  public HdrHistogramMetrics(Duration highestTrackable) {
+    if (highestTrackable.toNanos() < 2000) {
+      throw new IllegalArgumentException("Invalid highestTrackable latency: " + highestTrackable);
+    }
+    this.highestTrackableNanos = highestTrackable.toNanos();
+  }
+
+  private Stats stats(String method, String object) {
+    ConcurrentMap<String, Stats> methods = stats.get(object);
+    if (methods == null) {
+      methods = stats.computeIfAbsent(object, k -> new ConcurrentHashMap<>(4));
+    }
+    Stats s = methods.get(method);
+    if (s == null) {
+      s = methods.computeIfAbsent(method, k -> new Stats(highestTrackableNanos));
+    }
+    return s;
+  }
+
+  @Override
+  public void onStart(String method, String object) {
+    stats(method, object).inFlight.increment();
+  }
+
+  @Override
+  public void onComplete(
+      String method,
+      String object,
+      int status,
+      long durationNanos,
+      long requestBytes,
+      long responseBytes) {
+    Stats s = stats(method, object);
+    s.inFlight.decrement();
+    s.record(durationNanos);
+    if (status >= 400) {
+      s.errors.increment();
+    }
+    counter(s.statusCodes, status).increment();
+    s.requestBytes.add(Math.max(0, requestBytes));
+    s.responseBytes.add(responseBytes);
+  }
+
+  @Override
+  public void onFailure(String method, String object, long durationNanos, IOException ex) {
+    Stats s = stats(method, object);
+    s.inFlight.decrement();
+    s.record(durationNanos);
+    s.errors.increment();
+  }
+
+  @Override
+  public void onError(String method, String object, String code) {
+    counter(stats(method, object).errorCodes, code).increment();
+  }
+
+  /** Returns the counter of the key, avoiding the bin lock of computeIfAbsent on the hot path. */
+  private static <K> LongAdder counter(ConcurrentMap<K, LongAdder> counters, K key) {
+    LongAdder counter = counters.get(key);
+    return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+  }
+
+  /**
+   * Returns a snapshot of the request statistics, sorted by the object type and method.
+   *
+   * @return list of {@link RequestStats}
+   */
+  public List<RequestStats> snapshot() {
+    List<RequestStats> snapshot = new ArrayList<>();
+    new TreeMap<>(stats)
+        .forEach(
+            (object, methods) ->
+                new TreeMap<>(methods)
+                    .forEach((method, s) -> snapshot.add(s.toStats(method, object))));
+    return snapshot;
+  }
+
+  /** Clears all the metrics. Requests in progress are dropped from the in-flight counters. */
+  public void reset() {
+    stats.clear();
+  }
+
+  /** Metrics of an object type and method. */
+  private static class Stats {
+
+    private final long highestTrackableNanos;
+    private final Histogram latency;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> errorCodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    Stats(long highestTrackableNanos) {
+      this.highestTrackableNanos = highestTrackableNanos;
+      this.latency = new ConcurrentHistogram(1000, highestTrackableNanos, 3);
+    }
+
+    void record(long durationNanos) {
+      latency.recordValue(Math.min(Math.max(0, durationNanos), highestTrackableNanos));
+    }
+
+    RequestStats toStats(String method, String object) {
+      Histogram h = latency.copy();
+      return RequestStats.builder()
+          .method(method)
+          .object(object)
+          .count(h.getTotalCount())
+          .errors(errors.sum())
+          .inFlight(inFlight.sum())
+          .errorCodes(sums(errorCodes))
+          .statusCodes(sums(statusCodes))
+          .requestBytes(requestBytes.sum())
+          .responseBytes(responseBytes.sum())
+          .p50(percentile(h, 50))
+          .p90(percentile(h, 90))
+          .p99(percentile(h, 99))
+          .p999(percentile(h, 99.9))
+          .max(Duration.ofNanos(h.getTotalCount() == 0 ? 0 : h.getMaxValue()))
+          .mean(Duration.ofNanos((long) h.getMean()))
+          .build();
+    }
+
+    private static Duration percentile(Histogram h, double percentile) {
+      return Duration.ofNanos(h.getValueAtPercentile(percentile));
+    }
+
+    private static <K extends Comparable<K>> Map<K, Long> sums(Map<K, LongAdder> counters) {
+      Map<K, Long> sums = new TreeMap<>();
+      counters.forEach((k, v) -> sums.put(k, v.sum()));
+      return Collections.unmodifiableMap(sums);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.oneops.infoblox.metrics;
+
+import java.io.IOException;
+import java.util.List;
+import javax.annotation.Nullable;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * An OkHttp interceptor reporting the latency, status and payload size of every WAPI request to
+ * the {@link WapiMetrics}. The request is complete once its response body is fully read or closed,
+ * so the latency covers the download of large result sets as well.
+ *
+ * @author Suresh G
+ */
+public class MetricsInterceptor implements Interceptor {
+
+  private final WapiMetrics metrics;
+
+  public MetricsInterceptor(WapiMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request req = chain.request();
+    String method = req.method();
+    String object = object(req.url());
+    RequestBody reqBody = req.body();
+    long reqBytes = reqBody != null ? reqBody.contentLength() : 0;
+
+    metrics.onStart(method, object);
+    long start = System.nanoTime();
+    Response res;
+    try {
+      res = chain.proceed(req);
+    } catch (IOException ex) {
+      metrics.onFailure(method, object, System.nanoTime() - start, ex);
+      throw ex;
+    }
+
+    int status = res.code();
+    ResponseBody body = res.body();
+    if (body == null) {
+      metrics.onComplete(method, object, status, System.nanoTime() - start, reqBytes, 0);
+      return res;
+    }
+    CountingSource source =
+        new CountingSource(body.source()) {
+          @Override
+          void done(long bytes) {
+            metrics.onComplete(method, object, status, System.nanoTime() - start, reqBytes, bytes);
+          }
+        };
+    return res.newBuilder().body(new CountingBody(body, source)).build();
+  }
+
+  /**
+   * Returns the WAPI object type of the request url. The path is
+   * /wapi/{version}/{object}[/{refdata}:{name}/...]
+   *
+   * @param url WAPI request url.
+   * @return object type, eg: <b>record:a</b>, or the path if it's not a WAPI url.
+   */
+  public static String object(HttpUrl url) {
+    List<String> segments = url.pathSegments();
+    return segments.size() >= 3 ? segments.get(2) : url.encodedPath();
+  }
+
+  /** A response body source counting the bytes read, which reports once on EOF or close. */
+  private abstract static class CountingSource extends ForwardingSource {
+
+    private long bytes;
+    private boolean done;
+
+    CountingSource(Source delegate) {
+      super(delegate);
+    }
+
+    abstract void done(long bytes);
+
+    private void complete() {
+      if (!done) {
+        done = true;
+        done(bytes);
+      }
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      long read = super.read(sink, byteCount);
+      if (read == -1) {
+        complete();
+      } else {
+        bytes += read;
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      complete();
+      super.close();
+    }
+  }
+
+  private static class CountingBody extends ResponseBody {
+
+    private final ResponseBody delegate;
+    private final BufferedSource source;
+
+    CountingBody(ResponseBody delegate, CountingSource source) {
+      this.delegate = delegate;
+      this.source = Okio.buffer(source);
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+      return source;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.oneops.infoblox.metrics;
+
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A point in time snapshot of the request statistics of a WAPI object type and http method.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class RequestStats {
+
+  public static Builder builder() {
+    return new AutoValue_RequestStats.Builder();
+  }
+
+  /** Http method, eg: <b>GET</b> */
+  public abstract String method();
+
+  /** WAPI object type, eg: <b>record:a</b> */
+  public abstract String object();
+
+  /** Number of completed requests, including the failed ones. */
+  public abstract long count();
+
+  /** Number of requests failed with an i/o error or a 4xx/5xx response. */
+  public abstract long errors();
+
+  /** Number of requests in progress. */
+  public abstract long inFlight();
+
+  /** Number of errors by the WAPI error code. */
+  public abstract Map<String, Long> errorCodes();
+
+  /** Number of responses by the http status. */
+  public abstract Map<Integer, Long> statusCodes();
+
+  /** Total request body bytes. */
+  public abstract long requestBytes();
+
+  /** Total response body bytes. */
+  public abstract long responseBytes();
+
+  public abstract Duration p50();
+
+  public abstract Duration p90();
+
+  public abstract Duration p99();
+
+  public abstract Duration p999();
+
+  public abstract Duration max();
+
+  public abstract Duration mean();
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder method(String method);
+
+    public abstract Builder object(String object);
+
+    public abstract Builder count(long count);
+
+    public abstract Builder errors(long errors);
+
+    public abstract Builder inFlight(long inFlight);
+
+    public abstract Builder errorCodes(Map<String, Long> errorCodes);
+
+    public abstract Builder statusCodes(Map<Integer, Long> statusCodes);
+
+    public abstract Builder requestBytes(long requestBytes);
+
+    public abstract Builder responseBytes(long responseBytes);
+
+    public abstract Builder p50(Duration p50);
+
+    public abstract Builder p90(Duration p90);
+
+    public abstract Builder p99(Duration p99);
+
+    public abstract Builder p999(Duration p999);
+
+    public abstract Builder max(Duration max);
+
+    public abstract Builder mean(Duration mean);
+
+    public abstract RequestStats build();
+  }
+}
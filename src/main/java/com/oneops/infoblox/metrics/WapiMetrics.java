@@ -0,0 +1,66 @@
+package com.oneops.infoblox.metrics;
+
+import java.io.IOException;
+
+/**
+ * A pluggable metrics collector (SPI) for the WAPI requests of the client. Every request is tagged
+ * by the http method and the WAPI object type (eg: <b>record:a</b>, <b>zone_delegated</b>,
+ * <b>request</b>), taken from the request path.
+ *
+ * <p>The callbacks are invoked on the request threads, so implementations must be thread safe and
+ * should not block. All the callbacks are no-op by default.
+ *
+ * @author Suresh G
+ * @see HdrHistogramMetrics
+ */
+public interface WapiMetrics {
+
+  /** A no-op collector. No metrics interceptor is installed for this one. */
+  WapiMetrics NOOP = new WapiMetrics() {};
+
+  /**
+   * Called before the request is sent.
+   *
+   * @param method http method.
+   * @param object WAPI object type.
+   */
+  default void onStart(String method, String object) {}
+
+  /**
+   * Called once the response body is fully read or closed.
+   *
+   * @param method http method.
+   * @param object WAPI object type.
+   * @param status http status code.
+   * @param durationNanos time from sending the request till the end of the response body.
+   * @param requestBytes request body size, <b>-1</b> if it's not known.
+   * @param responseBytes response body bytes read.
+   */
+  default void onComplete(
+      String method,
+      String object,
+      int status,
+      long durationNanos,
+      long requestBytes,
+      long responseBytes) {}
+
+  /**
+   * Called if the request failed without a response (connect, timeout, i/o errors).
+   *
+   * @param method http method.
+   * @param object WAPI object type.
+   * @param durationNanos time till the failure.
+   * @param ex i/o error.
+   */
+  default void onFailure(String method, String object, long durationNanos, IOException ex) {}
+
+  /**
+   * Called for the WAPI error responses, with the error code of the {@link
+   * com.oneops.infoblox.InfobloxException}.
+   *
+   * @param method http method.
+   * @param object WAPI object type.
+   * @param code WAPI error code, eg: <b>Client.Ibap.Data.Conflict</b>
+   */
+  default void onError(String method, String object, String code) {}
+}
@@ -0,0 +1,47 @@
+package com.oneops.infoblox.model;
+
+import com.squareup.moshi.Json;
+
+/**
+ * Base class for the typed create request bodies of the records, serialized by the generated
+ * auto-value-moshi adapters instead of a <b>Map</b>.
+ *
+ * @author Suresh G
+ */
+public abstract class CreateRequest {
+
+  /**
+   * TTL of the record in seconds.
+   *
+   * @return ttl.
+   */
+  public abstract int ttl();
+
+  /**
+   * TTL is associated with the flag <b>use_ttl</b>. The ttl takes effect only when it's true.
+   *
+   * @return use_ttl flag.
+   */
+  @Json(name = "use_ttl")
+  public abstract boolean useTtl();
+
+  /** Base create request builder. Uses <b>self-bounding generic</b> pattern. */
+  public abstract static class ReqBuilder<T extends ReqBuilder<T>> {
+
+    /**
+     * Sets the record TTL
+     *
+     * @param ttl A 32-bit integer
+     * @return T
+     */
+    public abstract T ttl(int ttl);
+
+    /**
+     * Sets the use_ttl flag. Defaults to true.
+     *
+     * @param useTtl use ttl flag.
+     * @return T
+     */
+    public abstract T useTtl(boolean useTtl);
+  }
+}
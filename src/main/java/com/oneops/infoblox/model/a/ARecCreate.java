@@ -0,0 +1,39 @@
+package com.oneops.infoblox.model.a;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+/**
+ * Address record {@link com.oneops.infoblox.model.DNSRecord#A } create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class ARecCreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_ARecCreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<ARecCreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_ARecCreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  @Json(name = "ipv4addr")
+  public abstract String ipv4Addr();
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder ipv4Addr(String ipv4Addr);
+
+    public abstract ARecCreate build();
+  }
+}
@@ -0,0 +1,39 @@
+package com.oneops.infoblox.model.aaaa;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+/**
+ * IPv6 address record {@link com.oneops.infoblox.model.DNSRecord#AAAA } create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class AAAACreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_AAAACreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<AAAACreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_AAAACreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  @Json(name = "ipv6addr")
+  public abstract String ipv6Addr();
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder ipv6Addr(String ipv6Addr);
+
+    public abstract AAAACreate build();
+  }
+}
@@ -0,0 +1,37 @@
+package com.oneops.infoblox.model.cname;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+/**
+ * Canonical name record {@link com.oneops.infoblox.model.DNSRecord#CNAME } create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class CNAMECreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_CNAMECreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<CNAMECreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_CNAMECreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  public abstract String canonical();
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder canonical(String canonical);
+
+    public abstract CNAMECreate build();
+  }
+}
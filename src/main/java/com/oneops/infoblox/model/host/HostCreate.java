@@ -0,0 +1,71 @@
+package com.oneops.infoblox.model.host;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Host record create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class HostCreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_HostCreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<HostCreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_HostCreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  @Json(name = "ipv4addrs")
+  public abstract List<Ipv4Addr> ipv4Addrs();
+
+  /** Host IPv4 address entry of the create request. */
+  @AutoValue
+  public abstract static class Ipv4Addr {
+
+    public static Ipv4Addr of(String ipv4Addr) {
+      return new AutoValue_HostCreate_Ipv4Addr(ipv4Addr);
+    }
+
+    public static JsonAdapter<Ipv4Addr> jsonAdapter(Moshi moshi) {
+      return new AutoValue_HostCreate_Ipv4Addr.MoshiJsonAdapter(moshi);
+    }
+
+    @Json(name = "ipv4addr")
+    public abstract String ipv4Addr();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder ipv4Addrs(List<Ipv4Addr> ipv4Addrs);
+
+    /**
+     * Sets the IPv4 addresses of the host.
+     *
+     * @param ipv4Addrs IPv4 address(s)
+     * @return Builder
+     */
+    public Builder ipv4AddrList(List<String> ipv4Addrs) {
+      List<Ipv4Addr> addrs = new ArrayList<>(ipv4Addrs.size());
+      for (String addr : ipv4Addrs) {
+        addrs.add(Ipv4Addr.of(addr));
+      }
+      return ipv4Addrs(addrs);
+    }
+
+    public abstract HostCreate build();
+  }
+}
@@ -0,0 +1,43 @@
+package com.oneops.infoblox.model.mx;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+/**
+ * Mail exchanger record {@link com.oneops.infoblox.model.DNSRecord#MX } create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class MXCreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_MXCreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<MXCreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_MXCreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  @Json(name = "mail_exchanger")
+  public abstract String mailExchanger();
+
+  public abstract int preference();
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder mailExchanger(String mailExchanger);
+
+    public abstract Builder preference(int preference);
+
+    public abstract MXCreate build();
+  }
+}
@@ -1,10 +1,22 @@
 package com.oneops.infoblox.model.ptr;
 
+import static java.util.Spliterator.DISTINCT;
+import static java.util.Spliterator.IMMUTABLE;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+
 import com.google.auto.value.AutoValue;
 import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.util.IPAddrs;
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
 import java.net.InetAddress;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 
 /**
@@ -23,6 +35,33 @@ public abstract class PTR extends Record {
     return new AutoValue_PTR.MoshiJsonAdapter(moshi);
   }
 
+  /** Max length of an IPv4 reverse map name, ie. <b>255.255.255.255.in-addr.arpa</b> */
+  public static final int MAX_IPV4_NAME_LENGTH = 28;
+
+  /** Length of an IPv6 reverse map name, ie. 32 nibble labels and <b>ip6.arpa</b> */
+  public static final int IPV6_NAME_LENGTH = 72;
+
+  private static final char[] IPV4_SUFFIX = "in-addr.arpa".toCharArray();
+
+  private static final char[] IPV6_SUFFIX = "ip6.arpa".toCharArray();
+
+  /** Decimal labels of the octets, eg: <b>10.</b> for 10. */
+  private static final char[][] OCTETS = new char[256][];
+
+  /** Reversed nibble labels of the bytes, 4 chars each, eg: <b>b.a.</b> for 0xab. */
+  private static final char[] NIBBLES = new char[256 * 4];
+
+  static {
+    char[] hex = "0123456789abcdef".toCharArray();
+    for (int i = 0; i < 256; i++) {
+      OCTETS[i] = (i + ".").toCharArray();
+      NIBBLES[i * 4] = hex[i & 0xF];
+      NIBBLES[i * 4 + 1] = '.';
+      NIBBLES[i * 4 + 2] = hex[i >>> 4];
+      NIBBLES[i * 4 + 3] = '.';
+    }
+  }
+
   /**
    * Creates a reverse map name corresponding to an IPAddress for DNS names used in reverse
    * mappings. For the IPv4 address a.b.c.d, the reverse map name is <b>d.c.b.a.in-addr.arpa.</b>
@@ -33,31 +72,156 @@ public abstract class PTR extends Record {
    */
   public static String reverseMapName(InetAddress address) {
     byte[] addr = address.getAddress();
-    if (addr.length != 4 && addr.length != 16) {
-      throw new IllegalArgumentException("Address must contain 4 or 16 bytes");
+    if (addr.length == 4) {
+      return reverseMapName(getInt(addr, 0));
+    } else if (addr.length == 16) {
+      long hi = ((long) getInt(addr, 0) << 32) | (getInt(addr, 4) & 0xFFFFFFFFL);
+      long lo = ((long) getInt(addr, 8) << 32) | (getInt(addr, 12) & 0xFFFFFFFFL);
+      return reverseMapName(hi, lo);
     }
+    throw new IllegalArgumentException("Address must contain 4 or 16 bytes");
+  }
 
-    StringBuilder sb = new StringBuilder();
-    if (addr.length == 4) {
-      for (int i = addr.length - 1; i >= 0; i--) {
-        sb.append(addr[i] & 0xFF);
-        if (i > 0) sb.append(".");
-      }
-    } else {
-      int[] nibbles = new int[2];
-      for (int i = addr.length - 1; i >= 0; i--) {
-        nibbles[0] = (addr[i] & 0xFF) >> 4;
-        nibbles[1] = (addr[i] & 0xFF) & 0xF;
-        for (int j = nibbles.length - 1; j >= 0; j--) {
-          sb.append(Integer.toHexString(nibbles[j]));
-          if (i > 0 || j > 0) sb.append(".");
-        }
-      }
+  /**
+   * Creates the reverse map name of the IPv4 or IPv6 address, without a {@link InetAddress}. Like
+   * {@link InetAddress}, the IPv4 mapped IPv6 addresses (eg: <b>::ffff:10.1.2.3</b>) are mapped
+   * in the <b>in-addr.arpa</b> domain.
+   *
+   * @param ipAddr IPv4 or IPv6 address.
+   * @return The name corresponding to the address in the reverse map.
+   * @throws IllegalArgumentException if it's not a valid IP address.
+   */
+  public static String reverseMapName(String ipAddr) {
+    if (IPAddrs.isIPv4(ipAddr)) {
+      return reverseMapName(IPAddrs.parseIPv4(ipAddr));
+    }
+    long[] addr = IPAddrs.parseIPv6(ipAddr);
+    if (addr[0] == 0 && (addr[1] >>> 32) == 0xFFFF) {
+      return reverseMapName((int) addr[1]);
+    }
+    return reverseMapName(addr[0], addr[1]);
+  }
+
+  /**
+   * Creates the reverse map name of the IPv4 address.
+   *
+   * @param ipv4 IPv4 address, as returned by {@link IPAddrs#parseIPv4(String)}.
+   * @return reverse map name, eg: <b>3.2.1.10.in-addr.arpa</b>
+   */
+  public static String reverseMapName(int ipv4) {
+    char[] buf = new char[MAX_IPV4_NAME_LENGTH];
+    return new String(buf, 0, reverseMapName(ipv4, buf));
+  }
+
+  /**
+   * Creates the reverse map name of the IPv6 address.
+   *
+   * @param hi high 64 bits of the IPv6 address.
+   * @param lo low 64 bits of the IPv6 address.
+   * @return reverse map name, eg: <b>1.0.0.0. ... .8.b.d.0.1.0.0.2.ip6.arpa</b>
+   */
+  public static String reverseMapName(long hi, long lo) {
+    char[] buf = new char[IPV6_NAME_LENGTH];
+    return new String(buf, 0, reverseMapName(hi, lo, buf));
+  }
+
+  /**
+   * Writes the reverse map name of the IPv4 address into the buffer, using the precomputed octet
+   * labels. The buffer can be reused across the calls, eg: with a {@link java.nio.CharBuffer#wrap}
+   * of it.
+   *
+   * @param ipv4 IPv4 address, as returned by {@link IPAddrs#parseIPv4(String)}.
+   * @param buf buffer of at least {@link #MAX_IPV4_NAME_LENGTH} chars.
+   * @return length of the name written.
+   */
+  public static int reverseMapName(int ipv4, char[] buf) {
+    int pos = 0;
+    for (int shift = 0; shift < 32; shift += 8) {
+      char[] octet = OCTETS[(ipv4 >>> shift) & 0xFF];
+      System.arraycopy(octet, 0, buf, pos, octet.length);
+      pos += octet.length;
     }
+    System.arraycopy(IPV4_SUFFIX, 0, buf, pos, IPV4_SUFFIX.length);
+    return pos + IPV4_SUFFIX.length;
+  }
+
+  /**
+   * Writes the reverse map name of the IPv6 address into the buffer, using the precomputed nibble
+   * labels.
+   *
+   * @param hi high 64 bits of the IPv6 address.
+   * @param lo low 64 bits of the IPv6 address.
+   * @param buf buffer of at least {@link #IPV6_NAME_LENGTH} chars.
+   * @return length of the name written, ie. {@link #IPV6_NAME_LENGTH}
+   */
+  public static int reverseMapName(long hi, long lo, char[] buf) {
+    int pos = 0;
+    for (int shift = 0; shift < 64; shift += 8, pos += 4) {
+      System.arraycopy(NIBBLES, (int) ((lo >>> shift) & 0xFF) * 4, buf, pos, 4);
+    }
+    for (int shift = 0; shift < 64; shift += 8, pos += 4) {
+      System.arraycopy(NIBBLES, (int) ((hi >>> shift) & 0xFF) * 4, buf, pos, 4);
+    }
+    System.arraycopy(IPV6_SUFFIX, 0, buf, pos, IPV6_SUFFIX.length);
+    return pos + IPV6_SUFFIX.length;
+  }
+
+  /**
+   * Lazily streams the reverse map names of all the addresses in the CIDR block, in the address
+   * order. Used for the bulk PTR provisioning of the whole subnets.
+   *
+   * @param cidr CIDR block, eg: <b>10.1.0.0/16</b> or <b>2001:db8::/120</b>
+   * @return reverse map names stream.
+   * @throws IllegalArgumentException if it's not a valid CIDR block.
+   */
+  public static Stream<String> reverseMapNames(String cidr) {
+    int prefix = IPAddrs.cidrPrefix(cidr);
+    String ip = cidr.substring(0, cidr.indexOf('/'));
+
+    if (IPAddrs.isIPv4(ip)) {
+      long first = IPAddrs.parseIPv4(ip) & (prefix == 0 ? 0 : -1L << (32 - prefix)) & 0xFFFFFFFFL;
+      return LongStream.range(first, first + (1L << (32 - prefix)))
+          .mapToObj(addr -> reverseMapName((int) addr));
+    }
+
+    long[] addr = IPAddrs.parseIPv6(ip);
+    long hi = addr[0] & (prefix == 0 ? 0 : prefix >= 64 ? -1 : -1L << (64 - prefix));
+    long lo = addr[1] & (prefix <= 64 ? 0 : prefix == 128 ? -1 : -1L << (128 - prefix));
+    int hostBits = 128 - prefix;
+    if (hostBits < 63) {
+      return LongStream.range(0, 1L << hostBits).mapToObj(i -> reverseMapName(hi, lo | i));
+    }
+    // Too many addresses for a long range, counts the 128 bit address up to the last one.
+    long lastHi = hostBits > 64 ? hi | (-1L >>> (128 - hostBits)) : hi;
+    long lastLo = hostBits > 64 ? -1 : lo | (-1L >>> (64 - hostBits));
+    Spliterator<String> names =
+        new Spliterators.AbstractSpliterator<String>(
+            Long.MAX_VALUE, ORDERED | DISTINCT | NONNULL | IMMUTABLE) {
+          private long nextHi = hi;
+          private long nextLo = lo;
+          private boolean done;
+
+          @Override
+          public boolean tryAdvance(Consumer<? super String> action) {
+            if (done) {
+              return false;
+            }
+            action.accept(reverseMapName(nextHi, nextLo));
+            done = nextHi == lastHi && nextLo == lastLo;
+            if (++nextLo == 0) {
+              nextHi++;
+            }
+            return true;
+          }
+        };
+    return StreamSupport.stream(names, false);
+  }
 
-    return addr.length == 4
-        ? String.format("%s.in-addr.arpa", sb.toString())
-        : String.format("%s.ip6.arpa", sb.toString());
+  private static int getInt(byte[] bytes, int off) {
+    return (bytes[off] & 0xFF) << 24
+        | (bytes[off + 1] & 0xFF) << 16
+        | (bytes[off + 2] & 0xFF) << 8
+        | (bytes[off + 3] & 0xFF);
   }
 
   @Nullable
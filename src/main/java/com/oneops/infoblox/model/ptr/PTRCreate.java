@@ -0,0 +1,48 @@
+package com.oneops.infoblox.model.ptr;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import javax.annotation.Nullable;
+
+/**
+ * Pointer record {@link com.oneops.infoblox.model.DNSRecord#PTR } create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class PTRCreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_PTRCreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<PTRCreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_PTRCreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  public abstract String ptrdname();
+
+  @Nullable
+  public abstract String ipv4addr();
+
+  @Nullable
+  public abstract String ipv6addr();
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder ptrdname(String ptrdname);
+
+    public abstract Builder ipv4addr(String ipv4addr);
+
+    public abstract Builder ipv6addr(String ipv6addr);
+
+    public abstract PTRCreate build();
+  }
+}
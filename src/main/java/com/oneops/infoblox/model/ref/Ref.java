@@ -3,15 +3,18 @@ package com.oneops.infoblox.model.ref;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
 import com.oneops.infoblox.model.Error;
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 
 /**
  * WAPI Object reference. WAPI returns this reference when an object is created, modified, deleted
@@ -41,47 +44,72 @@ public abstract class Ref {
   public abstract String value();
 
   /**
-   * Returns the WAPI type from ref object.
+   * Returns the WAPI type from ref object. The ref is parsed once, on the first call.
    *
    * @return type string or <code>null</code> if can't get the type.
    */
+  @Memoized
+  @Nullable
   public String wapiType() {
-    String[] vals = value().split("/", 2);
-    return vals.length > 0 ? vals[0] : null;
+    String value = value();
+    int slash = value.indexOf('/');
+    return slash >= 0 ? value.substring(0, slash) : value;
   }
 
   /**
-   * Returns the ref data from wapi object.
+   * Returns the ref data from wapi object. The ref is parsed once, on the first call.
    *
    * @return data string or <code>null</code> if can't get the data.
    */
+  @Memoized
+  @Nullable
   public String refData() {
-    String[] vals = value().split("/", 2);
-    String ref = null;
-    if (vals.length > 1) {
-      ref = vals[1].split(":", 2)[0];
+    String value = value();
+    int slash = value.indexOf('/');
+    if (slash < 0) {
+      return null;
     }
-    return ref;
+    int colon = value.indexOf(':', slash + 1);
+    return value.substring(slash + 1, colon >= 0 ? colon : value.length());
   }
 
   /**
-   * Returns the list of names from ref object.
+   * Returns the list of names from ref object. The ref is parsed once, on the first call.
    *
-   * @return list of names or <code>empty list</code> if can't get it.
+   * @return unmodifiable list of names or <code>empty list</code> if can't get it.
    */
+  @Memoized
   public Collection<String> names() {
-    String ref = value().split("/", 2)[1];
-    String[] vals = ref.split(":", 2);
-    List<String> names = Collections.emptyList();
-    if (vals.length > 1) {
-      names = Arrays.asList(vals[1].split("/"));
+    String value = value();
+    int slash = value.indexOf('/');
+    int colon = slash >= 0 ? value.indexOf(':', slash + 1) : -1;
+    if (colon < 0) {
+      return Collections.emptyList();
     }
-    return names;
+    List<String> names = new ArrayList<>(2);
+    int start = colon + 1;
+    for (int end = value.indexOf('/', start); end >= 0; end = value.indexOf('/', start)) {
+      names.add(value.substring(start, end));
+      start = end + 1;
+    }
+    names.add(value.substring(start));
+    // Same as String.split(), the trailing empty names are dropped.
+    int size = names.size();
+    while (size > 1 && names.get(size - 1).isEmpty()) {
+      names.remove(--size);
+    }
+    if (size == 1 && names.get(0).isEmpty() && start > colon + 1) {
+      return Collections.emptyList();
+    }
+    return size == 1
+        ? Collections.singletonList(names.get(0))
+        : Collections.unmodifiableList(names);
   }
 
   /**
    * Checks if reference name contains the given domain name. A URL encoded domain name is used for
-   * the check as it's used in the WAPI reference object.
+   * the check as it's used in the WAPI reference object. Use {@link #fqdnMatcher(String)} to check
+   * many refs against the same domain name, without encoding it every time.
    *
    * <p>Warning: Since java doesn't encode asterisk, we have to deal it separately.
    *
@@ -90,11 +118,28 @@ public abstract class Ref {
    * @see <a href="https://stackoverflow.com/a/6533595/416868">URLEncode Asterisk</a>
    */
   public boolean hasFqdn(String domainName) {
+    return fqdnMatcher(domainName).test(this);
+  }
+
+  /**
+   * Returns a reusable predicate, checking if the reference name contains the given domain name.
+   * The domain name is URL encoded once, so checking a list of refs doesn't allocate, eg:
+   *
+   * <pre>{@code
+   * Predicate<Ref> matcher = Ref.fqdnMatcher("*.xyz.com");
+   * refs.stream().filter(matcher).collect(toList());
+   * }</pre>
+   *
+   * @param domainName fqdn
+   * @return predicate, same as {@link #hasFqdn(String)}.
+   */
+  public static Predicate<Ref> fqdnMatcher(String domainName) {
+    String encoded;
     try {
-      String encodedName = URLEncoder.encode(domainName, UTF_8.toString()).replace("*", "%2A");
-      return value().contains(encodedName);
+      encoded = URLEncoder.encode(domainName, UTF_8.toString()).replace("*", "%2A");
     } catch (UnsupportedEncodingException e) {
-      return false;
+      return ref -> false;
     }
+    return ref -> ref.value().contains(encoded);
   }
 }
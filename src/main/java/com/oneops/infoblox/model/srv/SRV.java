@@ -27,7 +27,7 @@ public abstract class SRV extends Record {
 
   public abstract int priority();
 
-  public abstract int target();
+  public abstract String target();
 
   public abstract int weight();
 
@@ -40,7 +40,7 @@ public abstract class SRV extends Record {
 
     public abstract Builder priority(int priority);
 
-    public abstract Builder target(int target);
+    public abstract Builder target(String target);
 
     public abstract Builder weight(int weight);
 
@@ -0,0 +1,49 @@
+package com.oneops.infoblox.model.srv;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+/**
+ * Service location record {@link com.oneops.infoblox.model.DNSRecord#SRV } create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class SRVCreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_SRVCreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<SRVCreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_SRVCreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  public abstract int port();
+
+  public abstract int priority();
+
+  public abstract String target();
+
+  public abstract int weight();
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder port(int port);
+
+    public abstract Builder priority(int priority);
+
+    public abstract Builder target(String target);
+
+    public abstract Builder weight(int weight);
+
+    public abstract SRVCreate build();
+  }
+}
@@ -0,0 +1,28 @@
+package com.oneops.infoblox.model.ttl;
+
+import com.google.auto.value.AutoValue;
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+/**
+ * TTL modify request of a dns record.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class TTLModify {
+
+  public static TTLModify of(int ttl) {
+    return new AutoValue_TTLModify(ttl, true);
+  }
+
+  public static JsonAdapter<TTLModify> jsonAdapter(Moshi moshi) {
+    return new AutoValue_TTLModify.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract int ttl();
+
+  @Json(name = "use_ttl")
+  public abstract boolean useTtl();
+}
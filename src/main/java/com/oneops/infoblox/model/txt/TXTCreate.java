@@ -0,0 +1,37 @@
+package com.oneops.infoblox.model.txt;
+
+import com.google.auto.value.AutoValue;
+import com.oneops.infoblox.model.CreateRequest;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+/**
+ * Text record {@link com.oneops.infoblox.model.DNSRecord#TXT } create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class TXTCreate extends CreateRequest {
+
+  public static Builder builder() {
+    return new AutoValue_TXTCreate.Builder().useTtl(true);
+  }
+
+  public static JsonAdapter<TXTCreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_TXTCreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String name();
+
+  public abstract String text();
+
+  @AutoValue.Builder
+  public abstract static class Builder extends ReqBuilder<Builder> {
+
+    public abstract Builder name(String name);
+
+    public abstract Builder text(String text);
+
+    public abstract TXTCreate build();
+  }
+}
@@ -0,0 +1,44 @@
+package com.oneops.infoblox.model.zone;
+
+import com.google.auto.value.AutoValue;
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import java.util.List;
+
+/**
+ * Delegated zone create request.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class ZoneDelegateCreate {
+
+  public static Builder builder() {
+    return new AutoValue_ZoneDelegateCreate.Builder();
+  }
+
+  public static JsonAdapter<ZoneDelegateCreate> jsonAdapter(Moshi moshi) {
+    return new AutoValue_ZoneDelegateCreate.MoshiJsonAdapter(moshi);
+  }
+
+  public abstract String fqdn();
+
+  @Json(name = "delegate_to")
+  public abstract List<Delegate> delegateTo();
+
+  @Json(name = "delegated_ttl")
+  public abstract int delegatedTtl();
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder fqdn(String fqdn);
+
+    public abstract Builder delegateTo(List<Delegate> delegateTo);
+
+    public abstract Builder delegatedTtl(int delegatedTtl);
+
+    public abstract ZoneDelegateCreate build();
+  }
+}
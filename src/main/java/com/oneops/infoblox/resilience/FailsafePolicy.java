@@ -0,0 +1,258 @@
+package com.oneops.infoblox.resilience;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.auto.value.AutoValue;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import net.jodah.failsafe.CircuitBreaker;
+import net.jodah.failsafe.CircuitBreakerOpenException;
+import net.jodah.failsafe.Failsafe;
+import net.jodah.failsafe.FailsafeException;
+import net.jodah.failsafe.RetryPolicy;
+import net.jodah.failsafe.SyncFailsafe;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ResiliencePolicy} using <a href="https://github.com/jhalterman/failsafe">Failsafe</a>.
+ *
+ * <ul>
+ *   <li>Idempotent requests (GET, PUT and DELETE) are retried with jittered exponential backoff on
+ *       i/o errors, <b>429</b>, <b>5xx</b> and WAPI data conflict (<b>IBDataConflictError</b>)
+ *       responses. Creates (POST) are never retried.
+ *   <li>A circuit breaker shared by all the requests opens after consecutive i/o errors, <b>429</b>
+ *       or <b>5xx</b> responses, failing fast while the Grid Master is overloaded.
+ * </ul>
+ *
+ * <p>Note: The backoff delay blocks the calling thread, which is an OkHttp dispatcher thread for
+ * the async calls.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class FailsafePolicy implements ResiliencePolicy {
+
+  private static final Set<String> IDEMPOTENT_METHODS =
+      new HashSet<>(asList("GET", "PUT", "DELETE"));
+
+  /** WAPI error returned for the transient write conflicts. */
+  private static final String DATA_CONFLICT_ERROR = "IBDataConflictError";
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder circuitOpened = new LongAdder();
+
+  private RetryPolicy retryPolicy;
+  private CircuitBreaker circuitBreaker;
+
+  /**
+   * Returns the builder for {@link FailsafePolicy} with default values for un-initialized optional
+   * fields.
+   *
+   * @return Builder
+   */
+  public static Builder builder() {
+    return new AutoValue_FailsafePolicy.Builder()
+        .maxRetries(3)
+        .retryDelay(Duration.ofMillis(200))
+        .maxRetryDelay(Duration.ofSeconds(5))
+        .jitterFactor(0.25)
+        .failureThreshold(5)
+        .successThreshold(2)
+        .openDelay(Duration.ofSeconds(30));
+  }
+
+  /** Max number of retries for a request. Defaults to <b>3</b>. */
+  public abstract int maxRetries();
+
+  /** Initial retry delay, doubled for each retry. Defaults to <b>200 millis</b>. */
+  public abstract Duration retryDelay();
+
+  /** Max retry delay. Defaults to <b>5 sec</b>. */
+  public abstract Duration maxRetryDelay();
+
+  /** Random factor (0.0 - 1.0) applied to the retry delay. Defaults to <b>0.25</b>. */
+  public abstract double jitterFactor();
+
+  /** Number of consecutive failures to open the circuit. Defaults to <b>5</b>. */
+  public abstract int failureThreshold();
+
+  /** Number of consecutive successes to close a half-open circuit. Defaults to <b>2</b>. */
+  public abstract int successThreshold();
+
+  /** Time to wait before half-opening an open circuit. Defaults to <b>30 sec</b>. */
+  public abstract Duration openDelay();
+
+  private void init() {
+    retryPolicy =
+        new RetryPolicy()
+            .retryOn(IOException.class)
+            .retryIf((Response res) -> res != null && isRetryable(res))
+            .abortOn(AbortedException.class)
+            .withBackoff(retryDelay().toMillis(), maxRetryDelay().toMillis(), MILLISECONDS)
+            .withJitter(jitterFactor())
+            .withMaxRetries(maxRetries());
+
+    circuitBreaker =
+        new CircuitBreaker()
+            .failOn(IOException.class)
+            .failIf((Response res) -> res != null && isOverloaded(res))
+            .withFailureThreshold(failureThreshold())
+            .withSuccessThreshold(successThreshold())
+            .withDelay(openDelay().toMillis(), MILLISECONDS)
+            .onOpen(
+                () -> {
+                  circuitOpened.increment();
+                  log.warn("Circuit breaker opened, failing fast for " + openDelay());
+                })
+            .onHalfOpen(() -> log.info("Circuit breaker half-opened."))
+            .onClose(() -> log.info("Circuit breaker closed."));
+  }
+
+  /** Checks if the Grid Master is overloaded or unavailable. */
+  private static boolean isOverloaded(Response res) {
+    return res.code() == 429 || res.code() >= 500;
+  }
+
+  private static boolean isRetryable(Response res) {
+    if (isOverloaded(res)) {
+      return true;
+    }
+    if (res.code() >= 400) {
+      try {
+        return res.peekBody(4096).string().contains(DATA_CONFLICT_ERROR);
+      } catch (IOException ex) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Response execute(Interceptor.Chain chain) throws IOException {
+    Request req = chain.request();
+    calls.increment();
+
+    SyncFailsafe<Response> failsafe;
+    if (IDEMPOTENT_METHODS.contains(req.method())) {
+      failsafe =
+          Failsafe.<Response>with(retryPolicy)
+              .with(circuitBreaker)
+              .onRetry((res, ex) -> onRetry(req, res, ex));
+    } else {
+      failsafe = Failsafe.with(circuitBreaker);
+    }
+
+    try {
+      Response res = failsafe.get(() -> proceed(chain));
+      if (!res.isSuccessful()) {
+        failures.increment();
+      }
+      return res;
+    } catch (CircuitBreakerOpenException ex) {
+      rejected.increment();
+      throw new IOException("Circuit breaker is open, not calling " + req.url().encodedPath(), ex);
+    } catch (AbortedException ex) {
+      failures.increment();
+      throw ex.getCause();
+    } catch (FailsafeException ex) {
+      failures.increment();
+      Throwable cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw ex;
+    }
+  }
+
+  /** Proceeds the chain, aborting the retries if the call is cancelled. */
+  private static Response proceed(Interceptor.Chain chain) throws IOException {
+    try {
+      return chain.proceed(chain.request());
+    } catch (IOException ex) {
+      if (chain.call().isCanceled()) {
+        throw new AbortedException(ex);
+      }
+      throw ex;
+    }
+  }
+
+  /** Closes the failed response, before retrying the request. */
+  private void onRetry(Request req, @Nullable Response res, @Nullable Throwable ex) {
+    retries.increment();
+    String reason = res != null ? "HTTP " + res.code() : String.valueOf(ex);
+    log.warn("Retrying " + req.method() + " " + req.url().encodedPath() + " due to " + reason);
+    if (res != null) {
+      res.close();
+    }
+  }
+
+  @Override
+  public ResilienceMetrics metrics() {
+    return ResilienceMetrics.builder()
+        .calls(calls.sum())
+        .retries(retries.sum())
+        .failures(failures.sum())
+        .rejected(rejected.sum())
+        .circuitOpened(circuitOpened.sum())
+        .circuitState(circuitBreaker.getState().name())
+        .build();
+  }
+
+  /** Thrown to abort the retries of a cancelled call. */
+  private static final class AbortedException extends RuntimeException {
+
+    AbortedException(IOException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized IOException getCause() {
+      return (IOException) super.getCause();
+    }
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder maxRetries(int maxRetries);
+
+    public abstract Builder retryDelay(Duration retryDelay);
+
+    public abstract Builder maxRetryDelay(Duration maxRetryDelay);
+
+    public abstract Builder jitterFactor(double jitterFactor);
+
+    public abstract Builder failureThreshold(int failureThreshold);
+
+    public abstract Builder successThreshold(int successThreshold);
+
+    public abstract Builder openDelay(Duration openDelay);
+
+    abstract FailsafePolicy autoBuild();
+
+    /**
+     * Build and initialize the policy.
+     *
+     * @return policy.
+     */
+    public FailsafePolicy build() {
+      FailsafePolicy policy = autoBuild();
+      policy.init();
+      return policy;
+    }
+  }
+}
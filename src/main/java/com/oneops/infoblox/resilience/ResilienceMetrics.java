@@ -0,0 +1,58 @@
+package com.oneops.infoblox.resilience;
+
+import com.google.auto.value.AutoValue;
+
+/**
+ * A point in time snapshot of the {@link ResiliencePolicy} metrics.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class ResilienceMetrics {
+
+  public static Builder builder() {
+    return new AutoValue_ResilienceMetrics.Builder()
+        .calls(0)
+        .retries(0)
+        .failures(0)
+        .rejected(0)
+        .circuitOpened(0)
+        .circuitState("CLOSED");
+  }
+
+  /** Number of http requests executed through the policy. */
+  public abstract long calls();
+
+  /** Number of retry attempts. */
+  public abstract long retries();
+
+  /** Number of requests failed, after all the retries. */
+  public abstract long failures();
+
+  /** Number of requests rejected without calling the infoblox, as the circuit was open. */
+  public abstract long rejected();
+
+  /** Number of times the circuit breaker has opened. */
+  public abstract long circuitOpened();
+
+  /** Current circuit breaker state, one of <b>CLOSED</b>, <b>OPEN</b> or <b>HALF_OPEN</b>. */
+  public abstract String circuitState();
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder calls(long calls);
+
+    public abstract Builder retries(long retries);
+
+    public abstract Builder failures(long failures);
+
+    public abstract Builder rejected(long rejected);
+
+    public abstract Builder circuitOpened(long circuitOpened);
+
+    public abstract Builder circuitState(String circuitState);
+
+    public abstract ResilienceMetrics build();
+  }
+}
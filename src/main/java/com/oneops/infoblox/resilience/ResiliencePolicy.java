@@ -0,0 +1,35 @@
+package com.oneops.infoblox.resilience;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * A pluggable fault tolerance policy (retries, circuit breaker etc) applied to every WAPI request
+ * of the client. The policy is applied per http request, so it covers both the blocking and the
+ * async calls.
+ *
+ * <p>Implementations must be thread safe and may call {@link Interceptor.Chain#proceed} more than
+ * once, closing the responses of the failed attempts.
+ *
+ * @author Suresh G
+ * @see FailsafePolicy
+ */
+public interface ResiliencePolicy {
+
+  /**
+   * Executes the request of the interceptor chain, applying the policy.
+   *
+   * @param chain OkHttp interceptor chain.
+   * @return http response.
+   * @throws IOException if the request failed, after applying the policy.
+   */
+  Response execute(Interceptor.Chain chain) throws IOException;
+
+  /**
+   * Returns the current policy metrics.
+   *
+   * @return {@link ResilienceMetrics}
+   */
+  ResilienceMetrics metrics();
+}
@@ -0,0 +1,596 @@
+package com.oneops.infoblox.snapshot;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.util.IPAddrs;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable in-memory index of the IP addresses to the names pointing at them, built from
+ * the bulk fetched A, AAAA, Host and PTR records. It answers the <b>which names point at this
+ * IP</b> and <b>is this IP in use</b> checks locally, instead of the {@link
+ * InfobloxClient#getARecByIP}, {@link InfobloxClient#getAAAARecByIP} and {@link
+ * InfobloxClient#getPTRRec} round trips.
+ *
+ * <p>The addresses are kept in primitive arrays, without boxing, so that it scales to millions of
+ * addresses.
+ *
+ * <ul>
+ *   <li>Sorted (address, name id) columns, an <b>int</b> for IPv4 and two <b>long</b>s for IPv6,
+ *       for the CIDR range scans in O(log n + k).
+ *   <li>Open addressed hash tables of the address to its first column index, for the address
+ *       lookups in O(1).
+ * </ul>
+ *
+ * <p>The index is immutable and thread safe, use {@link #builder()} to build it.
+ *
+ * @author Suresh G
+ */
+public final class AddressIndex {
+
+  /** Empty hash table slot. */
+  private static final int EMPTY = -1;
+
+  private final String[] names;
+
+  /** IPv4 addresses (unsigned sorted) and their name ids. */
+  private final int[] ipv4s;
+
+  private final int[] ipv4Names;
+
+  /** IPv4 address hash table, slot to the first column index of the address. */
+  private final int[] ipv4Keys;
+
+  private final int[] ipv4Slots;
+
+  private final int ipv4Count;
+
+  /** IPv6 addresses (unsigned sorted) and their name ids. */
+  private final long[] ipv6His;
+
+  private final long[] ipv6Los;
+
+  private final int[] ipv6Names;
+
+  /** IPv6 address hash table, slot to the first column index of the address. */
+  private final long[] ipv6KeyHis;
+
+  private final long[] ipv6KeyLos;
+
+  private final int[] ipv6Slots;
+
+  private final int ipv6Count;
+
+  private AddressIndex(Builder builder) {
+    names = builder.names.toArray(new String[0]);
+
+    // IPv4 column, sorted by the address and the name id.
+    long[] v4 = Arrays.copyOf(builder.ipv4, builder.ipv4Size);
+    Arrays.sort(v4);
+    int[] ips = new int[v4.length];
+    int[] ids = new int[v4.length];
+    int size = 0;
+    int distinct = 0;
+    for (int i = 0; i < v4.length; i++) {
+      if (i > 0 && v4[i] == v4[i - 1]) {
+        continue;
+      }
+      ips[size] = (int) (v4[i] >>> 32) ^ Integer.MIN_VALUE;
+      ids[size] = (int) v4[i];
+      if (size == 0 || ips[size] != ips[size - 1]) {
+        distinct++;
+      }
+      size++;
+    }
+    ipv4s = Arrays.copyOf(ips, size);
+    ipv4Names = Arrays.copyOf(ids, size);
+    ipv4Count = distinct;
+
+    ipv4Keys = new int[tableSize(distinct)];
+    ipv4Slots = new int[ipv4Keys.length];
+    Arrays.fill(ipv4Slots, EMPTY);
+    int mask = ipv4Keys.length - 1;
+    for (int i = 0; i < size; i++) {
+      if (i > 0 && ipv4s[i] == ipv4s[i - 1]) {
+        continue;
+      }
+      int slot = hash(ipv4s[i]) & mask;
+      while (ipv4Slots[slot] != EMPTY) {
+        slot = (slot + 1) & mask;
+      }
+      ipv4Keys[slot] = ipv4s[i];
+      ipv4Slots[slot] = i;
+    }
+
+    // IPv6 column, sorted by the address and the name id.
+    long[] his = Arrays.copyOf(builder.ipv6His, builder.ipv6Size);
+    long[] los = Arrays.copyOf(builder.ipv6Los, builder.ipv6Size);
+    int[] v6Ids = Arrays.copyOf(builder.ipv6Names, builder.ipv6Size);
+    sort(his, los, v6Ids);
+    size = 0;
+    distinct = 0;
+    for (int i = 0; i < his.length; i++) {
+      boolean sameIp = size > 0 && his[i] == his[size - 1] && los[i] == los[size - 1];
+      if (sameIp && v6Ids[i] == v6Ids[size - 1]) {
+        continue;
+      }
+      his[size] = his[i];
+      los[size] = los[i];
+      v6Ids[size] = v6Ids[i];
+      if (!sameIp) {
+        distinct++;
+      }
+      size++;
+    }
+    ipv6His = Arrays.copyOf(his, size);
+    ipv6Los = Arrays.copyOf(los, size);
+    ipv6Names = Arrays.copyOf(v6Ids, size);
+    ipv6Count = distinct;
+
+    ipv6KeyHis = new long[tableSize(distinct)];
+    ipv6KeyLos = new long[ipv6KeyHis.length];
+    ipv6Slots = new int[ipv6KeyHis.length];
+    Arrays.fill(ipv6Slots, EMPTY);
+    mask = ipv6KeyHis.length - 1;
+    for (int i = 0; i < size; i++) {
+      if (i > 0 && ipv6His[i] == ipv6His[i - 1] && ipv6Los[i] == ipv6Los[i - 1]) {
+        continue;
+      }
+      int slot = hash(ipv6His[i], ipv6Los[i]) & mask;
+      while (ipv6Slots[slot] != EMPTY) {
+        slot = (slot + 1) & mask;
+      }
+      ipv6KeyHis[slot] = ipv6His[i];
+      ipv6KeyLos[slot] = ipv6Los[i];
+      ipv6Slots[slot] = i;
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builds the index of the client dns view, streaming the A, AAAA, Host and PTR records pageSize
+   * records at a time.
+   *
+   * @param client infoblox client.
+   * @param pageSize max records to query at a time.
+   * @return {@link AddressIndex}
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public static AddressIndex load(InfobloxClient client, int pageSize) throws IOException {
+    Builder builder = builder();
+    for (WapiType<?> type : Arrays.asList(WapiType.A, WapiType.AAAA, WapiType.HOST, WapiType.PTR)) {
+      ZoneSnapshot.forEach(client, type, pageSize, builder::add);
+    }
+    return builder.build();
+  }
+
+  /** Number of distinct IPv4 addresses. */
+  public int ipv4Count() {
+    return ipv4Count;
+  }
+
+  /** Number of distinct IPv6 addresses. */
+  public int ipv6Count() {
+    return ipv6Count;
+  }
+
+  /** Number of distinct names. */
+  public int nameCount() {
+    return names.length;
+  }
+
+  /**
+   * Checks if the IP address is in use, ie. any name points at it.
+   *
+   * @param ip IPv4 or IPv6 address.
+   * @return <code>true</code> if it's in use.
+   * @throws IllegalArgumentException if it's not a valid IP address.
+   */
+  public boolean contains(String ip) {
+    if (IPAddrs.isIPv4(ip)) {
+      return contains(IPAddrs.parseIPv4(ip));
+    }
+    long[] addr = IPAddrs.parseIPv6(ip);
+    return contains(addr[0], addr[1]);
+  }
+
+  /**
+   * Checks if the IPv4 address is in use.
+   *
+   * @param ipv4 IPv4 address, as returned by {@link IPAddrs#parseIPv4(String)}.
+   * @return <code>true</code> if it's in use.
+   */
+  public boolean contains(int ipv4) {
+    return ipv4Index(ipv4) != EMPTY;
+  }
+
+  /**
+   * Checks if the IPv6 address is in use.
+   *
+   * @param hi high 64 bits of the IPv6 address.
+   * @param lo low 64 bits of the IPv6 address.
+   * @return <code>true</code> if it's in use.
+   */
+  public boolean contains(long hi, long lo) {
+    return ipv6Index(hi, lo) != EMPTY;
+  }
+
+  /**
+   * Returns the names pointing at the IP address, ie. the owner names of the A, AAAA and Host
+   * records and the ptrdname of the PTR records.
+   *
+   * @param ip IPv4 or IPv6 address.
+   * @return distinct names, empty if it's not in use.
+   * @throws IllegalArgumentException if it's not a valid IP address.
+   */
+  public List<String> namesOf(String ip) {
+    if (IPAddrs.isIPv4(ip)) {
+      return namesOf(IPAddrs.parseIPv4(ip));
+    }
+    long[] addr = IPAddrs.parseIPv6(ip);
+    return namesOf(addr[0], addr[1]);
+  }
+
+  /**
+   * Returns the names pointing at the IPv4 address.
+   *
+   * @param ipv4 IPv4 address, as returned by {@link IPAddrs#parseIPv4(String)}.
+   * @return distinct names, empty if it's not in use.
+   */
+  public List<String> namesOf(int ipv4) {
+    int idx = ipv4Index(ipv4);
+    if (idx == EMPTY) {
+      return Collections.emptyList();
+    }
+    List<String> result = new ArrayList<>(2);
+    for (int i = idx; i < ipv4s.length && ipv4s[i] == ipv4; i++) {
+      result.add(names[ipv4Names[i]]);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the names pointing at the IPv6 address.
+   *
+   * @param hi high 64 bits of the IPv6 address.
+   * @param lo low 64 bits of the IPv6 address.
+   * @return distinct names, empty if it's not in use.
+   */
+  public List<String> namesOf(long hi, long lo) {
+    int idx = ipv6Index(hi, lo);
+    if (idx == EMPTY) {
+      return Collections.emptyList();
+    }
+    List<String> result = new ArrayList<>(2);
+    for (int i = idx; i < ipv6His.length && ipv6His[i] == hi && ipv6Los[i] == lo; i++) {
+      result.add(names[ipv6Names[i]]);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the addresses in use in the CIDR block, in the address order.
+   *
+   * @param cidr CIDR block, eg: <b>10.1.0.0/16</b> or <b>2001:db8::/32</b>
+   * @return canonical IP addresses.
+   * @throws IllegalArgumentException if it's not a valid CIDR block.
+   */
+  public List<String> addresses(String cidr) {
+    List<String> result = new ArrayList<>();
+    scan(cidr, result);
+    return result;
+  }
+
+  /**
+   * Counts the addresses in use in the CIDR block, without any allocation.
+   *
+   * @param cidr CIDR block, eg: <b>10.1.0.0/16</b> or <b>2001:db8::/32</b>
+   * @return number of distinct addresses.
+   * @throws IllegalArgumentException if it's not a valid CIDR block.
+   */
+  public int count(String cidr) {
+    return scan(cidr, null);
+  }
+
+  /** Scans the CIDR block, adding the addresses to the result, if it's not null. */
+  private int scan(String cidr, List<String> result) {
+    int prefix = IPAddrs.cidrPrefix(cidr);
+    String ip = cidr.substring(0, cidr.indexOf('/'));
+    int count = 0;
+
+    if (IPAddrs.isIPv4(ip)) {
+      int mask = prefix == 0 ? 0 : -1 << (32 - prefix);
+      int first = IPAddrs.parseIPv4(ip) & mask;
+      int last = first | ~mask;
+      for (int i = lowerBound(ipv4s, first);
+          i < ipv4s.length && Integer.compareUnsigned(ipv4s[i], last) <= 0;
+          i++) {
+        if (i == 0 || ipv4s[i] != ipv4s[i - 1]) {
+          count++;
+          if (result != null) {
+            result.add(IPAddrs.formatIPv4(ipv4s[i]));
+          }
+        }
+      }
+      return count;
+    }
+
+    long[] addr = IPAddrs.parseIPv6(ip);
+    long hiMask = prefix == 0 ? 0 : prefix >= 64 ? -1 : -1L << (64 - prefix);
+    long loMask = prefix <= 64 ? 0 : prefix == 128 ? -1 : -1L << (128 - prefix);
+    long firstHi = addr[0] & hiMask;
+    long firstLo = addr[1] & loMask;
+    long lastHi = firstHi | ~hiMask;
+    long lastLo = firstLo | ~loMask;
+    for (int i = lowerBound(ipv6His, ipv6Los, firstHi, firstLo);
+        i < ipv6His.length && compare(ipv6His[i], ipv6Los[i], lastHi, lastLo) <= 0;
+        i++) {
+      if (i == 0 || ipv6His[i] != ipv6His[i - 1] || ipv6Los[i] != ipv6Los[i - 1]) {
+        count++;
+        if (result != null) {
+          result.add(IPAddrs.formatIPv6(ipv6His[i], ipv6Los[i]));
+        }
+      }
+    }
+    return count;
+  }
+
+  private int ipv4Index(int ipv4) {
+    int mask = ipv4Keys.length - 1;
+    for (int slot = hash(ipv4) & mask; ipv4Slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (ipv4Keys[slot] == ipv4) {
+        return ipv4Slots[slot];
+      }
+    }
+    return EMPTY;
+  }
+
+  private int ipv6Index(long hi, long lo) {
+    int mask = ipv6KeyHis.length - 1;
+    for (int slot = hash(hi, lo) & mask; ipv6Slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (ipv6KeyHis[slot] == hi && ipv6KeyLos[slot] == lo) {
+        return ipv6Slots[slot];
+      }
+    }
+    return EMPTY;
+  }
+
+  /** Power of two table size, with at most 50% load. */
+  private static int tableSize(int count) {
+    return Math.max(2, Integer.highestOneBit(Math.max(count, 1)) << 2);
+  }
+
+  /** Murmur3 32 bit finalizer. */
+  private static int hash(int key) {
+    int h = key;
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    return h ^ (h >>> 16);
+  }
+
+  /** Murmur3 64 bit finalizer of the combined key. */
+  private static int hash(long hi, long lo) {
+    long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    return (int) (h ^ (h >>> 33));
+  }
+
+  private static int lowerBound(int[] ips, int ip) {
+    int lo = 0;
+    int hi = ips.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (Integer.compareUnsigned(ips[mid], ip) < 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  private static int lowerBound(long[] his, long[] los, long ipHi, long ipLo) {
+    int lo = 0;
+    int hi = his.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (compare(his[mid], los[mid], ipHi, ipLo) < 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  private static int compare(long hi1, long lo1, long hi2, long lo2) {
+    int cmp = Long.compareUnsigned(hi1, hi2);
+    return cmp != 0 ? cmp : Long.compareUnsigned(lo1, lo2);
+  }
+
+  /** Heap sorts the IPv6 columns by the address and the name id, in place. */
+  private static void sort(long[] his, long[] los, int[] ids) {
+    int n = his.length;
+    for (int i = n / 2 - 1; i >= 0; i--) {
+      siftDown(his, los, ids, i, n);
+    }
+    for (int end = n - 1; end > 0; end--) {
+      swap(his, los, ids, 0, end);
+      siftDown(his, los, ids, 0, end);
+    }
+  }
+
+  private static void siftDown(long[] his, long[] los, int[] ids, int root, int n) {
+    while (true) {
+      int child = 2 * root + 1;
+      if (child >= n) {
+        return;
+      }
+      if (child + 1 < n && compare(his, los, ids, child, child + 1) < 0) {
+        child++;
+      }
+      if (compare(his, los, ids, root, child) >= 0) {
+        return;
+      }
+      swap(his, los, ids, root, child);
+      root = child;
+    }
+  }
+
+  private static int compare(long[] his, long[] los, int[] ids, int i, int j) {
+    int cmp = compare(his[i], los[i], his[j], los[j]);
+    return cmp != 0 ? cmp : Integer.compare(ids[i], ids[j]);
+  }
+
+  private static void swap(long[] his, long[] los, int[] ids, int i, int j) {
+    long hi = his[i];
+    his[i] = his[j];
+    his[j] = hi;
+    long lo = los[i];
+    los[i] = los[j];
+    los[j] = lo;
+    int id = ids[i];
+    ids[i] = ids[j];
+    ids[j] = id;
+  }
+
+  @Override
+  public String toString() {
+    return "AddressIndex{ipv4="
+        + ipv4Count
+        + ", ipv6="
+        + ipv6Count
+        + ", names="
+        + names.length
+        + "}";
+  }
+
+  /** Collects the addresses and names of the records. Not thread safe. */
+  public static final class Builder {
+
+    private final List<String> names = new ArrayList<>();
+
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    /** IPv4 address (sign flipped, so that the signed order is the unsigned one) and name id. */
+    private long[] ipv4 = new long[64];
+
+    private int ipv4Size;
+
+    private long[] ipv6His = new long[16];
+
+    private long[] ipv6Los = new long[16];
+
+    private int[] ipv6Names = new int[16];
+
+    private int ipv6Size;
+
+    private final long[] addr = new long[2];
+
+    Builder() {}
+
+    /**
+     * Adds the addresses of the A, AAAA, Host and PTR records. The other records and the invalid
+     * addresses are ignored.
+     *
+     * @param rec record.
+     * @return this builder.
+     */
+    public Builder add(Record rec) {
+      List<String> ips = Records.addresses(rec);
+      if (!ips.isEmpty()) {
+        int id = nameId(Records.target(rec));
+        for (String ip : ips) {
+          addAddress(ip, id);
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Adds the addresses of all the records.
+     *
+     * @param recs records.
+     * @return this builder.
+     */
+    public Builder addAll(Iterable<? extends Record> recs) {
+      for (Record rec : recs) {
+        add(rec);
+      }
+      return this;
+    }
+
+    /**
+     * Adds a name pointing at the IP address.
+     *
+     * @param ip IPv4 or IPv6 address.
+     * @param name fqdn.
+     * @return this builder.
+     * @throws IllegalArgumentException if it's not a valid IP address.
+     */
+    public Builder add(String ip, String name) {
+      if (!addAddress(ip, nameId(Records.normalizeName(name)))) {
+        throw new IllegalArgumentException("Invalid IP address: " + ip);
+      }
+      return this;
+    }
+
+    /** Adds the address and name id, returns <code>false</code> if it's not a valid address. */
+    private boolean addAddress(String ip, int id) {
+      if (IPAddrs.isIPv4(ip)) {
+        if (ipv4Size == ipv4.length) {
+          ipv4 = Arrays.copyOf(ipv4, ipv4Size * 2);
+        }
+        long key = IPAddrs.parseIPv4(ip) ^ Integer.MIN_VALUE;
+        ipv4[ipv4Size++] = (key << 32) | id;
+        return true;
+      }
+      if (!IPAddrs.parseIPv6(ip, addr)) {
+        return false;
+      }
+      if (ipv6Size == ipv6His.length) {
+        ipv6His = Arrays.copyOf(ipv6His, ipv6Size * 2);
+        ipv6Los = Arrays.copyOf(ipv6Los, ipv6Size * 2);
+        ipv6Names = Arrays.copyOf(ipv6Names, ipv6Size * 2);
+      }
+      ipv6His[ipv6Size] = addr[0];
+      ipv6Los[ipv6Size] = addr[1];
+      ipv6Names[ipv6Size++] = id;
+      return true;
+    }
+
+    private int nameId(String name) {
+      Integer id = nameIds.get(name);
+      if (id == null) {
+        id = names.size();
+        names.add(name);
+        nameIds.put(name, id);
+      }
+      return id;
+    }
+
+    /**
+     * Build the address index.
+     *
+     * @return {@link AddressIndex}
+     */
+    public AddressIndex build() {
+      return new AddressIndex(this);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package com.oneops.infoblox.snapshot;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.aaaa.AAAA;
+import com.oneops.infoblox.model.cname.CNAME;
+import com.oneops.infoblox.model.host.Host;
+import com.oneops.infoblox.model.host.Ipv4Addrs;
+import com.oneops.infoblox.model.mx.MX;
+import com.oneops.infoblox.model.ns.NS;
+import com.oneops.infoblox.model.ptr.PTR;
+import com.oneops.infoblox.model.srv.SRV;
+import com.oneops.infoblox.model.txt.TXT;
+import com.oneops.infoblox.model.zone.ZoneAuth;
+import com.oneops.infoblox.model.zone.ZoneDelegate;
+import com.oneops.infoblox.util.IPAddrs;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * Name and address accessors of the record models, used for indexing the snapshots.
+ *
+ * @author Suresh G
+ */
+final class Records {
+
+  private Records() {}
+
+  /**
+   * Returns the normalized DNS name of the record, ie. the fqdn for zones and the owner name for
+   * the other records.
+   */
+  static String name(Record rec) {
+    String name;
+    if (rec instanceof ARec) {
+      name = ((ARec) rec).name();
+    } else if (rec instanceof AAAA) {
+      name = ((AAAA) rec).name();
+    } else if (rec instanceof CNAME) {
+      name = ((CNAME) rec).name();
+    } else if (rec instanceof Host) {
+      name = ((Host) rec).name();
+    } else if (rec instanceof MX) {
+      name = ((MX) rec).name();
+    } else if (rec instanceof NS) {
+      name = ((NS) rec).name();
+    } else if (rec instanceof PTR) {
+      name = ((PTR) rec).name();
+    } else if (rec instanceof SRV) {
+      name = ((SRV) rec).name();
+    } else if (rec instanceof TXT) {
+      name = ((TXT) rec).name();
+    } else if (rec instanceof ZoneDelegate) {
+      name = ((ZoneDelegate) rec).fqdn();
+    } else if (rec instanceof ZoneAuth) {
+      name = ((ZoneAuth) rec).fqdn();
+    } else {
+      throw new IllegalArgumentException("Unsupported record type: " + rec.ref().wapiType());
+    }
+    return normalizeName(name);
+  }
+
+  /** Returns the record name along with the host aliases, if any. */
+  static List<String> names(Record rec) {
+    String name = name(rec);
+    if (rec instanceof Host) {
+      List<String> aliases = ((Host) rec).aliases();
+      if (aliases != null && !aliases.isEmpty()) {
+        List<String> names = new ArrayList<>(aliases.size() + 1);
+        names.add(name);
+        for (String alias : aliases) {
+          names.add(normalizeName(alias));
+        }
+        return names;
+      }
+    }
+    return singletonList(name);
+  }
+
+  /** Returns the normalized IP addresses of the record. */
+  static List<String> addresses(Record rec) {
+    if (rec instanceof ARec) {
+      return singletonList(normalizeIp(((ARec) rec).ipv4Addr()));
+    } else if (rec instanceof AAAA) {
+      return singletonList(normalizeIp(((AAAA) rec).ipv6Addr()));
+    } else if (rec instanceof Host) {
+      List<Ipv4Addrs> addrs = ((Host) rec).ipv4Addrs();
+      List<String> ips = new ArrayList<>(addrs.size());
+      for (Ipv4Addrs addr : addrs) {
+        ips.add(normalizeIp(addr.ipv4Addr()));
+      }
+      return ips;
+    } else if (rec instanceof PTR) {
+      PTR ptr = (PTR) rec;
+      String ip = ptr.ipv4addr() != null ? ptr.ipv4addr() : ptr.ipv6addr();
+      return ip != null ? singletonList(normalizeIp(ip)) : emptyList();
+    }
+    return emptyList();
+  }
+
+  /** Returns the name an address of the record resolves to, ie. the ptrdname for PTR records. */
+  static String target(Record rec) {
+    return rec instanceof PTR ? normalizeName(((PTR) rec).ptrdname()) : name(rec);
+  }
+
+  /** Lower cased name without the trailing dot. */
+  static String normalizeName(String name) {
+    int len = name.length();
+    if (len > 1 && name.charAt(len - 1) == '.') {
+      name = name.substring(0, len - 1);
+    }
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /** IP addresses are in the canonical form, so that all the forms of an address match. */
+  static String normalizeIp(@Nullable String ip) {
+    if (ip == null) {
+      return String.valueOf(ip);
+    }
+    try {
+      return IPAddrs.canonical(ip);
+    } catch (IllegalArgumentException ex) {
+      return ip.toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /** Reverses the labels of the name, eg: <b>a.xyz.com</b> -&gt; <b>com.xyz.a</b> */
+  static String reverse(String name) {
+    StringBuilder buf = new StringBuilder(name.length());
+    int end = name.length();
+    for (int i = end - 1; i >= 0; i--) {
+      if (name.charAt(i) == '.') {
+        buf.append(name, i + 1, end).append('.');
+        end = i;
+      }
+    }
+    return buf.append(name, 0, end).toString();
+  }
+}
@@ -0,0 +1,894 @@
+package com.oneops.infoblox.snapshot;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.model.JsonAdapterFactory;
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.ref.RefObject;
+import com.oneops.infoblox.util.IPAddrs;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A compact, memory mapped, read only binary file of a {@link ZoneSnapshot}, so that a restarted
+ * process can query a large snapshot right away, instead of loading it from the Grid Master.
+ *
+ * <p>The file is queried in place using {@link FileChannel#map}, only the matching records are
+ * decoded. It has the following sections, all the ints are big endian.
+ *
+ * <ul>
+ *   <li><b>Strings</b>: dictionary of all the distinct DNS labels, JSON keys and string values,
+ *       stored once and referenced by id.
+ *   <li><b>Records</b>: offsets column and the records, as a WAPI type id and the tagged JSON
+ *       fields.
+ *   <li><b>Names</b>: fixed width entries of the distinct names, sorted by the UTF-8 bytes of the
+ *       reversed name (eg: <b>com.xyz.a</b>). Each entry has the label ids of the name and its
+ *       record ids.
+ *   <li><b>IPv4/IPv6</b>: fixed width (address, record id) columns, sorted by the address.
+ * </ul>
+ *
+ * <p>Exact name, subdomain and address lookups are binary searches, in O(log n). The file is
+ * written to a temp file and atomically moved in place, so readers never see a partial file. A
+ * file is limited to 2 GB.
+ *
+ * <pre>{@code
+ * SnapshotFile.write(snapshot, path);
+ * ...
+ * SnapshotFile file = SnapshotFile.open(path);
+ * List<Record> recs = file.lookup("a.xyz.com");
+ * // Resume the incremental sync from the file.
+ * SnapshotSync sync = new SnapshotSync(client, file.toSnapshot());
+ * }</pre>
+ *
+ * @author Suresh G
+ */
+public final class SnapshotFile {
+
+  private static final int MAGIC = 0x4942534E; // IBSN
+
+  private static final int VERSION = 1;
+
+  /** Header fields, followed by the section offsets. */
+  private static final int H_LOADED_AT = 8;
+
+  private static final int H_VIEW = 16;
+  private static final int H_TYPES = 20;
+  private static final int H_LOAD_TYPES = 24;
+  private static final int H_STRINGS = 28;
+  private static final int H_RECORDS = 32;
+  private static final int H_NAMES = 36;
+  private static final int H_POSTINGS = 40;
+  private static final int H_IPV4 = 44;
+  private static final int H_IPV6 = 48;
+  private static final int H_SECTIONS = 52;
+
+  /** Sections, in the file order. */
+  private static final int S_STRINGS = 0;
+
+  private static final int S_TYPES = 1;
+  private static final int S_RECORDS = 2;
+  private static final int S_NAMES = 3;
+  private static final int S_LABELS = 4;
+  private static final int S_POSTINGS = 5;
+  private static final int S_IPV4 = 6;
+  private static final int S_IPV6 = 7;
+  private static final int SECTIONS = 8;
+
+  private static final int HEADER_SIZE = H_SECTIONS + SECTIONS * 4;
+
+  private static final int NAME_ENTRY_SIZE = 12;
+  private static final int IPV4_ENTRY_SIZE = 8;
+  private static final int IPV6_ENTRY_SIZE = 20;
+
+  /** JSON value tags. */
+  private static final byte T_NULL = 0;
+
+  private static final byte T_STRING = 1;
+  private static final byte T_LONG = 2;
+  private static final byte T_DOUBLE = 3;
+  private static final byte T_TRUE = 4;
+  private static final byte T_FALSE = 5;
+  private static final byte T_LIST = 6;
+  private static final byte T_MAP = 7;
+
+  private static final Moshi MOSHI =
+      new Moshi.Builder().add(JsonAdapterFactory.create()).add(new RefObject.JsonAdapter()).build();
+
+  private final Path path;
+  private final ByteBuffer buf;
+  private final String view;
+  private final Instant loadedAt;
+  private final List<WapiType<?>> types;
+  private final List<WapiType<?>> loadTypes;
+  private final int stringCount;
+  private final int recordCount;
+  private final int nameCount;
+  private final int ipv4Count;
+  private final int ipv6Count;
+  private final int[] sections = new int[SECTIONS];
+
+  private SnapshotFile(Path path, ByteBuffer buf) throws IOException {
+    this.path = path;
+    this.buf = buf;
+    if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC) {
+      throw new IOException("Not a snapshot file: " + path);
+    }
+    if (buf.getInt(4) != VERSION) {
+      throw new IOException("Unsupported snapshot file version " + buf.getInt(4) + ": " + path);
+    }
+    for (int i = 0; i < SECTIONS; i++) {
+      sections[i] = buf.getInt(H_SECTIONS + i * 4);
+    }
+    stringCount = buf.getInt(H_STRINGS);
+    recordCount = buf.getInt(H_RECORDS);
+    nameCount = buf.getInt(H_NAMES);
+    ipv4Count = buf.getInt(H_IPV4);
+    ipv6Count = buf.getInt(H_IPV6);
+    loadedAt = Instant.ofEpochMilli(buf.getLong(H_LOADED_AT));
+    view = string(buf.getInt(H_VIEW));
+
+    int typeCount = buf.getInt(H_TYPES);
+    List<WapiType<?>> fileTypes = new ArrayList<>(typeCount);
+    for (int i = 0; i < typeCount; i++) {
+      String object = string(buf.getInt(sections[S_TYPES] + i * 4));
+      WapiType<?> type = WapiType.of(object);
+      if (type == null) {
+        throw new IOException("Unsupported WAPI type " + object + ": " + path);
+      }
+      fileTypes.add(type);
+    }
+    types = fileTypes;
+    loadTypes = fileTypes.subList(0, buf.getInt(H_LOAD_TYPES));
+  }
+
+  /**
+   * Opens the snapshot file, mapping it into memory.
+   *
+   * @param path snapshot file path.
+   * @return {@link SnapshotFile}
+   * @throws IOException if the file can't be read or it's not a valid snapshot file.
+   */
+  public static SnapshotFile open(Path path) throws IOException {
+    try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = ch.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot file is too large: " + path);
+      }
+      // The mapping stays valid after the channel is closed.
+      MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      return new SnapshotFile(path, buf);
+    }
+  }
+
+  /**
+   * Writes the snapshot to the file atomically, replacing the existing file.
+   *
+   * @param snapshot zone snapshot.
+   * @param path snapshot file path.
+   * @throws IOException if the file can't be written.
+   */
+  public static void write(ZoneSnapshot snapshot, Path path) throws IOException {
+    Path abs = path.toAbsolutePath();
+    Path tmp = Files.createTempFile(abs.getParent(), abs.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel ch =
+          FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        new Writer(snapshot).write(ch);
+        ch.force(true);
+      }
+      try {
+        Files.move(tmp, abs, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /** Snapshot file path. */
+  public Path path() {
+    return path;
+  }
+
+  /** DNS view of the records. */
+  public String view() {
+    return view;
+  }
+
+  /** WAPI types of the snapshot. */
+  public List<WapiType<?>> types() {
+    return loadTypes;
+  }
+
+  /** Time of the last full load or sync of the snapshot. */
+  public Instant loadedAt() {
+    return loadedAt;
+  }
+
+  /** Number of records. */
+  public int size() {
+    return recordCount;
+  }
+
+  /** Number of distinct names. */
+  public int nameCount() {
+    return nameCount;
+  }
+
+  /** Number of distinct strings, ie. the labels and the field values. */
+  public int stringCount() {
+    return stringCount;
+  }
+
+  /**
+   * Decodes the record of the given id.
+   *
+   * @param id record id, from <b>0</b> to {@link #size()} - 1.
+   * @return {@link Record}
+   */
+  public Record record(int id) {
+    if (id < 0 || id >= recordCount) {
+      throw new IndexOutOfBoundsException("Invalid record id: " + id);
+    }
+    int base = sections[S_RECORDS];
+    Cursor c = new Cursor(base + (recordCount + 1) * 4 + buf.getInt(base + id * 4));
+    WapiType<?> type = types.get(buf.get(c.pos++));
+    return MOSHI.adapter(type.modelClass()).fromJsonValue(readValue(c));
+  }
+
+  /**
+   * Checks if any record exists for the name.
+   *
+   * @param name fqdn.
+   * @return <code>true</code> if there is at least one record.
+   */
+  public boolean exists(String name) {
+    return findName(Records.reverse(Records.normalizeName(name))) >= 0;
+  }
+
+  /**
+   * Returns all the records of the name, including the hosts having it as an alias.
+   *
+   * @param name fqdn.
+   * @return list of records, empty if there are none.
+   */
+  public List<Record> lookup(String name) {
+    int idx = findName(Records.reverse(Records.normalizeName(name)));
+    return idx >= 0 ? postings(idx) : emptyList();
+  }
+
+  /**
+   * Returns the records of the given type for the name.
+   *
+   * @param name fqdn.
+   * @param type WAPI type.
+   * @return list of records, empty if there are none.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Record> List<T> lookup(String name, WapiType<T> type) {
+    List<T> recs = new ArrayList<>();
+    for (Record rec : lookup(name)) {
+      if (type.modelClass().isInstance(rec)) {
+        recs.add((T) rec);
+      }
+    }
+    return recs;
+  }
+
+  /**
+   * Returns the names of the domain and all its subdomains, in reversed label order.
+   *
+   * @param domain domain name, eg: <b>xyz.com</b>
+   * @return list of names.
+   */
+  public List<String> subdomains(String domain) {
+    String rev = Records.reverse(Records.normalizeName(domain));
+    List<String> names = new ArrayList<>();
+    int idx = findName(rev);
+    if (idx >= 0) {
+      names.add(domain(idx));
+    }
+    String prefix = rev + '.';
+    int from = findName(prefix);
+    for (int i = from >= 0 ? from : -from - 1; i < nameCount; i++) {
+      String name = reversedName(i);
+      if (!name.startsWith(prefix)) {
+        break;
+      }
+      names.add(Records.reverse(name));
+    }
+    return names;
+  }
+
+  /**
+   * Returns the records having the IP address, ie. the A, AAAA, Host and PTR records.
+   *
+   * @param ip IPv4 or IPv6 address.
+   * @return list of records, empty if there are none.
+   */
+  public List<Record> lookupAddress(String ip) {
+    List<Record> recs = new ArrayList<>();
+    if (ip.indexOf(':') >= 0) {
+      long[] addr = new long[2];
+      if (!IPAddrs.parseIPv6(ip, addr)) {
+        return recs;
+      }
+      int base = sections[S_IPV6];
+      int lo = 0;
+      int hi = ipv6Count;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        int entry = base + mid * IPV6_ENTRY_SIZE;
+        if (compareIpv6(buf.getLong(entry), buf.getLong(entry + 8), addr[0], addr[1]) < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      for (int i = lo; i < ipv6Count; i++) {
+        int entry = base + i * IPV6_ENTRY_SIZE;
+        if (buf.getLong(entry) != addr[0] || buf.getLong(entry + 8) != addr[1]) {
+          break;
+        }
+        recs.add(record(buf.getInt(entry + 16)));
+      }
+    } else {
+      int addr;
+      try {
+        addr = IPAddrs.parseIPv4(ip);
+      } catch (IllegalArgumentException ex) {
+        return recs;
+      }
+      int base = sections[S_IPV4];
+      int lo = 0;
+      int hi = ipv4Count;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (Integer.compareUnsigned(buf.getInt(base + mid * IPV4_ENTRY_SIZE), addr) < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      for (int i = lo; i < ipv4Count && buf.getInt(base + i * IPV4_ENTRY_SIZE) == addr; i++) {
+        recs.add(record(buf.getInt(base + i * IPV4_ENTRY_SIZE + 4)));
+      }
+    }
+    return recs;
+  }
+
+  /**
+   * Returns the names the IP address resolves to, ie. the owner names of the A, AAAA and Host
+   * records and the ptrdname of the PTR records.
+   *
+   * @param ip IPv4 or IPv6 address.
+   * @return set of names.
+   */
+  public Set<String> namesOf(String ip) {
+    Set<String> names = new LinkedHashSet<>();
+    for (Record rec : lookupAddress(ip)) {
+      names.add(Records.target(rec));
+    }
+    return names;
+  }
+
+  /**
+   * Decodes all the records into a new heap {@link ZoneSnapshot}, eg: to resume a {@link
+   * SnapshotSync} after a restart.
+   *
+   * @return zone snapshot.
+   */
+  public ZoneSnapshot toSnapshot() {
+    ZoneSnapshot snapshot = new ZoneSnapshot(view, loadTypes);
+    for (int i = 0; i < recordCount; i++) {
+      snapshot.put(record(i));
+    }
+    snapshot.loadedAt(loadedAt);
+    return snapshot;
+  }
+
+  /**
+   * Binary search of the reversed name, same as {@link Arrays#binarySearch}. The name entries are
+   * compared with the UTF-8 bytes of the name in place, so the probes don't allocate.
+   */
+  private int findName(String rev) {
+    byte[] key = rev.getBytes(UTF_8);
+    Cursor c = new Cursor(0);
+    int lo = 0;
+    int hi = nameCount - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      int cmp = compareName(mid, key, c);
+      if (cmp < 0) {
+        lo = mid + 1;
+      } else if (cmp > 0) {
+        hi = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(lo + 1);
+  }
+
+  /**
+   * Compares the reversed name of the name entry with the UTF-8 key, byte by byte using the label
+   * strings in the mapped buffer.
+   */
+  private int compareName(int idx, byte[] key, Cursor c) {
+    c.pos = sections[S_LABELS] + buf.getInt(sections[S_NAMES] + idx * NAME_ENTRY_SIZE);
+    int labels = readVarint(c);
+    int base = sections[S_STRINGS];
+    int data = base + (stringCount + 1) * 4;
+    int k = 0;
+    for (int i = 0; i < labels; i++) {
+      if (i > 0) {
+        if (k == key.length) {
+          return 1;
+        }
+        if (key[k] != '.') {
+          return '.' - (key[k] & 0xFF);
+        }
+        k++;
+      }
+      int id = readVarint(c);
+      int end = data + buf.getInt(base + id * 4 + 4);
+      for (int pos = data + buf.getInt(base + id * 4); pos < end; pos++, k++) {
+        if (k == key.length) {
+          return 1;
+        }
+        int cmp = (buf.get(pos) & 0xFF) - (key[k] & 0xFF);
+        if (cmp != 0) {
+          return cmp;
+        }
+      }
+    }
+    return k == key.length ? 0 : -1;
+  }
+
+  /** Reversed name of the name entry, eg: <b>com.xyz.a</b> */
+  private String reversedName(int idx) {
+    int entry = sections[S_NAMES] + idx * NAME_ENTRY_SIZE;
+    Cursor c = new Cursor(sections[S_LABELS] + buf.getInt(entry));
+    int labels = readVarint(c);
+    StringBuilder name = new StringBuilder(labels * 8);
+    for (int i = 0; i < labels; i++) {
+      if (i > 0) {
+        name.append('.');
+      }
+      name.append(string(readVarint(c)));
+    }
+    return name.toString();
+  }
+
+  private String domain(int idx) {
+    return Records.reverse(reversedName(idx));
+  }
+
+  private List<Record> postings(int idx) {
+    int entry = sections[S_NAMES] + idx * NAME_ENTRY_SIZE;
+    int start = buf.getInt(entry + 4);
+    int count = buf.getInt(entry + 8);
+    List<Record> recs = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      recs.add(record(buf.getInt(sections[S_POSTINGS] + (start + i) * 4)));
+    }
+    return recs;
+  }
+
+  private String string(int id) {
+    int base = sections[S_STRINGS];
+    int start = buf.getInt(base + id * 4);
+    int end = buf.getInt(base + id * 4 + 4);
+    int data = base + (stringCount + 1) * 4;
+    byte[] bytes = new byte[end - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buf.get(data + start + i);
+    }
+    return new String(bytes, UTF_8);
+  }
+
+  private Object readValue(Cursor c) {
+    byte tag = buf.get(c.pos++);
+    switch (tag) {
+      case T_NULL:
+        return null;
+      case T_STRING:
+        return string(readVarint(c));
+      case T_LONG:
+        long zz = readVarlong(c);
+        return (zz >>> 1) ^ -(zz & 1);
+      case T_DOUBLE:
+        double d = buf.getDouble(c.pos);
+        c.pos += 8;
+        return d;
+      case T_TRUE:
+        return Boolean.TRUE;
+      case T_FALSE:
+        return Boolean.FALSE;
+      case T_LIST:
+        int size = readVarint(c);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue(c));
+        }
+        return list;
+      case T_MAP:
+        int fields = readVarint(c);
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < fields; i++) {
+          String key = string(readVarint(c));
+          map.put(key, readValue(c));
+        }
+        return map;
+      default:
+        throw new IllegalStateException("Corrupted snapshot file " + path + " at " + (c.pos - 1));
+    }
+  }
+
+  private int readVarint(Cursor c) {
+    return (int) readVarlong(c);
+  }
+
+  private long readVarlong(Cursor c) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buf.get(c.pos++);
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  /** Compares the strings by the code points, ie. the order of their UTF-8 bytes. */
+  private static int compareCodePoints(String a, String b) {
+    int i = 0;
+    while (i < a.length() && i < b.length()) {
+      int cpa = a.codePointAt(i);
+      int cpb = b.codePointAt(i);
+      if (cpa != cpb) {
+        return Integer.compare(cpa, cpb);
+      }
+      i += Character.charCount(cpa);
+    }
+    return Integer.compare(a.length(), b.length());
+  }
+
+  private static int compareIpv6(long hi1, long lo1, long hi2, long lo2) {
+    int cmp = Long.compareUnsigned(hi1, hi2);
+    return cmp != 0 ? cmp : Long.compareUnsigned(lo1, lo2);
+  }
+
+  @Override
+  public String toString() {
+    return "SnapshotFile{path="
+        + path
+        + ", view="
+        + view
+        + ", records="
+        + recordCount
+        + ", names="
+        + nameCount
+        + ", strings="
+        + stringCount
+        + ", loadedAt="
+        + loadedAt
+        + "}";
+  }
+
+  /** Read position in the mapped buffer. */
+  private static final class Cursor {
+    int pos;
+
+    Cursor(int pos) {
+      this.pos = pos;
+    }
+  }
+
+  /** Encodes a snapshot into the file sections. */
+  private static final class Writer {
+
+    private final ZoneSnapshot snapshot;
+
+    private final List<Record> records;
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+    private final List<WapiType<?>> types;
+
+    Writer(ZoneSnapshot snapshot) {
+      this.snapshot = snapshot;
+      // A consistent copy, as the snapshot could be updated concurrently.
+      this.records = new ArrayList<>(snapshot.records());
+      Set<WapiType<?>> allTypes = new LinkedHashSet<>(snapshot.types());
+      for (Record rec : records) {
+        allTypes.add(typeOf(rec));
+      }
+      this.types = new ArrayList<>(allTypes);
+    }
+
+    void write(FileChannel ch) throws IOException {
+      ByteArrayOutputStream recordData = new ByteArrayOutputStream(records.size() * 64);
+      DataOutputStream recordOut = new DataOutputStream(recordData);
+      int[] recordOffsets = new int[records.size() + 1];
+
+      // Records, their names and addresses.
+      TreeMap<String, List<Integer>> names = new TreeMap<>(SnapshotFile::compareCodePoints);
+      long[] ipv4 = new long[16];
+      int ipv4Count = 0;
+      List<long[]> ipv6 = new ArrayList<>();
+      for (int id = 0; id < records.size(); id++) {
+        Record rec = records.get(id);
+        recordOffsets[id] = recordOut.size();
+        recordOut.writeByte(types.indexOf(typeOf(rec)));
+        writeValue(recordOut, toJsonValue(rec));
+
+        for (String name : Records.names(rec)) {
+          List<Integer> ids = names.computeIfAbsent(Records.reverse(name), k -> new ArrayList<>(1));
+          if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+            ids.add(id);
+          }
+        }
+        for (String ip : Records.addresses(rec)) {
+          if (ip.indexOf(':') >= 0) {
+            long[] addr = IPAddrs.parseIPv6(ip);
+            ipv6.add(new long[] {addr[0], addr[1], id});
+          } else {
+            if (ipv4Count == ipv4.length) {
+              ipv4 = Arrays.copyOf(ipv4, ipv4Count * 2);
+            }
+            // Flip the sign bit, so that the signed order is the unsigned address order.
+            ipv4[ipv4Count++] = ((long) (IPAddrs.parseIPv4(ip) ^ Integer.MIN_VALUE) << 32) | id;
+          }
+        }
+      }
+      recordOffsets[records.size()] = recordOut.size();
+      Arrays.sort(ipv4, 0, ipv4Count);
+      ipv6.sort((a, b) -> compareIpv6(a[0], a[1], b[0], b[1]));
+
+      // Names, as the label ids in reversed order.
+      ByteArrayOutputStream labelData = new ByteArrayOutputStream(names.size() * 8);
+      DataOutputStream labelOut = new DataOutputStream(labelData);
+      int[] nameEntries = new int[names.size() * 3];
+      List<Integer> postings = new ArrayList<>(records.size());
+      int idx = 0;
+      for (Map.Entry<String, List<Integer>> name : names.entrySet()) {
+        nameEntries[idx * 3] = labelOut.size();
+        nameEntries[idx * 3 + 1] = postings.size();
+        nameEntries[idx * 3 + 2] = name.getValue().size();
+        String[] labels = name.getKey().split("\\.", -1);
+        writeVarint(labelOut, labels.length);
+        for (String label : labels) {
+          writeVarint(labelOut, intern(label));
+        }
+        postings.addAll(name.getValue());
+        idx++;
+      }
+
+      int viewId = intern(snapshot.view());
+      int[] typeIds = new int[types.size()];
+      for (int i = 0; i < typeIds.length; i++) {
+        typeIds[i] = intern(types.get(i).object());
+      }
+
+      int[] sections = new int[SECTIONS];
+      CountingOutputStream counter =
+          new CountingOutputStream(Channels.newOutputStream(ch.position(HEADER_SIZE)));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, 64 * 1024));
+
+      sections[S_STRINGS] = HEADER_SIZE;
+      List<byte[]> stringBytes = new ArrayList<>(strings.size());
+      int stringOffset = 0;
+      for (String str : strings.keySet()) {
+        byte[] bytes = str.getBytes(UTF_8);
+        stringBytes.add(bytes);
+        out.writeInt(stringOffset);
+        stringOffset += bytes.length;
+      }
+      out.writeInt(stringOffset);
+      for (byte[] bytes : stringBytes) {
+        out.write(bytes);
+      }
+
+      sections[S_TYPES] = position(out, counter);
+      for (int typeId : typeIds) {
+        out.writeInt(typeId);
+      }
+
+      sections[S_RECORDS] = position(out, counter);
+      for (int offset : recordOffsets) {
+        out.writeInt(offset);
+      }
+      recordData.writeTo(out);
+
+      sections[S_NAMES] = position(out, counter);
+      for (int entry : nameEntries) {
+        out.writeInt(entry);
+      }
+
+      sections[S_LABELS] = position(out, counter);
+      labelData.writeTo(out);
+
+      sections[S_POSTINGS] = position(out, counter);
+      for (int id : postings) {
+        out.writeInt(id);
+      }
+
+      sections[S_IPV4] = position(out, counter);
+      for (int i = 0; i < ipv4Count; i++) {
+        out.writeInt((int) (ipv4[i] >>> 32) ^ Integer.MIN_VALUE);
+        out.writeInt((int) ipv4[i]);
+      }
+
+      sections[S_IPV6] = position(out, counter);
+      for (long[] addr : ipv6) {
+        out.writeLong(addr[0]);
+        out.writeLong(addr[1]);
+        out.writeInt((int) addr[2]);
+      }
+      position(out, counter);
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(0, MAGIC);
+      header.putInt(4, VERSION);
+      header.putLong(H_LOADED_AT, snapshot.loadedAt().toEpochMilli());
+      header.putInt(H_VIEW, viewId);
+      header.putInt(H_TYPES, types.size());
+      header.putInt(H_LOAD_TYPES, snapshot.types().size());
+      header.putInt(H_STRINGS, strings.size());
+      header.putInt(H_RECORDS, records.size());
+      header.putInt(H_NAMES, names.size());
+      header.putInt(H_POSTINGS, postings.size());
+      header.putInt(H_IPV4, ipv4Count);
+      header.putInt(H_IPV6, ipv6.size());
+      for (int i = 0; i < SECTIONS; i++) {
+        header.putInt(H_SECTIONS + i * 4, sections[i]);
+      }
+      while (header.hasRemaining()) {
+        ch.write(header, header.position());
+      }
+    }
+
+    /** Flushes the stream and returns the file position. */
+    private static int position(DataOutputStream out, CountingOutputStream counter)
+        throws IOException {
+      out.flush();
+      long pos = HEADER_SIZE + counter.count;
+      if (pos > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot is too large for the snapshot file format.");
+      }
+      return (int) pos;
+    }
+
+    private int intern(String str) {
+      Integer id = strings.get(str);
+      if (id == null) {
+        id = strings.size();
+        strings.put(str, id);
+      }
+      return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toJsonValue(Record rec) {
+      JsonAdapter<Record> adapter =
+          (JsonAdapter<Record>) MOSHI.adapter(typeOf(rec).modelClass());
+      return adapter.toJsonValue(rec);
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+      if (value == null) {
+        out.writeByte(T_NULL);
+      } else if (value instanceof String) {
+        out.writeByte(T_STRING);
+        writeVarint(out, intern((String) value));
+      } else if (value instanceof Long || value instanceof Integer) {
+        long num = ((Number) value).longValue();
+        out.writeByte(T_LONG);
+        writeVarlong(out, (num << 1) ^ (num >> 63));
+      } else if (value instanceof Number) {
+        out.writeByte(T_DOUBLE);
+        out.writeDouble(((Number) value).doubleValue());
+      } else if (value instanceof Boolean) {
+        out.writeByte((Boolean) value ? T_TRUE : T_FALSE);
+      } else if (value instanceof List) {
+        List<?> list = (List<?>) value;
+        out.writeByte(T_LIST);
+        writeVarint(out, list.size());
+        for (Object item : list) {
+          writeValue(out, item);
+        }
+      } else if (value instanceof Map) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        out.writeByte(T_MAP);
+        writeVarint(out, map.size());
+        for (Map.Entry<?, ?> field : map.entrySet()) {
+          writeVarint(out, intern((String) field.getKey()));
+          writeValue(out, field.getValue());
+        }
+      } else {
+        throw new IllegalArgumentException("Unsupported JSON value: " + value.getClass());
+      }
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+      writeVarlong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarlong(DataOutputStream out, long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+        out.writeByte((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.writeByte((int) value);
+    }
+
+    private static WapiType<?> typeOf(Record rec) {
+      WapiType<?> type = WapiType.of(rec.ref().wapiType());
+      if (type != null && type.modelClass().isInstance(rec)) {
+        return type;
+      }
+      for (WapiType<?> t : WapiType.values()) {
+        if (t.modelClass().isInstance(rec)) {
+          return t;
+        }
+      }
+      throw new IllegalArgumentException("Unsupported record type: " + rec.getClass());
+    }
+  }
+
+  /** Counts the bytes written to the file channel. */
+  private static final class CountingOutputStream extends OutputStream {
+
+    private final OutputStream out;
+
+    long count;
+
+    CountingOutputStream(OutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+  }
+}
@@ -0,0 +1,305 @@
+package com.oneops.infoblox.snapshot;
+
+import static java.util.Collections.singletonMap;
+
+import com.oneops.infoblox.BatchOperation;
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.model.Record;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Incrementally syncs a {@link ZoneSnapshot} with the Grid Master, so that a local replica of a
+ * large view can be kept current without re-building it.
+ *
+ * <p>For the A, AAAA, PTR, MX, TXT and SRV records, the WAPI reference encodes the record name and
+ * its data (eg: the A record address), so a changed record gets a new reference. A {@link #sync()}
+ * lists only the object references of these types, page by page, and diffs them with the
+ * snapshot. The full objects are read (using multi-object requests) only for the new references,
+ * and the records missing on the Grid Master are removed. The unchanged records are neither
+ * transferred nor re-indexed.
+ *
+ * <p>The other types are changed in place, eg: the Host reference has only the host name, not its
+ * addresses, and the CNAME reference has only the alias, not the canonical name. So a {@link
+ * #sync()} reads the full objects of these types and compares the record fields.
+ *
+ * <p>Changes of the fields outside the reference (eg: the A record TTL) are synced only by a {@link
+ * #fullSync()}, which reads the full objects of all the types. The <b>db_objects</b> change feed
+ * (<b>start_sequence_id</b>, WAPI 2.2+) is not used, so that the sync works with the older WAPI
+ * versions too. Schedule {@link #sync()} frequently and {@link #fullSync()} rarely to keep the
+ * snapshot current, eg:
+ *
+ * <pre>{@code
+ * SnapshotSync sync = new SnapshotSync(client, ZoneSnapshot.load(client));
+ * scheduler.scheduleWithFixedDelay(sync::trySync, 1, 1, TimeUnit.MINUTES);
+ * scheduler.scheduleWithFixedDelay(sync::tryFullSync, 1, 1, TimeUnit.HOURS);
+ * }</pre>
+ *
+ * @author Suresh G
+ */
+public final class SnapshotSync {
+
+  /** Types whose object reference changes along with the record data. */
+  private static final Set<WapiType<?>> REF_SYNC_TYPES =
+      new HashSet<>(
+          Arrays.asList(
+              WapiType.A, WapiType.AAAA, WapiType.PTR, WapiType.MX, WapiType.TXT, WapiType.SRV));
+
+  private final InfobloxClient client;
+
+  private final ZoneSnapshot snapshot;
+
+  private final int pageSize;
+
+  private volatile @Nullable SyncStats lastSync;
+
+  private volatile @Nullable IOException lastError;
+
+  private volatile long syncCount;
+
+  private volatile long failureCount;
+
+  /**
+   * Creates a sync for the snapshot, querying {@link InfobloxClient#DEFAULT_PAGE_SIZE} records at
+   * a time.
+   *
+   * @param client infoblox client.
+   * @param snapshot snapshot of the client dns view.
+   */
+  public SnapshotSync(InfobloxClient client, ZoneSnapshot snapshot) {
+    this(client, snapshot, InfobloxClient.DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Creates a sync for the snapshot, querying pageSize records at a time.
+   *
+   * @param client infoblox client.
+   * @param snapshot snapshot of the client dns view.
+   * @param pageSize max records to query at a time.
+   * @throws IllegalArgumentException if the client and the snapshot dns views are different.
+   */
+  public SnapshotSync(InfobloxClient client, ZoneSnapshot snapshot, int pageSize) {
+    if (!client.dnsView().equals(snapshot.view())) {
+      throw new IllegalArgumentException(
+          "Client view "
+              + client.dnsView()
+              + " doesn't match the snapshot view "
+              + snapshot.view());
+    }
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Invalid pageSize: " + pageSize);
+    }
+    this.client = client;
+    this.snapshot = snapshot;
+    this.pageSize = pageSize;
+  }
+
+  /** The synced snapshot. */
+  public ZoneSnapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Syncs the snapshot with the Grid Master, by diffing the object references of the types having
+   * the record data in the reference and the full records of the others. Syncs are serialized, the
+   * snapshot lookups are not blocked during a sync.
+   *
+   * <p>If a sync fails, the changes synced so far are kept and the snapshot {@link
+   * ZoneSnapshot#loadedAt()} time is not updated.
+   *
+   * @return sync stats.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public synchronized SyncStats sync() throws IOException {
+    return sync(false);
+  }
+
+  /**
+   * Same as {@link #sync()}, but reads the full objects of all the types and compares the record
+   * fields, so that the changes keeping the object reference (eg: TTL) are synced too.
+   *
+   * @return sync stats.
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public synchronized SyncStats fullSync() throws IOException {
+    return sync(true);
+  }
+
+  private SyncStats sync(boolean full) throws IOException {
+    Instant syncedAt = Instant.now();
+    long start = System.nanoTime();
+    long[] counts = new long[4];
+    try {
+      for (WapiType<?> type : snapshot.types()) {
+        if (full || !REF_SYNC_TYPES.contains(type)) {
+          syncRecords(type, counts);
+        } else {
+          syncRefs(type, counts);
+        }
+      }
+    } catch (IOException ex) {
+      lastError = ex;
+      failureCount++;
+      throw ex;
+    }
+
+    snapshot.loadedAt(syncedAt);
+    SyncStats stats =
+        SyncStats.builder()
+            .view(snapshot.view())
+            .added(counts[0])
+            .updated(counts[1])
+            .removed(counts[2])
+            .unchanged(counts[3])
+            .syncedAt(syncedAt)
+            .duration(Duration.ofNanos(System.nanoTime() - start))
+            .build();
+    lastSync = stats;
+    lastError = null;
+    syncCount++;
+    return stats;
+  }
+
+  /**
+   * Same as {@link #sync()}, but doesn't throw the sync errors, so that it can be scheduled
+   * periodically. The error is available from {@link #lastError()}.
+   *
+   * @return sync stats or <code>null</code> if the sync failed.
+   */
+  @Nullable
+  public SyncStats trySync() {
+    try {
+      return sync();
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Same as {@link #fullSync()}, but doesn't throw the sync errors, so that it can be scheduled
+   * periodically. The error is available from {@link #lastError()}.
+   *
+   * @return sync stats or <code>null</code> if the sync failed.
+   */
+  @Nullable
+  public SyncStats tryFullSync() {
+    try {
+      return fullSync();
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Syncs the references of the type and reads the new records. Counts are added, updated, removed
+   * and unchanged.
+   */
+  private void syncRefs(WapiType<?> type, long[] counts) throws IOException {
+    Set<String> seen = new HashSet<>();
+    BatchOperation reads = client.batch(pageSize);
+    client.forEachRef(
+        type,
+        singletonMap("view", client.dnsView()),
+        pageSize,
+        ref -> {
+          seen.add(ref.value());
+          if (snapshot.get(ref.value()) == null) {
+            reads.get(ref);
+          } else {
+            counts[3]++;
+          }
+        });
+
+    for (Object rec : reads.execute()) {
+      snapshot.put((Record) rec);
+      counts[0]++;
+    }
+    removeUnseen(type, seen, counts);
+  }
+
+  /** Syncs the full records of the type. Counts are added, updated, removed and unchanged. */
+  private void syncRecords(WapiType<?> type, long[] counts) throws IOException {
+    Set<String> seen = new HashSet<>();
+    ZoneSnapshot.forEach(
+        client,
+        type,
+        pageSize,
+        rec -> {
+          String ref = rec.ref().value();
+          seen.add(ref);
+          Record old = snapshot.get(ref);
+          if (old == null) {
+            snapshot.put(rec);
+            counts[0]++;
+          } else if (!old.equals(rec)) {
+            snapshot.put(rec);
+            counts[1]++;
+          } else {
+            counts[3]++;
+          }
+        });
+    removeUnseen(type, seen, counts);
+  }
+
+  /** Removes the snapshot records of the type, which are not seen on the Grid Master. */
+  private void removeUnseen(WapiType<?> type, Set<String> seen, long[] counts) {
+    List<String> deleted = new ArrayList<>();
+    for (String ref : snapshot.refs(type)) {
+      if (!seen.contains(ref)) {
+        deleted.add(ref);
+      }
+    }
+    for (String ref : deleted) {
+      snapshot.remove(ref);
+      counts[2]++;
+    }
+  }
+
+  /** Age of the snapshot, ie. the time since the last full load or successful sync. */
+  public Duration freshness() {
+    return Duration.between(snapshot.loadedAt(), Instant.now());
+  }
+
+  /** Stats of the last successful sync, <code>null</code> if it's never synced. */
+  @Nullable
+  public SyncStats lastSync() {
+    return lastSync;
+  }
+
+  /** Error of the last sync, <code>null</code> if it succeeded. */
+  @Nullable
+  public IOException lastError() {
+    return lastError;
+  }
+
+  /** Number of successful syncs. */
+  public long syncCount() {
+    return syncCount;
+  }
+
+  /** Number of failed syncs. */
+  public long failureCount() {
+    return failureCount;
+  }
+
+  @Override
+  public String toString() {
+    return "SnapshotSync{snapshot="
+        + snapshot
+        + ", syncs="
+        + syncCount
+        + ", failures="
+        + failureCount
+        + ", lastSync="
+        + lastSync
+        + "}";
+  }
+}
@@ -0,0 +1,64 @@
+package com.oneops.infoblox.snapshot;
+
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Statistics of a {@link ZoneSnapshot} sync.
+ *
+ * @author Suresh G
+ */
+@AutoValue
+public abstract class SyncStats {
+
+  public static Builder builder() {
+    return new AutoValue_SyncStats.Builder();
+  }
+
+  /** DNS view of the snapshot. */
+  public abstract String view();
+
+  /** Number of new records added to the snapshot. */
+  public abstract long added();
+
+  /** Number of changed records replaced in the snapshot. */
+  public abstract long updated();
+
+  /** Number of deleted records removed from the snapshot. */
+  public abstract long removed();
+
+  /** Number of records left as is. */
+  public abstract long unchanged();
+
+  /** Time the sync started, ie. the snapshot is current as of this time. */
+  public abstract Instant syncedAt();
+
+  /** Time taken by the sync. */
+  public abstract Duration duration();
+
+  /** Total number of changes applied to the snapshot. */
+  public long changes() {
+    return added() + updated() + removed();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder view(String view);
+
+    public abstract Builder added(long added);
+
+    public abstract Builder updated(long updated);
+
+    public abstract Builder removed(long removed);
+
+    public abstract Builder unchanged(long unchanged);
+
+    public abstract Builder syncedAt(Instant syncedAt);
+
+    public abstract Builder duration(Duration duration);
+
+    public abstract SyncStats build();
+  }
+}
@@ -0,0 +1,399 @@
+package com.oneops.infoblox.snapshot;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableList;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.model.Record;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * A local in-memory index of the records of a DNS view, loaded using the paged WAPI queries. It
+ * answers the name and address lookups locally, instead of querying the Grid Master.
+ *
+ * <ul>
+ *   <li><b>Exact name</b> lookup in O(1), using a hash index of the normalized names.
+ *   <li><b>Subdomain</b> lookup in O(log n + k), using a sorted index of the reversed names (eg:
+ *       <b>com.xyz.a</b>), so that all the names of a domain are adjacent.
+ *   <li><b>IP address</b> to name lookup in O(1), using the A, AAAA, Host and PTR records.
+ * </ul>
+ *
+ * <p>Names are case-insensitive and the trailing dot is ignored. The snapshot is thread safe, the
+ * lookups are lock free and see the records updated in place. Use {@link SnapshotSync} to keep it
+ * current.
+ *
+ * @author Suresh G
+ */
+public final class ZoneSnapshot {
+
+  /** Types loaded by default, ie. all the record types and the delegated zones. */
+  public static final List<WapiType<?>> DEFAULT_TYPES =
+      unmodifiableList(
+          Arrays.asList(
+              WapiType.A,
+              WapiType.AAAA,
+              WapiType.CNAME,
+              WapiType.HOST,
+              WapiType.MX,
+              WapiType.NS,
+              WapiType.PTR,
+              WapiType.SRV,
+              WapiType.TXT,
+              WapiType.ZONE_DELEGATED));
+
+  private final String view;
+
+  private final List<WapiType<?>> types;
+
+  private final ConcurrentMap<String, Record> byRef = new ConcurrentHashMap<>();
+
+  /** Object references by the WAPI object type, eg: <b>record:a</b> */
+  private final ConcurrentMap<String, Set<String>> refsByType = new ConcurrentHashMap<>();
+
+  /** Records by name. Lists are immutable and replaced on change. */
+  private final ConcurrentMap<String, List<Record>> byName = new ConcurrentHashMap<>();
+
+  /** Reversed name to name, in reversed label order. */
+  private final ConcurrentNavigableMap<String, String> byReversedName =
+      new ConcurrentSkipListMap<>();
+
+  /** Records by IP address. Lists are immutable and replaced on change. */
+  private final ConcurrentMap<String, List<Record>> byAddress = new ConcurrentHashMap<>();
+
+  private volatile Instant loadedAt = Instant.EPOCH;
+
+  ZoneSnapshot(String view, List<WapiType<?>> types) {
+    this.view = view;
+    this.types = unmodifiableList(new ArrayList<>(types));
+  }
+
+  /**
+   * Loads the records of the client dns view, querying {@link InfobloxClient#DEFAULT_PAGE_SIZE}
+   * records at a time.
+   *
+   * @param client infoblox client.
+   * @param types WAPI types to load, {@link #DEFAULT_TYPES} if it's empty.
+   * @return {@link ZoneSnapshot}
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public static ZoneSnapshot load(InfobloxClient client, WapiType<?>... types) throws IOException {
+    return load(client, InfobloxClient.DEFAULT_PAGE_SIZE, types);
+  }
+
+  /**
+   * Loads the records of the client dns view, querying pageSize records at a time.
+   *
+   * @param client infoblox client.
+   * @param pageSize max records to query at a time.
+   * @param types WAPI types to load, {@link #DEFAULT_TYPES} if it's empty.
+   * @return {@link ZoneSnapshot}
+   * @throws IOException if a problem occurred talking to the infoblox.
+   */
+  public static ZoneSnapshot load(InfobloxClient client, int pageSize, WapiType<?>... types)
+      throws IOException {
+    List<WapiType<?>> loadTypes = types.length == 0 ? DEFAULT_TYPES : Arrays.asList(types);
+    ZoneSnapshot snapshot = new ZoneSnapshot(client.dnsView(), loadTypes);
+    for (WapiType<?> type : loadTypes) {
+      forEach(client, type, pageSize, snapshot::put);
+    }
+    snapshot.loadedAt(Instant.now());
+    return snapshot;
+  }
+
+  /** Streams all the records of the type in the client dns view. */
+  static void forEach(
+      InfobloxClient client, WapiType<?> type, int pageSize, Consumer<Record> action)
+      throws IOException {
+    Map<String, String> opts = singletonMap("view", client.dnsView());
+    try (Stream<? extends Record> recs = client.stream(type, opts, pageSize)) {
+      recs.forEach(action);
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /** DNS view of the records. */
+  public String view() {
+    return view;
+  }
+
+  /** WAPI types of the records. */
+  public List<WapiType<?>> types() {
+    return types;
+  }
+
+  /** Time of the last full load or sync. */
+  public Instant loadedAt() {
+    return loadedAt;
+  }
+
+  void loadedAt(Instant loadedAt) {
+    this.loadedAt = loadedAt;
+  }
+
+  /** Number of records. */
+  public int size() {
+    return byRef.size();
+  }
+
+  /** Number of distinct names. */
+  public int nameCount() {
+    return byName.size();
+  }
+
+  /** Number of distinct IP addresses. */
+  public int addressCount() {
+    return byAddress.size();
+  }
+
+  /** Returns all the records, in no particular order. */
+  public Collection<Record> records() {
+    return unmodifiableCollection(byRef.values());
+  }
+
+  /** Object references of the records of given type. */
+  Collection<String> refs(WapiType<?> type) {
+    Set<String> refs = refsByType.get(type.object());
+    return refs != null ? unmodifiableCollection(refs) : emptyList();
+  }
+
+  /**
+   * Returns the record of the given object reference.
+   *
+   * @param ref object reference string.
+   * @return record or <code>null</code> if it's not found.
+   */
+  @Nullable
+  public Record get(String ref) {
+    return byRef.get(ref);
+  }
+
+  /**
+   * Checks if any record exists for the name.
+   *
+   * @param name fqdn.
+   * @return <code>true</code> if there is at least one record.
+   */
+  public boolean exists(String name) {
+    return byName.containsKey(Records.normalizeName(name));
+  }
+
+  /**
+   * Returns all the records of the name, including the hosts having it as an alias.
+   *
+   * @param name fqdn.
+   * @return unmodifiable list of records, empty if there are none.
+   */
+  public List<Record> lookup(String name) {
+    return byName.getOrDefault(Records.normalizeName(name), emptyList());
+  }
+
+  /**
+   * Returns the records of the given type for the name.
+   *
+   * @param name fqdn.
+   * @param type WAPI type.
+   * @return list of records, empty if there are none.
+   */
+  public <T extends Record> List<T> lookup(String name, WapiType<T> type) {
+    return filter(lookup(name), type);
+  }
+
+  /**
+   * Returns the names of the domain and all its subdomains, in reversed label order.
+   *
+   * @param domain domain name, eg: <b>xyz.com</b>
+   * @return list of names.
+   */
+  public List<String> subdomains(String domain) {
+    String rev = Records.reverse(Records.normalizeName(domain));
+    List<String> names = new ArrayList<>();
+    String self = byReversedName.get(rev);
+    if (self != null) {
+      names.add(self);
+    }
+    // '/' is the next char after '.', so the range covers all the labels under the domain.
+    names.addAll(byReversedName.subMap(rev + '.', rev + '/').values());
+    return names;
+  }
+
+  /**
+   * Returns the records of the domain and all its subdomains, in reversed label order.
+   *
+   * @param domain domain name, eg: <b>xyz.com</b>
+   * @return list of records.
+   */
+  public List<Record> lookupSubdomains(String domain) {
+    List<Record> recs = new ArrayList<>();
+    for (String name : subdomains(domain)) {
+      recs.addAll(byName.getOrDefault(name, emptyList()));
+    }
+    return recs;
+  }
+
+  /**
+   * Returns the records having the IP address, ie. the A, AAAA, Host and PTR records.
+   *
+   * @param ip IPv4 or IPv6 address.
+   * @return unmodifiable list of records, empty if there are none.
+   */
+  public List<Record> lookupAddress(String ip) {
+    return byAddress.getOrDefault(Records.normalizeIp(ip), emptyList());
+  }
+
+  /**
+   * Returns the names the IP address resolves to, ie. the owner names of the A, AAAA and Host
+   * records and the ptrdname of the PTR records.
+   *
+   * @param ip IPv4 or IPv6 address.
+   * @return set of names.
+   */
+  public Set<String> namesOf(String ip) {
+    Set<String> names = new LinkedHashSet<>();
+    for (Record rec : lookupAddress(ip)) {
+      names.add(Records.target(rec));
+    }
+    return names;
+  }
+
+  /**
+   * Adds or replaces the record with the same object reference.
+   *
+   * @param rec record.
+   * @return previous record of the reference, if any.
+   */
+  @Nullable
+  synchronized Record put(Record rec) {
+    Record old = byRef.put(rec.ref().value(), rec);
+    if (old != null) {
+      unindex(old);
+    } else {
+      refsByType
+          .computeIfAbsent(rec.ref().wapiType(), k -> ConcurrentHashMap.newKeySet())
+          .add(rec.ref().value());
+    }
+    index(rec);
+    return old;
+  }
+
+  /**
+   * Removes the record of the object reference.
+   *
+   * @param ref object reference string.
+   * @return removed record, if any.
+   */
+  @Nullable
+  synchronized Record remove(String ref) {
+    Record old = byRef.remove(ref);
+    if (old != null) {
+      unindex(old);
+      Set<String> refs = refsByType.get(old.ref().wapiType());
+      if (refs != null) {
+        refs.remove(ref);
+      }
+    }
+    return old;
+  }
+
+  private void index(Record rec) {
+    for (String name : Records.names(rec)) {
+      if (add(byName, name, rec)) {
+        byReversedName.put(Records.reverse(name), name);
+      }
+    }
+    for (String ip : Records.addresses(rec)) {
+      add(byAddress, ip, rec);
+    }
+  }
+
+  private void unindex(Record rec) {
+    for (String name : Records.names(rec)) {
+      if (remove(byName, name, rec)) {
+        byReversedName.remove(Records.reverse(name));
+      }
+    }
+    for (String ip : Records.addresses(rec)) {
+      remove(byAddress, ip, rec);
+    }
+  }
+
+  /** Adds the record to the key, returns <code>true</code> if it's a new key. */
+  private static boolean add(ConcurrentMap<String, List<Record>> index, String key, Record rec) {
+    List<Record> recs = index.get(key);
+    if (recs == null) {
+      index.put(key, singletonList(rec));
+      return true;
+    }
+    List<Record> newRecs = new ArrayList<>(recs.size() + 1);
+    newRecs.addAll(recs);
+    newRecs.add(rec);
+    index.put(key, unmodifiableList(newRecs));
+    return false;
+  }
+
+  /** Removes the record from the key, returns <code>true</code> if the key is removed. */
+  private static boolean remove(ConcurrentMap<String, List<Record>> index, String key, Record rec) {
+    List<Record> recs = index.get(key);
+    if (recs == null) {
+      return false;
+    }
+    List<Record> newRecs = new ArrayList<>(recs.size());
+    for (Record r : recs) {
+      if (!r.ref().equals(rec.ref())) {
+        newRecs.add(r);
+      }
+    }
+    if (newRecs.isEmpty()) {
+      index.remove(key);
+      return true;
+    }
+    index.put(key, unmodifiableList(newRecs));
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends Record> List<T> filter(List<Record> recs, WapiType<T> type) {
+    List<T> typed = new ArrayList<>(recs.size());
+    for (Record rec : recs) {
+      if (type.modelClass().isInstance(rec)) {
+        typed.add((T) rec);
+      }
+    }
+    return typed;
+  }
+
+  @Override
+  public String toString() {
+    return "ZoneSnapshot{view="
+        + view
+        + ", records="
+        + size()
+        + ", names="
+        + nameCount()
+        + ", addresses="
+        + addressCount()
+        + ", loadedAt="
+        + loadedAt
+        + "}";
+  }
+}
@@ -1,19 +1,25 @@
 package com.oneops.infoblox.util;
 
-import java.util.regex.Pattern;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 
 /**
- * Contains utility methods to validate IPv4 and IPv6 addresses.
+ * Contains utility methods to validate, parse and format IPv4 and IPv6 addresses.
+ *
+ * <p>The addresses are parsed in a single pass, without regex or allocation, into an <b>int</b> for
+ * IPv4 and two <b>long</b>s (high and low 64 bits) for IPv6, so that they can be used as primitive
+ * keys. All the IPv6 text forms of RFC 4291 are supported, ie. the full, compressed (<b>::</b>) and
+ * embedded IPv4 (eg: <b>::ffff:10.1.1.1</b>) forms. IPv6 addresses are formatted in the canonical
+ * RFC 5952 form.
  *
  * @author Suresh G
  */
 public class IPAddrs {
 
-  private static final Pattern IPv4 =
-      Pattern.compile(
-          "^((25[0-5]|2[0-4][0-9]|[01]?[0-9]{1,2})\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9]{1,2})$");
+  /** Marks an invalid IPv4 address, as the valid ones fit in 32 bits. */
+  private static final long INVALID = -1;
 
-  private static final Pattern IPv6 = Pattern.compile("^([0-9a-f]{1,4}:){7}([0-9a-f]){1,4}$");
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
 
   /**
    * Checks that the given address is of IPv4 format, else throws an IllegalArgumentException.
@@ -21,7 +27,7 @@ public class IPAddrs {
    * @param ipAddr IP address.
    */
   public static void requireIPv4(String ipAddr) {
-    if (!IPv4.matcher(ipAddr).matches()) {
+    if (!isIPv4(ipAddr)) {
       throw new IllegalArgumentException("Invalid IPv4 address: " + ipAddr);
     }
   }
@@ -32,7 +38,7 @@ public class IPAddrs {
    * @param ipAddr IP address.
    */
   public static void requireIPv6(String ipAddr) {
-    if (!IPv6.matcher(ipAddr).matches()) {
+    if (!isIPv6(ipAddr)) {
       throw new IllegalArgumentException("Invalid IPv6 address: " + ipAddr);
     }
   }
@@ -44,6 +50,361 @@ public class IPAddrs {
    * @return return <code>true</code> if it's IPv4.
    */
   public static boolean isIPv4(String ipAddr) {
-    return IPv4.matcher(ipAddr).matches();
+    return parseIPv4(ipAddr, 0, ipAddr.length()) != INVALID;
+  }
+
+  /**
+   * Checks if the given address is IPv6
+   *
+   * @param ipAddr ip address
+   * @return return <code>true</code> if it's IPv6.
+   */
+  public static boolean isIPv6(String ipAddr) {
+    return parseIPv6(ipAddr, null);
+  }
+
+  /**
+   * Parses the IPv4 address.
+   *
+   * @param ipAddr IPv4 address, eg: <b>10.1.2.3</b>
+   * @return address as an int, in network byte order.
+   * @throws IllegalArgumentException if it's not a valid IPv4 address.
+   */
+  public static int parseIPv4(String ipAddr) {
+    long addr = parseIPv4(ipAddr, 0, ipAddr.length());
+    if (addr == INVALID) {
+      throw new IllegalArgumentException("Invalid IPv4 address: " + ipAddr);
+    }
+    return (int) addr;
+  }
+
+  /**
+   * Parses the IPv6 address.
+   *
+   * @param ipAddr IPv6 address, eg: <b>2001:db8::1</b>
+   * @return high and low 64 bits of the address.
+   * @throws IllegalArgumentException if it's not a valid IPv6 address.
+   */
+  public static long[] parseIPv6(String ipAddr) {
+    long[] addr = new long[2];
+    if (!parseIPv6(ipAddr, addr)) {
+      throw new IllegalArgumentException("Invalid IPv6 address: " + ipAddr);
+    }
+    return addr;
+  }
+
+  /**
+   * Parses the IPv6 address into the given array, without any allocation.
+   *
+   * @param ipAddr IPv6 address, eg: <b>2001:db8::1</b>
+   * @param addr array to set the high and low 64 bits of the address, or <code>null</code> to only
+   *     validate it.
+   * @return <code>true</code> if it's a valid IPv6 address.
+   */
+  public static boolean parseIPv6(CharSequence ipAddr, long[] addr) {
+    int len = ipAddr.length();
+    // Shortest is '::' and the longest is the full form with an embedded IPv4 address.
+    if (len < 2 || len > 45) {
+      return false;
+    }
+    // 128 bit registers of the groups before the '::' (head) and after it.
+    long headHi = 0;
+    long headLo = 0;
+    int headGroups = -1;
+    long hi = 0;
+    long lo = 0;
+    int groups = 0;
+
+    int i = 0;
+    if (ipAddr.charAt(0) == ':') {
+      if (ipAddr.charAt(1) != ':') {
+        return false;
+      }
+      headGroups = 0;
+      i = 2;
+    }
+    while (i < len) {
+      int start = i;
+      int group = 0;
+      for (; i < len; i++) {
+        int digit = hexDigit(ipAddr.charAt(i));
+        if (digit < 0) {
+          break;
+        }
+        group = (group << 4) | digit;
+      }
+      int digits = i - start;
+
+      if (i < len && ipAddr.charAt(i) == '.') {
+        // Embedded IPv4 address, in the last 32 bits.
+        long ipv4 = parseIPv4(ipAddr, start, len);
+        if (ipv4 == INVALID || groups + Math.max(headGroups, 0) > 6) {
+          return false;
+        }
+        hi = (hi << 32) | (lo >>> 32);
+        lo = (lo << 32) | ipv4;
+        groups += 2;
+        break;
+      }
+      if (digits == 0 || digits > 4 || groups + Math.max(headGroups, 0) == 8) {
+        return false;
+      }
+      hi = (hi << 16) | (lo >>> 48);
+      lo = (lo << 16) | group;
+      groups++;
+
+      if (i == len) {
+        break;
+      }
+      if (ipAddr.charAt(i++) != ':' || i == len) {
+        return false;
+      }
+      if (ipAddr.charAt(i) == ':') {
+        if (headGroups >= 0) {
+          return false;
+        }
+        headHi = hi;
+        headLo = lo;
+        headGroups = groups;
+        hi = 0;
+        lo = 0;
+        groups = 0;
+        i++;
+      }
+    }
+
+    if (headGroups < 0) {
+      if (groups != 8) {
+        return false;
+      }
+    } else {
+      // '::' is at least one zero group.
+      if (headGroups + groups > 7) {
+        return false;
+      }
+      int shift = 16 * (8 - headGroups);
+      if (shift < 64) {
+        hi |= (headHi << shift) | (headLo >>> (64 - shift));
+        lo |= headLo << shift;
+      } else if (shift < 128) {
+        hi |= headLo << (shift - 64);
+      }
+    }
+    if (addr != null) {
+      addr[0] = hi;
+      addr[1] = lo;
+    }
+    return true;
+  }
+
+  /**
+   * Parses the prefix length of the IPv4 or IPv6 CIDR block.
+   *
+   * @param cidr CIDR block, eg: <b>10.1.0.0/16</b> or <b>2001:db8::/32</b>
+   * @return prefix length, up to 32 for IPv4 and 128 for IPv6.
+   * @throws IllegalArgumentException if it's not a valid CIDR block.
+   */
+  public static int cidrPrefix(String cidr) {
+    int slash = cidr.indexOf('/');
+    int len = cidr.length();
+    if (slash < 0 || slash == len - 1 || len - slash > 4) {
+      throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+    }
+    int prefix = 0;
+    for (int i = slash + 1; i < len; i++) {
+      char ch = cidr.charAt(i);
+      if (ch < '0' || ch > '9') {
+        throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+      }
+      prefix = prefix * 10 + (ch - '0');
+    }
+    String ipAddr = cidr.substring(0, slash);
+    if (parseIPv4(ipAddr, 0, slash) != INVALID ? prefix > 32 : !isIPv6(ipAddr) || prefix > 128) {
+      throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+    }
+    return prefix;
+  }
+
+  /**
+   * Parses the IPv4 address in the given range.
+   *
+   * @return address or {@link #INVALID}.
+   */
+  private static long parseIPv4(CharSequence ipAddr, int start, int end) {
+    long addr = 0;
+    int octets = 0;
+    int i = start;
+    while (true) {
+      int octet = 0;
+      int digits = 0;
+      for (; i < end; i++) {
+        char ch = ipAddr.charAt(i);
+        if (ch < '0' || ch > '9') {
+          break;
+        }
+        octet = octet * 10 + (ch - '0');
+        if (++digits > 3) {
+          return INVALID;
+        }
+      }
+      if (digits == 0 || octet > 255) {
+        return INVALID;
+      }
+      addr = (addr << 8) | octet;
+      octets++;
+      if (i == end) {
+        return octets == 4 ? addr : INVALID;
+      }
+      if (ipAddr.charAt(i++) != '.' || octets == 4) {
+        return INVALID;
+      }
+    }
+  }
+
+  /**
+   * Formats the IPv4 address in the dotted decimal form.
+   *
+   * @param addr address as an int, in network byte order.
+   * @return address string, eg: <b>10.1.2.3</b>
+   */
+  public static String formatIPv4(int addr) {
+    StringBuilder buf = new StringBuilder(15);
+    return appendIPv4(buf, addr).toString();
+  }
+
+  /**
+   * Formats the IPv6 address in the canonical RFC 5952 form, ie. lower case hex without the leading
+   * zeros, the longest run of two or more zero groups compressed as <b>::</b> and the IPv4 mapped
+   * addresses in the dotted decimal form.
+   *
+   * @param hi high 64 bits of the address.
+   * @param lo low 64 bits of the address.
+   * @return address string, eg: <b>2001:db8::1</b>
+   */
+  public static String formatIPv6(long hi, long lo) {
+    StringBuilder buf = new StringBuilder(39);
+    if (hi == 0 && (lo >>> 32) == 0xFFFF) {
+      return appendIPv4(buf.append("::ffff:"), (int) lo).toString();
+    }
+
+    // Longest run of the zero groups, the first one on a tie.
+    int bestStart = -1;
+    int bestLen = 1;
+    for (int i = 0; i < 8; ) {
+      if (group(hi, lo, i) != 0) {
+        i++;
+        continue;
+      }
+      int start = i;
+      while (i < 8 && group(hi, lo, i) == 0) {
+        i++;
+      }
+      if (i - start > bestLen) {
+        bestStart = start;
+        bestLen = i - start;
+      }
+    }
+
+    for (int i = 0; i < 8; i++) {
+      if (i == bestStart) {
+        buf.append("::");
+        i += bestLen - 1;
+        continue;
+      }
+      if (i > 0 && i != bestStart + bestLen) {
+        buf.append(':');
+      }
+      int group = group(hi, lo, i);
+      boolean leading = true;
+      for (int shift = 12; shift >= 0; shift -= 4) {
+        int digit = (group >>> shift) & 0xF;
+        if (digit != 0 || !leading || shift == 0) {
+          buf.append(HEX[digit]);
+          leading = false;
+        }
+      }
+    }
+    return buf.toString();
+  }
+
+  /**
+   * Returns the canonical form of the IPv4 or IPv6 address, ie. without the leading zeros for IPv4
+   * and the RFC 5952 form for IPv6, so that all the forms of an address are equal.
+   *
+   * @param ipAddr IPv4 or IPv6 address.
+   * @return canonical address string.
+   * @throws IllegalArgumentException if it's not a valid IP address.
+   */
+  public static String canonical(String ipAddr) {
+    long ipv4 = parseIPv4(ipAddr, 0, ipAddr.length());
+    if (ipv4 != INVALID) {
+      return formatIPv4((int) ipv4);
+    }
+    long[] ipv6 = parseIPv6(ipAddr);
+    return formatIPv6(ipv6[0], ipv6[1]);
+  }
+
+  /**
+   * Returns the {@link InetAddress} of the IPv4 or IPv6 address, without doing a name lookup like
+   * {@link InetAddress#getByName(String)} does for the host names.
+   *
+   * @param ipAddr IPv4 or IPv6 address.
+   * @return {@link java.net.Inet4Address} or {@link java.net.Inet6Address}.
+   * @throws IllegalArgumentException if it's not a valid IP address.
+   */
+  public static InetAddress toInetAddress(String ipAddr) {
+    byte[] bytes;
+    long ipv4 = parseIPv4(ipAddr, 0, ipAddr.length());
+    if (ipv4 != INVALID) {
+      bytes = new byte[4];
+      putInt(bytes, 0, (int) ipv4);
+    } else {
+      long[] ipv6 = parseIPv6(ipAddr);
+      bytes = new byte[16];
+      putInt(bytes, 0, (int) (ipv6[0] >>> 32));
+      putInt(bytes, 4, (int) ipv6[0]);
+      putInt(bytes, 8, (int) (ipv6[1] >>> 32));
+      putInt(bytes, 12, (int) ipv6[1]);
+    }
+    try {
+      return InetAddress.getByAddress(bytes);
+    } catch (UnknownHostException e) {
+      // Never happens for the 4 and 16 byte addresses.
+      throw new IllegalArgumentException("Invalid IP address: " + ipAddr, e);
+    }
+  }
+
+  /** ASCII hex digit value, -1 if it's not a hex digit. */
+  private static int hexDigit(char ch) {
+    if (ch >= '0' && ch <= '9') {
+      return ch - '0';
+    } else if (ch >= 'a' && ch <= 'f') {
+      return ch - 'a' + 10;
+    } else if (ch >= 'A' && ch <= 'F') {
+      return ch - 'A' + 10;
+    }
+    return -1;
+  }
+
+  private static int group(long hi, long lo, int idx) {
+    long word = idx < 4 ? hi : lo;
+    return (int) (word >>> (48 - 16 * (idx & 3))) & 0xFFFF;
+  }
+
+  private static StringBuilder appendIPv4(StringBuilder buf, int addr) {
+    return buf.append(addr >>> 24)
+        .append('.')
+        .append((addr >>> 16) & 0xFF)
+        .append('.')
+        .append((addr >>> 8) & 0xFF)
+        .append('.')
+        .append(addr & 0xFF);
+  }
+
+  private static void putInt(byte[] bytes, int off, int value) {
+    bytes[off] = (byte) (value >>> 24);
+    bytes[off + 1] = (byte) (value >>> 16);
+    bytes[off + 2] = (byte) (value >>> 8);
+    bytes[off + 3] = (byte) value;
   }
 }
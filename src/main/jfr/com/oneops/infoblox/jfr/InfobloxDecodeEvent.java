@@ -0,0 +1,54 @@
+package com.oneops.infoblox.jfr;
+
+import javax.annotation.Nullable;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of the JSON (Moshi) decoding of a WAPI response.
+ *
+ * @author Suresh G
+ */
+@Name("com.oneops.infoblox.Decode")
+@Label("WAPI Decode")
+@Category("Infoblox")
+@Description("JSON decoding of an Infoblox WAPI response.")
+@StackTrace(false)
+class InfobloxDecodeEvent extends Event implements DecodeEvent {
+
+  @Label("Type")
+  @Description("Decoded java type, eg: Result<List<ARec>>")
+  String type;
+
+  @Label("Object")
+  @Description("WAPI object type of the decoded records, eg: record:a")
+  String object;
+
+  @Label("Next Page Id")
+  String nextPageId;
+
+  @Label("Records")
+  int records;
+
+  @Label("Size")
+  @DataAmount
+  long bytes;
+
+  @Override
+  public void complete(String type, long bytes, @Nullable Object result) {
+    end();
+    if (shouldCommit()) {
+      this.type = type;
+      this.object = JfrEvents.object(result);
+      this.nextPageId = JfrEvents.nextPageId(result);
+      this.records = JfrEvents.records(result);
+      this.bytes = bytes;
+      commit();
+    }
+  }
+}
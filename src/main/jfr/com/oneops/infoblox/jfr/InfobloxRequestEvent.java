@@ -0,0 +1,61 @@
+package com.oneops.infoblox.jfr;
+
+import com.oneops.infoblox.metrics.MetricsInterceptor;
+import javax.annotation.Nullable;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import okhttp3.Request;
+
+/**
+ * JFR event of a WAPI request, from sending the request till the response is decoded.
+ *
+ * @author Suresh G
+ */
+@Name("com.oneops.infoblox.Request")
+@Label("WAPI Request")
+@Category("Infoblox")
+@Description("Infoblox WAPI request, including the response decoding.")
+@StackTrace(false)
+class InfobloxRequestEvent extends Event implements RequestEvent {
+
+  @Label("Method")
+  String method;
+
+  @Label("Object")
+  @Description("WAPI object type, eg: record:a")
+  String object;
+
+  @Label("Page Id")
+  @Description("Requested page id of a paged query.")
+  String pageId;
+
+  @Label("Status")
+  @Description("Http status code, 0 if there is no response.")
+  int status;
+
+  @Label("Records")
+  int records;
+
+  @Label("Response Size")
+  @DataAmount
+  long bytes;
+
+  @Override
+  public void complete(Request request, int status, long bytes, @Nullable Object result) {
+    end();
+    if (shouldCommit()) {
+      this.method = request.method();
+      this.object = MetricsInterceptor.object(request.url());
+      this.pageId = request.url().queryParameter("_page_id");
+      this.status = status;
+      this.records = JfrEvents.records(result);
+      this.bytes = bytes;
+      commit();
+    }
+  }
+}
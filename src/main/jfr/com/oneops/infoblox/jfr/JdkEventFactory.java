@@ -0,0 +1,24 @@
+package com.oneops.infoblox.jfr;
+
+/**
+ * Creates the <b>jdk.jfr</b> events. Loaded reflectively by {@link JfrEvents}, only if the JFR is
+ * available.
+ *
+ * @author Suresh G
+ */
+class JdkEventFactory implements EventFactory {
+
+  @Override
+  public RequestEvent beginRequest() {
+    InfobloxRequestEvent event = new InfobloxRequestEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public DecodeEvent beginDecode() {
+    InfobloxDecodeEvent event = new InfobloxDecodeEvent();
+    event.begin();
+    return event;
+  }
+}
@@ -0,0 +1,71 @@
+package com.oneops.infoblox;
+
+import static com.oneops.infoblox.IBAEnvConfig.domain;
+import static com.oneops.infoblox.IBAEnvConfig.isValid;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.oneops.infoblox.model.a.ARec;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Async client tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox async client tests.")
+class AsyncClientTest {
+
+  private static AsyncInfobloxClient client;
+
+  private final String fqdn = "oneops-test-async1." + domain();
+  private final String newFqdn = "oneops-test-async1-mod." + domain();
+
+  @BeforeAll
+  static void setUp() {
+    assumeTrue(isValid(), IBAEnvConfig::errMsg);
+    client =
+        InfobloxClient.builder()
+            .endPoint(IBAEnvConfig.host())
+            .userName(IBAEnvConfig.user())
+            .password(IBAEnvConfig.password())
+            .ttl(1)
+            .tlsVerify(false)
+            .debug(true)
+            .build()
+            .async();
+  }
+
+  /** Make sure to clean the A record before each test. */
+  @BeforeEach
+  void clean() {
+    CompletableFuture.allOf(client.deleteARec(fqdn), client.deleteARec(newFqdn)).join();
+  }
+
+  @Test
+  @DisplayName("Async A record crud tests.")
+  void create() {
+    List<ARec> rec = client.getARec(fqdn).join();
+    assertTrue(rec.isEmpty());
+
+    // Creates A Record
+    String ip = "10.11.12.14";
+    ARec aRec = client.createARec(fqdn, ip).join();
+    assertEquals(ip, aRec.ipv4Addr());
+
+    List<ARec> aRecs = client.getARec(fqdn, ip).join();
+    assertEquals(1, aRecs.size());
+
+    // Modify and delete A Records
+    List<ARec> modifiedARec = client.modifyARec(fqdn, newFqdn).join();
+    assertEquals(1, modifiedARec.size());
+    assertEquals(0, client.deleteARec(fqdn).join().size());
+    assertEquals(1, client.deleteARec(newFqdn).join().size());
+  }
+}
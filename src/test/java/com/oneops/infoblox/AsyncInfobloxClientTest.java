@@ -0,0 +1,108 @@
+package com.oneops.infoblox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.fake.WapiError;
+import com.oneops.infoblox.model.a.ARec;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Dispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Offline {@link AsyncInfobloxClient} tests using the {@link FakeInfoblox} server.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox offline async client tests.")
+class AsyncInfobloxClientTest {
+
+  private static final String DOMAIN = "async.oneops.com";
+
+  private FakeInfoblox fake;
+  private Dispatcher dispatcher;
+  private InfobloxClient client;
+  private AsyncInfobloxClient async;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    dispatcher = new Dispatcher();
+    client = fake.clientBuilder().ttl(60).dispatcher(dispatcher).build();
+    async = client.async();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  @Test
+  void aRecCrud() {
+    String fqdn = "a1." + DOMAIN;
+    String newFqdn = "a2." + DOMAIN;
+
+    ARec rec = async.createARec(fqdn, "10.1.1.1").join();
+    assertEquals("10.1.1.1", rec.ipv4Addr());
+    assertEquals(60, rec.ttl());
+    assertEquals(1, async.getARec(fqdn, "10.1.1.1").join().size());
+
+    List<ARec> modRecs = async.modifyARec(fqdn, newFqdn).join();
+    assertEquals(1, modRecs.size());
+    assertEquals(newFqdn, modRecs.get(0).name());
+
+    assertEquals(0, async.deleteARec(fqdn).join().size());
+    assertEquals(1, async.deleteARec(newFqdn).join().size());
+    assertEquals(0, fake.store().size());
+  }
+
+  @Test
+  void wapiError() {
+    String fqdn = "a1." + DOMAIN;
+    async.createARec(fqdn, "10.1.1.1").join();
+
+    // Error responses are mapped to the same exception as the blocking client.
+    CompletableFuture<ARec> dup = async.createARec(fqdn, "10.1.1.1");
+    CompletionException ex = assertThrows(CompletionException.class, dup::join);
+    InfobloxException iex = (InfobloxException) ex.getCause();
+    assertTrue(iex.getError().startsWith("IBDataConflictError"));
+    assertEquals("Client.Ibap.Data.Conflict", iex.getCode());
+
+    fake.failNext(new WapiError(503, "AdmConErrorBusy: Server busy", "Server.Busy", "busy"));
+    ex = assertThrows(CompletionException.class, () -> async.getARec(fqdn).join());
+    assertEquals("Server.Busy", ((InfobloxException) ex.getCause()).getCode());
+  }
+
+  @Test
+  void cancel() throws InterruptedException {
+    fake.latency(Duration.ofSeconds(10));
+    CompletableFuture<List<ARec>> future = async.getARec("a1." + DOMAIN);
+    awaitRunningCalls(1);
+
+    // Cancelling the future cancels the in-flight http call.
+    assertTrue(future.cancel(true));
+    assertThrows(CancellationException.class, future::join);
+    awaitRunningCalls(0);
+  }
+
+  /** Waits (max 5 sec) for the dispatcher running calls to reach the given count. */
+  private void awaitRunningCalls(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (dispatcher.runningCallsCount() != count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, dispatcher.runningCallsCount());
+  }
+}
@@ -0,0 +1,121 @@
+package com.oneops.infoblox;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.cname.CNAME;
+import com.oneops.infoblox.model.txt.TXT;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Offline {@link BatchOperation} tests using the {@link FakeInfoblox} server.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Multi-object batch tests.")
+class BatchOperationTest {
+
+  private static final String DOMAIN = "batch.oneops.com";
+
+  private FakeInfoblox fake;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    client = fake.clientBuilder().ttl(60).build();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  @Test
+  void chunks() throws IOException {
+    BatchOperation batch = client.batch(10);
+    for (int i = 0; i < 25; i++) {
+      batch.createARec("a-" + i + "." + DOMAIN, "10.5.0." + i);
+    }
+    assertEquals(25, batch.size());
+
+    int requests = fake.requestCount();
+    List<Object> res = batch.execute();
+    assertEquals(3, fake.requestCount() - requests);
+    assertEquals(0, batch.size());
+
+    // Results are in the same order as the queued operations.
+    assertEquals(25, res.size());
+    for (int i = 0; i < 25; i++) {
+      assertEquals("10.5.0." + i, ((ARec) res.get(i)).ipv4Addr());
+    }
+    assertEquals(25, fake.store().size());
+  }
+
+  @Test
+  void mixedOperations() throws IOException {
+    ARec a1 = client.createARec("a1." + DOMAIN, "10.5.1.1");
+    ARec a2 = client.createARec("a2." + DOMAIN, "10.5.1.2");
+
+    List<Object> res =
+        client
+            .batch()
+            .createCNameRec("c1." + DOMAIN, "a1." + DOMAIN)
+            .createTXTRec("t1." + DOMAIN, "batch")
+            .modify(a1.ref(), singletonMap("name", "a3." + DOMAIN))
+            .modifyTTL(a1, 120)
+            .delete(a2)
+            .execute();
+
+    assertEquals(5, res.size());
+    assertEquals("a1." + DOMAIN, ((CNAME) res.get(0)).canonical());
+    assertEquals("batch", ((TXT) res.get(1)).text());
+    assertEquals("a3." + DOMAIN, ((ARec) res.get(2)).name());
+    assertEquals(120, ((ARec) res.get(3)).ttl());
+    assertEquals(a2.ref().value(), res.get(4));
+
+    assertEquals(1, client.getARec("a3." + DOMAIN).size());
+    assertTrue(client.getARec("a2." + DOMAIN).isEmpty());
+  }
+
+  @Test
+  void reads() throws IOException {
+    ARec a1 = client.createARec("a1." + DOMAIN, "10.5.3.1");
+    TXT t1 = client.createTXTRec("t1." + DOMAIN, "batch");
+
+    List<Object> res = client.batch().get(a1.ref()).get(t1.ref()).execute();
+    assertEquals(a1, res.get(0));
+    assertEquals(t1, res.get(1));
+  }
+
+  @Test
+  void failedChunk() throws IOException {
+    client.createARec("dup." + DOMAIN, "10.5.2.1");
+
+    // The first chunk is committed, the failed second chunk is rolled back by the WAPI.
+    BatchOperation batch =
+        client
+            .batch(2)
+            .createARec("b1." + DOMAIN, "10.5.2.2")
+            .createARec("b2." + DOMAIN, "10.5.2.3")
+            .createARec("b3." + DOMAIN, "10.5.2.4")
+            .createARec("dup." + DOMAIN, "10.5.2.1");
+    InfobloxException ex = assertThrows(InfobloxException.class, batch::execute);
+    assertTrue(ex.getError().startsWith("IBDataConflictError"));
+    assertEquals(0, batch.size());
+
+    assertEquals(1, client.getARec("b2." + DOMAIN).size());
+    assertTrue(client.getARec("b3." + DOMAIN).isEmpty());
+    assertEquals(3, fake.store().size());
+  }
+}
@@ -0,0 +1,174 @@
+package com.oneops.infoblox;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.BulkOperationException.Failure;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.fake.WapiError;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.ref.Ref;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Offline multi-record write tests using the {@link FakeInfoblox} server.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Bounded multi-record write tests.")
+class BulkCallsTest {
+
+  private static final String FQDN = "multi.bulk.oneops.com";
+
+  private FakeInfoblox fake;
+  private ExecutorService pool;
+
+  private int seeded;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    pool = Executors.newCachedThreadPool();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    pool.shutdownNow();
+    fake.close();
+  }
+
+  /** Seeds the given number of A records, all with the same name. */
+  private void seedARecs(int count) {
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> rec = new HashMap<>();
+      rec.put("name", FQDN);
+      rec.put("ipv4addr", "10.8.0." + seeded++);
+      fake.store().create("record:a", rec);
+    }
+  }
+
+  @Test
+  void parallelism() throws IOException {
+    seedARecs(12);
+    fake.latency(Duration.ofMillis(100));
+    try (InfobloxClient client = fake.clientBuilder().parallelism(3).executor(pool).build()) {
+      List<ARec> recs = client.getARec(FQDN);
+      List<String> refs = client.deleteRecords(recs);
+
+      assertEquals(12, refs.size());
+      for (int i = 0; i < recs.size(); i++) {
+        assertEquals(recs.get(i).ref().value(), refs.get(i));
+      }
+      assertEquals(3, fake.maxConcurrentRequests());
+      assertEquals(0, fake.store().size());
+    }
+  }
+
+  @Test
+  void asyncParallelism() throws IOException {
+    seedARecs(12);
+    fake.latency(Duration.ofMillis(100));
+    try (InfobloxClient client = fake.clientBuilder().parallelism(3).executor(pool).build()) {
+      assertEquals(12, client.async().deleteARec(FQDN).join().size());
+      assertEquals(3, fake.maxConcurrentRequests());
+      assertEquals(0, fake.store().size());
+    }
+  }
+
+  @Test
+  void asyncDispatch() throws IOException {
+    seedARecs(9);
+    fake.latency(Duration.ofMillis(200));
+    try (InfobloxClient client = fake.clientBuilder().parallelism(3).build()) {
+      long start = System.nanoTime();
+      List<ARec> recs = client.async().modifyARec(FQDN, "new-" + FQDN).join();
+      long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+      assertEquals(9, recs.size());
+      assertTrue(recs.stream().allMatch(r -> r.name().equals("new-" + FQDN)));
+      assertEquals(3, fake.maxConcurrentRequests());
+      // Query and 3 rounds of 3 concurrent writes.
+      assertTrue(elapsed >= 800, "Elapsed: " + elapsed);
+    }
+  }
+
+  @Test
+  void partialFailure() throws IOException {
+    seedARecs(6);
+    try (InfobloxClient client = fake.clientBuilder().parallelism(3).build()) {
+      List<ARec> recs = client.getARec(FQDN);
+      fake.failNext(new WapiError(503, "AdmConErrorBusy: Server busy", "Server.Busy", "busy"));
+      BulkOperationException ex =
+          assertThrows(BulkOperationException.class, () -> client.deleteRecords(recs));
+
+      assertEquals(5, ex.getSucceeded().size());
+      assertEquals(1, ex.getFailed().size());
+      assertEquals("Server.Busy", ((InfobloxException) ex.getCause()).getCode());
+      assertEquals(1, fake.store().size());
+    }
+  }
+
+  @Test
+  void asyncPartialFailure() throws IOException {
+    seedARecs(3);
+    // Renaming the second record conflicts with an existing one.
+    Map<String, Object> rec = new HashMap<>();
+    rec.put("name", "new-" + FQDN);
+    rec.put("ipv4addr", "10.8.0.1");
+    fake.store().create("record:a", rec);
+
+    try (InfobloxClient client = fake.clientBuilder().parallelism(3).build()) {
+      CompletionException ex =
+          assertThrows(
+              CompletionException.class,
+              () -> client.async().modifyARec(FQDN, "new-" + FQDN).join());
+      BulkOperationException bex = (BulkOperationException) ex.getCause();
+      assertEquals(2, bex.getSucceeded().size());
+      assertEquals(1, bex.getFailed().size());
+      InfobloxException err = (InfobloxException) bex.getFailed().get(0).getError();
+      assertEquals("Client.Ibap.Data.Conflict", err.getCode());
+      assertEquals(3, client.getARec("new-" + FQDN).size());
+    }
+  }
+
+  @Test
+  void duplicateRefs() throws IOException {
+    seedARecs(2);
+    try (InfobloxClient client = fake.newClient()) {
+      List<ARec> recs = client.getARec(FQDN);
+      Ref r1 = recs.get(0).ref();
+      Ref r2 = recs.get(1).ref();
+
+      BulkOperationException ex =
+          assertThrows(
+              BulkOperationException.class, () -> client.deleteRefs(asList(r1, r1, r2, r2)));
+      assertEquals(asList(r1, r2), ex.getSucceeded());
+
+      // Each failure of the same ref is reported.
+      List<Failure> failed = ex.getFailed();
+      assertEquals(2, failed.size());
+      assertEquals(r1, failed.get(0).getRef());
+      assertEquals(r2, failed.get(1).getRef());
+      InfobloxException err = (InfobloxException) failed.get(0).getError();
+      assertEquals("Client.Ibap.Data.NotFound", err.getCode());
+
+      // Single write throws the original error.
+      InfobloxException iex =
+          assertThrows(InfobloxException.class, () -> client.deleteRefs(asList(r1)));
+      assertEquals("Client.Ibap.Data.NotFound", iex.getCode());
+    }
+  }
+}
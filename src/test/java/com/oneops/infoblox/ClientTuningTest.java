@@ -0,0 +1,126 @@
+package com.oneops.infoblox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.cache.RecordCache;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.model.a.ARec;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Offline connection pool, dispatcher and timeout tuning tests using the {@link FakeInfoblox}
+ * server.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Client tuning tests.")
+class ClientTuningTest {
+
+  private static final String FQDN = "a1.tuning.oneops.com";
+
+  private FakeInfoblox fake;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    fake.close();
+  }
+
+  @Test
+  void sharedLimits() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            fake.clientBuilder()
+                .connectionPool(new ConnectionPool())
+                .maxIdleConnections(2)
+                .build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> fake.clientBuilder().dispatcher(new Dispatcher()).maxRequestsPerHost(2).build());
+  }
+
+  @Test
+  void sharedPool() throws IOException {
+    ConnectionPool pool = new ConnectionPool();
+    try (InfobloxClient client = fake.clientBuilder().connectionPool(pool).build()) {
+      client.getARec(FQDN);
+      client.getARec(FQDN);
+      // Connection is kept alive in the shared pool and reused.
+      assertEquals(1, pool.connectionCount());
+      assertEquals(1, pool.idleConnectionCount());
+    }
+  }
+
+  @Test
+  void sharedDispatcher() throws IOException {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequestsPerHost(2);
+    fake.latency(Duration.ofMillis(300));
+    try (InfobloxClient client = fake.clientBuilder().dispatcher(dispatcher).build()) {
+      List<CompletableFuture<List<ARec>>> futures = new ArrayList<>();
+      for (int i = 0; i < 6; i++) {
+        futures.add(client.async().getARec(FQDN));
+      }
+      assertTrue(dispatcher.runningCallsCount() <= 2);
+      assertTrue(dispatcher.queuedCallsCount() >= 4);
+      futures.forEach(f -> assertTrue(f.join().isEmpty()));
+    }
+  }
+
+  @Test
+  void timeouts() throws IOException {
+    fake.latency(Duration.ofSeconds(2));
+    try (InfobloxClient client = fake.clientBuilder().readTimeout(1).build()) {
+      assertThrows(InterruptedIOException.class, () -> client.getARec(FQDN));
+    }
+    try (InfobloxClient client = fake.clientBuilder().timeout(5).callTimeout(1).build()) {
+      // Call timeout cancels the call, well before the read timeout.
+      long start = System.nanoTime();
+      assertThrows(IOException.class, () -> client.getARec(FQDN));
+      assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1900);
+    }
+
+    fake.latency(Duration.ZERO);
+    try (InfobloxClient client = fake.clientBuilder().readTimeout(1).callTimeout(1).build()) {
+      assertTrue(client.getARec(FQDN).isEmpty());
+    }
+  }
+
+  @Test
+  void asyncCache() throws IOException {
+    RecordCache cache = RecordCache.create(16, Duration.ofMinutes(1));
+    try (InfobloxClient client = fake.clientBuilder().cache(cache).build()) {
+      AsyncInfobloxClient async = client.async();
+      assertTrue(async.getARec(FQDN).join().isEmpty());
+      int requests = fake.requestCount();
+      // Served from the cache, which is shared with the blocking API.
+      assertTrue(async.getARec(FQDN).join().isEmpty());
+      assertTrue(client.getARec(FQDN).isEmpty());
+      assertEquals(requests, fake.requestCount());
+
+      async.createARec(FQDN, "10.1.1.1").join();
+      assertEquals(1, async.getARec(FQDN).join().size());
+      // Writes evict the name before looking up the records.
+      assertEquals(1, async.deleteARec(FQDN).join().size());
+      assertTrue(async.getARec(FQDN).join().isEmpty());
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.oneops.infoblox;
+
+import static com.oneops.infoblox.model.SearchModifier.REGEX;
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.fake.WapiError;
+import com.oneops.infoblox.model.a.ARec;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Offline streaming record visitor tests using the {@link FakeInfoblox} server.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Streaming record visitor tests.")
+class ForEachRecordTest {
+
+  private static final String DOMAIN = "visit.oneops.com";
+
+  private FakeInfoblox fake;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    client = fake.newClient();
+    for (int i = 0; i < 45; i++) {
+      Map<String, Object> rec = new HashMap<>();
+      rec.put("name", (i % 3 == 0 ? "x-" : "a-") + i + "." + DOMAIN);
+      rec.put("ipv4addr", "10.7.0." + i);
+      fake.store().create("record:a", rec);
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  @Test
+  void allPages() throws IOException {
+    List<String> ips = new ArrayList<>();
+    int requests = fake.requestCount();
+    long count = client.forEach(WapiType.A, emptyMap(), 10, r -> ips.add(r.ipv4Addr()));
+
+    assertEquals(45, count);
+    assertEquals(45, ips.size());
+    assertEquals("10.7.0.0", ips.get(0));
+    assertEquals("10.7.0.44", ips.get(44));
+    assertEquals(5, fake.requestCount() - requests);
+
+    // Single page, with no next page id.
+    assertEquals(45, client.forEach(WapiType.A, emptyMap(), 100, r -> {}));
+  }
+
+  @Test
+  void typedVisitor() throws IOException {
+    List<ARec> recs = new ArrayList<>();
+    assertEquals(15, client.forEachARec("x-.*", REGEX, recs::add));
+    assertTrue(recs.stream().allMatch(r -> r.name().startsWith("x-")));
+    assertEquals(0, client.forEachARec("none." + DOMAIN, REGEX, recs::add));
+  }
+
+  @Test
+  void actionError() {
+    List<ARec> recs = new ArrayList<>();
+    IllegalStateException ex =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                client.forEach(
+                    WapiType.A,
+                    emptyMap(),
+                    10,
+                    r -> {
+                      if (recs.size() == 12) {
+                        throw new IllegalStateException("Stop");
+                      }
+                      recs.add(r);
+                    }));
+    assertEquals("Stop", ex.getMessage());
+    assertEquals(12, recs.size());
+  }
+
+  @Test
+  void wapiError() {
+    fake.failNext(new WapiError(503, "AdmConErrorBusy: Server busy", "Server.Busy", "busy"));
+    InfobloxException ex =
+        assertThrows(
+            InfobloxException.class, () -> client.forEach(WapiType.A, emptyMap(), 10, r -> {}));
+    assertEquals("Server.Busy", ex.getCode());
+  }
+}
@@ -0,0 +1,43 @@
+package com.oneops.infoblox;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shared transport tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox transport tests.")
+class InfobloxTransportTest {
+
+  @Test
+  void trustStoreValidation() {
+    assertThrows(IllegalStateException.class, () -> InfobloxTransport.builder().build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> InfobloxTransport.builder().trustStore("classpath:/ca.p12").build());
+  }
+
+  @Test
+  void sharedTransport() {
+    InfobloxTransport transport = InfobloxTransport.builder().tlsVerify(false).build();
+    InfobloxClient client1 = newClient(transport, "user1");
+    InfobloxClient client2 = newClient(transport, "user2");
+
+    assertSame(transport.moshi(), client1.moshi());
+    assertSame(client1.moshi(), client2.moshi());
+  }
+
+  private static InfobloxClient newClient(InfobloxTransport transport, String user) {
+    return InfobloxClient.builder()
+        .endPoint("localhost")
+        .userName(user)
+        .password("pass")
+        .transport(transport)
+        .build();
+  }
+}
@@ -0,0 +1,115 @@
+package com.oneops.infoblox;
+
+import static com.oneops.infoblox.model.SearchModifier.REGEX;
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.fake.WapiError;
+import com.oneops.infoblox.model.a.ARec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import okhttp3.Dispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Offline paged stream query tests using the {@link FakeInfoblox} server.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Paged stream query tests.")
+class PageIteratorTest {
+
+  private static final String DOMAIN = "stream.oneops.com";
+
+  private FakeInfoblox fake;
+  private Dispatcher dispatcher;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    dispatcher = new Dispatcher();
+    client = fake.clientBuilder().dispatcher(dispatcher).build();
+    for (int i = 0; i < 45; i++) {
+      Map<String, Object> rec = new HashMap<>();
+      rec.put("name", (i % 3 == 0 ? "x-" : "a-") + i + "." + DOMAIN);
+      rec.put("ipv4addr", "10.6.0." + i);
+      fake.store().create("record:a", rec);
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  @Test
+  void allPages() {
+    int requests = fake.requestCount();
+    try (Stream<ARec> recs = client.stream(WapiType.A, emptyMap(), 10)) {
+      List<String> ips = recs.map(ARec::ipv4Addr).collect(Collectors.toList());
+      assertEquals(45, ips.size());
+      assertEquals("10.6.0.0", ips.get(0));
+      assertEquals("10.6.0.44", ips.get(44));
+    }
+    assertEquals(5, fake.requestCount() - requests);
+
+    try (Stream<ARec> recs = client.streamARec("x-.*", REGEX, 4)) {
+      assertTrue(recs.allMatch(r -> r.name().startsWith("x-")));
+    }
+    try (Stream<ARec> recs = client.streamARec("x-.*", REGEX, 4)) {
+      assertEquals(15, recs.count());
+    }
+  }
+
+  @Test
+  void lazyPages() {
+    int requests = fake.requestCount();
+    try (Stream<ARec> recs = client.stream(WapiType.A, emptyMap(), 10)) {
+      assertEquals(5, recs.limit(5).count());
+    }
+    // Only the first page and the prefetch of the second one are requested.
+    assertTrue(fake.requestCount() - requests <= 2);
+  }
+
+  @Test
+  void closeCancelsPrefetch() throws InterruptedException {
+    fake.latency(Duration.ofSeconds(1));
+    Stream<ARec> recs = client.stream(WapiType.A, emptyMap(), 10);
+    Iterator<ARec> it = recs.iterator();
+    it.next();
+    // Next page is prefetched as soon as the first one is received.
+    assertTrue(dispatcher.runningCallsCount() > 0);
+
+    recs.close();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+    while (dispatcher.runningCallsCount() != 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, dispatcher.runningCallsCount());
+  }
+
+  @Test
+  void pageError() {
+    fake.failNext(new WapiError(503, "AdmConErrorBusy: Server busy", "Server.Busy", "busy"));
+    try (Stream<ARec> recs = client.stream(WapiType.A, emptyMap(), 10)) {
+      UncheckedIOException ex = assertThrows(UncheckedIOException.class, recs::count);
+      assertEquals("Server.Busy", ((InfobloxException) ex.getCause()).getCode());
+    }
+  }
+}
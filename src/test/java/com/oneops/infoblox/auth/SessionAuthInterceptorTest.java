@@ -0,0 +1,92 @@
+package com.oneops.infoblox.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * WAPI session cookie authentication tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox session auth tests.")
+class SessionAuthInterceptorTest {
+
+  private static final String SESSION = "ibapauth=ip%3D10.1.1.1; httponly; Path=/";
+
+  private MockWebServer server;
+  private SessionCookieJar cookieJar;
+  private OkHttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new MockWebServer();
+    server.start();
+    cookieJar = new SessionCookieJar();
+    client =
+        new OkHttpClient.Builder()
+            .cookieJar(cookieJar)
+            .addInterceptor(new SessionAuthInterceptor("admin", "secret", cookieJar))
+            .build();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  private int get() throws IOException {
+    Request req = new Request.Builder().url(server.url("/wapi/v2.5/zone_auth")).build();
+    try (Response res = client.newCall(req).execute()) {
+      return res.code();
+    }
+  }
+
+  @Test
+  void reuseSession() throws Exception {
+    server.enqueue(new MockResponse().addHeader("Set-Cookie", SESSION).setBody("[]"));
+    server.enqueue(new MockResponse().setBody("[]"));
+
+    assertEquals(200, get());
+    assertTrue(cookieJar.hasSession());
+    assertEquals(200, get());
+
+    RecordedRequest first = server.takeRequest();
+    assertNotNull(first.getHeader("Authorization"));
+    RecordedRequest second = server.takeRequest();
+    assertNull(second.getHeader("Authorization"));
+    assertTrue(second.getHeader("Cookie").startsWith("ibapauth="));
+  }
+
+  @Test
+  void reAuthOnExpiredSession() throws Exception {
+    server.enqueue(new MockResponse().addHeader("Set-Cookie", SESSION).setBody("[]"));
+    server.enqueue(new MockResponse().setResponseCode(401));
+    server.enqueue(new MockResponse().setBody("[]"));
+
+    assertEquals(200, get());
+    assertEquals(200, get());
+    assertEquals(3, server.getRequestCount());
+
+    server.takeRequest();
+    assertNull(server.takeRequest().getHeader("Authorization"));
+    RecordedRequest retry = server.takeRequest();
+    assertNotNull(retry.getHeader("Authorization"));
+    assertNull(retry.getHeader("Cookie"));
+    assertFalse(cookieJar.hasSession());
+  }
+}
@@ -0,0 +1,106 @@
+package com.oneops.infoblox.cache;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.model.a.ARec;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Record cache tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox record cache tests.")
+class RecordCacheTest {
+
+  private static final String SCOPE = "localhost/admin/default";
+
+  private RecordCache cache;
+
+  private final ARec rec =
+      ARec.builder()
+          .ref("record:a/ZG5zLmJpbmRfYSQu:a1.xyz.com/default")
+          .view("default")
+          .ttl(60)
+          .name("a1.xyz.com")
+          .ipv4Addr("10.11.12.13")
+          .build();
+
+  @BeforeEach
+  void setUp() {
+    cache = RecordCache.create(2, Duration.ofMinutes(1));
+  }
+
+  private static Map<String, String> byName(String name) {
+    return singletonMap("name:", name);
+  }
+
+  @Test
+  void hitAndMiss() {
+    assertNull(cache.get(SCOPE, WapiType.A, byName("a1.xyz.com")));
+    cache.put(SCOPE, WapiType.A, byName("a1.xyz.com"), singletonList(rec));
+
+    List<ARec> recs = cache.get(SCOPE, WapiType.A, byName("a1.xyz.com"));
+    assertNotNull(recs);
+    assertEquals(singletonList(rec), recs);
+    assertNull(cache.get(SCOPE, WapiType.CNAME, byName("a1.xyz.com")));
+
+    CacheStats stats = cache.stats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(2, stats.missCount());
+  }
+
+  @Test
+  void lruEviction() {
+    cache.put(SCOPE, WapiType.A, byName("a1.xyz.com"), singletonList(rec));
+    cache.put(SCOPE, WapiType.A, byName("a2.xyz.com"), singletonList(rec));
+    // Access a1, so that a2 is the eldest one.
+    cache.get(SCOPE, WapiType.A, byName("a1.xyz.com"));
+    cache.put(SCOPE, WapiType.A, byName("a3.xyz.com"), singletonList(rec));
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get(SCOPE, WapiType.A, byName("a2.xyz.com")));
+    assertNotNull(cache.get(SCOPE, WapiType.A, byName("a1.xyz.com")));
+    assertEquals(1, cache.stats().evictionCount());
+  }
+
+  @Test
+  void invalidation() {
+    cache.put(SCOPE, WapiType.A, byName("a1.xyz.com"), singletonList(rec));
+    cache.put(SCOPE, WapiType.A, singletonMap("ipv4addr", "10.11.12.13"), singletonList(rec));
+
+    cache.invalidate("record:a", "A2.xyz.com");
+    // Only the IP address query is invalidated.
+    assertEquals(1, cache.size());
+    cache.invalidate("record:cname", "A1.xyz.com");
+    assertEquals(1, cache.size());
+    cache.invalidate("record:a", "A1.xyz.com");
+    assertEquals(0, cache.size());
+    assertEquals(2, cache.stats().invalidationCount());
+  }
+
+  @Test
+  void racingWrite() {
+    // Query started before the write, but completed after the invalidation.
+    long generation = cache.generation();
+    cache.invalidate("record:a", "a2.xyz.com");
+    assertFalse(cache.put(SCOPE, WapiType.A, byName("a1.xyz.com"), singletonList(rec), generation));
+    assertNull(cache.get(SCOPE, WapiType.A, byName("a1.xyz.com")));
+
+    generation = cache.generation();
+    assertTrue(cache.put(SCOPE, WapiType.A, byName("a1.xyz.com"), singletonList(rec), generation));
+    assertNotNull(cache.get(SCOPE, WapiType.A, byName("a1.xyz.com")));
+  }
+}
@@ -0,0 +1,531 @@
+package com.oneops.infoblox.fake;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import okhttp3.Credentials;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * An in-process fake Infoblox WAPI server, built on {@link MockWebServer}, for the offline client
+ * tests and load tests. The server uses TLS with a self-signed <b>localhost</b> certificate, so the
+ * clients should disable the {@link InfobloxClient#tlsVerify()}. It supports,
+ *
+ * <ul>
+ *   <li>Create, read, modify and delete of any WAPI object, backed by the {@link RecordStore}.
+ *   <li>Search modifiers, <b>_return_fields[+]</b>, <b>_max_results</b>, <b>_paging</b> and
+ *       <b>_return_as_object</b> arguments.
+ *   <li>Multi-object <b>request</b>, executed atomically.
+ *   <li>Basic auth with the <b>ibapauth</b> session cookie and <b>logout</b>.
+ *   <li>WAPI error JSON, latency and error injection.
+ * </ul>
+ *
+ * <pre>{@code
+ * try (FakeInfoblox fake = FakeInfoblox.start("admin", "admin");
+ *     InfobloxClient client = fake.newClient()) {
+ *   ...
+ * }
+ * }</pre>
+ *
+ * @author Suresh G
+ */
+public class FakeInfoblox extends Dispatcher implements Closeable {
+
+  private static final String SESSION_COOKIE = "ibapauth";
+
+  /** Default max results of a query, same as the appliance. */
+  private static final int DEFAULT_MAX_RESULTS = 1000;
+
+  private static final Map<String, List<String>> DEFAULT_FIELDS = new HashMap<>();
+
+  static {
+    DEFAULT_FIELDS.put("record:a", Arrays.asList("ipv4addr", "name", "view"));
+    DEFAULT_FIELDS.put("record:aaaa", Arrays.asList("ipv6addr", "name", "view"));
+    DEFAULT_FIELDS.put("record:cname", Arrays.asList("canonical", "name", "view"));
+    DEFAULT_FIELDS.put("record:host", Arrays.asList("ipv4addrs", "name", "view"));
+    DEFAULT_FIELDS.put("record:mx", Arrays.asList("mail_exchanger", "name", "preference", "view"));
+    DEFAULT_FIELDS.put("record:ptr", Arrays.asList("ptrdname", "view"));
+    DEFAULT_FIELDS.put("record:txt", Arrays.asList("name", "text", "view"));
+    DEFAULT_FIELDS.put(
+        "record:srv", Arrays.asList("name", "port", "priority", "target", "weight", "view"));
+    DEFAULT_FIELDS.put("zone_auth", Arrays.asList("fqdn", "view"));
+    DEFAULT_FIELDS.put("zone_delegated", Arrays.asList("delegate_to", "fqdn", "view"));
+  }
+
+  private final JsonAdapter<Object> json = new Moshi.Builder().build().adapter(Object.class);
+
+  private final MockWebServer server = new MockWebServer();
+  private final RecordStore store = new RecordStore();
+  private final String userName;
+  private final String password;
+  private final String credentials;
+
+  private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+  private final Map<String, Page> pages = new ConcurrentHashMap<>();
+  private final Queue<WapiError> injectedErrors = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger logins = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  private volatile Duration latency = Duration.ZERO;
+  private volatile double errorRate;
+  private volatile int errorStatus = 503;
+
+  private FakeInfoblox(String userName, String password) {
+    this.userName = userName;
+    this.password = password;
+    this.credentials = Credentials.basic(userName, password);
+    server.setDispatcher(this);
+  }
+
+  /**
+   * Starts the fake server on a random local port.
+   *
+   * @param userName user name.
+   * @param password password.
+   * @return started server.
+   * @throws IOException if the server can't be started.
+   */
+  public static FakeInfoblox start(String userName, String password) throws IOException {
+    FakeInfoblox fake = new FakeInfoblox(userName, password);
+    fake.server.useHttps(sslContext().getSocketFactory(), false);
+    fake.server.start();
+    return fake;
+  }
+
+  /** Client end point of the fake server, eg: <b>https://localhost:35127</b> */
+  public String endPoint() {
+    HttpUrl url = server.url("/");
+    return url.scheme() + "://" + url.host() + ":" + url.port();
+  }
+
+  /**
+   * Client builder for the fake server, with the end point and credentials set and the TLS
+   * verification disabled.
+   */
+  public InfobloxClient.Builder clientBuilder() {
+    return InfobloxClient.builder()
+        .endPoint(endPoint())
+        .userName(userName)
+        .password(password)
+        .tlsVerify(false);
+  }
+
+  /** Creates a new client for the fake server, with the default settings. */
+  public InfobloxClient newClient() {
+    return clientBuilder().build();
+  }
+
+  /**
+   * TLS context of the self-signed <b>localhost</b> test certificate, with the key store loaded
+   * from the test class path.
+   */
+  static SSLContext sslContext() throws IOException {
+    char[] pass = "changeit".toCharArray();
+    try (InputStream ins = FakeInfoblox.class.getResourceAsStream("/tls/localhost.jks")) {
+      KeyStore keyStore = KeyStore.getInstance("JKS");
+      keyStore.load(ins, pass);
+      KeyManagerFactory kmf =
+          KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+      kmf.init(keyStore, pass);
+      SSLContext sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(kmf.getKeyManagers(), null, null);
+      return sslContext;
+    } catch (GeneralSecurityException ex) {
+      throw new IOException("Can't load the test certificate", ex);
+    }
+  }
+
+  /** Record store of the server, used to seed and verify the records. */
+  public RecordStore store() {
+    return store;
+  }
+
+  /** Sets the latency added to processing of all the requests. */
+  public FakeInfoblox latency(Duration latency) {
+    this.latency = latency;
+    return this;
+  }
+
+  /**
+   * Fails the given fraction (0.0 - 1.0) of requests randomly, with the status code.
+   *
+   * @param errorRate error rate.
+   * @param status http status code, eg: <b>503</b> or <b>429</b>
+   * @return this server.
+   */
+  public FakeInfoblox errorRate(double errorRate, int status) {
+    this.errorRate = errorRate;
+    this.errorStatus = status;
+    return this;
+  }
+
+  /** Fails the next request with the given error. */
+  public FakeInfoblox failNext(WapiError error) {
+    injectedErrors.add(error);
+    return this;
+  }
+
+  /** Number of requests received. */
+  public int requestCount() {
+    return requests.get();
+  }
+
+  /** Number of requests authenticated using the credentials, instead of the session cookie. */
+  public int loginCount() {
+    return logins.get();
+  }
+
+  /** Number of active sessions. */
+  public int sessionCount() {
+    return sessions.size();
+  }
+
+  /** Max number of requests processed concurrently. */
+  public int maxConcurrentRequests() {
+    return maxInFlight.get();
+  }
+
+  @Override
+  public MockResponse dispatch(RecordedRequest req) throws InterruptedException {
+    requests.incrementAndGet();
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      if (!latency.isZero()) {
+        Thread.sleep(latency.toMillis());
+      }
+      return process(req);
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  /** Processes the WAPI request and returns the response. */
+  private MockResponse process(RecordedRequest req) {
+    HttpUrl url = req.getRequestUrl();
+    List<String> segments = url.encodedPathSegments();
+
+    MockResponse res;
+    try {
+      if (segments.size() < 3 || !"wapi".equals(segments.get(0))) {
+        throw WapiError.badRequest("Invalid URL: " + url.encodedPath());
+      }
+      String cookie = authenticate(req);
+      String path = String.join("/", segments.subList(2, segments.size()));
+      Map<String, String> args = new LinkedHashMap<>();
+      for (String name : url.queryParameterNames()) {
+        args.put(name, url.queryParameter(name));
+      }
+
+      WapiError injected = injectedError();
+      if (injected != null) {
+        throw injected;
+      }
+      Object body = req.getBodySize() > 0 ? json.fromJson(req.getBody().readUtf8()) : null;
+
+      Map<String, Object> result;
+      if ("logout".equals(path)) {
+        logout(req);
+        return new MockResponse().addHeader("Set-Cookie", SESSION_COOKIE + "=; Max-Age=0");
+      } else if ("request".equals(path)) {
+        result = multiObject(body);
+      } else {
+        result = handle(req.getMethod(), path, args, body);
+      }
+
+      boolean asObject = "1".equals(args.get("_return_as_object"));
+      res = jsonResponse(200, asObject ? result : result.get("result"));
+      if (cookie != null) {
+        res.addHeader("Set-Cookie", SESSION_COOKIE + "=" + cookie + "; httponly; Path=/");
+      }
+    } catch (WapiError err) {
+      res = errorResponse(err);
+    } catch (IOException | RuntimeException ex) {
+      res = errorResponse(WapiError.badRequest(String.valueOf(ex.getMessage())));
+    }
+    return res;
+  }
+
+  /**
+   * Authenticates the request using the session cookie or basic auth credentials.
+   *
+   * @return new session cookie, <code>null</code> if the session cookie is used.
+   */
+  @Nullable
+  private String authenticate(RecordedRequest req) {
+    String session = session(req);
+    if (session != null && sessions.contains(session)) {
+      return null;
+    }
+    if (credentials.equals(req.getHeader("Authorization"))) {
+      logins.incrementAndGet();
+      String newSession = UUID.randomUUID().toString();
+      sessions.add(newSession);
+      return newSession;
+    }
+    throw new WapiError(
+        401, "AdmConProtoError: Authorization Required", "Client.Ibap.Auth", "Unauthorized");
+  }
+
+  private void logout(RecordedRequest req) {
+    String session = session(req);
+    if (session != null) {
+      sessions.remove(session);
+    }
+  }
+
+  @Nullable
+  private static String session(RecordedRequest req) {
+    String cookies = req.getHeader("Cookie");
+    if (cookies == null) {
+      return null;
+    }
+    for (String cookie : cookies.split(";")) {
+      String[] kv = cookie.trim().split("=", 2);
+      if (kv.length == 2 && SESSION_COOKIE.equals(kv[0])) {
+        return kv[1];
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private WapiError injectedError() {
+    WapiError err = injectedErrors.poll();
+    if (err == null && errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+      err = new WapiError(errorStatus, "Server busy", "Server.Busy", "Injected error");
+    }
+    return err;
+  }
+
+  /**
+   * Handles a WAPI request, used for both the http and multi-object requests.
+   *
+   * @return result object, having the <b>result</b> and optional <b>next_page_id</b>.
+   */
+  private Map<String, Object> handle(
+      String method, String path, Map<String, String> args, @Nullable Object body) {
+    boolean isRef = path.indexOf('/') > 0;
+    String object = RecordStore.objectOf(path);
+    Object result;
+
+    switch (method) {
+      case "GET":
+        if (isRef) {
+          result = select(object, store.get(path), args);
+          break;
+        }
+        return query(object, args);
+      case "POST":
+        if (isRef) {
+          throw WapiError.badRequest("Function call is not supported: " + path);
+        }
+        result = writeResult(object, store.create(object, requireFields(body)), args);
+        break;
+      case "PUT":
+        if (!isRef) {
+          throw WapiError.badRequest("Object reference is required for " + method);
+        }
+        result = writeResult(object, store.update(path, requireFields(body)), args);
+        break;
+      case "DELETE":
+        if (!isRef) {
+          throw WapiError.badRequest("Object reference is required for " + method);
+        }
+        result = store.delete(path);
+        break;
+      default:
+        throw WapiError.badRequest("Unsupported method: " + method);
+    }
+    return resultOf(result);
+  }
+
+  private Map<String, Object> query(String object, Map<String, String> args) {
+    String pageId = args.get("_page_id");
+    Page page;
+    if (pageId != null) {
+      page = pages.remove(pageId);
+      if (page == null) {
+        throw WapiError.badRequest("Page id is invalid or expired: " + pageId);
+      }
+    } else {
+      page = new Page(object, store.search(object, args), args);
+    }
+
+    int maxResults = Integer.parseInt(page.args.getOrDefault("_max_results", "0"));
+    boolean paging = "1".equals(page.args.get("_paging"));
+    List<Map<String, Object>> objs = page.objects;
+    int end = objs.size();
+    if (paging) {
+      if (maxResults <= 0 || !"1".equals(args.get("_return_as_object"))) {
+        throw WapiError.badRequest("_paging requires _max_results and _return_as_object");
+      }
+      end = Math.min(page.offset + maxResults, objs.size());
+    } else if (maxResults < 0) {
+      end = Math.min(-maxResults, objs.size());
+    } else {
+      int limit = maxResults > 0 ? maxResults : DEFAULT_MAX_RESULTS;
+      if (objs.size() > limit) {
+        throw WapiError.badRequest("Result set too large (> " + limit + ")");
+      }
+    }
+
+    List<Object> result = new ArrayList<>(end - page.offset);
+    for (Map<String, Object> obj : objs.subList(page.offset, end)) {
+      result.add(select(page.object, obj, page.args));
+    }
+    Map<String, Object> res = resultOf(result);
+    if (paging && end < objs.size()) {
+      String nextPageId = UUID.randomUUID().toString();
+      pages.put(nextPageId, page.next(end));
+      res.put("next_page_id", nextPageId);
+    }
+    return res;
+  }
+
+  /** Returns the ref, or the object if the <b>_return_fields</b> are requested. */
+  private Object writeResult(String object, String ref, Map<String, String> args) {
+    if (args.containsKey("_return_fields") || args.containsKey("_return_fields+")) {
+      return select(object, store.get(ref), args);
+    }
+    return ref;
+  }
+
+  /** Executes the multi-object request operations atomically. */
+  private Map<String, Object> multiObject(@Nullable Object body) {
+    if (!(body instanceof List)) {
+      throw WapiError.badRequest("Multi-object request body should be a list.");
+    }
+    List<Object> results =
+        store.atomically(
+            () -> {
+              List<Object> res = new ArrayList<>();
+              for (Object op : (List<?>) body) {
+                Map<String, Object> req = requireFields(op);
+                Map<String, String> args = new LinkedHashMap<>();
+                Object opArgs = req.get("args");
+                if (opArgs instanceof Map) {
+                  ((Map<?, ?>) opArgs)
+                      .forEach((k, v) -> args.put(String.valueOf(k), String.valueOf(v)));
+                }
+                String method = String.valueOf(req.get("method"));
+                String object = String.valueOf(req.get("object"));
+                res.add(handle(method, object, args, req.get("data")).get("result"));
+              }
+              return res;
+            });
+    return resultOf(results);
+  }
+
+  /** Selects the return fields of the object. */
+  private static Map<String, Object> select(
+      String object, Map<String, Object> obj, Map<String, String> args) {
+    Set<String> fields = new LinkedHashSet<>();
+    String returnFields = args.get("_return_fields");
+    if (returnFields != null) {
+      fields.addAll(Arrays.asList(returnFields.split(",")));
+    } else {
+      fields.addAll(DEFAULT_FIELDS.getOrDefault(object, Arrays.asList("name", "view")));
+    }
+    String extraFields = args.get("_return_fields+");
+    if (extraFields != null) {
+      fields.addAll(Arrays.asList(extraFields.split(",")));
+    }
+
+    Map<String, Object> res = new LinkedHashMap<>();
+    res.put("_ref", obj.get("_ref"));
+    for (String field : fields) {
+      if (obj.containsKey(field)) {
+        res.put(field, obj.get(field));
+      }
+    }
+    return res;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> requireFields(@Nullable Object body) {
+    if (!(body instanceof Map)) {
+      throw WapiError.badRequest("Request body should be an object.");
+    }
+    return RecordStore.normalize((Map<String, Object>) body);
+  }
+
+  private static Map<String, Object> resultOf(Object result) {
+    Map<String, Object> res = new LinkedHashMap<>();
+    res.put("result", result);
+    return res;
+  }
+
+  private MockResponse jsonResponse(int status, @Nullable Object body) {
+    return new MockResponse()
+        .setResponseCode(status)
+        .setHeader("Content-Type", "application/json")
+        .setBody(json.toJson(body));
+  }
+
+  private MockResponse errorResponse(WapiError err) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("Error", err.getError());
+    body.put("code", err.getCode());
+    body.put("text", err.getMessage());
+    return jsonResponse(err.getStatus(), body);
+  }
+
+  @Override
+  public void close() throws IOException {
+    server.shutdown();
+  }
+
+  /** Query results of a paged search. */
+  private static final class Page {
+
+    final String object;
+    final List<Map<String, Object>> objects;
+    final Map<String, String> args;
+    final int offset;
+
+    Page(String object, List<Map<String, Object>> objects, Map<String, String> args) {
+      this(object, objects, args, 0);
+    }
+
+    private Page(
+        String object, List<Map<String, Object>> objects, Map<String, String> args, int offset) {
+      this.object = object;
+      this.objects = objects;
+      this.args = args;
+      this.offset = offset;
+    }
+
+    Page next(int offset) {
+      return new Page(object, objects, args, offset);
+    }
+  }
+}
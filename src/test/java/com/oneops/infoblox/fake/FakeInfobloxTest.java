@@ -0,0 +1,181 @@
+package com.oneops.infoblox.fake;
+
+import static com.oneops.infoblox.model.SearchModifier.REGEX;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.InfobloxException;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.host.Host;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Offline client tests using the {@link FakeInfoblox} server.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Fake infoblox server tests.")
+class FakeInfobloxTest {
+
+  private static final String USER = "admin";
+  private static final String PASSWORD = "infoblox";
+  private static final String DOMAIN = "fake.oneops.com";
+
+  private FakeInfoblox fake;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start(USER, PASSWORD);
+    client = fake.clientBuilder().ttl(60).build();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  /** Seeds the given number of A records. */
+  private void seedARecs(int count) {
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> rec = new HashMap<>();
+      rec.put("name", "a-" + i + "." + DOMAIN);
+      rec.put("ipv4addr", "10.10." + i / 256 + "." + i % 256);
+      rec.put("ttl", i);
+      fake.store().create("record:a", rec);
+    }
+  }
+
+  @Test
+  void aRecCrud() throws IOException {
+    String fqdn = "a1." + DOMAIN;
+    String newFqdn = "a2." + DOMAIN;
+
+    ARec rec = client.createARec(fqdn, "10.1.1.1");
+    assertEquals("10.1.1.1", rec.ipv4Addr());
+    assertEquals(60, rec.ttl());
+    assertTrue(rec.ref().hasFqdn(fqdn));
+
+    // Search is case-insensitive by default.
+    assertEquals(1, client.getARec(fqdn.toUpperCase()).size());
+    assertEquals(1, client.getARec(fqdn, "10.1.1.1").size());
+
+    InfobloxException ex =
+        assertThrows(InfobloxException.class, () -> client.createARec(fqdn, "10.1.1.1"));
+    assertTrue(ex.getError().startsWith("IBDataConflictError"));
+
+    List<ARec> modRecs = client.modifyARec(fqdn, newFqdn);
+    assertEquals(newFqdn, modRecs.get(0).name());
+    assertTrue(client.getARec(fqdn).isEmpty());
+
+    assertEquals(1, client.deleteARec(newFqdn).size());
+    assertEquals(0, fake.store().size());
+
+    // All the requests after the first one use the session cookie.
+    assertEquals(1, fake.loginCount());
+  }
+
+  @Test
+  void hostRec() throws IOException {
+    String fqdn = "h1." + DOMAIN;
+    Host host = client.createHostRec(fqdn, asList("10.1.1.2", "10.1.1.3"));
+    assertEquals(2, host.ipv4Addrs().size());
+    assertEquals(fqdn, host.ipv4Addrs().get(0).host());
+    assertEquals("record:host_ipv4addr", host.ipv4Addrs().get(0).ref().wapiType());
+
+    assertEquals(1, client.getHostRec(fqdn).size());
+    Map<String, String> filter = singletonMap("ipv4addr", "10.1.1.3");
+    assertEquals(1, fake.store().search("record:host", filter).size());
+  }
+
+  @Test
+  void searchModifiers() throws IOException {
+    seedARecs(20);
+    RecordStore store = fake.store();
+
+    assertEquals(20, client.getARec(".*\\." + DOMAIN, REGEX).size());
+    assertEquals(19, store.search("record:a", singletonMap("name!", "a-0." + DOMAIN)).size());
+    assertEquals(5, store.search("record:a", singletonMap("ttl<", "4")).size());
+    assertEquals(2, store.search("record:a", singletonMap("ttl>", "18")).size());
+    assertEquals(11, store.search("record:a", singletonMap("name~:", "^A-1")).size());
+  }
+
+  @Test
+  void paging() {
+    seedARecs(25);
+    int requests = fake.requestCount();
+    try (Stream<ARec> recs = client.stream(WapiType.A, Collections.emptyMap(), 10)) {
+      assertEquals(25, recs.count());
+    }
+    assertEquals(3, fake.requestCount() - requests);
+  }
+
+  @Test
+  void maxResults() throws IOException {
+    seedARecs(1001);
+    InfobloxException ex = assertThrows(InfobloxException.class, () -> client.getARec(".*", REGEX));
+    assertTrue(ex.getError().contains("Result set too large"));
+    assertEquals(1, client.getARec("a-1000." + DOMAIN).size());
+  }
+
+  @Test
+  void atomicBatch() throws IOException {
+    List<Object> res =
+        client
+            .batch()
+            .createARec("b1." + DOMAIN, "10.2.2.1")
+            .createARec("b2." + DOMAIN, "10.2.2.2")
+            .execute();
+    assertEquals(2, res.size());
+    assertEquals("10.2.2.2", ((ARec) res.get(1)).ipv4Addr());
+
+    // Duplicate record fails the whole request.
+    assertThrows(
+        InfobloxException.class,
+        () ->
+            client
+                .batch()
+                .createARec("b3." + DOMAIN, "10.2.2.3")
+                .createARec("b1." + DOMAIN, "10.2.2.1")
+                .execute());
+    assertEquals(2, fake.store().size());
+  }
+
+  @Test
+  void errorInjection() throws IOException {
+    fake.failNext(new WapiError(503, "Server busy", "Server.Busy", "Injected error"));
+    InfobloxException ex =
+        assertThrows(InfobloxException.class, () -> client.getARec("a1." + DOMAIN));
+    assertEquals("Server.Busy", ex.getCode());
+    assertTrue(client.getARec("a1." + DOMAIN).isEmpty());
+
+    fake.latency(Duration.ofMillis(100));
+    long start = System.nanoTime();
+    client.getARec("a1." + DOMAIN);
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 100);
+  }
+
+  @Test
+  void logout() throws IOException {
+    client.getARec("a1." + DOMAIN);
+    assertEquals(1, fake.sessionCount());
+    client.close();
+    assertEquals(0, fake.sessionCount());
+  }
+}
@@ -0,0 +1,425 @@
+package com.oneops.infoblox.fake;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Objects.requireNonNull;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.Nullable;
+
+/**
+ * In-memory WAPI object store of the {@link FakeInfoblox}. Objects are kept as JSON maps (with the
+ * <b>_ref</b> field) per WAPI object type, along with a lower case name index for the name lookups.
+ *
+ * <p>The search filters follow the WAPI argument syntax, ie: <b>field[modifiers]=value</b> where
+ * the modifiers are <b>!</b> (negate), <b>:</b> (case-insensitive), <b>~</b> (regex), <b>&lt;</b>
+ * (less than or equal) and <b>&gt;</b> (greater than or equal). A field missing in the object is
+ * searched in its sub-objects, so that a host record can be searched by the <b>ipv4addr</b>.
+ *
+ * @author Suresh G
+ */
+public class RecordStore {
+
+  private static final String MODIFIERS = "!:~<>";
+
+  /** Fields identifying a record along with its name, used to detect the duplicates. */
+  private static final List<String> KEY_FIELDS =
+      asList("ipv4addr", "ipv6addr", "canonical", "ptrdname", "text", "mail_exchanger", "target");
+
+  /**
+   * Fields encoded in the ref data along with the name, per object type. As in the WAPI, changing
+   * them gives the object a new reference. The Host addresses and the CNAME canonical name are not
+   * part of the reference.
+   */
+  private static final Map<String, List<String>> REF_FIELDS = new HashMap<>();
+
+  static {
+    REF_FIELDS.put("record:a", asList("ipv4addr"));
+    REF_FIELDS.put("record:aaaa", asList("ipv6addr"));
+    REF_FIELDS.put("record:ptr", asList("ipv4addr", "ipv6addr", "ptrdname"));
+    REF_FIELDS.put("record:mx", asList("mail_exchanger", "preference"));
+    REF_FIELDS.put("record:txt", asList("text"));
+    REF_FIELDS.put("record:srv", asList("target", "port", "priority", "weight"));
+  }
+
+  /** Object type -> ref data -> object. */
+  private Map<String, Map<String, Map<String, Object>>> objects = new HashMap<>();
+
+  /** Object type -> lower case name -> ref data. */
+  private Map<String, Map<String, Set<String>>> names = new HashMap<>();
+
+  private long ids;
+
+  /**
+   * Creates a new WAPI object.
+   *
+   * @param object object type, eg: <b>record:a</b>
+   * @param fields object fields.
+   * @return object reference.
+   */
+  public synchronized String create(String object, Map<String, ?> fields) {
+    Map<String, Object> obj = new LinkedHashMap<>();
+    obj.putAll(normalize(fields));
+    obj.putIfAbsent("view", "default");
+    String name = nameOf(obj);
+    if (name == null) {
+      throw WapiError.badRequest("Field is not writable or required: name");
+    }
+    checkConflict(object, obj, null);
+
+    return put(object, encodeRefData(object + "$" + ++ids), obj);
+  }
+
+  /**
+   * Returns the object for the given reference.
+   *
+   * @param ref object reference.
+   * @return object fields.
+   * @throws WapiError if the object is not found.
+   */
+  public synchronized Map<String, Object> get(String ref) {
+    return Collections.unmodifiableMap(lookup(ref));
+  }
+
+  /**
+   * Searches the objects of given type.
+   *
+   * @param object object type.
+   * @param filters search filters, the WAPI arguments (starting with <b>_</b>) are ignored.
+   * @return matching objects, in the creation order.
+   */
+  public synchronized List<Map<String, Object>> search(String object, Map<String, String> filters) {
+    Map<String, Map<String, Object>> objs = objects.getOrDefault(object, Collections.emptyMap());
+    Collection<Map<String, Object>> candidates = objs.values();
+
+    // Use the name index for the exact lookups.
+    String name = filters.containsKey("name") ? filters.get("name") : filters.get("name:");
+    if (name != null) {
+      Set<String> refs =
+          names
+              .getOrDefault(object, Collections.emptyMap())
+              .getOrDefault(name.toLowerCase(Locale.ROOT), Collections.emptySet());
+      candidates = new ArrayList<>(refs.size());
+      for (String ref : refs) {
+        candidates.add(objs.get(ref));
+      }
+    }
+
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (Map<String, Object> obj : candidates) {
+      if (matches(obj, filters)) {
+        result.add(Collections.unmodifiableMap(obj));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Updates the object fields. As in the WAPI, the reference changes if the object is renamed or
+   * a field encoded in its reference (eg: A record <b>ipv4addr</b>) is changed.
+   *
+   * @param ref object reference.
+   * @param fields fields to be updated.
+   * @return new object reference.
+   */
+  public synchronized String update(String ref, Map<String, ?> fields) {
+    Map<String, Object> obj = new LinkedHashMap<>(lookup(ref));
+    obj.remove("_ref");
+    obj.putAll(normalize(fields));
+    if (nameOf(obj) == null) {
+      throw WapiError.badRequest("Field is not writable or required: name");
+    }
+    String object = objectOf(ref);
+    String refData = refData(ref);
+    checkConflict(object, obj, refData);
+
+    Map<String, Object> old = remove(object, refData);
+    for (String field : REF_FIELDS.getOrDefault(object, Collections.emptyList())) {
+      if (!Objects.equals(old.get(field), obj.get(field))) {
+        refData = encodeRefData(object + "$" + ++ids);
+        break;
+      }
+    }
+    return put(object, refData, obj);
+  }
+
+  /**
+   * Deletes the object.
+   *
+   * @param ref object reference.
+   * @return deleted object reference.
+   */
+  public synchronized String delete(String ref) {
+    String storedRef = (String) lookup(ref).get("_ref");
+    remove(objectOf(ref), refData(ref));
+    return storedRef;
+  }
+
+  /** Number of objects of all types. */
+  public synchronized int size() {
+    return objects.values().stream().mapToInt(Map::size).sum();
+  }
+
+  /** Number of objects of the given type. */
+  public synchronized int size(String object) {
+    return objects.getOrDefault(object, Collections.emptyMap()).size();
+  }
+
+  /** Removes all the objects. */
+  public synchronized void clear() {
+    objects.clear();
+    names.clear();
+  }
+
+  /**
+   * Runs the operations atomically, rolling back all the changes if any of them fails. Used by the
+   * multi-object requests.
+   */
+  synchronized <T> T atomically(Supplier<T> ops) {
+    Map<String, Map<String, Map<String, Object>>> objsCopy = new HashMap<>();
+    objects.forEach((k, v) -> objsCopy.put(k, new LinkedHashMap<>(v)));
+    Map<String, Map<String, Set<String>>> namesCopy = new HashMap<>();
+    names.forEach(
+        (k, v) -> {
+          Map<String, Set<String>> idx = new HashMap<>();
+          v.forEach((name, refs) -> idx.put(name, new LinkedHashSet<>(refs)));
+          namesCopy.put(k, idx);
+        });
+
+    try {
+      return ops.get();
+    } catch (RuntimeException ex) {
+      objects = objsCopy;
+      names = namesCopy;
+      throw ex;
+    }
+  }
+
+  private Map<String, Object> lookup(String ref) {
+    Map<String, Object> obj =
+        objects.getOrDefault(objectOf(ref), Collections.emptyMap()).get(refData(ref));
+    if (obj == null) {
+      throw WapiError.notFound(ref);
+    }
+    return obj;
+  }
+
+  /** Stores the object with a new reference, generated from the ref data, name and view. */
+  private String put(String object, String refData, Map<String, Object> fields) {
+    String name = requireNonNull(nameOf(fields));
+    String view = String.valueOf(fields.get("view"));
+    String ref = object + "/" + refData + ":" + encode(name) + "/" + view;
+    Map<String, Object> obj = new LinkedHashMap<>();
+    obj.put("_ref", ref);
+    obj.putAll(fields);
+    if ("record:host".equals(object)) {
+      obj.put("ipv4addrs", hostAddrs(name, view, obj.get("ipv4addrs")));
+    }
+
+    objects.computeIfAbsent(object, k -> new LinkedHashMap<>()).put(refData, obj);
+    names
+        .computeIfAbsent(object, k -> new HashMap<>())
+        .computeIfAbsent(name.toLowerCase(Locale.ROOT), k -> new LinkedHashSet<>())
+        .add(refData);
+    return ref;
+  }
+
+  private Map<String, Object> remove(String object, String refData) {
+    Map<String, Object> obj = objects.get(object).remove(refData);
+    Map<String, Set<String>> idx = names.get(object);
+    String name = nameOf(obj).toLowerCase(Locale.ROOT);
+    Set<String> refs = idx.get(name);
+    refs.remove(refData);
+    if (refs.isEmpty()) {
+      idx.remove(name);
+    }
+    return obj;
+  }
+
+  /** Host addresses are sub-objects, having its own reference. */
+  private static List<Object> hostAddrs(String host, String view, @Nullable Object addrs) {
+    if (!(addrs instanceof List)) {
+      throw WapiError.badRequest("Field is not writable or required: ipv4addrs");
+    }
+    List<Object> result = new ArrayList<>();
+    for (Object addr : (List<?>) addrs) {
+      if (!(addr instanceof Map)) {
+        throw WapiError.badRequest("Invalid value for ipv4addrs: " + addr);
+      }
+      Object ip = ((Map<?, ?>) addr).get("ipv4addr");
+      String refData = encodeRefData(host + "$" + ip);
+      Map<String, Object> hostAddr = new LinkedHashMap<>();
+      hostAddr.put(
+          "_ref", "record:host_ipv4addr/" + refData + ":" + ip + "/" + encode(host) + "/" + view);
+      hostAddr.put("configure_for_dhcp", false);
+      hostAddr.put("host", host);
+      hostAddr.put("ipv4addr", ip);
+      result.add(hostAddr);
+    }
+    return result;
+  }
+
+  private void checkConflict(String object, Map<String, Object> obj, @Nullable String refData) {
+    String name = nameOf(obj);
+    Set<String> refs =
+        names
+            .getOrDefault(object, Collections.emptyMap())
+            .getOrDefault(name.toLowerCase(Locale.ROOT), Collections.emptySet());
+    for (String ref : refs) {
+      if (ref.equals(refData)) {
+        continue;
+      }
+      Map<String, Object> other = objects.get(object).get(ref);
+      boolean sameView = String.valueOf(other.get("view")).equals(obj.get("view"));
+      boolean sameKeys =
+          "record:cname".equals(object)
+              || KEY_FIELDS.stream().allMatch(f -> Objects.equals(other.get(f), obj.get(f)));
+      if (sameView && sameKeys) {
+        throw WapiError.conflict("The record '" + name + "' already exists.");
+      }
+    }
+  }
+
+  private static boolean matches(Map<String, Object> obj, Map<String, String> filters) {
+    for (Map.Entry<String, String> filter : filters.entrySet()) {
+      String key = filter.getKey();
+      if (key.startsWith("_")) {
+        continue;
+      }
+      int i = key.length();
+      while (i > 0 && MODIFIERS.indexOf(key.charAt(i - 1)) >= 0) {
+        i--;
+      }
+      String field = key.substring(0, i);
+      String modifiers = key.substring(i);
+
+      boolean found = false;
+      for (Object value : valuesOf(obj, field)) {
+        if (matches(value, filter.getValue(), modifiers)) {
+          found = true;
+          break;
+        }
+      }
+      if (found == modifiers.contains("!")) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the field values of the object, or its sub-objects if it's not an object field. */
+  private static List<Object> valuesOf(Map<String, Object> obj, String field) {
+    Object value = obj.get(field);
+    if (value instanceof List) {
+      return new ArrayList<>((List<?>) value);
+    }
+    if (value != null) {
+      return Collections.singletonList(value);
+    }
+    List<Object> values = new ArrayList<>();
+    for (Object fieldValue : obj.values()) {
+      if (fieldValue instanceof List) {
+        for (Object sub : (List<?>) fieldValue) {
+          if (sub instanceof Map && ((Map<?, ?>) sub).containsKey(field)) {
+            values.add(((Map<?, ?>) sub).get(field));
+          }
+        }
+      }
+    }
+    return values;
+  }
+
+  private static boolean matches(Object value, String expected, String modifiers) {
+    String actual = String.valueOf(value);
+    boolean ignoreCase = modifiers.contains(":");
+    if (modifiers.contains("~")) {
+      try {
+        int flags = ignoreCase ? Pattern.CASE_INSENSITIVE : 0;
+        return Pattern.compile(expected, flags).matcher(actual).find();
+      } catch (PatternSyntaxException ex) {
+        throw WapiError.badRequest("Invalid regular expression: " + expected);
+      }
+    }
+    if (modifiers.contains("<")) {
+      return compare(actual, expected) <= 0;
+    }
+    if (modifiers.contains(">")) {
+      return compare(actual, expected) >= 0;
+    }
+    return ignoreCase ? actual.equalsIgnoreCase(expected) : actual.equals(expected);
+  }
+
+  private static int compare(String actual, String expected) {
+    try {
+      return Long.compare(Long.parseLong(actual), Long.parseLong(expected));
+    } catch (NumberFormatException ex) {
+      return actual.compareTo(expected);
+    }
+  }
+
+  @Nullable
+  private static String nameOf(Map<String, Object> obj) {
+    Object name = obj.containsKey("name") ? obj.get("name") : obj.get("fqdn");
+    return name != null ? name.toString() : null;
+  }
+
+  static String objectOf(String ref) {
+    int idx = ref.indexOf('/');
+    return idx > 0 ? ref.substring(0, idx) : ref;
+  }
+
+  static String refData(String ref) {
+    String data = ref.substring(ref.indexOf('/') + 1);
+    int end = data.indexOf(':');
+    return end >= 0 ? data.substring(0, end) : data;
+  }
+
+  private static String encodeRefData(String value) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(UTF_8));
+  }
+
+  /** Names are URL encoded in the reference, same as the appliance. */
+  private static String encode(String name) {
+    try {
+      return URLEncoder.encode(name, UTF_8.toString()).replace("*", "%2A");
+    } catch (UnsupportedEncodingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /** JSON numbers are decoded as double, convert the whole numbers to long. */
+  @SuppressWarnings("unchecked")
+  static <T> T normalize(T value) {
+    if (value instanceof Double) {
+      double d = (Double) value;
+      if (d == Math.rint(d) && Math.abs(d) < Long.MAX_VALUE) {
+        return (T) Long.valueOf((long) d);
+      }
+    } else if (value instanceof Map) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      ((Map<?, ?>) value).forEach((k, v) -> map.put(String.valueOf(k), normalize(v)));
+      return (T) map;
+    } else if (value instanceof List) {
+      List<Object> list = new ArrayList<>();
+      ((List<?>) value).forEach(v -> list.add(normalize(v)));
+      return (T) list;
+    }
+    return value;
+  }
+}
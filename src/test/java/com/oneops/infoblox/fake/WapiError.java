@@ -0,0 +1,51 @@
+package com.oneops.infoblox.fake;
+
+/**
+ * A WAPI error returned by the {@link FakeInfoblox}, with the same JSON fields (<b>Error</b>,
+ * <b>code</b> and <b>text</b>) as the appliance.
+ *
+ * @author Suresh G
+ */
+public class WapiError extends RuntimeException {
+
+  private final int status;
+  private final String error;
+  private final String code;
+
+  public WapiError(int status, String error, String code, String text) {
+    super(text);
+    this.status = status;
+    this.error = error;
+    this.code = code;
+  }
+
+  static WapiError badRequest(String text) {
+    return new WapiError(400, "AdmConProtoError: " + text, "Client.Ibap.Proto", text);
+  }
+
+  static WapiError notFound(String ref) {
+    String text = "Reference " + ref + " not found";
+    return new WapiError(
+        404, "AdmConDataNotFoundError: " + text, "Client.Ibap.Data.NotFound", text);
+  }
+
+  static WapiError conflict(String text) {
+    return new WapiError(
+        400, "IBDataConflictError: IB.Data.Conflict:" + text, "Client.Ibap.Data.Conflict", text);
+  }
+
+  /** HTTP status code. */
+  public int getStatus() {
+    return status;
+  }
+
+  /** Error type, followed by an explanation. */
+  public String getError() {
+    return error;
+  }
+
+  /** Symbolic error code. */
+  public String getCode() {
+    return code;
+  }
+}
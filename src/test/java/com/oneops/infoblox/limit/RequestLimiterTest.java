@@ -0,0 +1,126 @@
+package com.oneops.infoblox.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Request limiter tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox request limiter tests.")
+class RequestLimiterTest {
+
+  private MockWebServer server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new MockWebServer();
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  private int call(RequestLimiter limiter) throws IOException {
+    OkHttpClient client = new OkHttpClient.Builder().addInterceptor(limiter).build();
+    Request req = new Request.Builder().url(server.url("/wapi/v2.5/record:a")).build();
+    try (Response res = client.newCall(req).execute()) {
+      return res.code();
+    }
+  }
+
+  @Test
+  void rateLimit() throws IOException {
+    RequestLimiter limiter = RequestLimiter.builder().requestsPerSecond(20).burst(1).build();
+    for (int i = 0; i < 5; i++) {
+      server.enqueue(new MockResponse().setBody("{\"result\": []}"));
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      assertEquals(200, call(limiter));
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    // 4 requests after the first one are spaced by 50 millis.
+    assertTrue(elapsed.toMillis() >= 150, "Elapsed: " + elapsed);
+    LimiterMetrics metrics = limiter.metrics();
+    assertEquals(5, metrics.requests());
+    assertTrue(metrics.queued() >= 3);
+    assertTrue(metrics.maxQueueWait().toMillis() > 0);
+  }
+
+  @Test
+  void rejectOnMaxQueueWait() throws IOException {
+    RequestLimiter limiter =
+        RequestLimiter.builder()
+            .requestsPerSecond(0.1)
+            .burst(1)
+            .maxQueueWait(Duration.ofMillis(10))
+            .build();
+    server.enqueue(new MockResponse().setBody("{\"result\": []}"));
+
+    assertEquals(200, call(limiter));
+    assertThrows(IOException.class, () -> call(limiter));
+    assertEquals(1, server.getRequestCount());
+    assertEquals(1, limiter.metrics().rejected());
+  }
+
+  @Test
+  void concurrencyBackoff() throws IOException {
+    RequestLimiter limiter = RequestLimiter.builder().maxConcurrency(10).backoffRatio(0.5).build();
+    server.enqueue(new MockResponse().setResponseCode(503));
+    server.enqueue(new MockResponse().setResponseCode(429));
+    server.enqueue(new MockResponse().setBody("{\"result\": []}"));
+
+    assertEquals(503, call(limiter));
+    assertEquals(5, limiter.metrics().concurrencyLimit());
+    assertEquals(429, call(limiter));
+    assertEquals(2, limiter.metrics().concurrencyLimit());
+    assertEquals(200, call(limiter));
+
+    LimiterMetrics metrics = limiter.metrics();
+    assertEquals(2, metrics.concurrencyLimit());
+    assertEquals(0, metrics.inFlight());
+  }
+
+  @Test
+  void invalidLimits() {
+    assertThrows(IllegalStateException.class, () -> RequestLimiter.builder().build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> RequestLimiter.builder().maxConcurrency(2).minConcurrency(3).build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> RequestLimiter.builder().maxConcurrency(4).initialConcurrency(0).build());
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            RequestLimiter.builder()
+                .maxConcurrency(4)
+                .minConcurrency(2)
+                .initialConcurrency(1)
+                .build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> RequestLimiter.builder().maxConcurrency(4).initialConcurrency(5).build());
+    RequestLimiter.builder().maxConcurrency(4).minConcurrency(2).initialConcurrency(2).build();
+    RequestLimiter.builder().maxConcurrency(4).initialConcurrency(4).build();
+  }
+}
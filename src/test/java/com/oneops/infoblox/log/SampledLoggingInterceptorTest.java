@@ -0,0 +1,165 @@
+package com.oneops.infoblox.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+/**
+ * Sampled request logging tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox sampled request logging tests.")
+class SampledLoggingInterceptorTest {
+
+  private MockWebServer server;
+
+  /** Logged lines, prefixed with the log level. */
+  private final List<String> logs = new CopyOnWriteArrayList<>();
+
+  /** A logger capturing the info and warn logs. */
+  private final Logger logger =
+      (Logger)
+          Proxy.newProxyInstance(
+              Logger.class.getClassLoader(),
+              new Class<?>[] {Logger.class},
+              (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("is") && name.endsWith("Enabled")) {
+                  return true;
+                }
+                if (name.equals("info") || name.equals("warn")) {
+                  logs.add(name + ": " + args[0]);
+                }
+                return null;
+              });
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new MockWebServer();
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  private int post(SampledLoggingInterceptor intcp, String body) throws IOException {
+    OkHttpClient client = new OkHttpClient.Builder().addInterceptor(intcp).build();
+    Request req =
+        new Request.Builder()
+            .url(server.url("/wapi/v2.5/record:a"))
+            .header("Authorization", "Basic YWRtaW46c2VjcmV0")
+            .header("Cookie", "ibapauth=secret")
+            .post(RequestBody.create(MediaType.get("application/json"), body))
+            .build();
+    try (Response res = client.newCall(req).execute()) {
+      return res.code();
+    }
+  }
+
+  @Test
+  void sampling() throws IOException {
+    SampledLoggingInterceptor intcp =
+        SampledLoggingInterceptor.builder().sampleRate(1).logHeaders(true).logger(logger).build();
+    server.enqueue(new MockResponse().setBody("{\"result\": \"record:a/ZG5z:a.com/default\"}"));
+
+    assertEquals(200, post(intcp, "{\"name\": \"a.com\"}"));
+    assertEquals(1, logs.size());
+    String log = logs.get(0);
+    assertTrue(log.startsWith("info: wapi method=POST url="), log);
+    assertTrue(log.contains(" status=200 "), log);
+    assertTrue(log.contains("reqBody={\"name\": \"a.com\"}"), log);
+    assertTrue(log.contains("resBody={\"result\": \"record:a/ZG5z:a.com/default\"}"), log);
+    assertTrue(log.contains("Authorization: ██"), log);
+    assertTrue(log.contains("Cookie: ██"), log);
+    assertFalse(log.contains("secret") || log.contains("YWRtaW46c2VjcmV0"), log);
+  }
+
+  @Test
+  void skipSampled() throws IOException {
+    SampledLoggingInterceptor intcp =
+        SampledLoggingInterceptor.builder().sampleRate(Integer.MAX_VALUE).logger(logger).build();
+    for (int i = 0; i < 5; i++) {
+      server.enqueue(new MockResponse().setBody("{}"));
+      assertEquals(200, post(intcp, "{}"));
+    }
+    assertTrue(logs.isEmpty());
+  }
+
+  @Test
+  void alwaysLogFailedAndSlow() throws IOException {
+    SampledLoggingInterceptor intcp =
+        SampledLoggingInterceptor.builder()
+            .sampleRate(Integer.MAX_VALUE)
+            .slowThreshold(Duration.ofMillis(50))
+            .maxBodySize(8)
+            .logger(logger)
+            .build();
+    server.enqueue(new MockResponse().setResponseCode(400).setBody("{\"Error\": \"Bad request\"}"));
+    server.enqueue(new MockResponse().setBody("{}").setHeadersDelay(100, TimeUnit.MILLISECONDS));
+
+    assertEquals(400, post(intcp, "{}"));
+    assertEquals(200, post(intcp, "{}"));
+    assertEquals(2, logs.size());
+    assertTrue(logs.get(0).startsWith("warn: "), logs.get(0));
+    assertTrue(logs.get(0).contains("resBody={\"Error\"...(24 bytes)"), logs.get(0));
+    assertTrue(logs.get(1).startsWith("warn: "), logs.get(1));
+
+    server.shutdown();
+    assertThrows(IOException.class, () -> post(intcp, "{}"));
+    assertEquals(3, logs.size());
+    assertTrue(logs.get(2).contains(" status=0 "), logs.get(2));
+    assertTrue(logs.get(2).contains(" error="), logs.get(2));
+  }
+
+  @Test
+  void largeRequestBody() throws IOException, InterruptedException {
+    SampledLoggingInterceptor intcp =
+        SampledLoggingInterceptor.builder().sampleRate(1).maxBodySize(16).logger(logger).build();
+    server.enqueue(new MockResponse().setBody("{}"));
+
+    StringBuilder body = new StringBuilder("[");
+    for (int i = 0; i < 20_000; i++) {
+      body.append(i > 0 ? "," : "").append("{\"name\": \"a").append(i).append(".com\"}");
+    }
+    body.append(']');
+    assertEquals(200, post(intcp, body.toString()));
+    // Whole body is sent, but only the first 16 bytes are logged.
+    assertEquals(body.length(), server.takeRequest().getBodySize());
+    assertEquals(1, logs.size());
+    String expected = "reqBody=" + body.substring(0, 16) + "...(" + body.length() + " bytes)";
+    assertTrue(logs.get(0).contains(expected), logs.get(0));
+  }
+
+  @Test
+  void invalidConfig() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> SampledLoggingInterceptor.builder().sampleRate(0).build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> SampledLoggingInterceptor.builder().maxBodySize(-1).build());
+  }
+}
@@ -0,0 +1,104 @@
+package com.oneops.infoblox.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.InfobloxException;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Request metrics tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox request metrics tests.")
+class HdrHistogramMetricsTest {
+
+  private static final String DOMAIN = "metrics.oneops.com";
+
+  private FakeInfoblox fake;
+  private HdrHistogramMetrics metrics;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    metrics = new HdrHistogramMetrics();
+    client = fake.clientBuilder().metrics(metrics).build();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  private Map<String, RequestStats> stats() {
+    return metrics
+        .snapshot()
+        .stream()
+        .collect(Collectors.toMap(s -> s.method() + " " + s.object(), Function.identity()));
+  }
+
+  @Test
+  void requestMetrics() throws IOException {
+    client.createARec("a1." + DOMAIN, "10.1.1.1");
+    assertThrows(InfobloxException.class, () -> client.createARec("a1." + DOMAIN, "10.1.1.1"));
+    fake.latency(Duration.ofMillis(50));
+    client.getARec("a1." + DOMAIN);
+    client.getCNameRec("c1." + DOMAIN);
+
+    Map<String, RequestStats> stats = stats();
+    RequestStats create = stats.get("POST record:a");
+    assertEquals(2, create.count());
+    assertEquals(1, create.errors());
+    assertEquals(0, create.inFlight());
+    assertEquals(1, (long) create.statusCodes().get(400));
+    assertEquals(1, (long) create.errorCodes().get("Client.Ibap.Data.Conflict"));
+    assertTrue(create.requestBytes() > 0);
+    assertTrue(create.responseBytes() > 0);
+
+    RequestStats get = stats.get("GET record:a");
+    assertEquals(1, get.count());
+    assertEquals(0, get.errors());
+    assertTrue(get.p50().toMillis() >= 50, "p50: " + get.p50());
+    assertTrue(get.max().compareTo(get.p99()) >= 0);
+    assertEquals(1, stats.get("GET record:cname").count());
+
+    metrics.reset();
+    assertTrue(metrics.snapshot().isEmpty());
+  }
+
+  @Test
+  void failures() throws IOException {
+    fake.close();
+    assertThrows(IOException.class, () -> client.getARec("a1." + DOMAIN));
+    RequestStats get = stats().get("GET record:a");
+    assertEquals(1, get.count());
+    assertEquals(1, get.errors());
+    assertEquals(0, get.inFlight());
+  }
+
+  @Test
+  void objectType() {
+    String base = "https://localhost/wapi/v2.5/";
+    assertEquals("record:a", MetricsInterceptor.object(HttpUrl.get(base + "record:a?name=a.com")));
+    assertEquals(
+        "zone_delegated",
+        MetricsInterceptor.object(HttpUrl.get(base + "zone_delegated/ZG5zLnpvbmU:a.com/default")));
+    assertEquals("/", MetricsInterceptor.object(HttpUrl.get("https://localhost")));
+  }
+}
@@ -0,0 +1,99 @@
+package com.oneops.infoblox.model;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.oneops.infoblox.model.a.ARecCreate;
+import com.oneops.infoblox.model.host.HostCreate;
+import com.oneops.infoblox.model.ptr.PTRCreate;
+import com.oneops.infoblox.model.ref.RefObject;
+import com.oneops.infoblox.model.ttl.TTLModify;
+import com.oneops.infoblox.model.zone.Delegate;
+import com.oneops.infoblox.model.zone.ZoneDelegateCreate;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Typed create request serialization tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox create request tests.")
+class CreateRequestTest {
+
+  private final Moshi moshi =
+      new Moshi.Builder().add(JsonAdapterFactory.create()).add(new RefObject.JsonAdapter()).build();
+
+  private final JsonAdapter<Object> json = moshi.adapter(Object.class);
+
+  @Test
+  void requests() throws IOException {
+    ARecCreate aRec =
+        ARecCreate.builder().ttl(60).name("a.oneops.com").ipv4Addr("10.1.1.1").build();
+    assertEquals(
+        map("ttl", 60.0, "use_ttl", true, "name", "a.oneops.com", "ipv4addr", "10.1.1.1"),
+        json.fromJson(moshi.adapter(ARecCreate.class).toJson(aRec)));
+
+    HostCreate host =
+        HostCreate.builder()
+            .ttl(60)
+            .useTtl(false)
+            .name("host.oneops.com")
+            .ipv4AddrList(asList("10.1.1.2", "10.1.1.3"))
+            .build();
+    assertEquals(
+        map(
+            "ttl", 60.0,
+            "use_ttl", false,
+            "name", "host.oneops.com",
+            "ipv4addrs", asList(map("ipv4addr", "10.1.1.2"), map("ipv4addr", "10.1.1.3"))),
+        json.fromJson(moshi.adapter(HostCreate.class).toJson(host)));
+    assertEquals(
+        map("ttl", 120.0, "use_ttl", true),
+        json.fromJson(moshi.adapter(TTLModify.class).toJson(TTLModify.of(120))));
+
+    // Unset address type is not sent.
+    PTRCreate ptr =
+        PTRCreate.builder()
+            .ttl(60)
+            .name("1.0.0.0.ip6.arpa")
+            .ptrdname("v6.oneops.com")
+            .ipv6addr("::1")
+            .build();
+    assertEquals(
+        map(
+            "ttl", 60.0,
+            "use_ttl", true,
+            "name", "1.0.0.0.ip6.arpa",
+            "ptrdname", "v6.oneops.com",
+            "ipv6addr", "::1"),
+        json.fromJson(moshi.adapter(PTRCreate.class).toJson(ptr)));
+
+    ZoneDelegateCreate zone =
+        ZoneDelegateCreate.builder()
+            .fqdn("sub.oneops.com")
+            .delegateTo(Collections.singletonList(Delegate.of("10.1.1.4", "ns.oneops.com")))
+            .delegatedTtl(30)
+            .build();
+    assertEquals(
+        map(
+            "fqdn", "sub.oneops.com",
+            "delegate_to", asList(map("address", "10.1.1.4", "name", "ns.oneops.com")),
+            "delegated_ttl", 30.0),
+        json.fromJson(moshi.adapter(ZoneDelegateCreate.class).toJson(zone)));
+  }
+
+  private static Map<String, Object> map(Object... kvs) {
+    Map<String, Object> map = new HashMap<>();
+    for (int i = 0; i < kvs.length; i += 2) {
+      map.put((String) kvs[i], kvs[i + 1]);
+    }
+    return map;
+  }
+}
@@ -9,7 +9,10 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import com.oneops.infoblox.IBAEnvConfig;
 import com.oneops.infoblox.InfobloxClient;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -108,4 +111,22 @@ class ARecordTest {
     List<String> delARec = client.deleteARec(fqdn);
     assertEquals(1, delARec.size());
   }
+
+  @Test
+  @DisplayName("A record ref based modify tests.")
+  void modifyRefTest() throws Exception {
+    List<ARec> recs =
+        Arrays.asList(
+            client.createARec(fqdn, "10.11.12.13"), client.createARec(fqdn, "10.11.12.14"));
+
+    // Modify the fetched records without looking them up again.
+    Map<String, Object> fields = Collections.singletonMap("name", newFqdn);
+    List<ARec> modRecs = client.modifyRecords(recs, fields, 2);
+    assertEquals(2, modRecs.size());
+    assertTrue(modRecs.stream().allMatch(r -> newFqdn.equals(r.name())));
+
+    List<String> delRecs = client.deleteRecords(modRecs, 2);
+    assertEquals(2, delRecs.size());
+    assertTrue(client.getARec(newFqdn).isEmpty());
+  }
 }
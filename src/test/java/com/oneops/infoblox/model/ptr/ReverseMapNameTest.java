@@ -0,0 +1,122 @@
+package com.oneops.infoblox.model.ptr;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.oneops.infoblox.util.IPAddrs;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * PTR reverse map name tests, without an infoblox.
+ *
+ * @author Suresh G
+ */
+@DisplayName("PTR reverse map name tests.")
+class ReverseMapNameTest {
+
+  private static final String IPV6_PTR =
+      "b.a.9.8.7.6.5.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.8.b.d.0.1.0.0.2.ip6.arpa";
+
+  @Test
+  void reverseMapName() throws UnknownHostException {
+    assertEquals("4.4.8.8.in-addr.arpa", PTR.reverseMapName("8.8.4.4"));
+    assertEquals("4.4.8.8.in-addr.arpa", PTR.reverseMapName(0x08080404));
+    assertEquals("255.255.255.255.in-addr.arpa", PTR.reverseMapName(-1));
+    assertEquals("0.0.0.0.in-addr.arpa", PTR.reverseMapName(InetAddress.getByName("0.0.0.0")));
+    assertEquals(IPV6_PTR, PTR.reverseMapName("2001:db8::567:89ab"));
+    assertEquals(IPV6_PTR, PTR.reverseMapName(0x20010db800000000L, 0x056789abL));
+    // Mapped like the InetAddress does.
+    assertEquals("3.2.1.10.in-addr.arpa", PTR.reverseMapName("::ffff:10.1.2.3"));
+    assertThrows(IllegalArgumentException.class, () -> PTR.reverseMapName("oneops.com"));
+
+    char[] buf = new char[PTR.IPV6_NAME_LENGTH];
+    assertEquals(PTR.IPV6_NAME_LENGTH, PTR.reverseMapName(0x20010db800000000L, 0x056789abL, buf));
+    assertEquals(IPV6_PTR, new String(buf));
+    int len = PTR.reverseMapName(0x0A010203, buf);
+    assertEquals("3.2.1.10.in-addr.arpa", new String(buf, 0, len));
+  }
+
+  @Test
+  void sameAsInetAddress() throws UnknownHostException {
+    Random rand = new Random(42);
+    char[] buf = new char[PTR.IPV6_NAME_LENGTH];
+    for (int i = 0; i < 1_000; i++) {
+      int ipv4 = rand.nextInt();
+      InetAddress addr = InetAddress.getByName(IPAddrs.formatIPv4(ipv4));
+      assertEquals(legacyReverseMapName(addr), PTR.reverseMapName(addr));
+      assertEquals(legacyReverseMapName(addr), new String(buf, 0, PTR.reverseMapName(ipv4, buf)));
+
+      long hi = rand.nextLong();
+      long lo = rand.nextLong();
+      addr = InetAddress.getByName(IPAddrs.formatIPv6(hi, lo));
+      assertEquals(legacyReverseMapName(addr), PTR.reverseMapName(addr));
+      assertEquals(legacyReverseMapName(addr), PTR.reverseMapName(hi, lo));
+    }
+  }
+
+  @Test
+  void reverseMapNames() {
+    List<String> names = PTR.reverseMapNames("10.1.2.0/30").collect(toList());
+    assertEquals(
+        Arrays.asList(
+            "0.2.1.10.in-addr.arpa",
+            "1.2.1.10.in-addr.arpa",
+            "2.2.1.10.in-addr.arpa",
+            "3.2.1.10.in-addr.arpa"),
+        names);
+    // Host bits are masked.
+    assertEquals(names, PTR.reverseMapNames("10.1.2.3/30").collect(toList()));
+    assertEquals(65536, PTR.reverseMapNames("10.1.0.0/16").count());
+    assertEquals(
+        "255.255.1.10.in-addr.arpa",
+        PTR.reverseMapNames("10.1.0.0/16").skip(65535).findFirst().get());
+    assertEquals(1, PTR.reverseMapNames("10.1.2.3/32").count());
+    assertEquals("0.0.0.0.in-addr.arpa", PTR.reverseMapNames("0.0.0.0/0").findFirst().get());
+
+    assertEquals(256, PTR.reverseMapNames("2001:db8::/120").count());
+    assertEquals(
+        PTR.reverseMapName("2001:db8::ff"),
+        PTR.reverseMapNames("2001:db8::/120").skip(255).findFirst().get());
+    assertEquals(
+        Arrays.asList(
+            PTR.reverseMapName("2001:db8:0:1::"), PTR.reverseMapName("2001:db8:0:1::1")),
+        PTR.reverseMapNames("2001:db8:0:1:2::/64").limit(2).collect(toList()));
+    // Upper half of a /64, counted up from its first address.
+    assertEquals(
+        Arrays.asList(
+            PTR.reverseMapName("2001:db8:0:1:8000::"), PTR.reverseMapName("2001:db8:0:1:8000::1")),
+        PTR.reverseMapNames("2001:db8:0:1:8000::/65").limit(2).collect(toList()));
+    assertEquals(1, PTR.reverseMapNames("::/0").limit(1).count());
+    assertEquals(1, PTR.reverseMapNames("2001:db8::1/128").count());
+
+    assertThrows(IllegalArgumentException.class, () -> PTR.reverseMapNames("10.1.0.0"));
+    assertThrows(IllegalArgumentException.class, () -> PTR.reverseMapNames("10.1.0.0/33"));
+    assertThrows(IllegalArgumentException.class, () -> PTR.reverseMapNames("::/129"));
+  }
+
+  /** The former StringBuilder and String.format based implementation. */
+  private static String legacyReverseMapName(InetAddress address) {
+    byte[] addr = address.getAddress();
+    StringBuilder sb = new StringBuilder();
+    if (addr.length == 4) {
+      for (int i = addr.length - 1; i >= 0; i--) {
+        sb.append(addr[i] & 0xFF);
+        if (i > 0) sb.append(".");
+      }
+      return String.format("%s.in-addr.arpa", sb.toString());
+    }
+    for (int i = addr.length - 1; i >= 0; i--) {
+      sb.append(Integer.toHexString(addr[i] & 0xF)).append('.');
+      sb.append(Integer.toHexString((addr[i] & 0xFF) >> 4));
+      if (i > 0) sb.append(".");
+    }
+    return String.format("%s.ip6.arpa", sb.toString());
+  }
+}
@@ -2,10 +2,14 @@ package com.oneops.infoblox.model.ref;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -62,5 +66,55 @@ class RefTest {
     assertEquals(Arrays.asList("%2A.test-cname.oneops.com", "Internal"), wildCardRef.names());
     assertTrue(wildCardRef.hasFqdn("*.test-cname.oneops.com"));
     assertFalse(wildCardRef.hasFqdn("%2A.test-cname.oneops.com"));
+    assertTrue(hostRef.hasFqdn("test-host1.oneops.com"));
+    assertFalse(hostRef.hasFqdn("*.test-cname.oneops.com"));
+  }
+
+  @Test
+  void fqdnMatcher() {
+    Predicate<Ref> wildCard = Ref.fqdnMatcher("*.test-cname.oneops.com");
+    assertTrue(wildCard.test(wildCardRef));
+    assertFalse(wildCard.test(hostRef));
+    Predicate<Ref> host = Ref.fqdnMatcher("test-host1.oneops.com");
+    assertTrue(host.test(hostRef));
+    assertTrue(host.test(ipv4Ref));
+    assertFalse(host.test(wildCardRef));
+  }
+
+  @Test
+  void parsedOnce() {
+    assertSame(hostRef.wapiType(), hostRef.wapiType());
+    assertSame(hostRef.refData(), hostRef.refData());
+    assertSame(hostRef.names(), hostRef.names());
+    // Memoized values are not part of the equality.
+    hostRef.names();
+    assertEquals(Ref.of(hostRef.value()), hostRef);
+    assertEquals(Ref.of(hostRef.value()).hashCode(), hostRef.hashCode());
+  }
+
+  @Test
+  void sameAsSplit() {
+    for (String value :
+        Arrays.asList(
+            "networkview",
+            "record:a/",
+            "record:a/ZG5z",
+            "record:a/ZG5z:",
+            "record:a/ZG5z:/",
+            "record:a/ZG5z:a.com//default//",
+            "record:a/ZG5z:a.com:b/default")) {
+      Ref ref = Ref.of(value);
+      String[] vals = value.split("/", 2);
+      assertEquals(vals[0], ref.wapiType(), value);
+      assertEquals(vals.length > 1 ? vals[1].split(":", 2)[0] : null, ref.refData(), value);
+      if (vals.length > 1) {
+        String[] names = vals[1].split(":", 2);
+        List<String> expected =
+            names.length > 1 ? Arrays.asList(names[1].split("/")) : Collections.emptyList();
+        assertEquals(expected, new ArrayList<>(ref.names()), value);
+      } else {
+        assertTrue(ref.names().isEmpty(), value);
+      }
+    }
   }
 }
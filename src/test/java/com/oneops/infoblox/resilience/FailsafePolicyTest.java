@@ -0,0 +1,99 @@
+package com.oneops.infoblox.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Failsafe resilience policy tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox resilience policy tests.")
+class FailsafePolicyTest {
+
+  private MockWebServer server;
+  private FailsafePolicy policy;
+  private OkHttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new MockWebServer();
+    server.start();
+    policy =
+        FailsafePolicy.builder()
+            .maxRetries(2)
+            .retryDelay(Duration.ofMillis(1))
+            .maxRetryDelay(Duration.ofMillis(10))
+            .failureThreshold(3)
+            .openDelay(Duration.ofMinutes(1))
+            .build();
+    client = new OkHttpClient.Builder().addInterceptor(policy::execute).build();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  private int call(String method) throws IOException {
+    RequestBody body =
+        "GET".equals(method) ? null : RequestBody.create(MediaType.get("application/json"), "{}");
+    Request req =
+        new Request.Builder().url(server.url("/wapi/v2.5/record:a")).method(method, body).build();
+    try (Response res = client.newCall(req).execute()) {
+      return res.code();
+    }
+  }
+
+  @Test
+  void retryIdempotent() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(503));
+    server.enqueue(
+        new MockResponse().setResponseCode(400).setBody("{\"Error\": \"IBDataConflictError\"}"));
+    server.enqueue(new MockResponse().setBody("{\"result\": []}"));
+
+    assertEquals(200, call("GET"));
+    assertEquals(3, server.getRequestCount());
+    assertEquals(2, policy.metrics().retries());
+  }
+
+  @Test
+  void noRetryForCreate() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(503));
+
+    assertEquals(503, call("POST"));
+    assertEquals(1, server.getRequestCount());
+    assertEquals(0, policy.metrics().retries());
+  }
+
+  @Test
+  void circuitBreaker() throws IOException {
+    for (int i = 0; i < 3; i++) {
+      server.enqueue(new MockResponse().setResponseCode(503));
+    }
+    assertEquals(503, call("GET"));
+    assertEquals("OPEN", policy.metrics().circuitState());
+
+    // Fails fast without calling the server.
+    assertThrows(IOException.class, () -> call("GET"));
+    assertEquals(3, server.getRequestCount());
+
+    ResilienceMetrics metrics = policy.metrics();
+    assertEquals(1, metrics.circuitOpened());
+    assertEquals(1, metrics.rejected());
+  }
+}
@@ -0,0 +1,112 @@
+package com.oneops.infoblox.snapshot;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.util.IPAddrs;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Address index tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox address index tests.")
+class AddressIndexTest {
+
+  private static final String DOMAIN = "snap.oneops.com";
+
+  @Test
+  void load() throws IOException {
+    AddressIndex index;
+    try (FakeInfoblox fake = FakeInfoblox.start("admin", "infoblox")) {
+      ZoneSnapshotTest.seed(fake.store());
+      try (InfobloxClient client = fake.newClient()) {
+        index = AddressIndex.load(client, 10);
+      }
+    }
+
+    assertEquals(26, index.ipv4Count());
+    assertEquals(1, index.ipv6Count());
+    assertEquals(asList("a1." + DOMAIN, "other.oneops.com"), index.namesOf("10.3.0.1"));
+    // Host and its PTR record point at the same name.
+    assertEquals(Collections.singletonList("host." + DOMAIN), index.namesOf("10.3.1.1"));
+    assertEquals(Collections.singletonList("v6." + DOMAIN), index.namesOf("2001:DB8::1"));
+    assertTrue(index.contains("10.3.0.24"));
+    assertFalse(index.contains("10.3.0.25"));
+    // Delegated name servers are not in the index.
+    assertFalse(index.contains("10.3.2.1"));
+    assertTrue(index.namesOf("2001:db8::2").isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> index.contains("not-an-ip"));
+
+    assertEquals(25, index.count("10.3.0.0/24"));
+    assertEquals(26, index.count("10.3.0.0/16"));
+    assertEquals(
+        asList("10.3.0.0", "10.3.0.1", "10.3.0.2", "10.3.0.3"), index.addresses("10.3.0.0/30"));
+    assertEquals(Collections.singletonList("10.3.1.1"), index.addresses("10.3.1.1/32"));
+    assertEquals(27, index.count("0.0.0.0/0") + index.count("::/0"));
+    assertEquals(Collections.singletonList("2001:db8::1"), index.addresses("2001:db8::/32"));
+    assertEquals(0, index.count("2001:db9::/32"));
+    assertThrows(IllegalArgumentException.class, () -> index.count("10.3.0.0"));
+    assertThrows(IllegalArgumentException.class, () -> index.count("10.3.0.0/33"));
+    assertThrows(IllegalArgumentException.class, () -> index.count("::/129"));
+  }
+
+  @Test
+  void sameAsLinearScan() {
+    Random rand = new Random(42);
+    AddressIndex.Builder builder = AddressIndex.builder();
+    List<Integer> ipv4s = new ArrayList<>();
+    List<long[]> ipv6s = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      // Narrow ranges, so that some addresses repeat.
+      int ipv4 = 0xC0A80000 | rand.nextInt(1 << 14);
+      long[] ipv6 = {0x20010db800000000L | rand.nextInt(16), rand.nextInt(1 << 14)};
+      builder.add(IPAddrs.formatIPv4(ipv4), "h" + (i % 100) + ".oneops.com");
+      builder.add(IPAddrs.formatIPv6(ipv6[0], ipv6[1]), "h" + (i % 100) + ".oneops.com");
+      ipv4s.add(ipv4);
+      ipv6s.add(ipv6);
+    }
+    AddressIndex index = builder.build();
+    assertEquals(100, index.nameCount());
+
+    for (int i = 0; i < 100; i++) {
+      int prefix = 16 + rand.nextInt(17);
+      int mask = -1 << (32 - prefix);
+      int base = ipv4s.get(rand.nextInt(ipv4s.size())) & mask;
+      long count = ipv4s.stream().filter(ip -> (ip & mask) == base).distinct().count();
+      assertEquals(count, index.count(IPAddrs.formatIPv4(base) + "/" + prefix));
+    }
+    for (int i = 0; i < 100; i++) {
+      int prefix = 60 + rand.nextInt(69);
+      long[] ip = ipv6s.get(rand.nextInt(ipv6s.size()));
+      long hiMask = prefix >= 64 ? -1 : -1L << (64 - prefix);
+      long loMask = prefix <= 64 ? 0 : prefix == 128 ? -1 : -1L << (128 - prefix);
+      long count =
+          ipv6s.stream()
+              .filter(a -> ((a[0] ^ ip[0]) & hiMask) == 0 && ((a[1] ^ ip[1]) & loMask) == 0)
+              .map(a -> a[0] + ":" + a[1])
+              .distinct()
+              .count();
+      String cidr = IPAddrs.formatIPv6(ip[0] & hiMask, ip[1] & loMask) + "/" + prefix;
+      assertEquals(count, index.count(cidr), cidr);
+    }
+    for (int i = 0; i < ipv4s.size(); i += 97) {
+      assertTrue(index.contains(ipv4s.get(i)));
+      assertTrue(index.namesOf(ipv4s.get(i)).contains("h" + (i % 100) + ".oneops.com"));
+      long[] ipv6 = ipv6s.get(i);
+      assertTrue(index.namesOf(ipv6[0], ipv6[1]).contains("h" + (i % 100) + ".oneops.com"));
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package com.oneops.infoblox.snapshot;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.ref.Ref;
+import com.oneops.infoblox.model.zone.ZoneDelegate;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Snapshot file tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox snapshot file tests.")
+class SnapshotFileTest {
+
+  private static final String DOMAIN = "snap.oneops.com";
+
+  private Path dir;
+  private ZoneSnapshot snapshot;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    dir = Files.createTempDirectory("snapshot");
+    try (FakeInfoblox fake = FakeInfoblox.start("admin", "infoblox")) {
+      ZoneSnapshotTest.seed(fake.store());
+      try (InfobloxClient client = fake.newClient()) {
+        snapshot = ZoneSnapshot.load(client);
+      }
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : files.collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(dir);
+  }
+
+  @Test
+  void lookups() throws IOException {
+    Path path = dir.resolve("default.snap");
+    SnapshotFile.write(snapshot, path);
+    SnapshotFile file = SnapshotFile.open(path);
+
+    assertEquals("default", file.view());
+    assertEquals(snapshot.loadedAt().toEpochMilli(), file.loadedAt().toEpochMilli());
+    assertEquals(ZoneSnapshot.DEFAULT_TYPES, file.types());
+    assertEquals(33, file.size());
+    assertEquals(snapshot.nameCount(), file.nameCount());
+
+    assertTrue(file.exists("A1." + DOMAIN + "."));
+    assertFalse(file.exists("a100." + DOMAIN));
+    assertFalse(file.exists("com"));
+    assertEquals(snapshot.lookup("a1." + DOMAIN), file.lookup("a1." + DOMAIN));
+    assertEquals(new HashSet<>(snapshot.lookup(DOMAIN)), new HashSet<>(file.lookup(DOMAIN)));
+    assertEquals(1, file.lookup("www." + DOMAIN, WapiType.CNAME).size());
+    assertTrue(file.lookup("www." + DOMAIN, WapiType.A).isEmpty());
+
+    // Nested objects and numbers are decoded.
+    ZoneDelegate zone = file.lookup("sub." + DOMAIN, WapiType.ZONE_DELEGATED).get(0);
+    assertEquals(snapshot.lookup("sub." + DOMAIN).get(0), zone);
+    assertEquals(60, zone.ttl());
+
+    assertEquals(snapshot.subdomains(DOMAIN), file.subdomains(DOMAIN));
+    assertEquals(snapshot.subdomains("oneops.com"), file.subdomains("oneops.com"));
+    assertTrue(file.subdomains("nap.oneops.com").isEmpty());
+
+    assertEquals(snapshot.namesOf("10.3.0.1"), file.namesOf("10.3.0.1"));
+    assertEquals(snapshot.namesOf("10.3.1.1"), file.namesOf("10.3.1.1"));
+    assertEquals(2, file.lookupAddress("10.3.1.1").size());
+    assertEquals(Collections.singleton("v6." + DOMAIN), file.namesOf("2001:DB8::1"));
+    assertTrue(file.namesOf("10.9.9.9").isEmpty());
+    assertTrue(file.namesOf("2001:db8::2").isEmpty());
+    assertTrue(file.namesOf("not-an-ip").isEmpty());
+  }
+
+  @Test
+  void roundTrip() throws IOException {
+    Path path = dir.resolve("default.snap");
+    SnapshotFile.write(snapshot, path);
+    // Overwrites the existing file.
+    SnapshotFile.write(snapshot, path);
+    assertEquals(Collections.singletonList(path), listDir());
+
+    SnapshotFile file = SnapshotFile.open(path);
+    ZoneSnapshot copy = file.toSnapshot();
+    assertEquals(snapshot.size(), copy.size());
+    assertEquals(snapshot.loadedAt().toEpochMilli(), copy.loadedAt().toEpochMilli());
+    for (Record rec : snapshot.records()) {
+      assertEquals(rec, copy.get(rec.ref().value()));
+    }
+    assertEquals(snapshot.subdomains(DOMAIN), copy.subdomains(DOMAIN));
+  }
+
+  @Test
+  void nonAsciiNames() throws IOException {
+    // UTF-16 and UTF-8 orders differ for the private use and supplementary characters.
+    List<String> labels = asList("a", "z", "\u00e4", "\ue000", "\ud83d\ude00", "\uffff");
+    ZoneSnapshot snap = new ZoneSnapshot("default", asList(WapiType.A));
+    for (int i = 0; i < labels.size(); i++) {
+      String name = labels.get(i) + ".x." + DOMAIN;
+      snap.put(
+          ARec.builder()
+              .ref(Ref.of("record:a/" + i + ":" + name + "/default"))
+              .view("default")
+              .ttl(0)
+              .name(name)
+              .ipv4Addr("10.9.0." + i)
+              .build());
+    }
+    Path path = dir.resolve("labels.snap");
+    SnapshotFile.write(snap, path);
+    SnapshotFile file = SnapshotFile.open(path);
+
+    for (String label : labels) {
+      assertEquals(1, file.lookup(label + ".x." + DOMAIN).size(), label);
+    }
+    assertFalse(file.exists("\ud83d.x." + DOMAIN));
+    assertEquals(6, file.subdomains("x." + DOMAIN).size());
+  }
+
+  @Test
+  void emptySnapshot() throws IOException {
+    Path path = dir.resolve("empty.snap");
+    SnapshotFile.write(new ZoneSnapshot("internal", asList(WapiType.A)), path);
+    SnapshotFile file = SnapshotFile.open(path);
+    assertEquals("internal", file.view());
+    assertEquals(0, file.size());
+    assertFalse(file.exists(DOMAIN));
+    assertTrue(file.subdomains(DOMAIN).isEmpty());
+    assertTrue(file.lookupAddress("10.3.0.1").isEmpty());
+  }
+
+  @Test
+  void invalidFile() throws IOException {
+    Path path = dir.resolve("invalid.snap");
+    Files.write(path, "not a snapshot file".getBytes());
+    assertThrows(IOException.class, () -> SnapshotFile.open(path));
+  }
+
+  private List<Path> listDir() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.oneops.infoblox.snapshot;
+
+import static com.oneops.infoblox.snapshot.ZoneSnapshotTest.rec;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.fake.RecordStore;
+import com.oneops.infoblox.fake.WapiError;
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.cname.CNAME;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Zone snapshot sync tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox zone snapshot sync tests.")
+class SnapshotSyncTest {
+
+  private FakeInfoblox fake;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    client = fake.newClient();
+    ZoneSnapshotTest.seed(fake.store());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  @Test
+  void sync() throws IOException {
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client, 10);
+    SnapshotSync sync = new SnapshotSync(client, snapshot, 10);
+    assertNull(sync.lastSync());
+
+    SyncStats stats = sync.sync();
+    assertEquals(0, stats.changes());
+    assertEquals(33, stats.unchanged());
+    assertEquals("default", stats.view());
+
+    RecordStore store = fake.store();
+    Record a2 = snapshot.lookup("a2.snap.oneops.com").get(0);
+    Record a3 = snapshot.lookup("a3.snap.oneops.com").get(0);
+    Record txt = snapshot.lookup("snap.oneops.com", WapiType.TXT).get(0);
+    Record mx = snapshot.lookup("snap.oneops.com", WapiType.MX).get(0);
+    store.create("record:a", rec("name", "new.snap.oneops.com", "ipv4addr", "10.3.5.5"));
+    store.update(a2.ref().value(), Collections.singletonMap("ipv4addr", "10.3.5.6"));
+    store.delete(a3.ref().value());
+    store.delete(txt.ref().value());
+
+    Instant before = snapshot.loadedAt();
+    stats = sync.sync();
+    // Changed address gets a new reference, so it's a delete and an add.
+    assertEquals(2, stats.added());
+    assertEquals(0, stats.updated());
+    assertEquals(3, stats.removed());
+    assertEquals(30, stats.unchanged());
+    assertSame(stats, sync.lastSync());
+    assertEquals(2, sync.syncCount());
+    assertTrue(stats.syncedAt().isAfter(before));
+    assertEquals(stats.syncedAt(), snapshot.loadedAt());
+
+    assertEquals(32, snapshot.size());
+    assertTrue(snapshot.exists("new.snap.oneops.com"));
+    assertFalse(snapshot.exists("a3.snap.oneops.com"));
+    assertTrue(snapshot.lookup("snap.oneops.com", WapiType.TXT).isEmpty());
+    assertTrue(snapshot.refs(WapiType.TXT).isEmpty());
+    assertEquals(26, snapshot.refs(WapiType.A).size());
+    assertEquals(Collections.singleton("a2.snap.oneops.com"), snapshot.namesOf("10.3.5.6"));
+    assertTrue(snapshot.namesOf("10.3.0.2").isEmpty());
+    // Unchanged records are not replaced.
+    assertSame(mx, snapshot.lookup("snap.oneops.com", WapiType.MX).get(0));
+  }
+
+  @Test
+  void inPlaceChanges() throws IOException {
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client, 10);
+    SnapshotSync sync = new SnapshotSync(client, snapshot, 10);
+    Record host = snapshot.lookup("host.snap.oneops.com", WapiType.HOST).get(0);
+    Record cname = snapshot.lookup("www.snap.oneops.com", WapiType.CNAME).get(0);
+
+    // Host addresses and CNAME canonical name are not part of the reference.
+    Map<String, Object> addr = new HashMap<>();
+    addr.put("ipv4addr", "10.3.1.2");
+    String hostRef =
+        fake.store().update(host.ref().value(), singletonMap("ipv4addrs", asList(addr)));
+    String cnameRef =
+        fake.store().update(cname.ref().value(), singletonMap("canonical", "a2.snap.oneops.com"));
+    assertEquals(host.ref().value(), hostRef);
+    assertEquals(cname.ref().value(), cnameRef);
+
+    SyncStats stats = sync.sync();
+    assertEquals(2, stats.updated());
+    assertEquals(2, stats.changes());
+    assertEquals(singleton("host.snap.oneops.com"), snapshot.namesOf("10.3.1.2"));
+    // Only the PTR record is left on the old address.
+    assertEquals(1, snapshot.lookupAddress("10.3.1.1").size());
+    CNAME updated = snapshot.lookup("www.snap.oneops.com", WapiType.CNAME).get(0);
+    assertEquals("a2.snap.oneops.com", updated.canonical());
+  }
+
+  @Test
+  void fullSync() throws IOException {
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client, 10);
+    SnapshotSync sync = new SnapshotSync(client, snapshot, 10);
+    Record mx = snapshot.lookup("snap.oneops.com", WapiType.MX).get(0);
+    fake.store().update(mx.ref().value(), Collections.singletonMap("ttl", 3600));
+
+    // TTL change keeps the reference, so only the full sync finds it.
+    assertEquals(0, sync.sync().changes());
+    assertSame(mx, snapshot.lookup("snap.oneops.com", WapiType.MX).get(0));
+
+    SyncStats stats = sync.fullSync();
+    assertEquals(1, stats.updated());
+    assertEquals(32, stats.unchanged());
+    assertEquals(3600, snapshot.get(mx.ref().value()).ttl());
+    assertEquals(0, sync.tryFullSync().changes());
+  }
+
+  @Test
+  void failedSync() throws IOException {
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client, WapiType.A);
+    SnapshotSync sync = new SnapshotSync(client, snapshot);
+    Instant loadedAt = snapshot.loadedAt();
+
+    fake.failNext(
+        new WapiError(400, "AdmConProtoError: Sync failed", "Client.Ibap.Proto", "Sync failed"));
+    assertNull(sync.trySync());
+    assertEquals(1, sync.failureCount());
+    assertTrue(sync.lastError() != null);
+    assertEquals(loadedAt, snapshot.loadedAt());
+    assertFalse(sync.freshness().isNegative());
+
+    assertEquals(26, sync.sync().unchanged());
+    assertNull(sync.lastError());
+  }
+
+  @Test
+  void viewMismatch() {
+    ZoneSnapshot snapshot = new ZoneSnapshot("internal", ZoneSnapshot.DEFAULT_TYPES);
+    assertThrows(IllegalArgumentException.class, () -> new SnapshotSync(client, snapshot));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SnapshotSync(client, new ZoneSnapshot("default", ZoneSnapshot.DEFAULT_TYPES), 0));
+  }
+}
@@ -0,0 +1,178 @@
+package com.oneops.infoblox.snapshot;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import com.oneops.infoblox.fake.RecordStore;
+import com.oneops.infoblox.model.Record;
+import com.oneops.infoblox.model.a.ARec;
+import com.oneops.infoblox.model.host.Host;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Zone snapshot tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox zone snapshot tests.")
+class ZoneSnapshotTest {
+
+  private static final String DOMAIN = "snap.oneops.com";
+
+  private FakeInfoblox fake;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    client = fake.newClient();
+    seed(fake.store());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  static Map<String, Object> rec(Object... fields) {
+    Map<String, Object> rec = new HashMap<>();
+    rec.put("ttl", 60);
+    for (int i = 0; i < fields.length; i += 2) {
+      rec.put((String) fields[i], fields[i + 1]);
+    }
+    return rec;
+  }
+
+  /** Seeds 25 A records along with a record of every other type. */
+  static void seed(RecordStore store) {
+    for (int i = 0; i < 25; i++) {
+      store.create("record:a", rec("name", "a" + i + "." + DOMAIN, "ipv4addr", "10.3.0." + i));
+    }
+    store.create("record:a", rec("name", "other.oneops.com", "ipv4addr", "10.3.0.1"));
+    store.create(
+        "record:aaaa", rec("name", "v6." + DOMAIN, "ipv6addr", "2001:db8:0:0:0:0:0:1"));
+    store.create("record:cname", rec("name", "www." + DOMAIN, "canonical", "a1." + DOMAIN));
+    Map<String, Object> addr = new HashMap<>();
+    addr.put("ipv4addr", "10.3.1.1");
+    store.create(
+        "record:host",
+        rec("name", "host." + DOMAIN, "ipv4addrs", asList(addr)));
+    store.create(
+        "record:ptr",
+        rec("name", "1.1.3.10.in-addr.arpa", "ipv4addr", "10.3.1.1", "ptrdname", "host." + DOMAIN));
+    store.create("record:txt", rec("name", DOMAIN, "text", "v=spf1 -all"));
+    store.create(
+        "record:mx", rec("name", DOMAIN, "mail_exchanger", "mx." + DOMAIN, "preference", 10));
+    Map<String, Object> ns = new HashMap<>();
+    ns.put("name", "ns1.sub." + DOMAIN);
+    ns.put("address", "10.3.2.1");
+    store.create(
+        "zone_delegated",
+        rec(
+            "fqdn",
+            "sub." + DOMAIN,
+            "delegate_to",
+            asList(ns),
+            "delegated_ttl",
+            60,
+            "locked",
+            false));
+  }
+
+  @Test
+  void load() throws IOException {
+    int requests = fake.requestCount();
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client, 10);
+    assertEquals(33, snapshot.size());
+    // 3 pages of A records and a page for each of the other 9 types.
+    assertEquals(12, fake.requestCount() - requests);
+    assertEquals("default", snapshot.view());
+    assertTrue(snapshot.loadedAt().toEpochMilli() > 0);
+
+    assertTrue(snapshot.exists("A1." + DOMAIN + "."));
+    assertFalse(snapshot.exists("a100." + DOMAIN));
+    assertEquals(2, snapshot.lookup(DOMAIN).size());
+    assertEquals(1, snapshot.lookup("www." + DOMAIN, WapiType.CNAME).size());
+    assertTrue(snapshot.lookup("www." + DOMAIN, WapiType.A).isEmpty());
+    assertEquals(1, snapshot.lookup("host." + DOMAIN, WapiType.HOST).size());
+  }
+
+  @Test
+  void subdomains() throws IOException {
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client);
+    assertEquals(30, snapshot.subdomains(DOMAIN).size());
+    assertEquals(DOMAIN, snapshot.subdomains(DOMAIN).get(0));
+    assertEquals(Collections.singletonList("sub." + DOMAIN), snapshot.subdomains("sub." + DOMAIN));
+    assertEquals(32, snapshot.lookupSubdomains("oneops.com").size());
+    // Label boundaries are respected.
+    assertTrue(snapshot.subdomains("nap.oneops.com").isEmpty());
+    assertTrue(snapshot.subdomains("a1").isEmpty());
+  }
+
+  @Test
+  void addresses() throws IOException {
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client);
+    assertEquals(
+        new HashSet<>(asList("a1." + DOMAIN, "other.oneops.com")),
+        snapshot.namesOf("10.3.0.1"));
+    assertEquals(Collections.singleton("host." + DOMAIN), snapshot.namesOf("10.3.1.1"));
+    assertEquals(2, snapshot.lookupAddress("10.3.1.1").size());
+    assertEquals(Collections.singleton("v6." + DOMAIN), snapshot.namesOf("2001:db8::1"));
+    assertTrue(snapshot.namesOf("10.9.9.9").isEmpty());
+  }
+
+  @Test
+  void update() throws IOException {
+    ZoneSnapshot snapshot = ZoneSnapshot.load(client, WapiType.A);
+    assertEquals(26, snapshot.size());
+    ARec rec = snapshot.lookup("a1." + DOMAIN, WapiType.A).get(0);
+
+    ARec moved =
+        ARec.builder()
+            .ref(rec.ref())
+            .view(rec.view())
+            .ttl(rec.ttl())
+            .name("b1." + DOMAIN)
+            .ipv4Addr("10.3.9.9")
+            .build();
+    snapshot.put(moved);
+    assertEquals(26, snapshot.size());
+    assertFalse(snapshot.exists("a1." + DOMAIN));
+    assertEquals(Collections.singleton("b1." + DOMAIN), snapshot.namesOf("10.3.9.9"));
+    assertEquals(Collections.singleton("other.oneops.com"), snapshot.namesOf("10.3.0.1"));
+
+    Record removed = snapshot.remove(rec.ref().value());
+    assertEquals(moved, removed);
+    assertFalse(snapshot.exists("b1." + DOMAIN));
+    assertEquals(25, snapshot.size());
+
+    // Host aliases are indexed as names.
+    Host host =
+        Host.builder()
+            .ref("record:host/ZG5zLmhvc3Qk:host.snap.oneops.com/default")
+            .view("default")
+            .ttl(60)
+            .name("host." + DOMAIN)
+            .ipv4Addrs(Collections.emptyList())
+            .aliases(asList("H." + DOMAIN))
+            .build();
+    snapshot.put(host);
+    assertEquals(host, snapshot.lookup("h." + DOMAIN, WapiType.HOST).get(0));
+    snapshot.remove(host.ref().value());
+    assertFalse(snapshot.exists("h." + DOMAIN));
+  }
+}
@@ -0,0 +1,161 @@
+package com.oneops.infoblox.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IP address parsing and formatting tests.
+ *
+ * @author Suresh G
+ */
+@DisplayName("IP address utils tests.")
+class IPAddrsTest {
+
+  @Test
+  void ipv4() {
+    assertTrue(IPAddrs.isIPv4("10.1.2.3"));
+    assertTrue(IPAddrs.isIPv4("0.0.0.0"));
+    assertTrue(IPAddrs.isIPv4("255.255.255.255"));
+    assertTrue(IPAddrs.isIPv4("010.001.2.3"));
+    for (String ip :
+        new String[] {
+          "", "10.1.2", "10.1.2.3.4", "10.1.2.256", "10.1.2.", ".10.1.2", "10..1.2", "10.1.2.0003",
+          "10.1.2.a", " 10.1.2.3", "10.1.2.3 ", "::1", "١٠.1.2.3"
+        }) {
+      assertFalse(IPAddrs.isIPv4(ip), ip);
+      assertThrows(IllegalArgumentException.class, () -> IPAddrs.requireIPv4(ip), ip);
+    }
+
+    assertEquals(0x0A010203, IPAddrs.parseIPv4("10.1.2.3"));
+    assertEquals(0xFFFFFFFF, IPAddrs.parseIPv4("255.255.255.255"));
+    assertEquals("10.1.2.3", IPAddrs.formatIPv4(0x0A010203));
+    assertEquals("255.255.255.255", IPAddrs.formatIPv4(-1));
+    assertEquals("10.1.2.3", IPAddrs.canonical("010.001.002.003"));
+  }
+
+  @Test
+  void ipv6() {
+    for (String ip :
+        new String[] {
+          "2001:db8:85a3:0:0:8a2e:370:7334",
+          "2001:DB8:85A3::8A2E:370:7334",
+          "2001:db8::1",
+          "::",
+          "::1",
+          "1::",
+          "1:2:3:4:5:6:7::",
+          "::2:3:4:5:6:7:8",
+          "::ffff:10.1.2.3",
+          "64:ff9b::192.0.2.33",
+          "1:2:3:4:5:6:10.1.2.3",
+          "0000:0000:0000:0000:0000:0000:0000:0001"
+        }) {
+      assertTrue(IPAddrs.isIPv6(ip), ip);
+      IPAddrs.requireIPv6(ip);
+    }
+    for (String ip :
+        new String[] {
+          "",
+          ":",
+          ":::",
+          "1:2:3:4:5:6:7",
+          "1:2:3:4:5:6:7:8:9",
+          "1:2:3:4:5:6:7:8::",
+          "::1:2:3:4:5:6:7:8",
+          "1::2::3",
+          "1:",
+          ":1",
+          "1:2:3:4:5:6:7:8:",
+          "12345::",
+          "g::1",
+          "::10.1.2",
+          "::10.1.2.3:1",
+          "1:2:3:4:5:6:7:10.1.2.3",
+          "10.1.2.3",
+          "fe80::1%eth0"
+        }) {
+      assertFalse(IPAddrs.isIPv6(ip), ip);
+      assertThrows(IllegalArgumentException.class, () -> IPAddrs.requireIPv6(ip), ip);
+    }
+
+    assertArrayEquals(new long[] {0x20010db800000000L, 1}, IPAddrs.parseIPv6("2001:db8::1"));
+    assertArrayEquals(new long[] {0, 0xFFFF0A010203L}, IPAddrs.parseIPv6("::ffff:10.1.2.3"));
+    assertArrayEquals(
+        new long[] {-1, -1}, IPAddrs.parseIPv6("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"));
+    long[] addr = new long[2];
+    assertTrue(IPAddrs.parseIPv6("1::", addr));
+    assertArrayEquals(new long[] {0x0001000000000000L, 0}, addr);
+  }
+
+  @Test
+  void canonical() {
+    // RFC 5952, section 4 and 5.
+    assertEquals("2001:db8::1", IPAddrs.canonical("2001:0db8:0000:0000:0000:0000:0000:0001"));
+    assertEquals("2001:db8::1:0:0:1", IPAddrs.canonical("2001:db8:0:0:1:0:0:1"));
+    assertEquals("2001:db8:0:1:1:1:1:1", IPAddrs.canonical("2001:db8::1:1:1:1:1"));
+    assertEquals("2001:0:0:1::1", IPAddrs.canonical("2001:0:0:1:0:0:0:1"));
+    assertEquals("2001:db8::aaaa:0:0:1", IPAddrs.canonical("2001:DB8:0:0:AAAA::1"));
+    assertEquals("::", IPAddrs.canonical("0:0:0:0:0:0:0:0"));
+    assertEquals("::1", IPAddrs.canonical("0:0:0:0:0:0:0:1"));
+    assertEquals("1::", IPAddrs.canonical("1:0:0:0:0:0:0:0"));
+    assertEquals("::ffff:10.1.2.3", IPAddrs.canonical("::FFFF:0A01:0203"));
+    assertThrows(IllegalArgumentException.class, () -> IPAddrs.canonical("oneops.com"));
+  }
+
+  @Test
+  void cidrPrefix() {
+    assertEquals(16, IPAddrs.cidrPrefix("10.1.0.0/16"));
+    assertEquals(0, IPAddrs.cidrPrefix("0.0.0.0/0"));
+    assertEquals(32, IPAddrs.cidrPrefix("10.1.2.3/32"));
+    assertEquals(128, IPAddrs.cidrPrefix("2001:db8::1/128"));
+    assertEquals(32, IPAddrs.cidrPrefix("2001:db8::/32"));
+    for (String cidr :
+        new String[] {
+          "10.1.0.0", "10.1.0.0/", "10.1.0.0/33", "10.1.0/16", "::/129", "::/1a", "/8", "::/0001"
+        }) {
+      assertThrows(IllegalArgumentException.class, () -> IPAddrs.cidrPrefix(cidr), cidr);
+    }
+  }
+
+  @Test
+  void sameAsInetAddress() throws UnknownHostException {
+    Random rand = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      byte[] bytes = new byte[16];
+      rand.nextBytes(bytes);
+      // Zero runs, to cover the compressed forms.
+      int zeros = rand.nextInt(16);
+      for (int j = rand.nextInt(16 - zeros); zeros-- > 0; j++) {
+        bytes[j] = 0;
+      }
+      ByteBuffer buf = ByteBuffer.wrap(bytes);
+      long hi = buf.getLong(0);
+      long lo = buf.getLong(8);
+      String ip = IPAddrs.formatIPv6(hi, lo);
+      assertArrayEquals(new long[] {hi, lo}, IPAddrs.parseIPv6(ip), ip);
+
+      InetAddress addr = InetAddress.getByAddress(bytes);
+      if (addr instanceof Inet6Address) {
+        assertArrayEquals(new long[] {hi, lo}, IPAddrs.parseIPv6(addr.getHostAddress()), ip);
+        assertEquals(addr, InetAddress.getByName(ip));
+        assertEquals(addr, IPAddrs.toInetAddress(ip));
+      }
+
+      int ipv4 = rand.nextInt();
+      String ipv4Str = IPAddrs.formatIPv4(ipv4);
+      assertEquals(ipv4, IPAddrs.parseIPv4(ipv4Str));
+      assertEquals(InetAddress.getByName(ipv4Str), IPAddrs.toInetAddress(ipv4Str));
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.oneops.infoblox.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oneops.infoblox.InfobloxClient;
+import com.oneops.infoblox.WapiType;
+import com.oneops.infoblox.fake.FakeInfoblox;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JFR event tests, run only on JDK 11+.
+ *
+ * @author Suresh G
+ */
+@DisplayName("Infoblox JFR event tests.")
+class JfrEventsTest {
+
+  private static final String DOMAIN = "jfr.oneops.com";
+
+  private FakeInfoblox fake;
+  private InfobloxClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fake = FakeInfoblox.start("admin", "infoblox");
+    client = fake.newClient();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    fake.close();
+  }
+
+  private List<RecordedEvent> record(IOAction action) throws IOException {
+    Path file = Files.createTempFile("infoblox", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("com.oneops.infoblox.Request").withThreshold(Duration.ZERO);
+      recording.enable("com.oneops.infoblox.Decode").withThreshold(Duration.ZERO);
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+    return events
+        .stream()
+        .filter(e -> e.getEventType().getName().equals(name))
+        .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * All the events are checked in a single recording, as the JFR string pool is shared by the
+   * recordings of a JVM.
+   */
+  @Test
+  void events() throws IOException {
+    assertTrue(JfrEvents.isAvailable());
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              for (int i = 0; i < 5; i++) {
+                client.createARec("a" + i + "." + DOMAIN, "10.1.1." + i);
+              }
+              client.getARec("a1." + DOMAIN);
+              try (Stream<?> recs = client.stream(WapiType.A, Collections.emptyMap(), 2)) {
+                assertEquals(5, recs.count());
+              }
+            });
+
+    List<RecordedEvent> requests = events(events, "com.oneops.infoblox.Request");
+    assertEquals(9, requests.size());
+    RecordedEvent get = requests.get(5);
+    assertEquals("GET", get.getString("method"));
+    assertEquals("record:a", get.getString("object"));
+    assertEquals(200, get.getInt("status"));
+    assertEquals(1, get.getInt("records"));
+    assertTrue(get.getDuration().toNanos() > 0);
+    assertTrue(requests.get(8).getString("pageId") != null);
+
+    List<RecordedEvent> decodes = events(events, "com.oneops.infoblox.Decode");
+    assertEquals(9, decodes.size());
+    RecordedEvent decode = decodes.get(5);
+    assertEquals("Result<List<ARec>>", decode.getString("type"));
+    assertEquals("record:a", decode.getString("object"));
+    assertEquals(1, decode.getInt("records"));
+    assertTrue(decode.getLong("bytes") > 0);
+
+    // Paged query decoding
+    List<RecordedEvent> pages = decodes.subList(6, 9);
+    assertEquals(5, pages.stream().mapToInt(e -> e.getInt("records")).sum());
+    assertTrue(pages.get(0).getString("nextPageId") != null);
+  }
+
+  @FunctionalInterface
+  private interface IOAction {
+    void run() throws IOException;
+  }
+}